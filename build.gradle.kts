@@ -208,6 +208,9 @@ dependencies {
     // since jna is a transitive runtime dependency of opus-java we don't include it explicitly as dependency
     compileOnly(libs.jna)
 
+    //Optional zstd-stream transport compression, users have to add zstd-jni themselves to enable it
+    compileOnly(libs.zstd.jni)
+
     /* Internal dependencies */
 
     //General Utility
@@ -233,6 +236,7 @@ dependencies {
     testImplementation(libs.commons.lang3)
     testImplementation(libs.logback.classic)
     testImplementation(libs.archunit)
+    testImplementation(libs.zstd.jni)
 
     testJava8Implementation(libs.bundles.junit.java8)
     testJava8Implementation(libs.assertj)
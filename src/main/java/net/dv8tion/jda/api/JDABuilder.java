@@ -28,14 +28,17 @@ import net.dv8tion.jda.api.exceptions.InvalidTokenException;
 import net.dv8tion.jda.api.hooks.IEventManager;
 import net.dv8tion.jda.api.hooks.VoiceDispatchInterceptor;
 import net.dv8tion.jda.api.requests.GatewayIntent;
+import net.dv8tion.jda.api.requests.HttpProfile;
 import net.dv8tion.jda.api.requests.RestAction;
 import net.dv8tion.jda.api.requests.RestConfig;
 import net.dv8tion.jda.api.utils.*;
 import net.dv8tion.jda.api.utils.cache.CacheFlag;
+import net.dv8tion.jda.api.utils.cache.StringPool;
 import net.dv8tion.jda.internal.JDAImpl;
 import net.dv8tion.jda.internal.managers.PresenceImpl;
 import net.dv8tion.jda.internal.utils.Checks;
 import net.dv8tion.jda.internal.utils.IOUtil;
+import net.dv8tion.jda.internal.utils.compress.ZstdDecompressor;
 import net.dv8tion.jda.internal.utils.config.AuthorizationConfig;
 import net.dv8tion.jda.internal.utils.config.MetaConfig;
 import net.dv8tion.jda.internal.utils.config.SessionConfig;
@@ -93,11 +96,13 @@ public class JDABuilder {
     protected boolean idle = false;
     protected int maxReconnectDelay = 900;
     protected int largeThreshold = 250;
+    protected int dispatchLanes = 0;
     protected int maxBufferSize = 2048;
     protected int intents = -1; // don't use intents by default
     protected EnumSet<ConfigFlag> flags = ConfigFlag.getDefault();
     protected ChunkingFilter chunkingFilter = ChunkingFilter.ALL;
     protected MemberCachePolicy memberCachePolicy = MemberCachePolicy.ALL;
+    protected StringPool stringPool = null;
     protected GatewayEncoding encoding = GatewayEncoding.JSON;
     protected RestConfig restConfig = new RestConfig();
     protected AudioModuleConfig audioModuleConfig = null;
@@ -687,6 +692,29 @@ public class JDABuilder {
         return this;
     }
 
+    /**
+     * Sets the {@link StringPool} used to deduplicate strings of cached entities.
+     * <br>Role names, as well as the names, states, and image keys of activities,
+     * are replaced with equal instances from the pool.
+     * This reduces the memory usage of large caches, in which the same strings are held by thousands of entities.
+     *
+     * <p>The {@link StringPool#getHitRate() hit rate} of the pool shows how many strings were deduplicated.
+     *
+     * <p>Default: {@code null} (disabled)
+     *
+     * @param  pool
+     *         The pool to use, or null to disable deduplication
+     *
+     * @return The JDABuilder instance. Useful for chaining.
+     *
+     * @see    StringPool
+     */
+    @Nonnull
+    public JDABuilder setStringPool(@Nullable StringPool pool) {
+        this.stringPool = pool;
+        return this;
+    }
+
     /**
      * Sets the {@link org.slf4j.MDC MDC} mappings to use in JDA.
      * <br>If sharding is enabled JDA will automatically add a {@code jda.shard} context with the format {@code [SHARD_ID / TOTAL]}
@@ -734,6 +762,7 @@ public class JDABuilder {
      * this will decrease the amount of used bandwidth for the running bot instance
      * for the cost of a few extra cycles for decompression.
      * Compression can be entirely disabled by setting this to {@link net.dv8tion.jda.api.utils.Compression#NONE}.
+     * <br>Using {@link net.dv8tion.jda.api.utils.Compression#ZSTD} requires the zstd-jni library to be available.
      * <br><b>Default: {@link net.dv8tion.jda.api.utils.Compression#ZLIB}</b>
      *
      * <p><b>We recommend to keep this on the default unless you have issues with the decompression.</b>
@@ -743,7 +772,7 @@ public class JDABuilder {
      *         The compression algorithm to use with the gateway connection
      *
      * @throws java.lang.IllegalArgumentException
-     *         If provided with null
+     *         If provided with null, or with {@link net.dv8tion.jda.api.utils.Compression#ZSTD} while zstd-jni is not available
      *
      * @return The JDABuilder instance. Useful for chaining
      *
@@ -752,6 +781,9 @@ public class JDABuilder {
     @Nonnull
     public JDABuilder setCompression(@Nonnull Compression compression) {
         Checks.notNull(compression, "Compression");
+        Checks.check(
+                compression != Compression.ZSTD || ZstdDecompressor.isAvailable(),
+                "Cannot use ZSTD compression without zstd-jni in the classpath");
         this.compression = compression;
         return this;
     }
@@ -1135,6 +1167,111 @@ public class JDABuilder {
         return setFlag(ConfigFlag.BULK_DELETE_SPLIT, enabled);
     }
 
+    /**
+     * Whether JDA should use optimistic reads for lookups by id in the user, guild, member, and role caches.
+     * <br>Optimistic reads do not acquire the read-lock of the cache, which reduces contention between threads
+     * that frequently access the same cache. If a concurrent update is detected, the lookup is retried with the read-lock.
+     *
+     * <p>This only affects single element lookups such as {@link net.dv8tion.jda.api.JDA#getUserById(long) JDA.getUserById(long)}
+     * or {@link net.dv8tion.jda.api.entities.Guild#getMemberById(long) Guild.getMemberById(long)}.
+     * Iteration and other bulk operations still use the read-lock.
+     *
+     * <p>Default: <b>false (disabled)</b>
+     *
+     * @param  enable
+     *         True, if cache lookups should use optimistic reads
+     *
+     * @return The JDABuilder instance. Useful for chaining.
+     */
+    @Nonnull
+    public JDABuilder setOptimisticCacheReadsEnabled(boolean enable) {
+        return setFlag(ConfigFlag.OPTIMISTIC_CACHE_READS, enable);
+    }
+
+    /**
+     * Whether JDA should move members and users, which exceed a fixed number per cache, into off-heap storage.
+     * <br>This keeps the scalar fields of these entities, such as names, timestamps, flags, and role ids, in direct memory
+     * outside the java heap. Entities are materialized again when they are accessed by id, and stay on the heap until
+     * they are displaced by other entities. This reduces heap usage and garbage collection pauses for bots with millions of cached members.
+     *
+     * <p>Iterating the member or user cache materializes stored entities as new objects each time, which makes
+     * iteration more expensive and means these objects should not be retained. Lookups by id always return the current instance.
+     *
+     * <p>Default: <b>false (disabled)</b>
+     *
+     * @param  enable
+     *         True, if members and users should be stored off-heap
+     *
+     * @return The JDABuilder instance. Useful for chaining.
+     */
+    @Nonnull
+    public JDABuilder setOffHeapCacheEnabled(boolean enable) {
+        return setFlag(ConfigFlag.OFF_HEAP_CACHE, enable);
+    }
+
+    /**
+     * Whether JDA should maintain case-insensitive indexes of member and user names.
+     * <br>The indexes are used by name lookups such as {@link net.dv8tion.jda.api.entities.Guild#getMembersByName(String, boolean) Guild.getMembersByName(String, boolean)}
+     * or {@link net.dv8tion.jda.api.JDA#getUsersByName(String, boolean) JDA.getUsersByName(String, boolean)},
+     * which no longer have to check every cached member or user. They also enable efficient prefix searches with
+     * {@link net.dv8tion.jda.api.utils.cache.MemberCacheView#getElementsByPrefix(String, int) MemberCacheView.getElementsByPrefix(String, int)},
+     * for instance to suggest members in autocomplete interactions.
+     *
+     * <p>The indexes are updated incrementally, but increase the memory usage of the member and user cache.
+     *
+     * <p>Default: <b>false (disabled)</b>
+     *
+     * @param  enable
+     *         True, if member and user names should be indexed
+     *
+     * @return The JDABuilder instance. Useful for chaining.
+     */
+    @Nonnull
+    public JDABuilder setNameIndexEnabled(boolean enable) {
+        return setFlag(ConfigFlag.NAME_INDEX, enable);
+    }
+
+    /**
+     * Whether JDA should maintain an index of the members holding each role.
+     * <br>The index is used by {@link net.dv8tion.jda.api.entities.Guild#getMembersWithRoles(net.dv8tion.jda.api.entities.Role...) Guild.getMembersWithRoles(Role...)}
+     * and {@link net.dv8tion.jda.api.utils.cache.MemberCacheView#countElementsWithRoles(net.dv8tion.jda.api.entities.Role...) MemberCacheView.countElementsWithRoles(Role...)},
+     * which no longer have to check the roles of every cached member.
+     *
+     * <p>The index is updated with every role change, but increases the memory usage of the member cache.
+     *
+     * <p>Default: <b>false (disabled)</b>
+     *
+     * @param  enable
+     *         True, if the members of each role should be indexed
+     *
+     * @return The JDABuilder instance. Useful for chaining.
+     */
+    @Nonnull
+    public JDABuilder setRoleIndexEnabled(boolean enable) {
+        return setFlag(ConfigFlag.ROLE_INDEX, enable);
+    }
+
+    /**
+     * Whether JDA should use virtual threads for the rate-limit elastic pool and the callback pool.
+     * <br>With virtual threads, requests and callbacks that block, such as {@link net.dv8tion.jda.api.requests.RestAction#complete() RestAction.complete()},
+     * no longer occupy an operating system thread while waiting.
+     *
+     * <p>This only replaces pools which are not configured explicitly, and does not affect the event pool,
+     * since events are dispatched in order.
+     * Virtual threads require Java 21 or newer. On older runtimes, JDA logs a warning and uses the regular platform thread pools instead.
+     *
+     * <p>Default: <b>false (disabled)</b>
+     *
+     * @param  enable
+     *         True, if JDA should use virtual threads where possible
+     *
+     * @return The JDABuilder instance. Useful for chaining.
+     */
+    @Nonnull
+    public JDABuilder setVirtualThreadsEnabled(boolean enable) {
+        return setFlag(ConfigFlag.VIRTUAL_THREADS, enable);
+    }
+
     /**
      * Enables/Disables the use of a Shutdown hook to clean up JDA.
      * <br>When the Java program closes shutdown hooks are run. This is used as a last-second cleanup
@@ -1368,6 +1505,38 @@ public class JDABuilder {
         return this;
     }
 
+    /**
+     * Sets the amount of lanes used to process gateway events in parallel.
+     * <br>Events are partitioned by their guild id, so all events of one guild are handled in order on the same lane,
+     * while events of different guilds are handled concurrently.
+     *
+     * <p>Events that are not related to a specific guild are handled on the main WebSocket thread.
+     * Events that change the guild setup (such as {@code GUILD_CREATE} and member chunks) are handled on the
+     * main WebSocket thread once all lanes have finished their queued events.
+     * The same applies to all guild events while guilds are still being set up.
+     * Since users are shared between guilds, user update events can be fired by any lane.
+     *
+     * <p>Each lane uses its own thread, which also invokes the event listeners for the events of that lane,
+     * unless an event pool is configured. This means listeners can be called concurrently for different guilds.
+     * Events of one guild are received in order, but events of different guilds are not ordered relative to each other.
+     *
+     * <p>Default: {@code 0} (disabled)
+     *
+     * @param  lanes
+     *         The amount of dispatch lanes, or {@code 0} to handle all events on the main WebSocket thread
+     *
+     * @throws java.lang.IllegalArgumentException
+     *         If the provided amount is negative
+     *
+     * @return The JDABuilder instance. Useful for chaining.
+     */
+    @Nonnull
+    public JDABuilder setDispatchLanes(int lanes) {
+        Checks.notNegative(lanes, "Dispatch lanes");
+        this.dispatchLanes = lanes;
+        return this;
+    }
+
     /**
      * This will enable sharding mode for JDA.
      * <br>In sharding mode, guilds are split up and assigned one of multiple shards (clients).
@@ -1742,7 +1911,10 @@ public class JDABuilder {
         OkHttpClient httpClient = this.httpClient;
         if (httpClient == null) {
             if (this.httpClientBuilder == null) {
-                this.httpClientBuilder = IOUtil.newHttpClientBuilder();
+                HttpProfile profile = restConfig.getHttpProfile();
+                this.httpClientBuilder = profile == null
+                        ? IOUtil.newHttpClientBuilder()
+                        : profile.newHttpClientBuilder(shardInfo == null ? 1 : shardInfo.getShardTotal());
             }
             httpClient = this.httpClientBuilder.build();
         }
@@ -1761,13 +1933,22 @@ public class JDABuilder {
         threadingConfig.setRateLimitElastic(rateLimitElastic, shutdownRateLimitElastic);
         threadingConfig.setEventPool(eventPool, shutdownEventPool);
         threadingConfig.setAudioPool(audioPool, shutdownAudioPool);
+        threadingConfig.setVirtualThreads(flags.contains(ConfigFlag.VIRTUAL_THREADS));
         SessionConfig sessionConfig = new SessionConfig(
-                controller, httpClient, wsFactory, voiceDispatchInterceptor, flags, maxReconnectDelay, largeThreshold);
+                controller,
+                httpClient,
+                wsFactory,
+                voiceDispatchInterceptor,
+                flags,
+                maxReconnectDelay,
+                largeThreshold,
+                dispatchLanes);
         MetaConfig metaConfig = new MetaConfig(maxBufferSize, contextMap, cacheFlags, flags);
 
         JDAImpl jda =
                 new JDAImpl(authConfig, sessionConfig, threadingConfig, metaConfig, restConfig, audioModuleConfig);
         jda.setMemberCachePolicy(memberCachePolicy);
+        jda.setStringPool(stringPool);
         // We can only do member chunking with the GUILD_MEMBERS intent
         if ((intents & GatewayIntent.GUILD_MEMBERS.getRawValue()) == 0) {
             jda.setChunkingFilter(ChunkingFilter.NONE);
@@ -23,12 +23,13 @@ import net.dv8tion.jda.internal.utils.JDALogger;
 import org.jetbrains.annotations.Unmodifiable;
 import org.slf4j.Logger;
 
-import java.lang.reflect.InvocationTargetException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.CopyOnWriteArrayList;
 
 import javax.annotation.Nonnull;
 
@@ -54,8 +55,13 @@ import javax.annotation.Nonnull;
  */
 public class AnnotatedEventManager implements IEventManager {
     private static final Logger LOGGER = JDALogger.getLog(AnnotatedEventManager.class);
+    private static final MethodType INVOKER_TYPE = MethodType.methodType(void.class, GenericEvent.class);
+
     private final Set<Object> listeners = ConcurrentHashMap.newKeySet();
-    private final Map<Class<?>, Map<Object, List<Method>>> methods = new ConcurrentHashMap<>();
+    // Subscribers by the declared event type, guarded by this
+    private final Map<Class<?>, List<Subscriber>> subscribers = new HashMap<>();
+    // Subscribers by concrete event class, including subscriptions of super types
+    private final Map<Class<?>, Subscriber[]> dispatchTable = new ConcurrentHashMap<>();
 
     @Override
     public void register(@Nonnull Object listener) {
@@ -81,7 +87,7 @@ public class AnnotatedEventManager implements IEventManager {
         }
 
         if (listeners.remove(listener)) {
-            updateMethods();
+            unregisterListenerMethods(listener);
         }
     }
 
@@ -94,43 +100,73 @@ public class AnnotatedEventManager implements IEventManager {
 
     @Override
     public void handle(@Nonnull GenericEvent event) {
-        for (Class<?> eventClass : ClassWalker.walk(event.getClass())) {
-            Map<Object, List<Method>> listeners = methods.get(eventClass);
-            if (listeners != null) {
-                listeners.forEach((key, value) -> value.forEach(method -> {
-                    try {
-                        method.setAccessible(true);
-                        method.invoke(key, event);
-                    } catch (IllegalAccessException | InvocationTargetException e1) {
-                        JDAImpl.LOG.error("Couldn't access annotated EventListener method", e1);
-                    } catch (Throwable throwable) {
-                        JDAImpl.LOG.error("One of the EventListeners had an uncaught exception", throwable);
-                        if (throwable instanceof Error) {
-                            throw (Error) throwable;
-                        }
-                    }
-                }));
+        Subscriber[] subscribers = dispatchTable.get(event.getClass());
+        if (subscribers == null) {
+            subscribers = getSubscribers(event.getClass());
+        }
+
+        for (Subscriber subscriber : subscribers) {
+            try {
+                subscriber.invoker.invokeExact(event);
+            } catch (Throwable throwable) {
+                JDAImpl.LOG.error("One of the EventListeners had an uncaught exception", throwable);
+                if (throwable instanceof Error) {
+                    throw (Error) throwable;
+                }
             }
         }
     }
 
-    private void updateMethods() {
-        methods.clear();
-        for (Object listener : listeners) {
-            registerListenerMethods(listener);
+    private synchronized Subscriber[] getSubscribers(Class<?> eventClass) {
+        return dispatchTable.computeIfAbsent(eventClass, this::collectSubscribers);
+    }
+
+    private Subscriber[] collectSubscribers(Class<?> eventClass) {
+        List<Subscriber> collected = new ArrayList<>();
+        for (Class<?> type : ClassWalker.walk(eventClass)) {
+            List<Subscriber> list = subscribers.get(type);
+            if (list != null) {
+                collected.addAll(list);
+            }
+        }
+        return collected.toArray(new Subscriber[0]);
+    }
+
+    // Rebuilds the dispatch table entries of all event classes that are affected by the changed event types
+    private void updateDispatchTable(Set<Class<?>> changedTypes) {
+        for (Class<?> eventClass : dispatchTable.keySet()) {
+            for (Class<?> changedType : changedTypes) {
+                if (changedType.isAssignableFrom(eventClass)) {
+                    dispatchTable.put(eventClass, collectSubscribers(eventClass));
+                    break;
+                }
+            }
         }
     }
 
-    private void registerListenerMethods(Object listener) {
+    private synchronized void unregisterListenerMethods(Object listener) {
+        Set<Class<?>> changedTypes = new HashSet<>();
+        subscribers.entrySet().removeIf(entry -> {
+            if (entry.getValue().removeIf(subscriber -> listener.equals(subscriber.listener))) {
+                changedTypes.add(entry.getKey());
+            }
+            return entry.getValue().isEmpty();
+        });
+        updateDispatchTable(changedTypes);
+    }
+
+    private synchronized void registerListenerMethods(Object listener) {
         boolean isClass = listener instanceof Class;
         Class<?> c = isClass ? (Class<?>) listener : listener.getClass();
         Method[] allMethods = c.getDeclaredMethods();
+        Set<Class<?>> changedTypes = new HashSet<>();
         for (Method m : allMethods) {
             if (!m.isAnnotationPresent(SubscribeEvent.class)) {
                 continue;
             }
             // Skip member methods if listener is a Class
-            if (isClass && !Modifier.isStatic(m.getModifiers())) {
+            boolean isStatic = Modifier.isStatic(m.getModifiers());
+            if (isClass && !isStatic) {
                 continue;
             }
 
@@ -143,10 +179,36 @@ public class AnnotatedEventManager implements IEventManager {
                 continue;
             }
 
+            MethodHandle invoker;
+            try {
+                m.setAccessible(true);
+                invoker = MethodHandles.lookup().unreflect(m);
+                if (!isStatic) {
+                    invoker = invoker.bindTo(listener);
+                }
+                invoker = invoker.asType(INVOKER_TYPE);
+            } catch (IllegalAccessException | RuntimeException e) {
+                JDAImpl.LOG.error("Couldn't access annotated EventListener method", e);
+                continue;
+            }
+
             Class<?> eventClass = parameterTypes[0];
-            methods.computeIfAbsent(eventClass, k -> new ConcurrentHashMap<>())
-                    .computeIfAbsent(listener, k -> new CopyOnWriteArrayList<>())
-                    .add(m);
+            subscribers
+                    .computeIfAbsent(eventClass, k -> new ArrayList<>())
+                    .add(new Subscriber(listener, invoker));
+            changedTypes.add(eventClass);
+        }
+        updateDispatchTable(changedTypes);
+    }
+
+    private static class Subscriber {
+        private final Object listener;
+        // Accepts the event as its only parameter, with the listener already bound for member methods
+        private final MethodHandle invoker;
+
+        private Subscriber(Object listener, MethodHandle invoker) {
+            this.listener = listener;
+            this.invoker = invoker;
         }
     }
 }
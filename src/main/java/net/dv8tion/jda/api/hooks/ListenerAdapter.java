@@ -105,7 +105,9 @@ import net.dv8tion.jda.internal.utils.ClassWalker;
 import java.lang.invoke.MethodHandle;
 import java.lang.invoke.MethodHandles;
 import java.lang.invoke.MethodType;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.List;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
@@ -666,6 +668,14 @@ public abstract class ListenerAdapter implements EventListener {
     private static final MethodHandles.Lookup lookup = MethodHandles.lookup();
     private static final ConcurrentMap<Class<?>, MethodHandle> methods = new ConcurrentHashMap<>();
     private static final Set<Class<?>> unresolved;
+    // Handlers overridden by each ListenerAdapter subclass, by event class
+    private static final ClassValue<ConcurrentMap<Class<?>, MethodHandle[]>> dispatchTables =
+            new ClassValue<ConcurrentMap<Class<?>, MethodHandle[]>>() {
+                @Override
+                protected ConcurrentMap<Class<?>, MethodHandle[]> computeValue(Class<?> type) {
+                    return new ConcurrentHashMap<>();
+                }
+            };
 
     static {
         unresolved = ConcurrentHashMap.newKeySet();
@@ -673,28 +683,19 @@ public abstract class ListenerAdapter implements EventListener {
                 unresolved,
                 Object.class, // Objects aren't events
                 Event.class, // onEvent is final and would never be found
-                UpdateEvent.class, // onGenericUpdate has already been called
-                GenericEvent.class // onGenericEvent has already been called
+                UpdateEvent.class, // onGenericUpdate is handled separately
+                GenericEvent.class // onGenericEvent is handled separately
                 );
     }
 
     @Override
     public final void onEvent(@Nonnull GenericEvent event) {
-        onGenericEvent(event);
-        if (event instanceof UpdateEvent) {
-            onGenericUpdate((UpdateEvent<?, ?>) event);
-        }
-
-        for (Class<?> clazz : ClassWalker.range(event.getClass(), GenericEvent.class)) {
-            if (unresolved.contains(clazz)) {
-                continue;
-            }
-            MethodHandle mh = methods.computeIfAbsent(clazz, ListenerAdapter::findMethod);
-            if (mh == null) {
-                unresolved.add(clazz);
-                continue;
-            }
+        Class<? extends ListenerAdapter> adapterClass = getClass();
+        MethodHandle[] handlers = dispatchTables
+                .get(adapterClass)
+                .computeIfAbsent(event.getClass(), eventClass -> findHandlers(adapterClass, eventClass));
 
+        for (MethodHandle mh : handlers) {
             try {
                 mh.invoke(this, event);
             } catch (Throwable throwable) {
@@ -709,13 +710,63 @@ public abstract class ListenerAdapter implements EventListener {
         }
     }
 
-    private static MethodHandle findMethod(Class<?> clazz) {
+    // Collects the handlers for the event class in order of invocation,
+    // skipping all methods that are not overridden since they are no-ops
+    private static MethodHandle[] findHandlers(Class<?> adapterClass, Class<?> eventClass) {
+        List<MethodHandle> handlers = new ArrayList<>();
+        addIfOverridden(handlers, adapterClass, GenericEvent.class, "onGenericEvent");
+        if (UpdateEvent.class.isAssignableFrom(eventClass)) {
+            addIfOverridden(handlers, adapterClass, UpdateEvent.class, "onGenericUpdate");
+        }
+
+        for (Class<?> clazz : ClassWalker.range(eventClass, GenericEvent.class)) {
+            if (unresolved.contains(clazz)) {
+                continue;
+            }
+            MethodHandle mh = methods.computeIfAbsent(clazz, ListenerAdapter::findMethod);
+            if (mh == null) {
+                unresolved.add(clazz);
+                continue;
+            }
+            if (isOverridden(adapterClass, clazz, getMethodName(clazz))) {
+                handlers.add(mh);
+            }
+        }
+
+        return handlers.toArray(new MethodHandle[0]);
+    }
+
+    private static void addIfOverridden(
+            List<MethodHandle> handlers, Class<?> adapterClass, Class<?> eventClass, String name) {
+        if (!isOverridden(adapterClass, eventClass, name)) {
+            return;
+        }
+        try {
+            handlers.add(lookup.findVirtual(
+                    ListenerAdapter.class, name, MethodType.methodType(Void.TYPE, eventClass)));
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static boolean isOverridden(Class<?> adapterClass, Class<?> eventClass, String name) {
+        try {
+            return adapterClass.getMethod(name, eventClass).getDeclaringClass() != ListenerAdapter.class;
+        } catch (NoSuchMethodException e) {
+            return false;
+        }
+    }
+
+    private static String getMethodName(Class<?> clazz) {
         String name = clazz.getSimpleName();
+        return "on" + name.substring(0, name.length() - "Event".length());
+    }
+
+    private static MethodHandle findMethod(Class<?> clazz) {
         MethodType type = MethodType.methodType(Void.TYPE, clazz);
         try {
-            name = "on" + name.substring(0, name.length() - "Event".length());
-            return lookup.findVirtual(ListenerAdapter.class, name, type);
-        } catch (NoSuchMethodException | IllegalAccessException ignored) {
+            return lookup.findVirtual(ListenerAdapter.class, getMethodName(clazz), type);
+        } catch (NoSuchMethodException | IllegalAccessException | StringIndexOutOfBoundsException ignored) {
         } // this means this is probably a custom event!
         return null;
     }
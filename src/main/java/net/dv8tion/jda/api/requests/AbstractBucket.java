@@ -0,0 +1,297 @@
+/*
+ * Copyright 2015 Austin Keener, Michael Ritter, Florian Spieß, and the JDA contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.dv8tion.jda.api.requests;
+
+import net.dv8tion.jda.internal.utils.JDALogger;
+import okhttp3.Response;
+import org.slf4j.Logger;
+
+import java.util.Deque;
+import java.util.Queue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Shared rate limit state and request execution of the buckets in {@link SequentialRestRateLimiter}
+ * and {@link ConcurrentRestRateLimiter}.
+ *
+ * <p>Requests are executed with {@link RestRateLimiter.Work#executeAsync()}.
+ * If the response is not available immediately, the worker of the bucket is released
+ * and the bucket continues with {@link #run()} once the response arrives.
+ */
+abstract class AbstractBucket implements Runnable {
+    private static final Logger log = JDALogger.getLog(RestRateLimiter.class);
+
+    protected final RestRateLimiter.RateLimitConfig config;
+    protected final String bucketId;
+    protected final Deque<RestRateLimiter.Work> requests = new ConcurrentLinkedDeque<>();
+    // Only cloudflare bans apply to interactions
+    private final boolean interaction;
+
+    protected volatile long reset = 0;
+    protected volatile int remaining = 1;
+    // Learned limit and window duration, used to pace requests
+    protected volatile int limit = 0;
+    protected volatile long window = 0;
+    protected volatile long nextRequest = 0;
+
+    protected AbstractBucket(
+            @Nonnull RestRateLimiter.RateLimitConfig config, @Nonnull String bucketId, boolean interaction) {
+        this.config = config;
+        this.bucketId = bucketId;
+        this.interaction = interaction;
+    }
+
+    /**
+     * Updates the rate limit of the bucket for the route with the received response.
+     *
+     * @param route
+     *        The route of the request
+     * @param response
+     *        The response
+     */
+    protected abstract void updateRateLimit(@Nonnull Route.CompiledRoute route, @Nonnull Response response);
+
+    /**
+     * Moves the request to its correct bucket, if the bucket for its route has changed.
+     *
+     * @param  request
+     *         The request to move
+     *
+     * @return True, if the request was moved to another bucket
+     */
+    protected abstract boolean moveRequest(@Nonnull RestRateLimiter.Work request);
+
+    /**
+     * Releases the worker of this bucket and schedules it again if requests are queued.
+     */
+    protected abstract void backoff();
+
+    public boolean isUninit() {
+        return bucketId.startsWith(AbstractRestRateLimiter.UNINIT_BUCKET);
+    }
+
+    /**
+     * Adds the request back to the front of the queue, or moves it to its correct bucket.
+     *
+     * @param request
+     *        The request to retry
+     */
+    public void retry(@Nonnull RestRateLimiter.Work request) {
+        if (!moveRequest(request)) {
+            requests.addFirst(request);
+        }
+    }
+
+    @Nonnull
+    public Queue<RestRateLimiter.Work> getRequests() {
+        return requests;
+    }
+
+    public void update(int remaining, long reset) {
+        this.reset = reset;
+        this.remaining = remaining;
+    }
+
+    public long getReset() {
+        return reset;
+    }
+
+    public int getRemaining() {
+        return remaining;
+    }
+
+    public long getGlobalRateLimit(long now) {
+        RestRateLimiter.GlobalRateLimit holder = config.getGlobalRateLimit();
+        long global = interaction ? holder.getCloudflare() : Math.max(holder.getClassic(), holder.getCloudflare());
+        return global - now;
+    }
+
+    protected boolean isGlobalRateLimit() {
+        return getGlobalRateLimit(AbstractRestRateLimiter.getNow()) > 0;
+    }
+
+    protected void updateLimit(String hash, int limit, long now) {
+        long resetAfter = reset - now;
+        // The first request of a window tells us the window duration
+        if (limit > 0 && remaining == limit - 1 && resetAfter > 0) {
+            if (this.limit != limit || this.window != resetAfter) {
+                RateLimitStore store = config.getStore();
+                if (store != null) {
+                    store.setLimit(hash, limit, resetAfter);
+                }
+            }
+            this.window = resetAfter;
+        }
+        this.limit = limit;
+
+        if (config.isPacing() && remaining > 0 && resetAfter > 0) {
+            // Spread the remaining requests evenly until the reset,
+            // but never faster than the limit allows for a full window
+            long interval = resetAfter / (remaining + 1);
+            if (this.limit > 0 && window > 0) {
+                interval = Math.max(interval, window / this.limit);
+            }
+            nextRequest = now + interval;
+        }
+    }
+
+    public long getRateLimit() {
+        long now = AbstractRestRateLimiter.getNow();
+
+        long global = getGlobalRateLimit(now);
+        long reset = this.reset;
+
+        // Check if the bucket reset time has expired
+        if (reset <= now) {
+            // Update the remaining uses to the limit (we don't know better)
+            remaining = 1;
+        }
+
+        // If there are remaining requests we don't need to do anything,
+        // otherwise return backoff in milliseconds
+        long pacing = remaining < 1 ? reset - now : nextRequest - now;
+        return Math.max(global, pacing);
+    }
+
+    @Override
+    public void run() {
+        log.trace("Bucket {} is running {} requests", bucketId, requests.size());
+        while (!requests.isEmpty()) {
+            long rateLimit = getRateLimit();
+            if (rateLimit > 0L) {
+                // We need to backoff since we ran out of remaining uses
+                // or hit the global rate limit
+                RestRateLimiter.Work request = requests.peekFirst(); // this *should* not be null
+                String baseRoute = request != null ? request.getRoute().getBaseRoute().toString() : "N/A";
+                if (!isGlobalRateLimit() && rateLimit >= 1000 * 60 * 30) { // 30 minutes
+                    log.warn(
+                            "Encountered long {} minutes Rate-Limit on route {}",
+                            TimeUnit.MILLISECONDS.toMinutes(rateLimit),
+                            baseRoute);
+                }
+                log.debug("Backing off {} ms for bucket {} on route {}", rateLimit, bucketId, baseRoute);
+                break;
+            }
+
+            RestRateLimiter.Work request = requests.pollFirst();
+            if (request == null) {
+                break;
+            }
+            if (request.isSkipped()) {
+                continue;
+            }
+
+            if (isUninit() && moveRequest(request)) {
+                continue;
+            }
+
+            if (!execute(request)) {
+                return;
+            }
+        }
+
+        backoff();
+    }
+
+    /**
+     * Executes the request and handles its response.
+     * <br>If the response is not available immediately, this bucket continues once it arrives.
+     * Failed requests are logged and back off the bucket.
+     *
+     * @param  request
+     *         The request to execute
+     *
+     * @return True, if the calling worker should continue with the next request
+     */
+    protected boolean execute(@Nonnull RestRateLimiter.Work request) {
+        CompletableFuture<Response> future;
+        try {
+            future = request.executeAsync();
+        } catch (Throwable ex) {
+            future = new CompletableFuture<>();
+            future.completeExceptionally(ex);
+        }
+
+        if (!future.isDone()) {
+            // Continue once the response arrives, instead of blocking this thread while the request is in-flight
+            future.whenComplete((response, error) -> resume(request, response, error));
+            return false;
+        }
+
+        Throwable error;
+        try {
+            error = complete(request, future.join(), null);
+        } catch (CompletionException | CancellationException ex) {
+            error = complete(request, null, ex);
+        }
+
+        if (error == null) {
+            return true;
+        }
+        if (error instanceof Error) {
+            throw (Error) error;
+        }
+        backoff();
+        return false;
+    }
+
+    private void resume(RestRateLimiter.Work request, Response response, Throwable error) {
+        // The future swallows anything thrown by this callback, so everything has to be logged here
+        try {
+            if (complete(request, response, error) == null) {
+                run();
+            } else {
+                backoff();
+            }
+        } catch (Throwable ex) {
+            log.error("Caught throwable in bucket worker", ex);
+        }
+    }
+
+    private Throwable complete(RestRateLimiter.Work request, Response response, Throwable error) {
+        if (error instanceof CompletionException && error.getCause() != null) {
+            error = error.getCause();
+        }
+        if (error == null) {
+            try {
+                if (response != null) {
+                    updateRateLimit(request.getRoute(), response);
+                }
+                if (!request.isDone()) {
+                    retry(request);
+                }
+                return null;
+            } catch (Throwable ex) {
+                error = ex;
+            }
+        }
+
+        log.error("Encountered exception trying to execute request", error);
+        return error;
+    }
+
+    @Override
+    public String toString() {
+        return bucketId;
+    }
+}
@@ -0,0 +1,323 @@
+/*
+ * Copyright 2015 Austin Keener, Michael Ritter, Florian Spieß, and the JDA contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.dv8tion.jda.api.requests;
+
+import net.dv8tion.jda.internal.utils.JDALogger;
+import okhttp3.Headers;
+import okhttp3.Response;
+import org.slf4j.Logger;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Shared bucket resolution, response handling, and lifecycle of {@link SequentialRestRateLimiter}
+ * and {@link ConcurrentRestRateLimiter}.
+ *
+ * <p>Implementations decide how their maps are guarded and how a bucket worker is scheduled.
+ * A limiter which guards its state with a lock has to override the methods accessing the maps to acquire it.
+ *
+ * @param <B>
+ *        The bucket type of the implementation
+ */
+abstract class AbstractRestRateLimiter<B extends AbstractBucket> implements RestRateLimiter {
+    protected static final Logger log = JDALogger.getLog(RestRateLimiter.class);
+    // we generate an uninit bucket for every major parameter configuration
+    static final String UNINIT_BUCKET = "uninit";
+
+    protected final CompletableFuture<?> shutdownHandle = new CompletableFuture<>();
+
+    protected final Future<?> cleanupWorker;
+    protected final RateLimitConfig config;
+
+    protected final AtomicBoolean isStopped = new AtomicBoolean(false);
+    protected final AtomicBoolean isShutdown = new AtomicBoolean(false);
+
+    // Route -> Should we print warning for 429? AKA did we already hit it once before
+    protected final Set<Route> hitRatelimit = ConcurrentHashMap.newKeySet(5);
+    // Route -> Hash
+    protected final Map<Route, String> hashes;
+    // Hash + Major Parameter -> Bucket
+    protected final Map<String, B> buckets;
+
+    protected AbstractRestRateLimiter(
+            @Nonnull RateLimitConfig config, @Nonnull Map<Route, String> hashes, @Nonnull Map<String, B> buckets) {
+        this.config = config;
+        this.hashes = hashes;
+        this.buckets = buckets;
+        this.cleanupWorker = config.getScheduler().scheduleAtFixedRate(this::cleanup, 30, 30, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Creates a new empty bucket.
+     *
+     * @param  bucketId
+     *         The hash and major parameters of the bucket
+     * @param  interaction
+     *         Whether the bucket is used for interaction responses
+     *
+     * @return The new bucket
+     */
+    @Nonnull
+    protected abstract B createBucket(@Nonnull String bucketId, boolean interaction);
+
+    /**
+     * Removes the bucket from {@link #buckets}, if no requests are queued or running.
+     *
+     * @param  bucket
+     *         The bucket to remove
+     *
+     * @return True, if the bucket was removed
+     */
+    protected abstract boolean removeIfUnused(@Nonnull B bucket);
+
+    @Override
+    public void stop(boolean shutdown, @Nonnull Runnable callback) {
+        boolean doShutdown = shutdown;
+        if (isStopped.compareAndSet(false, true)) {
+            shutdownHandle.thenRun(callback);
+            if (!doShutdown) {
+                int count = buckets.values().stream()
+                        .mapToInt(bucket -> bucket.getRequests().size())
+                        .sum();
+
+                if (count > 0) {
+                    log.info("Waiting for {} requests to finish.", count);
+                }
+                doShutdown = count == 0;
+            }
+        }
+        if (doShutdown) {
+            shutdown();
+        }
+    }
+
+    @Override
+    public boolean isStopped() {
+        return isStopped.get();
+    }
+
+    @Override
+    public int cancelRequests() {
+        // Empty buckets will be removed by the cleanup worker,
+        // which also checks for rate limit parameters
+        int cancelled = (int) buckets.values().stream()
+                .map(AbstractBucket::getRequests)
+                .flatMap(Collection::stream)
+                .filter(request -> !request.isPriority() && !request.isCancelled())
+                .peek(Work::cancel)
+                .count();
+
+        if (cancelled == 1) {
+            log.warn("Cancelled 1 request!");
+        } else if (cancelled > 1) {
+            log.warn("Cancelled {} requests!", cancelled);
+        }
+        return cancelled;
+    }
+
+    protected void shutdown() {
+        if (!isShutdown.compareAndSet(false, true)) {
+            return;
+        }
+        cleanupWorker.cancel(false);
+        cleanup();
+        if (config.getStore() != null) {
+            config.getStore().save();
+        }
+        shutdownHandle.complete(null);
+    }
+
+    protected void cleanup() {
+        // This will remove buckets that are no longer needed every 30 seconds
+        // to avoid memory leakage
+        // We will keep the hashes in memory since they are very limited
+        // (by the amount of possible routes)
+        boolean shutdown = isShutdown.get();
+        boolean stopped = isStopped.get();
+        long now = getNow();
+        int removed = 0;
+
+        for (B bucket : new ArrayList<>(buckets.values())) {
+            if (shutdown) {
+                bucket.requests.forEach(Work::cancel); // Cancel all requests
+            }
+            bucket.requests.removeIf(Work::isSkipped); // Remove cancelled requests
+
+            // Remove uninit buckets and buckets with an expired reset, since they have no valuable information,
+            // or any empty bucket once the rate limiter is stopped
+            boolean expendable = bucket.isUninit() || bucket.reset <= now || stopped;
+            if (expendable && removeIfUnused(bucket)) {
+                removed++;
+            }
+        }
+
+        // Log how many buckets were removed
+        if (removed > 0) {
+            log.debug("Removed {} expired buckets", removed);
+        } else if (stopped && !shutdown) {
+            shutdown();
+        }
+    }
+
+    protected String getRouteHash(Route route) {
+        String hash = hashes.get(route);
+        if (hash == null && config.getStore() != null) {
+            hash = config.getStore().getHash(route);
+            if (hash != null) {
+                hashes.putIfAbsent(route, hash);
+            }
+        }
+        return hash != null ? hash : UNINIT_BUCKET + "+" + route;
+    }
+
+    protected B getBucket(Route.CompiledRoute route) {
+        // Retrieve the hash via the route
+        String hash = getRouteHash(route.getBaseRoute());
+        // Get or create a bucket for the hash + major parameters
+        String bucketId = hash + ":" + route.getMajorParameters();
+        return this.buckets.computeIfAbsent(bucketId, (id) -> {
+            B bucket = createBucket(id, route.getBaseRoute().isInteractionBucket());
+            RateLimitStore.Limit limit = config.getStore() != null ? config.getStore().getLimit(hash) : null;
+            if (limit != null) {
+                bucket.limit = limit.getLimit();
+                bucket.window = limit.getWindow();
+            }
+            return bucket;
+        });
+    }
+
+    protected B updateBucket(Route.CompiledRoute route, Response response) {
+        try {
+            B bucket = getBucket(route);
+            Headers headers = response.headers();
+
+            boolean global = headers.get(GLOBAL_HEADER) != null;
+            boolean cloudflare = headers.get("via") == null;
+            String hash = headers.get(HASH_HEADER);
+            String scope = headers.get(SCOPE_HEADER);
+            long now = getNow();
+
+            // Create a new bucket for the hash if needed
+            Route baseRoute = route.getBaseRoute();
+            if (hash != null) {
+                if (!hash.equals(this.hashes.put(baseRoute, hash))) {
+                    log.debug("Caching bucket hash {} -> {}", baseRoute, hash);
+                    if (config.getStore() != null) {
+                        config.getStore().setHash(baseRoute, hash);
+                    }
+                }
+
+                bucket = getBucket(route);
+            }
+
+            if (response.code() == 429) {
+                String retryAfterHeader = headers.get(RETRY_AFTER_HEADER);
+                long retryAfter = parseLong(retryAfterHeader) * 1000; // seconds precision
+                // Handle global rate limit if necessary
+                if (global) {
+                    config.getGlobalRateLimit().setClassic(now + retryAfter);
+                    log.error("Encountered global rate limit! Retry-After: {} ms Scope: {}", retryAfter, scope);
+                }
+                // Handle cloudflare rate limits,
+                // this applies to all routes and uses seconds for retry-after
+                else if (cloudflare) {
+                    config.getGlobalRateLimit().setCloudflare(now + retryAfter);
+                    log.error("Encountered cloudflare rate limit! Retry-After: {} s", retryAfter / 1000);
+                }
+                // Handle hard rate limit, pretty much just log that it happened
+                else {
+                    boolean firstHit = hitRatelimit.add(baseRoute) && retryAfter < 60000;
+                    // Update the bucket to the new information
+                    bucket.update(0, now + retryAfter);
+                    // don't log warning if we hit the rate limit for the first time,
+                    // likely due to initialization of the bucket
+                    // unless its a long retry-after delay (more than a minute)
+                    if (firstHit) {
+                        log.debug(
+                                "Encountered 429 on route {} with bucket {} Retry-After: {} ms Scope: {}",
+                                baseRoute,
+                                bucket.bucketId,
+                                retryAfter,
+                                scope);
+                    } else {
+                        log.warn(
+                                "Encountered 429 on route {} with bucket {} Retry-After: {} ms Scope: {}",
+                                baseRoute,
+                                bucket.bucketId,
+                                retryAfter,
+                                scope);
+                    }
+                }
+
+                log.trace("Updated bucket {} to retry after {}", bucket.bucketId, bucket.reset - now);
+                return bucket;
+            }
+
+            // If hash is null this means we didn't get enough information to update a bucket
+            if (hash == null) {
+                return bucket;
+            }
+
+            // Update the bucket parameters with new information
+            String limitHeader = headers.get(LIMIT_HEADER);
+            String remainingHeader = headers.get(REMAINING_HEADER);
+            String resetAfterHeader = headers.get(RESET_AFTER_HEADER);
+            String resetHeader = headers.get(RESET_HEADER);
+
+            int remaining = (int) parseLong(remainingHeader);
+            long reset = config.isRelative() ? now + parseDouble(resetAfterHeader) : parseDouble(resetHeader);
+            bucket.update(remaining, reset);
+            bucket.updateLimit(hash, (int) parseLong(limitHeader), now);
+            log.trace("Updated bucket {} to ({}/{}, {})", bucket.bucketId, remaining, limitHeader, reset - now);
+            return bucket;
+        } catch (Exception e) {
+            B bucket = getBucket(route);
+            log.error(
+                    "Encountered Exception while updating a bucket. Route: {} Bucket: {} Code: {} Headers:\n{}",
+                    route.getBaseRoute(),
+                    bucket,
+                    response.code(),
+                    response.headers(),
+                    e);
+            return bucket;
+        }
+    }
+
+    private static long parseLong(String input) {
+        return input == null ? 0L : Long.parseLong(input);
+    }
+
+    private static long parseDouble(String input) {
+        // The header value is using a double to represent milliseconds and seconds:
+        // 5.250 this is 5 seconds and 250 milliseconds (5250 milliseconds)
+        return input == null ? 0L : (long) (Double.parseDouble(input) * 1000);
+    }
+
+    static long getNow() {
+        return System.currentTimeMillis();
+    }
+}
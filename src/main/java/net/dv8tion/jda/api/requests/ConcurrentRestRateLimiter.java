@@ -0,0 +1,179 @@
+/*
+ * Copyright 2015 Austin Keener, Michael Ritter, Florian Spieß, and the JDA contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.dv8tion.jda.api.requests;
+
+import okhttp3.Response;
+
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import javax.annotation.Nonnull;
+
+/**
+ * A {@link RestRateLimiter} which shards its bucket state instead of guarding it with a single lock.
+ *
+ * <p>Buckets are resolved exactly like in the {@link SequentialRestRateLimiter}, using the route hash and major parameters,
+ * and requests within one bucket are still executed in sequence.
+ * However, the route hashes and buckets are kept in concurrent maps and every bucket tracks its own worker state.
+ * This means that requests to unrelated buckets never contend with each other,
+ * which can significantly reduce overhead for bots that make many concurrent requests across a large number of guilds or channels.
+ *
+ * <p>This uses the same {@link RateLimitConfig} as the default implementation, including the {@link RateLimitConfig#getStore() store}
+ * and {@link RateLimitConfig#isPacing() pacing}, and can be enabled via
+ * {@link RestConfig#setRateLimiterFactory(java.util.function.Function) RestConfig.setRateLimiterFactory(ConcurrentRestRateLimiter::new)}.
+ *
+ * @see SequentialRestRateLimiter
+ */
+public final class ConcurrentRestRateLimiter extends AbstractRestRateLimiter<ConcurrentRestRateLimiter.Bucket> {
+    public ConcurrentRestRateLimiter(@Nonnull RateLimitConfig config) {
+        super(config, new ConcurrentHashMap<>(), new ConcurrentHashMap<>());
+    }
+
+    @Override
+    public void enqueue(@Nonnull Work task) {
+        Bucket bucket = addRequest(task);
+        runBucket(bucket);
+    }
+
+    @Nonnull
+    @Override
+    protected Bucket createBucket(@Nonnull String bucketId, boolean interaction) {
+        return new Bucket(bucketId, interaction);
+    }
+
+    @Override
+    protected boolean removeIfUnused(@Nonnull Bucket bucket) {
+        return bucket.retire() && buckets.remove(bucket.bucketId, bucket);
+    }
+
+    private Bucket addRequest(Work request) {
+        while (true) {
+            Bucket bucket = getBucket(request.getRoute());
+            if (bucket.offer(request)) {
+                return bucket;
+            }
+            // The bucket was retired by the cleanup worker in the meantime, try again with a fresh one
+        }
+    }
+
+    private void scheduleElastic(Bucket bucket) {
+        if (isShutdown.get()) {
+            return;
+        }
+
+        ExecutorService elastic = config.getElastic();
+        ScheduledExecutorService scheduler = config.getScheduler();
+
+        try {
+            // Avoid context switch if unnecessary
+            if (elastic == scheduler) {
+                bucket.run();
+            } else {
+                elastic.execute(bucket);
+            }
+        } catch (RejectedExecutionException ex) {
+            bucket.scheduled.set(false);
+            if (!isShutdown.get()) {
+                log.error("Failed to execute bucket worker", ex);
+            }
+        } catch (Throwable t) {
+            log.error("Caught throwable in bucket worker", t);
+            if (t instanceof Error) {
+                throw t;
+            }
+        }
+    }
+
+    private void runBucket(Bucket bucket) {
+        if (isShutdown.get()) {
+            return;
+        }
+        // Schedule a new bucket worker if no worker is running
+        if (!bucket.scheduled.compareAndSet(false, true)) {
+            return;
+        }
+
+        try {
+            config.getScheduler()
+                    .schedule(() -> scheduleElastic(bucket), bucket.getRateLimit(), TimeUnit.MILLISECONDS);
+        } catch (RuntimeException | Error e) {
+            bucket.scheduled.set(false);
+            throw e;
+        }
+    }
+
+    class Bucket extends AbstractBucket {
+        // Whether a worker is currently scheduled or running for this bucket
+        protected final AtomicBoolean scheduled = new AtomicBoolean(false);
+
+        // Guarded by this bucket, set once the bucket has been removed by the cleanup worker
+        private boolean retired = false;
+
+        private Bucket(@Nonnull String bucketId, boolean interaction) {
+            super(ConcurrentRestRateLimiter.this.config, bucketId, interaction);
+        }
+
+        public synchronized boolean offer(@Nonnull Work request) {
+            if (retired) {
+                return false;
+            }
+            requests.addLast(request);
+            return true;
+        }
+
+        public synchronized boolean retire() {
+            if (!requests.isEmpty() || scheduled.get()) {
+                return false;
+            }
+            retired = true;
+            return true;
+        }
+
+        @Override
+        protected void backoff() {
+            // Release the worker before checking the queue again,
+            // this guarantees that requests added in the meantime are picked up by someone
+            scheduled.set(false);
+            if (!requests.isEmpty()) {
+                runBucket(this);
+            } else if (isStopped.get() && retire()) {
+                buckets.remove(bucketId, this);
+            }
+            if (isStopped.get() && buckets.isEmpty()) {
+                shutdown();
+            }
+        }
+
+        @Override
+        @SuppressWarnings("ReferenceEquality")
+        protected boolean moveRequest(@Nonnull Work request) {
+            // Attempt moving request to correct bucket if it has been created
+            // The worker of this bucket is still running, so it cannot be retired concurrently
+            if (getBucket(request.getRoute()) == this) {
+                return false;
+            }
+            Bucket bucket = addRequest(request);
+            runBucket(bucket);
+            return true;
+        }
+
+        @Override
+        protected void updateRateLimit(@Nonnull Route.CompiledRoute route, @Nonnull Response response) {
+            updateBucket(route, response);
+        }
+    }
+}
@@ -0,0 +1,225 @@
+/*
+ * Copyright 2015 Austin Keener, Michael Ritter, Florian Spieß, and the JDA contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.dv8tion.jda.api.requests;
+
+import net.dv8tion.jda.internal.utils.Checks;
+import okhttp3.*;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Proxy;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * Connection settings for the default {@link OkHttpClient} used for REST requests.
+ *
+ * <p>The default client allows 25 concurrent requests and keeps 5 idle connections for only 10 seconds,
+ * which causes connections to be closed and opened again frequently at high request rates.
+ * The {@link #highThroughput() high-throughput profile} instead sizes the dispatcher limits and the connection pool
+ * to the shard count and keeps idle connections open for several minutes.
+ * The protocols are not changed, both clients negotiate HTTP/2 with servers that support it.
+ *
+ * <p>Every client created by a profile reports to the same {@link ConnectionStats}, which can be used to verify connection reuse.
+ *
+ * <p>A profile is only applied if no custom {@link OkHttpClient} or {@link OkHttpClient.Builder} is configured.
+ *
+ * @see RestConfig#setHttpProfile(HttpProfile)
+ */
+public final class HttpProfile {
+    private final ConnectionStats stats = new ConnectionStats();
+    private final int requestsPerShard;
+    private final int minRequests;
+    private final int minIdleConnections;
+    private final long keepAliveSeconds;
+
+    private HttpProfile(int requestsPerShard, int minRequests, int minIdleConnections, long keepAliveSeconds) {
+        this.requestsPerShard = requestsPerShard;
+        this.minRequests = minRequests;
+        this.minIdleConnections = minIdleConnections;
+        this.keepAliveSeconds = keepAliveSeconds;
+    }
+
+    /**
+     * Profile for bots with high request rates.
+     *
+     * <ul>
+     *     <li>Allows at least 64 concurrent requests, or 4 per shard</li>
+     *     <li>Keeps at least 10 idle connections, or 1 per shard up to 100, for 5 minutes</li>
+     * </ul>
+     *
+     * @return The high-throughput profile
+     */
+    @Nonnull
+    public static HttpProfile highThroughput() {
+        return new HttpProfile(4, 64, 10, TimeUnit.MINUTES.toSeconds(5));
+    }
+
+    /**
+     * Creates a new {@link OkHttpClient.Builder} configured with this profile.
+     *
+     * @param  shardCount
+     *         The number of shards using the client
+     *
+     * @throws IllegalArgumentException
+     *         If the shard count is not positive
+     *
+     * @return The configured builder
+     */
+    @Nonnull
+    public OkHttpClient.Builder newHttpClientBuilder(int shardCount) {
+        Checks.positive(shardCount, "Shard count");
+
+        int maxRequests = Math.max(minRequests, requestsPerShard * shardCount);
+        Dispatcher dispatcher = new Dispatcher();
+        dispatcher.setMaxRequests(maxRequests);
+        // All requests go to the same host (usually discord.com)
+        dispatcher.setMaxRequestsPerHost(maxRequests);
+
+        int maxIdle = Math.max(minIdleConnections, Math.min(shardCount, 100));
+        ConnectionPool connectionPool = new ConnectionPool(maxIdle, keepAliveSeconds, TimeUnit.SECONDS);
+
+        return new OkHttpClient.Builder()
+                .connectionPool(connectionPool)
+                .dispatcher(dispatcher)
+                .eventListener(stats);
+    }
+
+    /**
+     * The connection statistics of all clients created by this profile.
+     *
+     * @return The {@link ConnectionStats}
+     */
+    @Nonnull
+    public ConnectionStats getConnectionStats() {
+        return stats;
+    }
+
+    /**
+     * Statistics about the connections used by HTTP calls.
+     */
+    public static final class ConnectionStats extends EventListener {
+        private final AtomicLong calls = new AtomicLong();
+        private final AtomicLong acquired = new AtomicLong();
+        private final AtomicLong connects = new AtomicLong();
+        private final AtomicLong failedConnects = new AtomicLong();
+        private final AtomicLong http2Connects = new AtomicLong();
+
+        private ConnectionStats() {}
+
+        /**
+         * The number of started calls.
+         *
+         * @return The number of calls
+         */
+        public long getCallCount() {
+            return calls.get();
+        }
+
+        /**
+         * The number of new connections opened.
+         *
+         * @return The number of opened connections
+         */
+        public long getConnectionCount() {
+            return connects.get();
+        }
+
+        /**
+         * The number of new connections which use HTTP/2.
+         *
+         * @return The number of HTTP/2 connections
+         */
+        public long getHttp2ConnectionCount() {
+            return http2Connects.get();
+        }
+
+        /**
+         * The number of connection attempts which failed.
+         *
+         * @return The number of failed connection attempts
+         */
+        public long getFailedConnectionCount() {
+            return failedConnects.get();
+        }
+
+        /**
+         * The number of times a call used an already open connection.
+         *
+         * @return The number of reused connections
+         */
+        public long getReusedConnectionCount() {
+            return Math.max(0, acquired.get() - connects.get());
+        }
+
+        /**
+         * The ratio of connection acquisitions, which reused an already open connection.
+         *
+         * @return The reuse ratio between 0 and 1
+         */
+        public double getReuseRatio() {
+            long total = acquired.get();
+            return total == 0 ? 0 : (double) getReusedConnectionCount() / total;
+        }
+
+        @Override
+        public void callStart(@Nonnull Call call) {
+            calls.incrementAndGet();
+        }
+
+        @Override
+        public void connectEnd(
+                @Nonnull Call call,
+                @Nonnull InetSocketAddress inetSocketAddress,
+                @Nonnull Proxy proxy,
+                @Nullable Protocol protocol) {
+            connects.incrementAndGet();
+            if (protocol == Protocol.HTTP_2) {
+                http2Connects.incrementAndGet();
+            }
+        }
+
+        @Override
+        public void connectFailed(
+                @Nonnull Call call,
+                @Nonnull InetSocketAddress inetSocketAddress,
+                @Nonnull Proxy proxy,
+                @Nullable Protocol protocol,
+                @Nonnull IOException ioe) {
+            failedConnects.incrementAndGet();
+        }
+
+        @Override
+        public void connectionAcquired(@Nonnull Call call, @Nonnull Connection connection) {
+            acquired.incrementAndGet();
+        }
+
+        @Override
+        public String toString() {
+            return String.format(
+                    "ConnectionStats[calls=%d, connections=%d, http2=%d, reused=%d, failed=%d]",
+                    getCallCount(),
+                    getConnectionCount(),
+                    getHttp2ConnectionCount(),
+                    getReusedConnectionCount(),
+                    getFailedConnectionCount());
+        }
+    }
+}
@@ -0,0 +1,237 @@
+/*
+ * Copyright 2015 Austin Keener, Michael Ritter, Florian Spieß, and the JDA contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.dv8tion.jda.api.requests;
+
+import net.dv8tion.jda.api.utils.data.DataObject;
+import net.dv8tion.jda.internal.utils.Checks;
+import net.dv8tion.jda.internal.utils.JDALogger;
+import org.slf4j.Logger;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * Store for rate-limit information learned by a {@link RestRateLimiter}.
+ * <br>This keeps the bucket hash of every {@link Route} and the limit and window of every bucket hash.
+ *
+ * <p>The same store can be shared by multiple rate-limiters, for example all shards of a {@link net.dv8tion.jda.api.sharding.ShardManager ShardManager}.
+ * When the store is {@link #fromFile(Path) backed by a file}, the information is written to this file once a rate-limiter shuts down,
+ * and read again on the next start. This allows the rate-limiter to use the correct buckets and limits right away,
+ * instead of learning them from the first responses.
+ *
+ * @see RestConfig#setRateLimitStore(RateLimitStore)
+ */
+public final class RateLimitStore {
+    private static final Logger log = JDALogger.getLog(RateLimitStore.class);
+
+    // Method + Route -> Hash
+    private final ConcurrentMap<String, String> hashes = new ConcurrentHashMap<>();
+    // Hash -> Limit
+    private final ConcurrentMap<String, Limit> limits = new ConcurrentHashMap<>();
+    private final Path file;
+
+    private RateLimitStore(@Nullable Path file) {
+        this.file = file;
+    }
+
+    /**
+     * Creates a new in-memory store.
+     *
+     * @return The new store
+     */
+    @Nonnull
+    public static RateLimitStore create() {
+        return new RateLimitStore(null);
+    }
+
+    /**
+     * Creates a new store, which is loaded from and saved to the provided file.
+     * <br>If the file does not exist or cannot be read, the store starts empty.
+     *
+     * @param  file
+     *         The file path
+     *
+     * @throws IllegalArgumentException
+     *         If the provided file is null
+     *
+     * @return The new store
+     */
+    @Nonnull
+    public static RateLimitStore fromFile(@Nonnull Path file) {
+        Checks.notNull(file, "File");
+        RateLimitStore store = new RateLimitStore(file);
+        store.load();
+        return store;
+    }
+
+    /**
+     * The bucket hash of the provided route.
+     *
+     * @param  route
+     *         The route
+     *
+     * @return The bucket hash, or null if it is unknown
+     */
+    @Nullable
+    public String getHash(@Nonnull Route route) {
+        return hashes.get(route.toString());
+    }
+
+    /**
+     * Stores the bucket hash of the provided route.
+     *
+     * @param route
+     *        The route
+     * @param hash
+     *        The bucket hash
+     */
+    public void setHash(@Nonnull Route route, @Nonnull String hash) {
+        hashes.put(route.toString(), hash);
+    }
+
+    /**
+     * The limit of the provided bucket hash.
+     *
+     * @param  hash
+     *         The bucket hash
+     *
+     * @return The limit, or null if it is unknown
+     */
+    @Nullable
+    public Limit getLimit(@Nonnull String hash) {
+        return limits.get(hash);
+    }
+
+    /**
+     * Stores the limit of the provided bucket hash.
+     *
+     * @param hash
+     *        The bucket hash
+     * @param limit
+     *        The maximum amount of requests per window
+     * @param window
+     *        The window duration in milliseconds
+     */
+    public void setLimit(@Nonnull String hash, int limit, long window) {
+        if (limit > 0 && window > 0) {
+            limits.put(hash, new Limit(limit, window));
+        }
+    }
+
+    /**
+     * Writes the store to its file.
+     * <br>This does nothing for in-memory stores.
+     */
+    public synchronized void save() {
+        if (file == null) {
+            return;
+        }
+
+        DataObject hashes = DataObject.empty();
+        this.hashes.forEach(hashes::put);
+        DataObject limits = DataObject.empty();
+        this.limits.forEach((hash, limit) -> limits.put(
+                hash,
+                DataObject.empty().put("limit", limit.getLimit()).put("window", limit.getWindow())));
+
+        DataObject json = DataObject.empty().put("hashes", hashes).put("limits", limits);
+        try {
+            // Write to a temporary file first, to avoid leaving a partial file behind
+            Path parent = file.toAbsolutePath().getParent();
+            Path temp = Files.createTempFile(parent, file.getFileName().toString(), ".tmp");
+            Files.write(temp, json.toJson());
+            try {
+                // Replacing a file with a non-atomic move deletes it first, which could be observed by readers
+                Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+            log.debug("Saved {} route hashes to {}", this.hashes.size(), file);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Failed to save rate-limit information to {}", file, e);
+        }
+    }
+
+    private void load() {
+        if (!Files.exists(file)) {
+            return;
+        }
+
+        try (InputStream stream = Files.newInputStream(file)) {
+            DataObject json = DataObject.fromJson(stream);
+            DataObject hashes = json.getObject("hashes");
+            for (String route : hashes.keys()) {
+                this.hashes.put(route, hashes.getString(route));
+            }
+            DataObject limits = json.getObject("limits");
+            for (String hash : limits.keys()) {
+                DataObject limit = limits.getObject(hash);
+                setLimit(hash, limit.getInt("limit"), limit.getLong("window"));
+            }
+            log.debug("Loaded {} route hashes from {}", this.hashes.size(), file);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Failed to load rate-limit information from {}", file, e);
+            this.hashes.clear();
+            this.limits.clear();
+        }
+    }
+
+    /**
+     * The limit of a bucket.
+     */
+    public static final class Limit {
+        private final int limit;
+        private final long window;
+
+        public Limit(int limit, long window) {
+            this.limit = limit;
+            this.window = window;
+        }
+
+        /**
+         * The maximum amount of requests per window.
+         *
+         * @return The limit
+         */
+        public int getLimit() {
+            return limit;
+        }
+
+        /**
+         * The window duration in milliseconds.
+         *
+         * @return The window duration
+         */
+        public long getWindow() {
+            return window;
+        }
+
+        @Override
+        public String toString() {
+            return limit + "/" + window + "ms";
+        }
+    }
+}
@@ -28,6 +28,7 @@ import java.io.*;
 import java.nio.charset.StandardCharsets;
 import java.util.Optional;
 import java.util.Set;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 import javax.annotation.Nonnull;
@@ -42,6 +43,10 @@ public class Response implements Closeable {
     public static final IOFunction<BufferedReader, DataObject> JSON_SERIALIZE_OBJECT = DataObject::fromJson;
     public static final IOFunction<BufferedReader, DataArray> JSON_SERIALIZE_ARRAY = DataArray::fromJson;
 
+    // Jackson detects the encoding from the raw bytes, so there is no need to decode the body into chars first
+    private static final IOFunction<InputStream, DataObject> JSON_PARSE_OBJECT = DataObject::fromJson;
+    private static final IOFunction<InputStream, DataArray> JSON_PARSE_ARRAY = DataArray::fromJson;
+
     public final int code;
     public final String message;
     public final long retryAfter;
@@ -93,33 +98,52 @@ public class Response implements Closeable {
 
     @Nonnull
     public DataArray getArray() {
-        return get(DataArray.class, JSON_SERIALIZE_ARRAY);
+        return parseBody(false, DataArray.class, JSON_PARSE_ARRAY).orElseThrow(IllegalStateException::new);
     }
 
     @Nonnull
     public Optional<DataArray> optArray() {
-        return parseBody(true, DataArray.class, JSON_SERIALIZE_ARRAY);
+        return parseBody(true, DataArray.class, JSON_PARSE_ARRAY);
     }
 
     @Nonnull
     public DataObject getObject() {
-        return get(DataObject.class, JSON_SERIALIZE_OBJECT);
+        return parseBody(false, DataObject.class, JSON_PARSE_OBJECT).orElseThrow(IllegalStateException::new);
     }
 
     @Nonnull
     public Optional<DataObject> optObject() {
-        return parseBody(true, DataObject.class, JSON_SERIALIZE_OBJECT);
+        return parseBody(true, DataObject.class, JSON_PARSE_OBJECT);
+    }
+
+    /**
+     * Parses the body as a JSON array of objects, and passes every object to the consumer as soon as it has been parsed.
+     * <br>This allows handling the first elements of large arrays, while the rest of the body is still being received.
+     *
+     * <p>The body can only be consumed once, the elements are not available through {@link #getArray()} afterwards.
+     *
+     * @param  consumer
+     *         The consumer for each element
+     *
+     * @throws IllegalStateException
+     *         If the body is not a valid array of objects
+     *
+     * @return The number of elements
+     */
+    public int forEachObject(@Nonnull Consumer<? super DataObject> consumer) {
+        return parseBody(false, Integer.class, stream -> DataArray.forEachObject(stream, consumer)).orElse(0);
     }
 
     @Nonnull
     public String getString() {
-        return parseBody(String.class, this::readString)
+        return parseBody(false, String.class, stream -> readString(newReader(stream)))
                 .orElseGet(() -> fallbackString == null ? "N/A" : fallbackString);
     }
 
     @Nonnull
     public <T> T get(@Nonnull Class<T> clazz, @Nonnull IOFunction<BufferedReader, T> parser) {
-        return parseBody(clazz, parser).orElseThrow(IllegalStateException::new);
+        return parseBody(false, clazz, stream -> parser.apply(newReader(stream)))
+                .orElseThrow(IllegalStateException::new);
     }
 
     @Nullable
@@ -171,16 +195,16 @@ public class Response implements Closeable {
         }
     }
 
-    private String readString(BufferedReader reader) {
-        return reader.lines().collect(Collectors.joining("\n"));
+    private BufferedReader newReader(InputStream stream) {
+        return new BufferedReader(new InputStreamReader(stream, StandardCharsets.UTF_8));
     }
 
-    private <T> Optional<T> parseBody(Class<T> clazz, IOFunction<BufferedReader, T> parser) {
-        return parseBody(false, clazz, parser);
+    private String readString(BufferedReader reader) {
+        return reader.lines().collect(Collectors.joining("\n"));
     }
 
     @SuppressWarnings("ConstantConditions")
-    private <T> Optional<T> parseBody(boolean opt, Class<T> clazz, IOFunction<BufferedReader, T> parser) {
+    private <T> Optional<T> parseBody(boolean opt, Class<T> clazz, IOFunction<InputStream, T> parser) {
         if (attemptedParsing) {
             if (object != null && clazz.isAssignableFrom(object.getClass())) {
                 return Optional.of(clazz.cast(object));
@@ -193,11 +217,11 @@ public class Response implements Closeable {
             return Optional.empty();
         }
 
-        BufferedReader reader = null;
+        BufferedInputStream stream = null;
         try {
-            reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
-            reader.mark(1024);
-            T t = parser.apply(reader);
+            stream = new BufferedInputStream(body);
+            stream.mark(1024);
+            T t = parser.apply(stream);
             this.object = t;
             RestActionImpl.LOG.trace(
                     "Parsed response body for response on url {}\n{}",
@@ -206,9 +230,9 @@ public class Response implements Closeable {
             return Optional.ofNullable(t);
         } catch (Exception e) {
             try {
-                reader.reset();
-                this.fallbackString = readString(reader);
-                reader.close();
+                stream.reset();
+                this.fallbackString = readString(newReader(stream));
+                stream.close();
             } catch (NullPointerException | IOException ignored) {
             }
             if (opt && e instanceof ParsingException) {
@@ -0,0 +1,492 @@
+/*
+ * Copyright 2015 Austin Keener, Michael Ritter, Florian Spieß, and the JDA contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.dv8tion.jda.api.requests;
+
+import net.dv8tion.jda.api.Permission;
+import net.dv8tion.jda.api.entities.BulkBanResponse;
+import net.dv8tion.jda.api.entities.Guild;
+import net.dv8tion.jda.api.entities.UserSnowflake;
+import net.dv8tion.jda.api.entities.channel.middleman.GuildMessageChannel;
+import net.dv8tion.jda.api.entities.channel.middleman.MessageChannel;
+import net.dv8tion.jda.api.utils.MiscUtil;
+import net.dv8tion.jda.api.utils.Result;
+import net.dv8tion.jda.api.utils.TimeUtil;
+import net.dv8tion.jda.internal.requests.RestActionImpl;
+import net.dv8tion.jda.internal.utils.Checks;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * Executes a large number of {@link RestAction RestActions} with bounded concurrency.
+ *
+ * <p>Instead of queueing every action at once, which puts all requests into the rate-limiter queue at the same time,
+ * a batch only submits up to {@link #setConcurrency(int) concurrency} actions at a time.
+ * Actions targeting the same rate-limit bucket are executed one after another,
+ * so a single rate-limited bucket cannot occupy all slots while other buckets are idle.
+ * Actions can be added while the batch is running, and are only submitted once a slot is free.
+ *
+ * <p>Every result is passed to the {@link #onResult(BiConsumer) result handler} as soon as it is available,
+ * and the progress can be observed with {@link #getCompleted()} and {@link #getFailed()}.
+ *
+ * <p><b>Example</b><br>
+ * {@snippet lang="java":
+ * RestBatch<Void> batch = new RestBatch<>();
+ * for (Member member : members) {
+ *     batch.add(guild.addRoleToMember(member, role));
+ * }
+ * batch.onResult((action, result) -> result.onFailure(error -> log.warn("Failed to add role", error)))
+ *      .execute()
+ *      .thenRun(() -> log.info("Added role to {} members", batch.getCompleted() - batch.getFailed()));
+ * }
+ *
+ * <p>For some bulk operations, Discord provides endpoints which handle many targets in one request.
+ * The factory methods {@link #ban(Guild, Collection, Duration)} and {@link #deleteMessagesByIds(MessageChannel, Collection)}
+ * use these endpoints where possible.
+ *
+ * @param <T>
+ *        The result type of the actions
+ */
+public class RestBatch<T> {
+    /** The default amount of actions executed concurrently */
+    public static final int DEFAULT_CONCURRENCY = 10;
+    /** The maximum amount of users banned with one request */
+    public static final int MAX_BULK_BAN = 200;
+    /** The maximum amount of messages deleted with one request */
+    public static final int MAX_BULK_DELETE = 100;
+
+    private final Object lock = new Object();
+    private final Object handlerLock = new Object();
+    private final CompletableFuture<Void> future = new CompletableFuture<>();
+
+    // Bucket -> Actions waiting for submission
+    private final Map<Object, Deque<RestAction<? extends T>>> pending = new HashMap<>();
+    // Buckets with pending actions and no action in-flight, in round-robin order
+    private final Deque<Object> ready = new ArrayDeque<>();
+    // Buckets with an action in-flight
+    private final Set<Object> active = new HashSet<>();
+
+    private BiConsumer<? super RestAction<? extends T>, ? super Result<T>> handler = (action, result) -> {};
+    private int concurrency = DEFAULT_CONCURRENCY;
+    private int total, completed, failed, inFlight;
+    private boolean started, cancelled, scheduling, reschedule;
+
+    /**
+     * Creates a new batch for the provided {@link Guild#ban(Collection, Duration) bulk bans}.
+     * <br>The users are banned in chunks of up to {@value #MAX_BULK_BAN} users.
+     *
+     * @param  guild
+     *         The guild
+     * @param  users
+     *         The users to ban
+     * @param  deletionTime
+     *         Delete recent messages of the given timeframe, or null to keep all messages
+     *
+     * @throws IllegalArgumentException
+     *         If null is provided
+     *
+     * @return The new batch, which has to be {@link #execute() executed}
+     */
+    @Nonnull
+    public static RestBatch<BulkBanResponse> ban(
+            @Nonnull Guild guild, @Nonnull Collection<? extends UserSnowflake> users, @Nullable Duration deletionTime) {
+        Checks.notNull(guild, "Guild");
+        Checks.noneNull(users, "Users");
+
+        RestBatch<BulkBanResponse> batch = new RestBatch<>();
+        List<UserSnowflake> chunk = new ArrayList<>(MAX_BULK_BAN);
+        for (UserSnowflake user : users) {
+            chunk.add(user);
+            if (chunk.size() == MAX_BULK_BAN) {
+                batch.add(guild.ban(chunk, deletionTime));
+                chunk = new ArrayList<>(MAX_BULK_BAN);
+            }
+        }
+        if (!chunk.isEmpty()) {
+            batch.add(guild.ban(chunk, deletionTime));
+        }
+        return batch;
+    }
+
+    /**
+     * Creates a new batch which deletes the provided messages.
+     *
+     * <p>If the channel is a {@link GuildMessageChannel} and the bot has {@link Permission#MESSAGE_MANAGE},
+     * messages younger than two weeks are deleted using {@link GuildMessageChannel#deleteMessagesByIds(Collection) bulk deletion}
+     * in chunks of up to {@value #MAX_BULK_DELETE} messages. All other messages are deleted individually.
+     *
+     * @param  channel
+     *         The channel
+     * @param  messageIds
+     *         The ids of the messages to delete
+     *
+     * @throws IllegalArgumentException
+     *         If null is provided or any of the ids is not a valid snowflake
+     *
+     * @return The new batch, which has to be {@link #execute() executed}
+     */
+    @Nonnull
+    public static RestBatch<Void> deleteMessagesByIds(
+            @Nonnull MessageChannel channel, @Nonnull Collection<String> messageIds) {
+        Checks.notNull(channel, "Channel");
+        Checks.noneNull(messageIds, "Message IDs");
+
+        // Remove duplicates and sort messages, older messages are deleted first
+        TreeSet<Long> ids = new TreeSet<>();
+        for (String id : messageIds) {
+            ids.add(MiscUtil.parseSnowflake(id));
+        }
+
+        RestBatch<Void> batch = new RestBatch<>();
+        if (channel instanceof GuildMessageChannel) {
+            GuildMessageChannel guildChannel = (GuildMessageChannel) channel;
+            if (guildChannel.getGuild().getSelfMember().hasPermission(guildChannel, Permission.MESSAGE_MANAGE)) {
+                // Leave some room for the time between creating and executing the request
+                long twoWeeksAgo = TimeUtil.getDiscordTimestamp(
+                        System.currentTimeMillis() - TimeUnit.DAYS.toMillis(14) + TimeUnit.MINUTES.toMillis(1));
+                SortedSet<Long> recent = ids.tailSet(twoWeeksAgo, false);
+                List<String> chunk = new ArrayList<>(MAX_BULK_DELETE);
+                for (Iterator<Long> it = recent.iterator(); it.hasNext(); ) {
+                    chunk.add(Long.toUnsignedString(it.next()));
+                    it.remove();
+                    if (chunk.size() == MAX_BULK_DELETE || !it.hasNext()) {
+                        // Bulk deletion requires at least 2 messages
+                        batch.add(
+                                chunk.size() == 1
+                                        ? channel.deleteMessageById(chunk.get(0))
+                                        : guildChannel.deleteMessagesByIds(chunk));
+                        chunk = new ArrayList<>(MAX_BULK_DELETE);
+                    }
+                }
+            }
+        }
+
+        for (long id : ids) {
+            batch.add(channel.deleteMessageById(id));
+        }
+        return batch;
+    }
+
+    /**
+     * Adds an action to this batch.
+     * <br>If this batch is already running, the action is executed once a slot is free.
+     *
+     * @param  action
+     *         The action
+     *
+     * @throws IllegalArgumentException
+     *         If the action is null
+     * @throws IllegalStateException
+     *         If this batch is already finished or cancelled
+     *
+     * @return The current RestBatch for chaining convenience
+     */
+    @Nonnull
+    public RestBatch<T> add(@Nonnull RestAction<? extends T> action) {
+        Checks.notNull(action, "RestAction");
+        boolean isStarted;
+        synchronized (lock) {
+            Checks.check(!future.isDone() && !cancelled, "Cannot add actions to a finished batch");
+            Object bucket = getBucket(action);
+            Deque<RestAction<? extends T>> queue = pending.get(bucket);
+            if (queue == null) {
+                pending.put(bucket, queue = new ArrayDeque<>());
+                if (!active.contains(bucket)) {
+                    ready.add(bucket);
+                }
+            }
+            queue.add(action);
+            total++;
+            isStarted = started;
+        }
+
+        if (isStarted) {
+            schedule();
+        }
+        return this;
+    }
+
+    /**
+     * Adds all provided actions to this batch.
+     *
+     * @param  actions
+     *         The actions
+     *
+     * @throws IllegalArgumentException
+     *         If null is provided
+     * @throws IllegalStateException
+     *         If this batch is already finished or cancelled
+     *
+     * @return The current RestBatch for chaining convenience
+     *
+     * @see    #add(RestAction)
+     */
+    @Nonnull
+    public RestBatch<T> addAll(@Nonnull Collection<? extends RestAction<? extends T>> actions) {
+        Checks.noneNull(actions, "RestActions");
+        actions.forEach(this::add);
+        return this;
+    }
+
+    /**
+     * The maximum amount of actions executed at the same time.
+     * <br>Actions of the same rate-limit bucket are never executed at the same time.
+     *
+     * <p>Default: {@value #DEFAULT_CONCURRENCY}
+     *
+     * @param  concurrency
+     *         The maximum amount of concurrent actions
+     *
+     * @throws IllegalArgumentException
+     *         If the provided concurrency is not positive
+     *
+     * @return The current RestBatch for chaining convenience
+     */
+    @Nonnull
+    public RestBatch<T> setConcurrency(int concurrency) {
+        Checks.positive(concurrency, "Concurrency");
+        boolean isStarted;
+        synchronized (lock) {
+            this.concurrency = concurrency;
+            isStarted = started;
+        }
+        if (isStarted) {
+            schedule();
+        }
+        return this;
+    }
+
+    /**
+     * The handler which receives the result of every action, as soon as it completes.
+     * <br>Actions which were {@link #cancel() cancelled} before their execution fail with a {@link CancellationException}.
+     *
+     * <p>The handler is never called concurrently, but it might be called from different threads.
+     *
+     * @param  handler
+     *         The result handler
+     *
+     * @throws IllegalArgumentException
+     *         If the handler is null
+     *
+     * @return The current RestBatch for chaining convenience
+     */
+    @Nonnull
+    public RestBatch<T> onResult(@Nonnull BiConsumer<? super RestAction<? extends T>, ? super Result<T>> handler) {
+        Checks.notNull(handler, "Handler");
+        this.handler = handler;
+        return this;
+    }
+
+    /**
+     * Starts executing the actions of this batch.
+     *
+     * @throws IllegalStateException
+     *         If this batch has already been started
+     *
+     * @return {@link CompletableFuture} which completes once all actions have completed
+     */
+    @Nonnull
+    public CompletableFuture<Void> execute() {
+        synchronized (lock) {
+            Checks.check(!started, "Batch has already been started");
+            started = true;
+        }
+        schedule();
+        return future;
+    }
+
+    /**
+     * Cancels all actions which have not been executed yet.
+     * <br>Actions which are currently executed are not affected.
+     *
+     * @return The amount of cancelled actions
+     */
+    public int cancel() {
+        List<RestAction<? extends T>> cancelledActions = new ArrayList<>();
+        synchronized (lock) {
+            cancelled = true;
+            pending.values().forEach(cancelledActions::addAll);
+            pending.clear();
+            ready.clear();
+        }
+
+        for (RestAction<? extends T> action : cancelledActions) {
+            handle(action, Result.failure(new CancellationException("Batch was cancelled")));
+        }
+        checkDone();
+        return cancelledActions.size();
+    }
+
+    /**
+     * The total amount of actions added to this batch.
+     *
+     * @return The total amount of actions
+     */
+    public int getTotal() {
+        synchronized (lock) {
+            return total;
+        }
+    }
+
+    /**
+     * The amount of actions which have completed, including failures.
+     *
+     * @return The amount of completed actions
+     */
+    public int getCompleted() {
+        synchronized (lock) {
+            return completed;
+        }
+    }
+
+    /**
+     * The amount of actions which have failed.
+     *
+     * @return The amount of failed actions
+     */
+    public int getFailed() {
+        synchronized (lock) {
+            return failed;
+        }
+    }
+
+    /**
+     * The amount of actions which are currently executed.
+     *
+     * @return The amount of in-flight actions
+     */
+    public int getInFlight() {
+        synchronized (lock) {
+            return inFlight;
+        }
+    }
+
+    private Object getBucket(RestAction<?> action) {
+        if (action instanceof RestActionImpl) {
+            Route.CompiledRoute route = ((RestActionImpl<?>) action).getRoute();
+            if (route != null) {
+                return route.getBaseRoute() + ":" + route.getMajorParameters();
+            }
+        }
+        // Unknown routes are only limited by the concurrency of the batch
+        return new Object();
+    }
+
+    private void schedule() {
+        synchronized (lock) {
+            if (scheduling) {
+                // Avoid recursion for actions which complete immediately
+                reschedule = true;
+                return;
+            }
+            scheduling = true;
+        }
+
+        while (true) {
+            List<Object> buckets = new ArrayList<>();
+            List<RestAction<? extends T>> actions = new ArrayList<>();
+            synchronized (lock) {
+                while (inFlight < concurrency && !ready.isEmpty()) {
+                    Object bucket = ready.poll();
+                    Deque<RestAction<? extends T>> queue = pending.get(bucket);
+                    actions.add(queue.poll());
+                    buckets.add(bucket);
+                    if (queue.isEmpty()) {
+                        pending.remove(bucket);
+                    }
+                    active.add(bucket);
+                    inFlight++;
+                }
+
+                if (actions.isEmpty() && !reschedule) {
+                    scheduling = false;
+                    break;
+                }
+                reschedule = false;
+            }
+
+            for (int i = 0; i < actions.size(); i++) {
+                submit(buckets.get(i), actions.get(i));
+            }
+        }
+
+        checkDone();
+    }
+
+    private void submit(Object bucket, RestAction<? extends T> action) {
+        try {
+            action.queue(
+                    value -> complete(bucket, action, Result.success(value)),
+                    error -> complete(bucket, action, Result.failure(error)));
+        } catch (Throwable error) {
+            complete(bucket, action, Result.failure(error));
+            if (error instanceof Error) {
+                throw error;
+            }
+        }
+    }
+
+    private void complete(Object bucket, RestAction<? extends T> action, Result<T> result) {
+        synchronized (lock) {
+            inFlight--;
+            active.remove(bucket);
+            if (pending.containsKey(bucket)) {
+                ready.add(bucket);
+            }
+        }
+
+        handle(action, result);
+        schedule();
+    }
+
+    private void handle(RestAction<? extends T> action, Result<T> result) {
+        synchronized (lock) {
+            completed++;
+            if (result.isFailure()) {
+                failed++;
+            }
+        }
+
+        synchronized (handlerLock) {
+            try {
+                handler.accept(action, result);
+            } catch (Throwable error) {
+                RestAction.getDefaultFailure().accept(error);
+                if (error instanceof Error) {
+                    throw error;
+                }
+            }
+        }
+    }
+
+    private void checkDone() {
+        boolean done;
+        synchronized (lock) {
+            done = started && inFlight == 0 && pending.isEmpty();
+        }
+        if (done) {
+            future.complete(null);
+        }
+    }
+}
@@ -21,6 +21,11 @@ import net.dv8tion.jda.internal.utils.Checks;
 import net.dv8tion.jda.internal.utils.Helpers;
 import okhttp3.Request;
 
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
 import java.util.function.Function;
 
@@ -43,10 +48,21 @@ public class RestConfig {
      * This URL uses the API version defined by {@link JDAInfo#DISCORD_REST_VERSION} (v{@value JDAInfo#DISCORD_REST_VERSION}).
      */
     public static final String DEFAULT_BASE_URL = "https://discord.com/api/v" + JDAInfo.DISCORD_REST_VERSION + "/";
+    /**
+     * The maximum number of responses kept by the default {@link #setResponseCache(RestResponseCache) response cache}.
+     */
+    public static final int DEFAULT_RESPONSE_CACHE_SIZE = 1000;
 
     private String userAgent = USER_AGENT;
     private String baseUrl = DEFAULT_BASE_URL;
     private boolean relativeRateLimit = true;
+    private boolean asyncExecution = false;
+    private boolean requestCoalescing = false;
+    private RestResponseCache responseCache;
+    private final Map<Route, Long> responseCacheTtls = new HashMap<>();
+    private RateLimitStore rateLimitStore;
+    private boolean rateLimitPacing = false;
+    private HttpProfile httpProfile;
     private Consumer<? super Request.Builder> customBuilder;
     private Function<? super RestRateLimiter.RateLimitConfig, ? extends RestRateLimiter> rateLimiter =
             SequentialRestRateLimiter::new;
@@ -66,9 +82,112 @@ public class RestConfig {
         return this;
     }
 
+    /**
+     * Whether requests should be executed asynchronously, using {@link okhttp3.Call#enqueue(okhttp3.Callback)}.
+     * <br>By default, every in-flight request blocks a thread of the rate-limit elastic pool until the response arrives.
+     * When this is enabled, the rate-limiter instead continues a bucket once the response is received,
+     * which means the number of concurrent requests is no longer bound by the number of threads.
+     *
+     * <p>The in-flight requests are instead limited by the {@link okhttp3.Dispatcher Dispatcher} of the http client.
+     * If you use a custom {@link okhttp3.OkHttpClient}, you should configure {@link okhttp3.Dispatcher#setMaxRequestsPerHost(int)} accordingly.
+     *
+     * <p>This is only supported by rate-limiters that use {@link RestRateLimiter.Work#executeAsync()},
+     * such as the {@link SequentialRestRateLimiter} and {@link ConcurrentRestRateLimiter}.
+     *
+     * @param  asyncExecution
+     *         True, to execute requests asynchronously
+     *
+     * @return The current RestConfig for chaining convenience
+     */
+    @Nonnull
+    public RestConfig setAsyncExecution(boolean asyncExecution) {
+        this.asyncExecution = asyncExecution;
+        return this;
+    }
+
+    /**
+     * Whether identical {@code GET} requests should be coalesced while they are in-flight.
+     * <br>When enabled, queued {@code GET} requests with the same route and query parameters share a single HTTP request,
+     * and every caller receives its own copy of the response.
+     * This reduces the number of requests in the same rate-limit bucket, for example when many event handlers
+     * retrieve the same member or message at once.
+     *
+     * <p>Requests with custom headers are never coalesced.
+     *
+     * @param  requestCoalescing
+     *         True, to coalesce identical in-flight {@code GET} requests
+     *
+     * @return The current RestConfig for chaining convenience
+     */
+    @Nonnull
+    public RestConfig setRequestCoalescing(boolean requestCoalescing) {
+        this.requestCoalescing = requestCoalescing;
+        return this;
+    }
+
+    /**
+     * Provide a custom store for cached REST responses.
+     * <br>If no store is provided, an {@link RestResponseCache#createDefault(int) in-memory cache}
+     * with up to {@value #DEFAULT_RESPONSE_CACHE_SIZE} entries is used.
+     *
+     * <p>Responses are only cached for routes which have a TTL configured with {@link #setResponseCacheTtl(Route, long, TimeUnit)}.
+     *
+     * @param  responseCache
+     *         The response cache, or null to use the default
+     *
+     * @return The current RestConfig for chaining convenience
+     */
+    @Nonnull
+    public RestConfig setResponseCache(@Nullable RestResponseCache responseCache) {
+        this.responseCache = responseCache;
+        return this;
+    }
+
+    /**
+     * Enables caching of successful responses for the provided {@code GET} route.
+     * <br>Queued requests for this route are answered from the cache until the TTL expires,
+     * or the entry is invalidated by a corresponding gateway event or a request modifying the same resource.
+     *
+     * <p>Cached responses can be outdated, if the resource is modified without a gateway event being received,
+     * for instance because of missing {@link net.dv8tion.jda.api.requests.GatewayIntent intents}.
+     *
+     * <p><b>Example</b>
+     * {@snippet lang="java":
+     * new RestConfig()
+     *     .setResponseCacheTtl(Route.Users.GET_USER, 5, TimeUnit.MINUTES)
+     *     .setResponseCacheTtl(Route.Messages.GET_MESSAGE, 30, TimeUnit.SECONDS);
+     * }
+     *
+     * @param  route
+     *         The {@code GET} route to cache
+     * @param  ttl
+     *         The time to keep responses, or 0 to disable caching for this route
+     * @param  unit
+     *         The time unit of the ttl
+     *
+     * @throws IllegalArgumentException
+     *         If null is provided, the route is not a {@code GET} route, or the ttl is negative
+     *
+     * @return The current RestConfig for chaining convenience
+     */
+    @Nonnull
+    public RestConfig setResponseCacheTtl(@Nonnull Route route, long ttl, @Nonnull TimeUnit unit) {
+        Checks.notNull(route, "Route");
+        Checks.notNull(unit, "TimeUnit");
+        Checks.notNegative(ttl, "TTL");
+        Checks.check(route.getMethod() == Method.GET, "Only GET routes can be cached");
+        if (ttl == 0) {
+            this.responseCacheTtls.remove(route);
+        } else {
+            this.responseCacheTtls.put(route, unit.toMillis(ttl));
+        }
+        return this;
+    }
+
     /**
      * Provide a custom implementation of {@link RestRateLimiter}.
      * <br>By default, this will use the {@link SequentialRestRateLimiter}.
+     * Bots with a lot of concurrent requests across many channels or guilds might benefit from the {@link ConcurrentRestRateLimiter}.
      *
      * @param  rateLimiter
      *         The new implementation
@@ -86,6 +205,64 @@ public class RestConfig {
         return this;
     }
 
+    /**
+     * The {@link RateLimitStore} used by the rate-limiter to remember bucket hashes and limits.
+     * <br>With a {@link RateLimitStore#fromFile(Path) file-backed store}, this information survives restarts,
+     * which avoids running into rate-limits while the buckets are discovered again.
+     *
+     * <p>The same store should be used for all shards of the same bot, since the buckets of a route are the same for every shard.
+     *
+     * @param  store
+     *         The store to use, or null to only keep this information in the rate-limiter
+     *
+     * @return The current RestConfig for chaining convenience
+     */
+    @Nonnull
+    public RestConfig setRateLimitStore(@Nullable RateLimitStore store) {
+        this.rateLimitStore = store;
+        return this;
+    }
+
+    /**
+     * Whether the rate-limiter should spread requests evenly over the rate-limit window.
+     * <br>By default, the remaining requests of a bucket are used up right away, followed by a backoff until the bucket resets.
+     *
+     * <p>Pacing adds some latency to individual requests, but avoids bursts which can cause rate-limits
+     * when multiple processes share the same buckets.
+     *
+     * <p>This is only supported by the {@link SequentialRestRateLimiter} and {@link ConcurrentRestRateLimiter}.
+     *
+     * @param  pacing
+     *         True, to pace requests
+     *
+     * @return The current RestConfig for chaining convenience
+     */
+    @Nonnull
+    public RestConfig setRateLimitPacing(boolean pacing) {
+        this.rateLimitPacing = pacing;
+        return this;
+    }
+
+    /**
+     * The {@link HttpProfile} used to configure the default {@link okhttp3.OkHttpClient OkHttpClient}.
+     * <br>For instance, {@link HttpProfile#highThroughput()} raises the dispatcher limits, sizes the connection pool
+     * to the shard count, and keeps idle connections alive for longer.
+     *
+     * <p>The profile is only used if no custom {@link okhttp3.OkHttpClient OkHttpClient} or {@link okhttp3.OkHttpClient.Builder OkHttpClient.Builder}
+     * is configured on the JDA or ShardManager builder.
+     * When using a ShardManager, the profile of the first shard is used for the shared client.
+     *
+     * @param  profile
+     *         The profile, or null to use the default client settings
+     *
+     * @return The current RestConfig for chaining convenience
+     */
+    @Nonnull
+    public RestConfig setHttpProfile(@Nullable HttpProfile profile) {
+        this.httpProfile = profile;
+        return this;
+    }
+
     /**
      * Provide a custom base URL for REST-api requests.
      * <br>This uses {@link #DEFAULT_BASE_URL} by default.
@@ -179,6 +356,48 @@ public class RestConfig {
         return baseUrl;
     }
 
+    /**
+     * Whether requests are executed asynchronously.
+     *
+     * @return True, if requests are executed asynchronously
+     *
+     * @see    #setAsyncExecution(boolean)
+     */
+    public boolean isAsyncExecution() {
+        return asyncExecution;
+    }
+
+    /**
+     * Whether identical in-flight {@code GET} requests are coalesced.
+     *
+     * @return True, if requests are coalesced
+     *
+     * @see    #setRequestCoalescing(boolean)
+     */
+    public boolean isRequestCoalescing() {
+        return requestCoalescing;
+    }
+
+    /**
+     * The configured response cache.
+     *
+     * @return The response cache, or null if the default should be used
+     */
+    @Nullable
+    public RestResponseCache getResponseCache() {
+        return responseCache;
+    }
+
+    /**
+     * The configured response cache TTLs for each route, in milliseconds.
+     *
+     * @return Immutable map of routes to TTLs
+     */
+    @Nonnull
+    public Map<Route, Long> getResponseCacheTtls() {
+        return Collections.unmodifiableMap(responseCacheTtls);
+    }
+
     /**
      * The configured rate-limiter implementation.
      *
@@ -189,6 +408,35 @@ public class RestConfig {
         return rateLimiter;
     }
 
+    /**
+     * The store used to remember bucket hashes and limits.
+     *
+     * @return The {@link RateLimitStore}, or null if none is configured
+     */
+    @Nullable
+    public RateLimitStore getRateLimitStore() {
+        return rateLimitStore;
+    }
+
+    /**
+     * Whether the rate-limiter should spread requests evenly over the rate-limit window.
+     *
+     * @return True, if requests are paced
+     */
+    public boolean isRateLimitPacing() {
+        return rateLimitPacing;
+    }
+
+    /**
+     * The {@link HttpProfile} used to configure the default {@link okhttp3.OkHttpClient OkHttpClient}.
+     *
+     * @return The profile, or null if the default client settings are used
+     */
+    @Nullable
+    public HttpProfile getHttpProfile() {
+        return httpProfile;
+    }
+
     /**
      * The custom request interceptor.
      *
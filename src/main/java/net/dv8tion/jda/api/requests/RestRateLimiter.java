@@ -20,6 +20,7 @@ import net.dv8tion.jda.api.JDA;
 import okhttp3.Response;
 import org.jetbrains.annotations.Blocking;
 
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.atomic.AtomicLong;
@@ -122,6 +123,27 @@ public interface RestRateLimiter {
         @Blocking
         Response execute();
 
+        /**
+         * Executes the request without blocking the calling thread, if supported.
+         * <br>The returned future is completed with the same response {@link #execute()} would return.
+         *
+         * <p>Rate-limiters should use this to continue with the next request of a bucket once the future completes,
+         * instead of blocking a thread for the entire duration of the request.
+         * The default implementation simply runs {@link #execute()} on the calling thread.
+         *
+         * @return {@link CompletableFuture} completed with the {@link Response}, used to update the rate-limit data
+         */
+        @Nonnull
+        default CompletableFuture<Response> executeAsync() {
+            CompletableFuture<Response> future = new CompletableFuture<>();
+            try {
+                future.complete(execute());
+            } catch (Throwable t) {
+                future.completeExceptionally(t);
+            }
+            return future;
+        }
+
         /**
          * Whether the request should be skipped.
          * <br>This can be caused by user cancellation.
@@ -244,6 +266,8 @@ public interface RestRateLimiter {
         private final ExecutorService elastic;
         private final GlobalRateLimit globalRateLimit;
         private final boolean isRelative;
+        private final RateLimitStore store;
+        private final boolean isPacing;
 
         public RateLimitConfig(
                 @Nonnull ScheduledExecutorService scheduler,
@@ -257,10 +281,22 @@ public interface RestRateLimiter {
                 @Nonnull ExecutorService elastic,
                 @Nonnull GlobalRateLimit globalRateLimit,
                 boolean isRelative) {
+            this(scheduler, elastic, globalRateLimit, isRelative, null, false);
+        }
+
+        public RateLimitConfig(
+                @Nonnull ScheduledExecutorService scheduler,
+                @Nonnull ExecutorService elastic,
+                @Nonnull GlobalRateLimit globalRateLimit,
+                boolean isRelative,
+                @Nullable RateLimitStore store,
+                boolean isPacing) {
             this.scheduler = scheduler;
             this.elastic = elastic;
             this.globalRateLimit = globalRateLimit;
             this.isRelative = isRelative;
+            this.store = store;
+            this.isPacing = isPacing;
         }
 
         /**
@@ -305,5 +341,25 @@ public interface RestRateLimiter {
         public boolean isRelative() {
             return isRelative;
         }
+
+        /**
+         * The store used to share and persist learned bucket hashes and limits.
+         *
+         * @return The {@link RateLimitStore}, or null if none is used
+         */
+        @Nullable
+        public RateLimitStore getStore() {
+            return store;
+        }
+
+        /**
+         * Whether requests should be spread evenly over the rate-limit window,
+         * instead of using up all remaining requests at once and then waiting for the reset.
+         *
+         * @return True, if requests should be paced
+         */
+        public boolean isPacing() {
+            return isPacing;
+        }
     }
 }
@@ -0,0 +1,146 @@
+/*
+ * Copyright 2015 Austin Keener, Michael Ritter, Florian Spieß, and the JDA contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.dv8tion.jda.api.requests;
+
+import net.dv8tion.jda.internal.requests.InMemoryResponseCache;
+import net.dv8tion.jda.internal.utils.Checks;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * Store for cached responses of idempotent REST requests.
+ * <br>Responses are only cached for routes with a configured {@link RestConfig#setResponseCacheTtl(Route, long, java.util.concurrent.TimeUnit) TTL}.
+ *
+ * <p>The keys are the {@link Route.CompiledRoute#getCompiledRoute() compiled routes}, including query parameters.
+ * Entries are invalidated when a corresponding gateway event is received, or when a request modifies the same resource.
+ *
+ * <p>Implementations must be thread-safe.
+ *
+ * @see RestConfig#setResponseCache(RestResponseCache)
+ */
+public interface RestResponseCache {
+    /**
+     * Returns the cached response for the provided key.
+     * <br>Implementations may return expired entries, which are then ignored and invalidated.
+     *
+     * @param  key
+     *         The compiled route
+     *
+     * @return The cached response, or null if none is cached
+     */
+    @Nullable
+    CachedResponse get(@Nonnull String key);
+
+    /**
+     * Stores a response for the provided key.
+     *
+     * @param key
+     *        The compiled route
+     * @param response
+     *        The response to cache
+     */
+    void put(@Nonnull String key, @Nonnull CachedResponse response);
+
+    /**
+     * Removes the cached response for the provided key, if present.
+     *
+     * @param key
+     *        The compiled route
+     */
+    void invalidate(@Nonnull String key);
+
+    /**
+     * Removes all cached responses.
+     */
+    void clear();
+
+    /**
+     * Creates the default in-memory cache, which evicts the least recently used entries once the maximum size is reached.
+     *
+     * @param  maxSize
+     *         The maximum number of cached responses
+     *
+     * @throws IllegalArgumentException
+     *         If the size is not positive
+     *
+     * @return The in-memory cache
+     */
+    @Nonnull
+    static RestResponseCache createDefault(int maxSize) {
+        Checks.positive(maxSize, "Max size");
+        return new InMemoryResponseCache(maxSize);
+    }
+
+    /**
+     * A cached response body.
+     */
+    final class CachedResponse {
+        private final byte[] body;
+        private final String contentType;
+        private final long expiresAt;
+
+        public CachedResponse(@Nonnull byte[] body, @Nullable String contentType, long expiresAt) {
+            Checks.notNull(body, "Body");
+            this.body = body;
+            this.contentType = contentType;
+            this.expiresAt = expiresAt;
+        }
+
+        /**
+         * The decoded response body.
+         * <br>The returned array must not be modified.
+         *
+         * @return The response body
+         */
+        @Nonnull
+        public byte[] getBody() {
+            return body;
+        }
+
+        /**
+         * The content type of the response.
+         *
+         * @return The content type, or null if unknown
+         */
+        @Nullable
+        public String getContentType() {
+            return contentType;
+        }
+
+        /**
+         * The time at which this response expires (unix timestamp in milliseconds).
+         *
+         * @return The expiration timestamp
+         */
+        public long getExpiresAt() {
+            return expiresAt;
+        }
+
+        /**
+         * Whether this response has expired.
+         *
+         * @param  now
+         *         The current time in milliseconds
+         *
+         * @return True, if this response expired
+         */
+        public boolean isExpired(long now) {
+            return expiresAt <= now;
+        }
+    }
+}
@@ -17,12 +17,10 @@
 package net.dv8tion.jda.api.requests;
 
 import net.dv8tion.jda.api.utils.MiscUtil;
-import net.dv8tion.jda.internal.utils.JDALogger;
-import okhttp3.Headers;
 import okhttp3.Response;
-import org.slf4j.Logger;
 
-import java.util.*;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.concurrent.*;
 import java.util.concurrent.locks.ReentrantLock;
 
@@ -61,32 +59,18 @@ import javax.annotation.Nonnull;
  * <p>This will send 100 messages on startup. At this point we don't yet know the hash for this route, so we put them all in {@code uninit+POST/channels/{channel.id}/messages:channel_id=123}.
  * The bucket iterates the requests in sync and gets the first response. This response provides the hash for this route, and we create a bucket for it.
  * Once the response is handled we continue with the next request in the uninit bucket and notice the new bucket. We then move all related requests to this bucket.
+ *
+ * <p>If a {@link RateLimitConfig#getStore() RateLimitStore} is configured, the hashes and bucket limits are also kept in this store.
+ * Routes with a known hash skip the uninit bucket entirely. With {@link RateLimitConfig#isPacing() pacing},
+ * the remaining requests of a bucket are spread evenly until the bucket resets, instead of being sent at once.
  */
-public final class SequentialRestRateLimiter implements RestRateLimiter {
-    private static final Logger log = JDALogger.getLog(RestRateLimiter.class);
-    private static final String UNINIT_BUCKET =
-            "uninit"; // we generate an uninit bucket for every major parameter configuration
-
-    private final CompletableFuture<?> shutdownHandle = new CompletableFuture<>();
-
-    private final Future<?> cleanupWorker;
-    private final RateLimitConfig config;
-
-    private boolean isStopped, isShutdown;
-
+public final class SequentialRestRateLimiter extends AbstractRestRateLimiter<SequentialRestRateLimiter.Bucket> {
     private final ReentrantLock lock = new ReentrantLock();
-    // Route -> Should we print warning for 429? AKA did we already hit it once before
-    private final Set<Route> hitRatelimit = new HashSet<>(5);
-    // Route -> Hash
-    private final Map<Route, String> hashes = new HashMap<>();
-    // Hash + Major Parameter -> Bucket
-    private final Map<String, Bucket> buckets = new HashMap<>();
     // Bucket -> Rate-Limit Worker
     private final Map<Bucket, Future<?>> rateLimitQueue = new HashMap<>();
 
     public SequentialRestRateLimiter(@Nonnull RateLimitConfig config) {
-        this.config = config;
-        this.cleanupWorker = config.getScheduler().scheduleAtFixedRate(this::cleanup, 30, 30, TimeUnit.SECONDS);
+        super(config, new HashMap<>(), new HashMap<>());
     }
 
     @Override
@@ -100,126 +84,45 @@ public final class SequentialRestRateLimiter implements RestRateLimiter {
 
     @Override
     public void stop(boolean shutdown, @Nonnull Runnable callback) {
-        MiscUtil.locked(lock, () -> {
-            boolean doShutdown = shutdown;
-            if (!isStopped) {
-                isStopped = true;
-                shutdownHandle.thenRun(callback);
-                if (!doShutdown) {
-                    int count = buckets.values().stream()
-                            .mapToInt(bucket -> bucket.getRequests().size())
-                            .sum();
-
-                    if (count > 0) {
-                        log.info("Waiting for {} requests to finish.", count);
-                    }
-                    doShutdown = count == 0;
-                }
-            }
-            if (doShutdown && !isShutdown) {
-                shutdown();
-            }
-        });
+        MiscUtil.locked(lock, () -> super.stop(shutdown, callback));
     }
 
     @Override
-    public boolean isStopped() {
-        return isStopped;
+    public int cancelRequests() {
+        return MiscUtil.locked(lock, super::cancelRequests);
     }
 
     @Override
-    public int cancelRequests() {
-        return MiscUtil.locked(lock, () -> {
-            // Empty buckets will be removed by the cleanup worker,
-            // which also checks for rate limit parameters
-            int cancelled = (int) buckets.values().stream()
-                    .map(Bucket::getRequests)
-                    .flatMap(Collection::stream)
-                    .filter(request -> !request.isPriority() && !request.isCancelled())
-                    .peek(Work::cancel)
-                    .count();
-
-            if (cancelled == 1) {
-                log.warn("Cancelled 1 request!");
-            } else if (cancelled > 1) {
-                log.warn("Cancelled {} requests!", cancelled);
-            }
-            return cancelled;
-        });
+    protected void cleanup() {
+        MiscUtil.locked(lock, super::cleanup);
     }
 
-    private void shutdown() {
-        isShutdown = true;
-        cleanupWorker.cancel(false);
-        cleanup();
-        shutdownHandle.complete(null);
+    @Override
+    protected Bucket getBucket(Route.CompiledRoute route) {
+        return MiscUtil.locked(lock, () -> super.getBucket(route));
     }
 
-    private void cleanup() {
-        // This will remove buckets that are no longer needed every 30 seconds
-        // to avoid memory leakage
-        // We will keep the hashes in memory since they are very limited
-        // (by the amount of possible routes)
-        MiscUtil.locked(lock, () -> {
-            int size = buckets.size();
-            Iterator<Map.Entry<String, Bucket>> entries = buckets.entrySet().iterator();
-
-            while (entries.hasNext()) {
-                Map.Entry<String, Bucket> entry = entries.next();
-                Bucket bucket = entry.getValue();
-                if (isShutdown) {
-                    bucket.requests.forEach(Work::cancel); // Cancel all requests
-                }
-                bucket.requests.removeIf(Work::isSkipped); // Remove cancelled requests
-
-                // Check if the bucket is empty
-                if (bucket.requests.isEmpty() && !rateLimitQueue.containsKey(bucket)) {
-                    // remove uninit if requests are empty
-                    if (bucket.isUninit()) {
-                        entries.remove();
-                        // If the requests of the bucket are drained and the reset is expired the
-                        // bucket has no valuable information
-                    } else if (bucket.reset <= getNow()) {
-                        entries.remove();
-                        // Remove empty buckets when the rate limiter is stopped
-                    } else if (isStopped) {
-                        entries.remove();
-                    }
-                }
-            }
-
-            // Log how many buckets were removed
-            size -= buckets.size();
-            if (size > 0) {
-                log.debug("Removed {} expired buckets", size);
-            } else if (isStopped && !isShutdown) {
-                shutdown();
-            }
-        });
+    @Override
+    protected Bucket updateBucket(Route.CompiledRoute route, Response response) {
+        return MiscUtil.locked(lock, () -> super.updateBucket(route, response));
     }
 
-    private String getRouteHash(Route route) {
-        return hashes.getOrDefault(route, UNINIT_BUCKET + "+" + route);
+    @Nonnull
+    @Override
+    protected Bucket createBucket(@Nonnull String bucketId, boolean interaction) {
+        return new Bucket(bucketId, interaction);
     }
 
-    private Bucket getBucket(Route.CompiledRoute route) {
-        return MiscUtil.locked(lock, () -> {
-            // Retrieve the hash via the route
-            String hash = getRouteHash(route.getBaseRoute());
-            // Get or create a bucket for the hash + major parameters
-            String bucketId = hash + ":" + route.getMajorParameters();
-            return this.buckets.computeIfAbsent(bucketId, (id) -> {
-                if (route.getBaseRoute().isInteractionBucket()) {
-                    return new InteractionBucket(id);
-                } else {
-                    return new ClassicBucket(id);
-                }
-            });
-        });
+    @Override
+    protected boolean removeIfUnused(@Nonnull Bucket bucket) {
+        if (!bucket.requests.isEmpty() || rateLimitQueue.containsKey(bucket)) {
+            return false;
+        }
+        return buckets.remove(bucket.bucketId) != null;
     }
 
     private void scheduleElastic(Bucket bucket) {
-        if (isShutdown) {
+        if (isShutdown.get()) {
             return;
         }
 
@@ -234,7 +137,7 @@ public final class SequentialRestRateLimiter implements RestRateLimiter {
                 elastic.execute(bucket);
             }
         } catch (RejectedExecutionException ex) {
-            if (!isShutdown) {
+            if (!isShutdown.get()) {
                 log.error("Failed to execute bucket worker", ex);
             }
         } catch (Throwable t) {
@@ -246,7 +149,7 @@ public final class SequentialRestRateLimiter implements RestRateLimiter {
     }
 
     private void runBucket(Bucket bucket) {
-        if (isShutdown) {
+        if (isShutdown.get()) {
             return;
         }
         // Schedule a new bucket worker if no worker is running
@@ -256,201 +159,32 @@ public final class SequentialRestRateLimiter implements RestRateLimiter {
                         .schedule(() -> scheduleElastic(bucket), bucket.getRateLimit(), TimeUnit.MILLISECONDS)));
     }
 
-    private long parseLong(String input) {
-        return input == null ? 0L : Long.parseLong(input);
-    }
-
-    private long parseDouble(String input) {
-        // The header value is using a double to represent milliseconds and seconds:
-        // 5.250 this is 5 seconds and 250 milliseconds (5250 milliseconds)
-        return input == null ? 0L : (long) (Double.parseDouble(input) * 1000);
-    }
-
-    private long getNow() {
-        return System.currentTimeMillis();
-    }
-
-    private Bucket updateBucket(Route.CompiledRoute route, Response response) {
-        return MiscUtil.locked(lock, () -> {
-            try {
-                Bucket bucket = getBucket(route);
-                Headers headers = response.headers();
-
-                boolean global = headers.get(GLOBAL_HEADER) != null;
-                boolean cloudflare = headers.get("via") == null;
-                String hash = headers.get(HASH_HEADER);
-                String scope = headers.get(SCOPE_HEADER);
-                long now = getNow();
-
-                // Create a new bucket for the hash if needed
-                Route baseRoute = route.getBaseRoute();
-                if (hash != null) {
-                    if (!this.hashes.containsKey(baseRoute)) {
-                        this.hashes.put(baseRoute, hash);
-                        log.debug("Caching bucket hash {} -> {}", baseRoute, hash);
-                    }
-
-                    bucket = getBucket(route);
-                }
-
-                if (response.code() == 429) {
-                    String retryAfterHeader = headers.get(RETRY_AFTER_HEADER);
-                    long retryAfter = parseLong(retryAfterHeader) * 1000; // seconds precision
-                    // Handle global rate limit if necessary
-                    if (global) {
-                        config.getGlobalRateLimit().setClassic(now + retryAfter);
-                        log.error("Encountered global rate limit! Retry-After: {} ms Scope: {}", retryAfter, scope);
-                    }
-                    // Handle cloudflare rate limits,
-                    // this applies to all routes and uses seconds for retry-after
-                    else if (cloudflare) {
-                        config.getGlobalRateLimit().setCloudflare(now + retryAfter);
-                        log.error("Encountered cloudflare rate limit! Retry-After: {} s", retryAfter / 1000);
-                    }
-                    // Handle hard rate limit, pretty much just log that it happened
-                    else {
-                        boolean firstHit = hitRatelimit.add(baseRoute) && retryAfter < 60000;
-                        // Update the bucket to the new information
-                        bucket.remaining = 0;
-                        bucket.reset = now + retryAfter;
-                        // don't log warning if we hit the rate limit for the first time,
-                        // likely due to initialization of the bucket
-                        // unless its a long retry-after delay (more than a minute)
-                        if (firstHit) {
-                            log.debug(
-                                    "Encountered 429 on route {} with bucket {} Retry-After: {} ms Scope: {}",
-                                    baseRoute,
-                                    bucket.bucketId,
-                                    retryAfter,
-                                    scope);
-                        } else {
-                            log.warn(
-                                    "Encountered 429 on route {} with bucket {} Retry-After: {} ms Scope: {}",
-                                    baseRoute,
-                                    bucket.bucketId,
-                                    retryAfter,
-                                    scope);
-                        }
-                    }
-
-                    log.trace("Updated bucket {} to retry after {}", bucket.bucketId, bucket.reset - now);
-                    return bucket;
-                }
-
-                // If hash is null this means we didn't get enough information to update a bucket
-                if (hash == null) {
-                    return bucket;
-                }
-
-                // Update the bucket parameters with new information
-                String limitHeader = headers.get(LIMIT_HEADER);
-                String remainingHeader = headers.get(REMAINING_HEADER);
-                String resetAfterHeader = headers.get(RESET_AFTER_HEADER);
-                String resetHeader = headers.get(RESET_HEADER);
-
-                //                bucket.limit = (int) Math.max(1L, parseLong(limitHeader));
-                bucket.remaining = (int) parseLong(remainingHeader);
-                if (config.isRelative()) {
-                    bucket.reset = now + parseDouble(resetAfterHeader);
-                } else {
-                    bucket.reset = parseDouble(resetHeader);
-                }
-                log.trace(
-                        "Updated bucket {} to ({}/{}, {})",
-                        bucket.bucketId,
-                        bucket.remaining,
-                        limitHeader,
-                        bucket.reset - now);
-                return bucket;
-            } catch (Exception e) {
-                Bucket bucket = getBucket(route);
-                log.error(
-                        "Encountered Exception while updating a bucket. Route: {} Bucket: {} Code: {} Headers:\n{}",
-                        route.getBaseRoute(),
-                        bucket,
-                        response.code(),
-                        response.headers(),
-                        e);
-                return bucket;
-            }
-        });
-    }
-
-    private abstract class Bucket implements Runnable {
-        protected final String bucketId;
-        protected final Deque<Work> requests = new ConcurrentLinkedDeque<>();
-
-        protected long reset = 0;
-        protected int remaining = 1;
-
-        public Bucket(@Nonnull String bucketId) {
-            this.bucketId = bucketId;
-        }
-
-        public boolean isUninit() {
-            return bucketId.startsWith(UNINIT_BUCKET);
+    class Bucket extends AbstractBucket {
+        private Bucket(@Nonnull String bucketId, boolean interaction) {
+            super(SequentialRestRateLimiter.this.config, bucketId, interaction);
         }
 
         public void enqueue(@Nonnull Work request) {
             requests.addLast(request);
         }
 
-        public void retry(@Nonnull Work request) {
-            if (!moveRequest(request)) {
-                requests.addFirst(request);
-            }
-        }
-
-        public long getReset() {
-            return reset;
-        }
-
-        public int getRemaining() {
-            return remaining;
-        }
-
-        public abstract long getGlobalRateLimit(long now);
-
-        public long getRateLimit() {
-            long now = getNow();
-
-            long global = getGlobalRateLimit(now);
-
-            // Check if the bucket reset time has expired
-            if (reset <= now) {
-                // Update the remaining uses to the limit (we don't know better)
-                remaining = 1;
-            }
-
-            // If there are remaining requests we don't need to do anything,
-            // otherwise return backoff in milliseconds
-            return Math.max(global, remaining < 1 ? reset - now : 0L);
-        }
-
-        protected boolean isGlobalRateLimit() {
-            return getGlobalRateLimit(getNow()) > 0;
-        }
-
+        @Override
         protected void backoff() {
             // Schedule backoff if requests are not done
             MiscUtil.locked(lock, () -> {
                 rateLimitQueue.remove(this);
                 if (!requests.isEmpty()) {
                     runBucket(this);
-                } else if (isStopped) {
+                } else if (isStopped.get()) {
                     buckets.remove(bucketId);
                 }
-                if (isStopped && buckets.isEmpty()) {
+                if (isStopped.get() && buckets.isEmpty()) {
                     shutdown();
                 }
             });
         }
 
-        @Nonnull
-        public Queue<Work> getRequests() {
-            return requests;
-        }
-
+        @Override
         @SuppressWarnings("ReferenceEquality")
         protected boolean moveRequest(@Nonnull Work request) {
             return MiscUtil.locked(lock, () -> {
@@ -464,66 +198,9 @@ public final class SequentialRestRateLimiter implements RestRateLimiter {
             });
         }
 
-        protected boolean execute(@Nonnull Work request) {
-            try {
-                Response response = request.execute();
-                if (response != null) {
-                    updateBucket(request.getRoute(), response);
-                }
-                if (!request.isDone()) {
-                    retry(request);
-                }
-            } catch (Throwable ex) {
-                log.error("Encountered exception trying to execute request", ex);
-                if (ex instanceof Error) {
-                    throw (Error) ex;
-                }
-                return true;
-            }
-            return false;
-        }
-
-        @Override
-        public void run() {
-            log.trace("Bucket {} is running {} requests", bucketId, requests.size());
-            while (!requests.isEmpty()) {
-                long rateLimit = getRateLimit();
-                if (rateLimit > 0L) {
-                    // We need to backoff since we ran out of remaining uses
-                    // or hit the global rate limit
-                    Work request = requests.peekFirst(); // this *should* not be null
-                    String baseRoute =
-                            request != null ? request.getRoute().getBaseRoute().toString() : "N/A";
-                    if (!isGlobalRateLimit() && rateLimit >= 1000 * 60 * 30) { // 30 minutes
-                        log.warn(
-                                "Encountered long {} minutes Rate-Limit on route {}",
-                                TimeUnit.MILLISECONDS.toMinutes(rateLimit),
-                                baseRoute);
-                    }
-                    log.debug("Backing off {} ms for bucket {} on route {}", rateLimit, bucketId, baseRoute);
-                    break;
-                }
-
-                Work request = requests.removeFirst();
-                if (request.isSkipped()) {
-                    continue;
-                }
-
-                if (isUninit() && moveRequest(request)) {
-                    continue;
-                }
-
-                if (execute(request)) {
-                    break;
-                }
-            }
-
-            backoff();
-        }
-
         @Override
-        public String toString() {
-            return bucketId;
+        protected void updateRateLimit(@Nonnull Route.CompiledRoute route, @Nonnull Response response) {
+            updateBucket(route, response);
         }
 
         @Override
@@ -542,29 +219,4 @@ public final class SequentialRestRateLimiter implements RestRateLimiter {
             return this.bucketId.equals(((Bucket) obj).bucketId);
         }
     }
-
-    private class ClassicBucket extends Bucket {
-        public ClassicBucket(String bucketId) {
-            super(bucketId);
-        }
-
-        @Override
-        public long getGlobalRateLimit(long now) {
-            GlobalRateLimit holder = config.getGlobalRateLimit();
-            long global = Math.max(holder.getClassic(), holder.getCloudflare());
-            return global - now;
-        }
-    }
-
-    private class InteractionBucket extends Bucket {
-        public InteractionBucket(@Nonnull String bucketId) {
-            super(bucketId);
-        }
-
-        @Override
-        public long getGlobalRateLimit(long now) {
-            // Only cloudflare bans apply to interactions
-            return config.getGlobalRateLimit().getCloudflare() - now;
-        }
-    }
 }
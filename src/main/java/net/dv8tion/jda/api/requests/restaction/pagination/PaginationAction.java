@@ -696,6 +696,45 @@ public interface PaginationAction<T, M extends PaginationAction<T, M>>
         return StreamSupport.stream(spliterator(), true);
     }
 
+    /**
+     * A sequential {@link java.util.stream.Stream Stream} with this PaginationAction as its source,
+     * which retrieves the next pages in the background while the current page is being consumed.
+     *
+     * <p>Unlike {@link #stream()}, which only requests the next page once the previous one has been fully consumed,
+     * this stream keeps up to {@code prefetch} pages buffered ahead of the consumer.
+     * Only one request is in flight at any time, which means the rate-limit bucket of the route is never overrun,
+     * and fetching pauses as soon as the buffer is full. This provides back-pressure for slow consumers,
+     * without blocking the requester threads.
+     *
+     * <p>Closing the stream (for instance with try-with-resources) stops any further prefetching.
+     * Short-circuiting operations such as {@link Stream#limit(long)} do not close the stream on their own,
+     * at most {@code prefetch} pages will be retrieved beyond the last consumed entity.
+     *
+     * <p>When iterating a large number of entities, consider disabling the cache with {@link #cache(boolean)}.
+     *
+     * <p><b>Example</b><br>
+     * {@snippet lang="java":
+     * try (Stream<Message> stream = channel.getIterableHistory().cache(false).prefetchStream(2)) {
+     *     stream.filter(message -> message.getAuthor().equals(user))
+     *           .limit(1000)
+     *           .forEach(archive::write);
+     * }
+     * }
+     *
+     * @param  prefetch
+     *         The maximum number of pages to buffer ahead of the consumer
+     *
+     * @throws IllegalArgumentException
+     *         If the provided prefetch is not positive
+     * @throws IllegalStateException
+     *         If the stream is consumed on a callback thread of a {@link RestAction}
+     *
+     * @return a sequential {@code Stream} over the elements in this PaginationAction
+     */
+    @Nonnull
+    @Blocking
+    Stream<T> prefetchStream(int prefetch);
+
     /**
      * {@link PaginationIterator PaginationIterator}
      * that will iterate over all entities for this PaginationAction.
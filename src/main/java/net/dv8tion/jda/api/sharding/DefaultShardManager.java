@@ -43,6 +43,7 @@ import net.dv8tion.jda.internal.utils.config.AuthorizationConfig;
 import net.dv8tion.jda.internal.utils.config.MetaConfig;
 import net.dv8tion.jda.internal.utils.config.SessionConfig;
 import net.dv8tion.jda.internal.utils.config.ThreadingConfig;
+import net.dv8tion.jda.internal.utils.config.flags.ConfigFlag;
 import net.dv8tion.jda.internal.utils.config.sharding.*;
 import okhttp3.Call;
 import okhttp3.HttpUrl;
@@ -510,6 +511,7 @@ public class DefaultShardManager implements ShardManager {
         threadingConfig.setCallbackPool(callbackPool, shutdownCallbackPool);
         threadingConfig.setEventPool(eventPool, shutdownEventPool);
         threadingConfig.setAudioPool(audioPool, shutdownAudioPool);
+        threadingConfig.setVirtualThreads(this.sessionConfig.getFlags().contains(ConfigFlag.VIRTUAL_THREADS));
         MetaConfig metaConfig = new MetaConfig(
                 this.metaConfig.getMaxBufferSize(),
                 this.metaConfig.getContextMap(shardId),
@@ -523,6 +525,7 @@ public class DefaultShardManager implements ShardManager {
         JDAImpl jda =
                 new JDAImpl(authConfig, sessionConfig, threadingConfig, metaConfig, restConfig, audioModuleConfig);
         jda.setMemberCachePolicy(shardingConfig.getMemberCachePolicy());
+        jda.setStringPool(shardingConfig.getStringPool());
         threadingConfig.init(jda::getIdentifierString);
         jda.initRequester();
 
@@ -28,7 +28,13 @@ public enum Compression {
     /** Don't use any compression */
     NONE(""),
     /** Use ZLIB transport compression */
-    ZLIB("zlib-stream");
+    ZLIB("zlib-stream"),
+    /**
+     * Use Zstandard transport compression.
+     * <br>This is faster to decompress than {@link #ZLIB}, but requires
+     * <a href="https://github.com/luben/zstd-jni" target="_blank">zstd-jni</a> to be added to the classpath.
+     */
+    ZSTD("zstd-stream");
 
     private final String key;
 
@@ -19,8 +19,10 @@ package net.dv8tion.jda.api.utils.cache;
 import net.dv8tion.jda.api.entities.Member;
 import net.dv8tion.jda.api.entities.Role;
 import net.dv8tion.jda.api.utils.MiscUtil;
+import net.dv8tion.jda.internal.utils.Checks;
 import org.jetbrains.annotations.Unmodifiable;
 
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
 
@@ -137,6 +139,29 @@ public interface MemberCacheView extends SnowflakeCacheView<Member> {
         return getElementsByNickname(name, false);
     }
 
+    /**
+     * Creates an immutable list of members whose {@link Member#getEffectiveName() effective name}
+     * or {@link net.dv8tion.jda.api.entities.User#getName() username} starts with the provided prefix, ignoring case.
+     * <br>This is useful to suggest members for autocomplete interactions, without requesting them from the API.
+     *
+     * <p>When the name index is enabled with {@link net.dv8tion.jda.api.JDABuilder#setNameIndexEnabled(boolean) JDABuilder.setNameIndexEnabled(boolean)},
+     * only the matching members are visited. Members matching by effective name are returned first,
+     * followed by members matching by username, each in lexicographical order. Otherwise, the order is undefined.
+     *
+     * @param  prefix
+     *         The prefix to check
+     * @param  limit
+     *         The maximum number of members to return
+     *
+     * @throws java.lang.IllegalArgumentException
+     *         If the provided prefix is {@code null} or empty, or the limit is not positive
+     *
+     * @return Immutable list of at most {@code limit} members with a matching name
+     */
+    @Nonnull
+    @Unmodifiable
+    List<Member> getElementsByPrefix(@Nonnull String prefix, int limit);
+
     /**
      * Creates an immutable list of all members that hold all
      * of the provided roles.
@@ -168,4 +193,41 @@ public interface MemberCacheView extends SnowflakeCacheView<Member> {
     @Nonnull
     @Unmodifiable
     List<Member> getElementsWithRoles(@Nonnull Collection<Role> roles);
+
+    /**
+     * Counts the members that hold all of the provided roles.
+     * <br>This is equivalent to {@code getElementsWithRoles(roles).size()},
+     * but does not have to create the list when the role index is enabled.
+     *
+     * @param  roles
+     *         Roles the members should have
+     *
+     * @throws java.lang.IllegalArgumentException
+     *         If provided with {@code null}
+     *
+     * @return The amount of members with the given roles
+     *
+     * @see    net.dv8tion.jda.api.JDABuilder#setRoleIndexEnabled(boolean)
+     */
+    default long countElementsWithRoles(@Nonnull Role... roles) {
+        Checks.notNull(roles, "Roles");
+        return countElementsWithRoles(Arrays.asList(roles));
+    }
+
+    /**
+     * Counts the members that hold all of the provided roles.
+     * <br>This is equivalent to {@code getElementsWithRoles(roles).size()},
+     * but does not have to create the list when the role index is enabled.
+     *
+     * @param  roles
+     *         Roles the members should have
+     *
+     * @throws java.lang.IllegalArgumentException
+     *         If provided with {@code null}
+     *
+     * @return The amount of members with the given roles
+     *
+     * @see    net.dv8tion.jda.api.JDABuilder#setRoleIndexEnabled(boolean)
+     */
+    long countElementsWithRoles(@Nonnull Collection<Role> roles);
 }
@@ -0,0 +1,153 @@
+/*
+ * Copyright 2015 Austin Keener, Michael Ritter, Florian Spieß, and the JDA contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.dv8tion.jda.api.utils.cache;
+
+import net.dv8tion.jda.internal.utils.Checks;
+
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.annotation.Nullable;
+
+/**
+ * Bounded pool used to deduplicate strings of cached entities.
+ *
+ * <p>Some cached strings, such as activity names, role names, or image keys of rich presences,
+ * are equal across thousands of entities but are parsed into separate instances for every entity.
+ * When a pool is configured, JDA replaces these strings with an equal instance from the pool,
+ * so duplicates can be garbage collected. Mostly unique strings, such as usernames or avatar hashes,
+ * are not pooled since they would only displace the shared strings.
+ *
+ * <p>The pool is a fixed-size table indexed by the hash of the string, a string simply replaces
+ * the previous string in its slot. This keeps the memory usage bounded, since the pool holds at most
+ * one string per slot. A pooled string stays reachable until it is replaced by another string in its slot,
+ * even if no entity uses it anymore, and strings with colliding hashes may not be deduplicated.
+ * The {@link #getHitRate() hit rate} can be used to choose the capacity.
+ *
+ * <p>A pool can be shared by multiple shards and is safe to use concurrently.
+ *
+ * @see net.dv8tion.jda.api.JDABuilder#setStringPool(StringPool)
+ * @see net.dv8tion.jda.api.sharding.DefaultShardManagerBuilder#setStringPool(StringPool)
+ */
+public final class StringPool {
+    /** The default capacity of a pool, with 65536 slots */
+    public static final int DEFAULT_CAPACITY = 1 << 16;
+    /** Strings longer than this are not pooled, as they are rarely shared */
+    public static final int MAX_LENGTH = 256;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    // Data races are benign, strings are immutable and safely published
+    private final String[] table;
+    private final int mask;
+
+    /**
+     * Creates a pool with the {@link #DEFAULT_CAPACITY default capacity}.
+     */
+    public StringPool() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Creates a pool with the provided capacity.
+     *
+     * @param  capacity
+     *         The number of slots, which is rounded up to the next power of two
+     *
+     * @throws IllegalArgumentException
+     *         If the capacity is not positive or larger than 2<sup>30</sup>
+     */
+    public StringPool(int capacity) {
+        Checks.positive(capacity, "Capacity");
+        Checks.check(capacity <= 1 << 30, "Capacity must not be larger than 2^30");
+        int size = Integer.highestOneBit(capacity);
+        if (size < capacity) {
+            size <<= 1;
+        }
+        this.table = new String[size];
+        this.mask = size - 1;
+    }
+
+    /**
+     * Returns an equal string from the pool, or adds the provided string to the pool.
+     * <br>An added string replaces the previous string in its slot.
+     *
+     * @param  value
+     *         The string to deduplicate
+     *
+     * @return An equal pooled string, or the provided string
+     */
+    @Nullable
+    public String get(@Nullable String value) {
+        if (value == null || value.isEmpty() || value.length() > MAX_LENGTH) {
+            return value;
+        }
+        int hash = value.hashCode();
+        int index = (hash ^ (hash >>> 16)) & mask;
+        String pooled = table[index];
+        if (value.equals(pooled)) {
+            hits.increment();
+            return pooled;
+        }
+        table[index] = value;
+        misses.increment();
+        return value;
+    }
+
+    /**
+     * The number of slots in this pool.
+     *
+     * @return The capacity
+     */
+    public int getCapacity() {
+        return table.length;
+    }
+
+    /**
+     * The number of strings which were replaced by a pooled instance.
+     *
+     * @return The hit count
+     */
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * The number of strings which were added to the pool.
+     *
+     * @return The miss count
+     */
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    /**
+     * The fraction of strings which were replaced by a pooled instance.
+     *
+     * @return The hit rate between 0 and 1, or 0 if no strings were pooled yet
+     */
+    public double getHitRate() {
+        long hits = getHitCount();
+        long total = hits + getMissCount();
+        return total == 0 ? 0 : (double) hits / total;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(
+                "StringPool[capacity=%d, hits=%d, misses=%d]", getCapacity(), getHitCount(), getMissCount());
+    }
+}
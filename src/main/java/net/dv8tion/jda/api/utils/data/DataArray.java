@@ -34,6 +34,7 @@ import java.time.OffsetDateTime;
 import java.time.format.DateTimeParseException;
 import java.util.*;
 import java.util.function.BiFunction;
+import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.function.UnaryOperator;
 import java.util.stream.IntStream;
@@ -117,6 +118,32 @@ public class DataArray implements Iterable<Object>, SerializableArray {
         return new DataArray(SerializationUtil.fromJson(SerializationUtil.getListType(), json));
     }
 
+    /**
+     * Parses a JSON Array of objects, and passes every object to the consumer as soon as it has been parsed.
+     * <br>Unlike {@link #fromJson(InputStream)}, this does not wait for the entire array to be read,
+     * and the parsed elements are not retained.
+     *
+     * @param  json
+     *         The correctly formatted JSON Array
+     * @param  consumer
+     *         The consumer for each element
+     *
+     * @throws net.dv8tion.jda.api.exceptions.ParsingException
+     *         If the provided JSON is incorrectly formatted, contains an element which is not an object, or an I/O error occurred
+     *
+     * @return The number of elements
+     */
+    @SuppressWarnings("unchecked")
+    public static int forEachObject(@Nonnull InputStream json, @Nonnull Consumer<? super DataObject> consumer) {
+        Checks.notNull(consumer, "Consumer");
+        return SerializationUtil.readArray(json, element -> {
+            if (!(element instanceof Map)) {
+                throw new ParsingException("Expected an object in the JSON array, got " + element);
+            }
+            consumer.accept(new DataObject((Map<String, Object>) element));
+        });
+    }
+
     /**
      * Parses a JSON Array into a DataArray instance.
      *
@@ -86,6 +86,28 @@ public class DataObject implements SerializableData {
         return new DataObject(map);
     }
 
+    /**
+     * Parses a JSON payload from a region of the provided array into a DataObject instance.
+     * <br>This avoids copying the payload when it is only a part of a larger buffer.
+     *
+     * @param  data
+     *         The array containing the correctly formatted JSON payload
+     * @param  offset
+     *         The offset of the payload in the array
+     * @param  length
+     *         The length of the payload
+     *
+     * @throws net.dv8tion.jda.api.exceptions.ParsingException
+     *         If the provided json is incorrectly formatted
+     *
+     * @return A DataObject instance for the provided payload
+     */
+    @Nonnull
+    public static DataObject fromJson(@Nonnull byte[] data, int offset, int length) {
+        Map<String, Object> map = SerializationUtil.fromJson(SerializationUtil.getMapType(), data, offset, length);
+        return new DataObject(map);
+    }
+
     /**
      * Parses a JSON payload into a DataObject instance.
      *
@@ -153,12 +175,37 @@ public class DataObject implements SerializableData {
      */
     @Nonnull
     public static DataObject fromETF(@Nonnull byte[] data) {
+        Checks.notNull(data, "Data");
+        return fromETF(data, 0, data.length);
+    }
+
+    /**
+     * Parses a region of the provided array using {@link ExTermDecoder}.
+     * The payload must start with the correct version header (131).
+     *
+     * @param  data
+     *         The array containing the data to decode
+     * @param  offset
+     *         The offset of the payload in the array
+     * @param  length
+     *         The length of the payload
+     *
+     * @throws IllegalArgumentException
+     *         If the provided data is null
+     * @throws net.dv8tion.jda.api.exceptions.ParsingException
+     *         If the provided ETF payload is incorrectly formatted or an I/O error occurred
+     *
+     * @return A DataObject instance for the provided payload
+     */
+    @Nonnull
+    public static DataObject fromETF(@Nonnull byte[] data, int offset, int length) {
         Checks.notNull(data, "Data");
         try {
-            Map<String, Object> map = ExTermDecoder.unpackMap(ByteBuffer.wrap(data));
+            Map<String, Object> map = ExTermDecoder.unpackMap(ByteBuffer.wrap(data, offset, length));
             return new DataObject(map);
         } catch (Exception ex) {
-            log.error("Failed to parse ETF data {}", Arrays.toString(data), ex);
+            Object payload = Arrays.toString(Arrays.copyOfRange(data, offset, offset + length));
+            log.error("Failed to parse ETF data {}", payload, ex);
             throw new ParsingException(ex);
         }
     }
@@ -19,6 +19,7 @@ package net.dv8tion.jda.api.utils.data.etf;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.UncheckedIOException;
+import java.nio.Buffer;
 import java.nio.ByteBuffer;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
@@ -37,6 +38,30 @@ import static net.dv8tion.jda.api.utils.data.etf.ExTermTag.*;
  * @see #unpackList(ByteBuffer)
  */
 public class ExTermDecoder {
+    // Keys which only ever hold snowflakes, other *_id keys such as custom_id or sound_id can hold arbitrary strings
+    private static final Set<String> SNOWFLAKE_KEYS = new HashSet<>(Arrays.asList(
+            "id",
+            "afk_channel_id",
+            "application_id",
+            "channel_id",
+            "creator_id",
+            "emoji_id",
+            "guild_id",
+            "guild_scheduled_event_id",
+            "integration_id",
+            "last_message_id",
+            "message_id",
+            "owner_id",
+            "parent_id",
+            "public_updates_channel_id",
+            "rules_channel_id",
+            "safety_alerts_channel_id",
+            "sku_id",
+            "system_channel_id",
+            "target_id",
+            "user_id",
+            "webhook_id"));
+
     /**
      * Unpacks the provided term into a java object.
      *
@@ -65,7 +90,7 @@ public class ExTermDecoder {
             throw new IllegalArgumentException("Failed header check");
         }
 
-        return unpack0(buffer);
+        return unpack0(buffer, false);
     }
 
     /**
@@ -91,13 +116,43 @@ public class ExTermDecoder {
      * @return The parsed {@link Map} instance
      */
     @Nonnull
-    @SuppressWarnings("unchecked")
     public static Map<String, Object> unpackMap(@Nonnull ByteBuffer buffer) {
-        byte tag = buffer.get(1);
+        return unpackMap(buffer, false);
+    }
+
+    /**
+     * Unpacks the provided term into a java {@link Map}.
+     *
+     * <p>This uses the same mapping as {@link #unpackMap(ByteBuffer)},
+     * but can optionally decode snowflakes to {@link Long}.
+     * Snowflakes are the values of known snowflake keys, such as {@code id} or {@code guild_id},
+     * which are encoded as binaries of decimal digits.
+     * Other keys, such as {@code custom_id}, always keep their string values.
+     * Values that do not round-trip through {@link Long#toString(long)} are kept as strings.
+     *
+     * <p>Heap buffers are decoded in place, without copying the binaries before decoding the strings.
+     *
+     * @param  buffer
+     *         The {@link ByteBuffer} containing the encoded term
+     * @param  parseSnowflakes
+     *         Whether snowflakes should be decoded to {@link Long}
+     *
+     * @throws IllegalArgumentException
+     *         If the buffer does not start with a Map term, does not have the right version byte, or the format includes an unsupported tag
+     *
+     * @return The parsed {@link Map} instance
+     */
+    @Nonnull
+    @SuppressWarnings("unchecked")
+    public static Map<String, Object> unpackMap(@Nonnull ByteBuffer buffer, boolean parseSnowflakes) {
+        byte tag = buffer.get(buffer.position() + 1);
         if (tag != MAP) {
             throw new IllegalArgumentException("Cannot unpack map from tag " + tag);
         }
-        return (Map<String, Object>) unpack(buffer);
+        if (buffer.get() != -125) {
+            throw new IllegalArgumentException("Failed header check");
+        }
+        return (Map<String, Object>) unpack0(buffer, parseSnowflakes);
     }
 
     /**
@@ -125,7 +180,7 @@ public class ExTermDecoder {
     @Nonnull
     @SuppressWarnings("unchecked")
     public static List<Object> unpackList(@Nonnull ByteBuffer buffer) {
-        byte tag = buffer.get(1);
+        byte tag = buffer.get(buffer.position() + 1);
         if (tag != LIST) {
             throw new IllegalArgumentException("Cannot unpack list from tag " + tag);
         }
@@ -133,11 +188,11 @@ public class ExTermDecoder {
         return (List<Object>) unpack(buffer);
     }
 
-    private static Object unpack0(@Nonnull ByteBuffer buffer) {
+    private static Object unpack0(@Nonnull ByteBuffer buffer, boolean parseSnowflakes) {
         int tag = buffer.get();
         switch (tag) {
             case COMPRESSED:
-                return unpackCompressed(buffer);
+                return unpackCompressed(buffer, parseSnowflakes);
             case SMALL_INT:
                 return unpackSmallInt(buffer);
             case SMALL_BIGINT:
@@ -160,9 +215,9 @@ public class ExTermDecoder {
                 return unpackAtom(buffer, StandardCharsets.ISO_8859_1);
 
             case MAP:
-                return unpackMap0(buffer);
+                return unpackMap0(buffer, parseSnowflakes);
             case LIST:
-                return unpackList0(buffer);
+                return unpackList0(buffer, parseSnowflakes);
             case NIL:
                 return Collections.emptyList();
 
@@ -175,17 +230,23 @@ public class ExTermDecoder {
         }
     }
 
-    private static Object unpackCompressed(@Nonnull ByteBuffer buffer) {
+    private static Object unpackCompressed(@Nonnull ByteBuffer buffer, boolean parseSnowflakes) {
         int size = buffer.getInt();
         ByteArrayOutputStream decompressed = new ByteArrayOutputStream(size);
         try (InflaterOutputStream inflater = new InflaterOutputStream(decompressed)) {
-            inflater.write(buffer.array(), buffer.position(), buffer.remaining());
+            if (buffer.hasArray()) {
+                inflater.write(buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining());
+            } else {
+                byte[] compressed = new byte[buffer.remaining()];
+                buffer.get(compressed);
+                inflater.write(compressed);
+            }
         } catch (IOException e) {
             throw new UncheckedIOException(e);
         }
 
         buffer = ByteBuffer.wrap(decompressed.toByteArray());
-        return unpack0(buffer);
+        return unpack0(buffer, parseSnowflakes);
     }
 
     private static double unpackOldFloat(@Nonnull ByteBuffer buffer) {
@@ -257,33 +318,111 @@ public class ExTermDecoder {
     }
 
     private static String getString(@Nonnull ByteBuffer buffer, @Nonnull Charset charset, int length) {
+        if (buffer.hasArray()) {
+            int position = buffer.position();
+            // Position is updated first, to throw the same exception as ByteBuffer#get(byte[]) for truncated input
+            ((Buffer) buffer).position(position + length);
+            return new String(buffer.array(), buffer.arrayOffset() + position, length, charset);
+        }
         byte[] array = new byte[length];
         buffer.get(array);
         return new String(array, charset);
     }
 
-    private static List<Object> unpackList0(@Nonnull ByteBuffer buffer) {
+    private static List<Object> unpackList0(@Nonnull ByteBuffer buffer, boolean parseSnowflakes) {
         int length = buffer.getInt();
         List<Object> list = new ArrayList<>(length);
         while (length-- > 0) {
-            list.add(unpack0(buffer));
+            list.add(unpack0(buffer, parseSnowflakes));
         }
-        Object tail = unpack0(buffer);
+        Object tail = unpack0(buffer, parseSnowflakes);
         if (tail != Collections.emptyList()) {
             throw new IllegalArgumentException("Unexpected tail " + tail);
         }
         return list;
     }
 
-    private static Map<String, Object> unpackMap0(@Nonnull ByteBuffer buffer) {
-        Map<String, Object> map = new HashMap<>();
+    private static Map<String, Object> unpackMap0(@Nonnull ByteBuffer buffer, boolean parseSnowflakes) {
         int arity = buffer.getInt();
+        Map<String, Object> map = new HashMap<>(Math.max(16, (int) (arity / 0.75f) + 1));
         while (arity-- > 0) {
-            Object rawKey = unpack0(buffer);
-            String key = String.valueOf(rawKey);
-            Object value = unpack0(buffer);
+            String key = unpackKey(buffer, parseSnowflakes);
+            Object value = null;
+            if (parseSnowflakes && isSnowflakeKey(key)) {
+                value = unpackSnowflake(buffer);
+            }
+            if (value == null) {
+                value = unpack0(buffer, parseSnowflakes);
+            }
             map.put(key, value);
         }
         return map;
     }
+
+    private static String unpackKey(@Nonnull ByteBuffer buffer, boolean parseSnowflakes) {
+        int start = buffer.position();
+        if (buffer.hasArray()) {
+            int length;
+            switch (buffer.get(start)) {
+                case BINARY:
+                    length = buffer.getInt(start + 1);
+                    start += 5;
+                    break;
+                case SMALL_ATOM_UTF8:
+                case SMALL_ATOM:
+                    length = Byte.toUnsignedInt(buffer.get(start + 1));
+                    start += 2;
+                    break;
+                case ATOM_UTF8:
+                case ATOM:
+                    length = Short.toUnsignedInt(buffer.getShort(start + 1));
+                    start += 3;
+                    break;
+                default:
+                    length = -1;
+            }
+
+            String key = length < 0 ? null : ExTermKeys.lookup(buffer.array(), buffer.arrayOffset() + start, length);
+            if (key != null) {
+                ((Buffer) buffer).position(start + length);
+                return key;
+            }
+        }
+
+        return String.valueOf(unpack0(buffer, parseSnowflakes));
+    }
+
+    private static boolean isSnowflakeKey(@Nonnull String key) {
+        return SNOWFLAKE_KEYS.contains(key);
+    }
+
+    // Returns null and leaves the buffer unchanged, if the value is not a binary of a canonical positive long
+    private static Long unpackSnowflake(@Nonnull ByteBuffer buffer) {
+        int start = buffer.position();
+        if (buffer.get(start) != BINARY) {
+            return null;
+        }
+
+        int length = buffer.getInt(start + 1);
+        if (length < 1 || length > 19) {
+            return null;
+        }
+
+        int offset = start + 5;
+        if (length > 1 && buffer.get(offset) == '0') {
+            return null;
+        }
+
+        long value = 0;
+        for (int i = 0; i < length; i++) {
+            int digit = buffer.get(offset + i) - '0';
+            if (digit < 0 || digit > 9 || value > (Long.MAX_VALUE - digit) / 10) {
+                return null;
+            }
+            value = value * 10 + digit;
+        }
+
+        ((Buffer) buffer).position(offset + length);
+        return value;
+    }
 }
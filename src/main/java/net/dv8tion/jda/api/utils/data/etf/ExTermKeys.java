@@ -0,0 +1,128 @@
+/*
+ * Copyright 2015 Austin Keener, Michael Ritter, Florian Spieß, and the JDA contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.dv8tion.jda.api.utils.data.etf;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Lookup table for the field names commonly used in gateway payloads.
+ * <br>This allows decoding map keys without allocating a new string for every occurrence.
+ */
+class ExTermKeys {
+    private static final String[] KNOWN_KEYS = {
+        // Payload
+        "op", "d", "s", "t",
+        // Snowflakes
+        "id", "guild_id", "channel_id", "user_id", "message_id", "application_id", "owner_id", "parent_id",
+        "last_message_id", "webhook_id", "emoji_id", "role_id", "sku_id", "interaction_id", "thread_id",
+        "integration_id", "creator_id", "entity_id", "sound_id", "afk_channel_id", "system_channel_id",
+        "rules_channel_id", "public_updates_channel_id", "safety_alerts_channel_id", "primary_sku_id", "bot_id",
+        "subscription_listing_id", "guild_scheduled_event_id",
+        // Common fields
+        "name", "type", "flags", "user", "member", "members", "roles", "role", "permissions", "position",
+        "nick", "avatar", "avatar_decoration_data", "banner", "banner_color", "accent_color", "bio",
+        "username", "global_name", "discriminator", "bot", "system", "public_flags", "premium_type",
+        "joined_at", "premium_since", "deaf", "mute", "pending", "communication_disabled_until",
+        "unusual_dm_activity_until", "collectibles", "primary_guild", "clan", "display_name_styles",
+        "status", "activities", "client_status", "desktop", "mobile", "web", "presences",
+        "content", "author", "timestamp", "edited_timestamp", "tts", "mention_everyone", "mentions",
+        "mention_roles", "mention_channels", "attachments", "embeds", "reactions", "nonce", "pinned",
+        "message_reference", "message_snapshots", "referenced_message", "interaction", "interaction_metadata",
+        "components", "sticker_items", "stickers", "thread", "poll", "call", "activity", "application",
+        "color", "colors", "hoist", "icon", "unicode_emoji", "managed", "mentionable", "tags",
+        "premium_subscriber", "available_for_purchase", "guild_connections",
+        "topic", "nsfw", "rate_limit_per_user", "bitrate", "user_limit", "rtc_region", "video_quality_mode",
+        "permission_overwrites", "allow", "deny", "last_pin_timestamp", "default_auto_archive_duration",
+        "thread_metadata", "archived", "archive_timestamp", "auto_archive_duration", "locked", "invitable",
+        "member_count", "message_count", "total_message_sent", "available_tags", "applied_tags",
+        "emoji", "emojis", "emoji_name", "animated", "available", "require_colons", "burst", "count",
+        "count_details", "me", "me_burst", "burst_colors", "session_id", "self_mute", "self_deaf",
+        "self_video", "self_stream", "suppress", "request_to_speak_timestamp", "voice_states",
+        "channels", "threads", "guild_scheduled_events", "soundboard_sounds", "features", "large",
+        "unavailable", "description", "splash", "discovery_splash", "vanity_url_code", "verification_level",
+        "default_message_notifications", "explicit_content_filter", "mfa_level", "nsfw_level",
+        "premium_tier", "premium_subscription_count", "premium_progress_bar_enabled", "preferred_locale",
+        "max_members", "max_presences", "max_video_channel_users", "afk_timeout", "system_channel_flags",
+        "locale", "guild_locale", "data", "options", "value", "focused", "resolved", "custom_id",
+        "component_type", "values", "token", "version", "app_permissions", "entitlements",
+        "context", "authorizing_integration_owners", "attachment_size_limit", "url", "proxy_url",
+        "filename", "size", "height", "width", "content_type", "title", "footer", "image", "thumbnail",
+        "video", "provider", "fields", "inline", "text", "icon_url", "proxy_icon_url", "created_at",
+        "state", "details", "assets", "party", "secrets", "buttons", "sync_id",
+        "start", "end", "timestamps", "large_image", "large_text", "small_image", "small_text",
+        "not_found", "chunk_index", "chunk_count", "heartbeat_interval", "_trace", "resume_gateway_url",
+        "guilds", "private_channels", "relationships", "shard", "guild_hashes", "geo_ordered_rtc_regions"
+    };
+
+    private static final int MASK;
+    private static final String[] KEYS;
+    private static final byte[][] ENCODED;
+
+    static {
+        int capacity = Integer.highestOneBit(KNOWN_KEYS.length * 4);
+        MASK = capacity - 1;
+        KEYS = new String[capacity];
+        ENCODED = new byte[capacity][];
+
+        for (String key : KNOWN_KEYS) {
+            byte[] encoded = key.getBytes(StandardCharsets.UTF_8);
+            int index = hash(encoded, 0, encoded.length) & MASK;
+            while (KEYS[index] != null && !KEYS[index].equals(key)) {
+                index = (index + 1) & MASK;
+            }
+            KEYS[index] = key.intern();
+            ENCODED[index] = encoded;
+        }
+    }
+
+    /**
+     * Finds the known key with the provided UTF-8 encoding.
+     *
+     * @return The known key, or {@code null} if the key is unknown
+     */
+    static String lookup(byte[] data, int offset, int length) {
+        int index = hash(data, offset, length) & MASK;
+        byte[] encoded;
+        while ((encoded = ENCODED[index]) != null) {
+            if (matches(encoded, data, offset, length)) {
+                return KEYS[index];
+            }
+            index = (index + 1) & MASK;
+        }
+        return null;
+    }
+
+    private static boolean matches(byte[] encoded, byte[] data, int offset, int length) {
+        if (encoded.length != length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (encoded[i] != data[offset + i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int hash(byte[] data, int offset, int length) {
+        int hash = length;
+        for (int i = 0; i < length; i++) {
+            hash = 31 * hash + data[offset + i];
+        }
+        return hash ^ (hash >>> 16);
+    }
+}
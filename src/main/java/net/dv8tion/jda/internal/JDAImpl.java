@@ -59,6 +59,7 @@ import net.dv8tion.jda.api.utils.cache.CacheFlag;
 import net.dv8tion.jda.api.utils.cache.CacheView;
 import net.dv8tion.jda.api.utils.cache.ChannelCacheView;
 import net.dv8tion.jda.api.utils.cache.SnowflakeCacheView;
+import net.dv8tion.jda.api.utils.cache.StringPool;
 import net.dv8tion.jda.api.utils.data.DataArray;
 import net.dv8tion.jda.api.utils.data.DataObject;
 import net.dv8tion.jda.internal.entities.EntityBuilder;
@@ -82,7 +83,9 @@ import net.dv8tion.jda.internal.utils.*;
 import net.dv8tion.jda.internal.utils.Helpers;
 import net.dv8tion.jda.internal.utils.cache.AbstractCacheView;
 import net.dv8tion.jda.internal.utils.cache.ChannelCacheViewImpl;
+import net.dv8tion.jda.internal.utils.cache.OffHeapStore;
 import net.dv8tion.jda.internal.utils.cache.SnowflakeCacheViewImpl;
+import net.dv8tion.jda.internal.utils.cache.UserCodec;
 import net.dv8tion.jda.internal.utils.config.AuthorizationConfig;
 import net.dv8tion.jda.internal.utils.config.MetaConfig;
 import net.dv8tion.jda.internal.utils.config.SessionConfig;
@@ -146,6 +149,7 @@ public class JDAImpl implements JDA {
     protected String clientId = null, requiredScopes = "bot";
     protected ShardManager shardManager = null;
     protected MemberCachePolicy memberCachePolicy = MemberCachePolicy.ALL;
+    protected StringPool stringPool;
 
     protected final AtomicReference<Status> status = new AtomicReference<>(Status.INITIALIZING);
     protected final ReentrantLock statusLock = new ReentrantLock();
@@ -177,6 +181,16 @@ public class JDAImpl implements JDA {
         this.audioController = new DirectAudioControllerImpl(this);
         this.eventCache = new EventCache();
         this.eventManager = new EventManagerProxy(new InterfacedEventManager(), this.threadConfig.getEventPool());
+        if (this.metaConfig.isOptimisticCacheReads()) {
+            this.userCache.setOptimisticReads(true);
+            this.guildCache.setOptimisticReads(true);
+        }
+        if (this.metaConfig.isOffHeapCache()) {
+            this.userCache.setOffHeapStore(new OffHeapStore<>(new UserCodec(this)), UserCodec.HOT_CAPACITY);
+        }
+        if (this.metaConfig.isNameIndex()) {
+            this.userCache.enableNameIndex();
+        }
     }
 
     public void handleEvent(@Nonnull GenericEvent event) {
@@ -195,6 +209,22 @@ public class JDAImpl implements JDA {
         return metaConfig.getCacheFlags().contains(flag);
     }
 
+    public boolean isOptimisticCacheReads() {
+        return metaConfig.isOptimisticCacheReads();
+    }
+
+    public boolean isOffHeapCache() {
+        return metaConfig.isOffHeapCache();
+    }
+
+    public boolean isNameIndex() {
+        return metaConfig.isNameIndex();
+    }
+
+    public boolean isRoleIndex() {
+        return metaConfig.isRoleIndex();
+    }
+
     public boolean isIntent(GatewayIntent intent) {
         int raw = intent.getRawValue();
         return (client.getGatewayIntents() & raw) == raw;
@@ -204,6 +234,10 @@ public class JDAImpl implements JDA {
         return sessionConfig.getLargeThreshold();
     }
 
+    public int getDispatchLanes() {
+        return sessionConfig.getDispatchLanes();
+    }
+
     public int getMaxBufferSize() {
         return metaConfig.getMaxBufferSize();
     }
@@ -235,6 +269,14 @@ public class JDAImpl implements JDA {
         this.memberCachePolicy = policy;
     }
 
+    public StringPool getStringPool() {
+        return stringPool;
+    }
+
+    public void setStringPool(StringPool stringPool) {
+        this.stringPool = stringPool;
+    }
+
     public SessionController getSessionController() {
         return sessionConfig.getSessionController();
     }
@@ -271,7 +313,9 @@ public class JDAImpl implements JDA {
                         this.threadConfig.getRateLimitScheduler(),
                         this.threadConfig.getRateLimitElastic(),
                         getSessionController().getRateLimitHandle(),
-                        this.sessionConfig.isRelativeRateLimit() && this.restConfig.isRelativeRateLimit()));
+                        this.sessionConfig.isRelativeRateLimit() && this.restConfig.isRelativeRateLimit(),
+                        this.restConfig.getRateLimitStore(),
+                        this.restConfig.isRateLimitPacing()));
         this.requester = new Requester(this, this.authConfig, this.restConfig, rateLimiter);
         this.requester.setRetryOnTimeout(this.sessionConfig.isRetryOnTimeout());
     }
@@ -22,6 +22,7 @@ import net.dv8tion.jda.api.entities.RoleIcon;
 import net.dv8tion.jda.api.entities.channel.concrete.ThreadChannel;
 import net.dv8tion.jda.api.entities.channel.forums.ForumTag;
 import net.dv8tion.jda.api.utils.cache.CacheFlag;
+import net.dv8tion.jda.api.utils.cache.StringPool;
 import net.dv8tion.jda.api.utils.data.DataObject;
 import net.dv8tion.jda.internal.JDAImpl;
 import net.dv8tion.jda.internal.entities.channel.mixin.attribute.IPostContainerMixin;
@@ -43,6 +44,14 @@ public abstract class AbstractEntityBuilder {
         return api;
     }
 
+    /**
+     * Replaces the string with an equal instance from the configured {@link StringPool}, if any.
+     */
+    public String deduplicate(String value) {
+        StringPool pool = api.getStringPool();
+        return pool == null ? value : pool.get(value);
+    }
+
     protected void configureCategory(DataObject json, CategoryMixin<?> channel) {
         channel.setName(json.getString("name")).setPosition(json.getInt("position"));
     }
@@ -220,7 +229,7 @@ public abstract class AbstractEntityBuilder {
     protected void configureRole(DataObject roleJson, RoleMixin<?> role, long id) {
         RoleColors colors = createRoleColors(roleJson.getObject("colors"));
 
-        role.setName(roleJson.getString("name"))
+        role.setName(deduplicate(roleJson.getString("name")))
                 .setRawPosition(roleJson.getInt("position"))
                 .setRawPermissions(roleJson.getLong("permissions"))
                 .setManaged(roleJson.getBoolean("managed"))
@@ -62,6 +62,7 @@ import net.dv8tion.jda.api.interactions.IntegrationOwners;
 import net.dv8tion.jda.api.interactions.IntegrationType;
 import net.dv8tion.jda.api.utils.cache.CacheFlag;
 import net.dv8tion.jda.api.utils.cache.CacheView;
+import net.dv8tion.jda.api.utils.cache.StringPool;
 import net.dv8tion.jda.api.utils.data.DataArray;
 import net.dv8tion.jda.api.utils.data.DataObject;
 import net.dv8tion.jda.internal.JDAImpl;
@@ -528,13 +529,10 @@ public class EntityBuilder extends AbstractEntityBuilder {
         long id = user.getLong("id");
         UserImpl userObj;
 
-        SnowflakeCacheViewImpl<User> userView = getJDA().getUsersView();
-        try (UnlockHook hook = userView.readLock()) {
-            userObj = (UserImpl) userView.getElementById(id);
-            if (userObj == null) {
-                userObj = new UserImpl(id, getJDA());
-                newUser = true;
-            }
+        userObj = (UserImpl) getJDA().getUsersView().getElementById(id);
+        if (userObj == null) {
+            userObj = new UserImpl(id, getJDA());
+            newUser = true;
         }
 
         User.Profile profile = user.hasKey("banner")
@@ -566,61 +564,76 @@ public class EntityBuilder extends AbstractEntityBuilder {
     }
 
     public void updateUser(UserImpl userObj, DataObject user) {
-        String oldName = userObj.getName();
         String newName = user.getString("username");
-        String oldGlobalName = userObj.getGlobalName();
         String newGlobalName = user.getString("global_name", null);
-        short oldDiscriminator = userObj.getDiscriminatorInt();
         short newDiscriminator = Short.parseShort(user.getString("discriminator", "0"));
-        String oldAvatar = userObj.getAvatarId();
         String newAvatar = user.getString("avatar", null);
-        int oldFlags = userObj.getFlagsRaw();
         int newFlags = user.getInt("public_flags", 0);
-        User.PrimaryGuild oldPrimaryGuild = userObj.getPrimaryGuild();
         User.PrimaryGuild newPrimaryGuild =
                 user.optObject("primary_guild").map(this::createPrimaryGuild).orElse(null);
 
         JDAImpl jda = getJDA();
         long responseNumber = jda.getResponseTotal();
-        if (!oldName.equals(newName)) {
-            userObj.setName(newName);
-            jda.handleEvent(new UserUpdateNameEvent(
-                    jda, responseNumber,
-                    userObj, oldName));
-        }
+        List<GenericUserUpdateEvent<?>> events = new ArrayList<>();
+        boolean nameChanged = false;
+        // Users are shared between guilds, so the same user can be updated by multiple dispatch lanes at once.
+        // The events are fired once the user is released, to avoid calling listeners while holding its lock.
+        synchronized (userObj) {
+            String oldName = userObj.getName();
+            if (!oldName.equals(newName)) {
+                userObj.setName(newName);
+                nameChanged = true;
+                events.add(new UserUpdateNameEvent(jda, responseNumber, userObj, oldName));
+            }
 
-        if (!Objects.equals(oldGlobalName, newGlobalName)) {
-            userObj.setGlobalName(newGlobalName);
-            jda.handleEvent(new UserUpdateGlobalNameEvent(
-                    jda, responseNumber,
-                    userObj, oldGlobalName));
-        }
+            String oldGlobalName = userObj.getGlobalName();
+            if (!Objects.equals(oldGlobalName, newGlobalName)) {
+                userObj.setGlobalName(newGlobalName);
+                nameChanged = true;
+                events.add(new UserUpdateGlobalNameEvent(jda, responseNumber, userObj, oldGlobalName));
+            }
 
-        if (oldDiscriminator != newDiscriminator) {
-            String oldDiscrimString = userObj.getDiscriminator();
-            userObj.setDiscriminator(newDiscriminator);
-            jda.handleEvent(new UserUpdateDiscriminatorEvent(
-                    jda, responseNumber,
-                    userObj, oldDiscrimString));
-        }
+            if (userObj.getDiscriminatorInt() != newDiscriminator) {
+                String oldDiscrimString = userObj.getDiscriminator();
+                userObj.setDiscriminator(newDiscriminator);
+                events.add(new UserUpdateDiscriminatorEvent(jda, responseNumber, userObj, oldDiscrimString));
+            }
+
+            String oldAvatar = userObj.getAvatarId();
+            if (!Objects.equals(oldAvatar, newAvatar)) {
+                userObj.setAvatarId(newAvatar);
+                events.add(new UserUpdateAvatarEvent(jda, responseNumber, userObj, oldAvatar));
+            }
 
-        if (!Objects.equals(oldAvatar, newAvatar)) {
-            userObj.setAvatarId(newAvatar);
-            jda.handleEvent(new UserUpdateAvatarEvent(
-                    jda, responseNumber,
-                    userObj, oldAvatar));
+            int oldFlags = userObj.getFlagsRaw();
+            if (oldFlags != newFlags) {
+                userObj.setFlags(newFlags);
+                events.add(new UserUpdateFlagsEvent(jda, responseNumber, userObj, User.UserFlag.getFlags(oldFlags)));
+            }
+
+            User.PrimaryGuild oldPrimaryGuild = userObj.getPrimaryGuild();
+            if (!Objects.equals(oldPrimaryGuild, newPrimaryGuild)) {
+                userObj.setPrimaryGuild(newPrimaryGuild);
+                events.add(new UserUpdatePrimaryGuildEvent(jda, responseNumber, userObj, oldPrimaryGuild));
+            }
         }
 
-        if (oldFlags != newFlags) {
-            userObj.setFlags(newFlags);
-            jda.handleEvent(new UserUpdateFlagsEvent(jda, responseNumber, userObj, User.UserFlag.getFlags(oldFlags)));
+        if (nameChanged) {
+            updateNameIndex(userObj);
         }
+        events.forEach(jda::handleEvent);
+    }
 
-        if (!Objects.equals(oldPrimaryGuild, newPrimaryGuild)) {
-            userObj.setPrimaryGuild(newPrimaryGuild);
-            jda.handleEvent(new UserUpdatePrimaryGuildEvent(
-                    jda, responseNumber,
-                    userObj, oldPrimaryGuild));
+    // Names are indexed in the user cache and the member cache of every mutual guild,
+    // the member caches of other guilds are skipped without locking them
+    public void updateNameIndex(User user) {
+        JDAImpl jda = getJDA();
+        if (!jda.isNameIndex()) {
+            return;
+        }
+        jda.getUsersView().updateIndex(user.getIdLong());
+        for (Guild guild : jda.getGuildsView().asList()) {
+            ((GuildImpl) guild).getMembersView().updateIndex(user.getIdLong());
         }
     }
 
@@ -637,10 +650,7 @@ public class EntityBuilder extends AbstractEntityBuilder {
                 return false;
             }
             LOG.trace("Unloading member {}", member);
-            if (user.getMutualGuilds().isEmpty()) {
-                // we no longer share any guilds/channels with this user so remove it from cache
-                getJDA().getUsersView().remove(user.getIdLong());
-            }
+            uncacheUser(user);
             return false;
         } else if (guild.getMemberById(member.getIdLong()) != null) {
             // Member should be added to cache but already is cached -> do nothing
@@ -649,13 +659,6 @@ public class EntityBuilder extends AbstractEntityBuilder {
 
         LOG.trace("Loading member {}", member);
 
-        if (getJDA().getUserById(user.getIdLong()) == null) {
-            SnowflakeCacheViewImpl<User> usersView = getJDA().getUsersView();
-            try (UnlockHook hook1 = usersView.writeLock()) {
-                usersView.getMap().put(user.getIdLong(), user);
-            }
-        }
-
         try (UnlockHook hook = membersView.writeLock()) {
             membersView.getMap().put(member.getIdLong(), member);
             if (member.isOwner()) {
@@ -663,12 +666,38 @@ public class EntityBuilder extends AbstractEntityBuilder {
             }
         }
 
+        // The user is cached after the member, so a concurrent uncacheUser either sees this member or gets undone
+        cacheUser(user);
+
         long hashId = guild.getIdLong() ^ user.getIdLong();
         getJDA().getEventCache().playbackCache(EventCache.Type.USER, member.getIdLong());
         getJDA().getEventCache().playbackCache(EventCache.Type.MEMBER, hashId);
         return true;
     }
 
+    public void cacheUser(User user) {
+        SnowflakeCacheViewImpl<User> usersView = getJDA().getUsersView();
+        try (UnlockHook hook = usersView.writeLock()) {
+            if (usersView.getElementById(user.getIdLong()) == null) {
+                usersView.getMap().put(user.getIdLong(), user);
+            }
+        }
+    }
+
+    // Removes the user from cache once we no longer share any guilds with it.
+    // Members are cached on multiple dispatch lanes, so the user is put back if one was added in the meantime.
+    public boolean uncacheUser(User user) {
+        if (!user.getMutualGuilds().isEmpty() || getJDA().getUsersView().remove(user.getIdLong()) == null) {
+            return false;
+        }
+
+        if (!user.getMutualGuilds().isEmpty()) {
+            cacheUser(user);
+            return false;
+        }
+        return true;
+    }
+
     public MemberImpl createMember(GuildImpl guild, DataObject memberJson) {
         return createMember(guild, memberJson, null, null);
     }
@@ -686,14 +715,15 @@ public class EntityBuilder extends AbstractEntityBuilder {
                 member = new MemberImpl(guild, user);
             }
             configureMember(memberJson, member);
-            Set<Role> roles = member.getRoleSet();
+            long[] roleIds = new long[roleArray.length()];
+            int roleCount = 0;
             for (int i = 0; i < roleArray.length(); i++) {
                 long roleId = roleArray.getUnsignedLong(i);
-                Role role = guild.getRoleById(roleId);
-                if (role != null) {
-                    roles.add(role);
+                if (guild.getRoleById(roleId) != null) {
+                    roleIds[roleCount++] = roleId;
                 }
             }
+            member.setRoleIds(roleCount == roleIds.length ? roleIds : Arrays.copyOf(roleIds, roleCount));
         } else {
             // Update cached member and fire events
             List<Role> roles = new ArrayList<>(roleArray.length());
@@ -776,6 +806,7 @@ public class EntityBuilder extends AbstractEntityBuilder {
             String newNick = content.getString("nick", null);
             if (!Objects.equals(oldNick, newNick)) {
                 member.setNickname(newNick);
+                guild.getMembersView().updateIndex(member.getIdLong());
                 getJDA().handleEvent(new GuildMemberUpdateNicknameEvent(getJDA(), responseNumber, member, oldNick));
             }
         }
@@ -841,27 +872,24 @@ public class EntityBuilder extends AbstractEntityBuilder {
     }
 
     private void updateMemberRoles(MemberImpl member, List<Role> newRoles, long responseNumber) {
-        Set<Role> currentRoles = member.getRoleSet();
+        long[] currentRoles = member.getRoleIds();
+        member.setRoles(newRoles);
+        member.getGuild().getMembersView().updateIndex(member.getIdLong());
+        long[] updatedRoles = member.getRoleIds();
+
         // Find the roles removed.
         List<Role> removedRoles = new ArrayList<>();
-        each:
-        for (Role role : currentRoles) {
-            for (Iterator<Role> it = newRoles.iterator(); it.hasNext(); ) {
-                Role r = it.next();
-                if (role.equals(r)) {
-                    it.remove();
-                    continue each;
+        for (long roleId : currentRoles) {
+            if (Arrays.binarySearch(updatedRoles, roleId) < 0) {
+                Role role = member.getGuild().getRoleById(roleId);
+                if (role != null) {
+                    removedRoles.add(role);
                 }
             }
-            removedRoles.add(role);
         }
 
-        if (removedRoles.size() > 0) {
-            currentRoles.removeAll(removedRoles);
-        }
-        if (newRoles.size() > 0) {
-            currentRoles.addAll(newRoles);
-        }
+        // Only keep the roles added.
+        newRoles.removeIf(role -> Arrays.binarySearch(currentRoles, role.getIdLong()) >= 0);
 
         if (removedRoles.size() > 0) {
             getJDA().handleEvent(new GuildMemberRoleRemoveEvent(getJDA(), responseNumber, member, removedRoles));
@@ -905,7 +933,7 @@ public class EntityBuilder extends AbstractEntityBuilder {
         if (cacheGame && activityArray != null) {
             for (int i = 0; i < activityArray.length(); i++) {
                 try {
-                    activities.add(createActivity(activityArray.getObject(i)));
+                    activities.add(createActivity(activityArray.getObject(i), getJDA().getStringPool()));
                     parsedActivity = true;
                 } catch (Exception ex) {
                     String userId = member.getId();
@@ -938,6 +966,10 @@ public class EntityBuilder extends AbstractEntityBuilder {
     }
 
     public static Activity createActivity(DataObject gameJson) {
+        return createActivity(gameJson, null);
+    }
+
+    public static Activity createActivity(DataObject gameJson, @Nullable StringPool pool) {
         String name = String.valueOf(gameJson.get("name"));
         String url = gameJson.isNull("url") ? null : String.valueOf(gameJson.get("url"));
         Activity.ActivityType type;
@@ -972,6 +1004,11 @@ public class EntityBuilder extends AbstractEntityBuilder {
         }
 
         String state = gameJson.isNull("state") ? null : String.valueOf(gameJson.get("state"));
+        if (pool != null) {
+            name = pool.get(name);
+            url = pool.get(url);
+            state = pool.get(state);
+        }
 
         if (!CollectionUtils.containsAny(gameJson.keys(), richGameFields)) {
             return new ActivityImpl(name, state, url, type, timestamps, emoji);
@@ -1011,6 +1048,15 @@ public class EntityBuilder extends AbstractEntityBuilder {
             }
         }
 
+        if (pool != null) {
+            details = pool.get(details);
+            syncId = pool.get(syncId);
+            smallImageKey = pool.get(smallImageKey);
+            smallImageText = pool.get(smallImageText);
+            largeImageKey = pool.get(largeImageKey);
+            largeImageText = pool.get(largeImageText);
+        }
+
         return new RichPresenceImpl(
                 type,
                 name,
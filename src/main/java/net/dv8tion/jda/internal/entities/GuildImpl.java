@@ -162,6 +162,19 @@ public class GuildImpl implements Guild {
         } else {
             memberPresences = null;
         }
+        if (api.isOptimisticCacheReads()) {
+            memberCache.setOptimisticReads(true);
+            roleCache.setOptimisticReads(true);
+        }
+        if (api.isOffHeapCache()) {
+            memberCache.setOffHeapStore(new OffHeapStore<>(new MemberCodec(this)), MemberCodec.HOT_CAPACITY);
+        }
+        if (api.isNameIndex()) {
+            memberCache.enableNameIndex();
+        }
+        if (api.isRoleIndex()) {
+            memberCache.enableRoleIndex();
+        }
     }
 
     @Override
@@ -695,7 +708,7 @@ public class GuildImpl implements Guild {
 
     @Override
     public boolean isMember(@Nonnull UserSnowflake user) {
-        return memberCache.get(user.getIdLong()) != null;
+        return memberCache.contains(user.getIdLong());
     }
 
     @Nonnull
@@ -1732,7 +1745,7 @@ public class GuildImpl implements Guild {
         Checks.notNull(member, "Member");
         checkGuild(member.getGuild(), "Member");
         checkPermission(Permission.MANAGE_ROLES);
-        Set<Role> currentRoles = new HashSet<>(((MemberImpl) member).getRoleSet());
+        Set<Role> currentRoles = new HashSet<>(member.getUnsortedRoles());
         if (rolesToAdd != null) {
             checkRoles(rolesToAdd, "add", "to");
             currentRoles.addAll(rolesToAdd);
@@ -33,12 +33,12 @@ import net.dv8tion.jda.internal.utils.Checks;
 import net.dv8tion.jda.internal.utils.EntityString;
 import net.dv8tion.jda.internal.utils.Helpers;
 import net.dv8tion.jda.internal.utils.PermissionUtil;
+import net.dv8tion.jda.internal.utils.cache.SnowflakeCacheViewImpl;
 
 import java.awt.*;
 import java.time.OffsetDateTime;
 import java.util.*;
 import java.util.List;
-import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Stream;
 
 import javax.annotation.Nonnull;
@@ -46,7 +46,10 @@ import javax.annotation.Nullable;
 
 public class MemberImpl implements Member, MemberMixin<MemberImpl> {
     private final JDAImpl api;
-    private final Set<Role> roles = ConcurrentHashMap.newKeySet();
+    private static final long[] EMPTY_ROLES = new long[0];
+
+    // Sorted role ids, replaced as a whole on every update and resolved lazily through the guild role cache
+    private volatile long[] roleIds = EMPTY_ROLES;
 
     private GuildImpl guild;
     private User user;
@@ -159,18 +162,14 @@ public class MemberImpl implements Member, MemberMixin<MemberImpl> {
         if (presence == null) {
             return OnlineStatus.OFFLINE;
         }
-        OnlineStatus status = presence.getClientStatus().get(type);
-        return status == null ? OnlineStatus.OFFLINE : status;
+        return presence.getOnlineStatus(type);
     }
 
     @Nonnull
     @Override
     public EnumSet<ClientType> getActiveClients() {
         MemberPresenceImpl presence = getPresence();
-        return presence == null
-                ? EnumSet.noneOf(ClientType.class)
-                : Helpers.copyEnumSet(
-                        ClientType.class, presence.getClientStatus().keySet());
+        return presence == null ? EnumSet.noneOf(ClientType.class) : presence.getActiveClients();
     }
 
     @Override
@@ -192,7 +191,12 @@ public class MemberImpl implements Member, MemberMixin<MemberImpl> {
     @Nonnull
     @Override
     public List<Role> getRoles() {
-        List<Role> roleList = new ArrayList<>(roles);
+        long[] ids = roleIds;
+        if (ids.length == 0) {
+            return Collections.emptyList();
+        }
+        List<Role> roleList = new ArrayList<>(ids.length);
+        resolveRoles(ids, roleList);
         roleList.sort(Comparator.reverseOrder());
         return Collections.unmodifiableList(roleList);
     }
@@ -200,7 +204,21 @@ public class MemberImpl implements Member, MemberMixin<MemberImpl> {
     @Nonnull
     @Override
     public Set<Role> getUnsortedRoles() {
-        return Collections.unmodifiableSet(roles);
+        long[] ids = roleIds;
+        if (ids.length == 0) {
+            return Collections.emptySet();
+        }
+        return new RoleSet(ids, getGuild().getRolesView());
+    }
+
+    private void resolveRoles(long[] ids, Collection<Role> out) {
+        SnowflakeCacheViewImpl<Role> roleCache = getGuild().getRolesView();
+        for (long id : ids) {
+            Role role = roleCache.getElementById(id);
+            if (role != null) {
+                out.add(role);
+            }
+        }
     }
 
     @Override
@@ -396,8 +414,50 @@ public class MemberImpl implements Member, MemberMixin<MemberImpl> {
         return this;
     }
 
-    public Set<Role> getRoleSet() {
-        return roles;
+    /**
+     * The sorted ids of the roles assigned to this member.
+     * <br>The returned array is shared and must not be modified.
+     *
+     * @return The sorted role ids
+     */
+    public long[] getRoleIds() {
+        return roleIds;
+    }
+
+    public boolean hasRole(long roleId) {
+        return Arrays.binarySearch(roleIds, roleId) >= 0;
+    }
+
+    public MemberImpl setRoleIds(long[] roleIds) {
+        long[] sorted = roleIds.length == 0 ? EMPTY_ROLES : roleIds.clone();
+        Arrays.sort(sorted);
+        this.roleIds = sorted;
+        return this;
+    }
+
+    public MemberImpl setRoles(Collection<? extends Role> roles) {
+        long[] ids = new long[roles.size()];
+        int i = 0;
+        for (Role role : roles) {
+            ids[i++] = role.getIdLong();
+        }
+        return setRoleIds(ids);
+    }
+
+    public void removeRole(long roleId) {
+        long[] ids = roleIds;
+        int index = Arrays.binarySearch(ids, roleId);
+        if (index < 0) {
+            return;
+        }
+        long[] updated = ids.length == 1 ? EMPTY_ROLES : new long[ids.length - 1];
+        System.arraycopy(ids, 0, updated, 0, index);
+        System.arraycopy(ids, index + 1, updated, index, ids.length - index - 1);
+        this.roleIds = updated;
+    }
+
+    public long getJoinDateRaw() {
+        return joinDate;
     }
 
     public long getBoostDateRaw() {
@@ -434,4 +494,65 @@ public class MemberImpl implements Member, MemberMixin<MemberImpl> {
                 .addMetadata("guild", getGuild())
                 .toString();
     }
+
+    /**
+     * Unmodifiable view of the roles for a snapshot of the role ids, which are resolved from the role cache on access.
+     * <br>This avoids copying the roles into a new set, since permission checks only iterate them once.
+     */
+    private static final class RoleSet extends AbstractSet<Role> {
+        private final long[] ids;
+        private final SnowflakeCacheViewImpl<Role> roleCache;
+
+        private RoleSet(long[] ids, SnowflakeCacheViewImpl<Role> roleCache) {
+            this.ids = ids;
+            this.roleCache = roleCache;
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            if (!(o instanceof Role)) {
+                return false;
+            }
+            long id = ((Role) o).getIdLong();
+            return Arrays.binarySearch(ids, id) >= 0 && roleCache.getElementById(id) != null;
+        }
+
+        @Override
+        public int size() {
+            int size = 0;
+            for (long id : ids) {
+                if (roleCache.getElementById(id) != null) {
+                    size++;
+                }
+            }
+            return size;
+        }
+
+        @Nonnull
+        @Override
+        public Iterator<Role> iterator() {
+            return new Iterator<Role>() {
+                private int index = 0;
+                private Role next;
+
+                @Override
+                public boolean hasNext() {
+                    while (next == null && index < ids.length) {
+                        next = roleCache.getElementById(ids[index++]);
+                    }
+                    return next != null;
+                }
+
+                @Override
+                public Role next() {
+                    if (!hasNext()) {
+                        throw new NoSuchElementException();
+                    }
+                    Role role = next;
+                    next = null;
+                    return role;
+                }
+            };
+        }
+    }
 }
@@ -14,6 +14,7 @@
  * limitations under the License.
  */
 
+
 package net.dv8tion.jda.internal.entities;
 
 import net.dv8tion.jda.api.OnlineStatus;
@@ -21,23 +22,129 @@ import net.dv8tion.jda.api.entities.Activity;
 import net.dv8tion.jda.api.entities.ClientType;
 
 import java.util.Collections;
-import java.util.EnumMap;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Objects;
 
+/**
+ * Compact presence of a member.
+ *
+ * <p>The online status and the status of every client are packed into a single int,
+ * with {@value #STATUS_BITS} bits for each, which hold the ordinal of the status plus one.
+ * The first slot holds the online status, followed by one slot for every {@link ClientType}.
+ * An empty client slot means the client is offline.
+ *
+ * <p>The activities are kept as an immutable list, which is replaced as a whole when the activities change.
+ * The hash of the list is kept to detect changes without comparing every activity.
+ */
 public class MemberPresenceImpl {
-    private List<Activity> activities = Collections.emptyList();
-    private EnumMap<ClientType, OnlineStatus> clientStatus;
-    private OnlineStatus status = OnlineStatus.OFFLINE;
+    public static final int STATUS_BITS = 3;
+    public static final int STATUS_MASK = (1 << STATUS_BITS) - 1;
+    public static final int CLIENT_STATUS_MASK = ~STATUS_MASK;
+
+    private static final OnlineStatus[] STATUSES = OnlineStatus.values();
+    private static final ClientType[] CLIENT_TYPES = ClientType.values();
 
+    static {
+        if (STATUSES.length > STATUS_MASK || (CLIENT_TYPES.length + 1) * STATUS_BITS > Integer.SIZE) {
+            throw new AssertionError("Cannot pack online status in an int");
+        }
+    }
+
+    private volatile List<Activity> activities = Collections.emptyList();
+    private volatile int activitiesHash = activities.hashCode();
+    private volatile int status = packStatus(OnlineStatus.OFFLINE);
+
+    /**
+     * Packs the online status into the first slot.
+     *
+     * @param  status
+     *         The online status
+     *
+     * @return The packed status
+     */
+    public static int packStatus(OnlineStatus status) {
+        return status.ordinal() + 1;
+    }
+
+    /**
+     * Packs the status of a client into the slot of the client type.
+     *
+     * @param  type
+     *         The client type
+     * @param  status
+     *         The status of the client, or null for offline
+     *
+     * @return The packed status
+     */
+    public static int packClientStatus(ClientType type, OnlineStatus status) {
+        if (status == null || status == OnlineStatus.OFFLINE) {
+            return 0;
+        }
+        return (status.ordinal() + 1) << getShift(type);
+    }
+
+    public static int getClientStatusMask(ClientType type) {
+        return STATUS_MASK << getShift(type);
+    }
+
+    private static int getShift(ClientType type) {
+        return (type.ordinal() + 1) * STATUS_BITS;
+    }
+
+    private static OnlineStatus unpack(int packed, int shift) {
+        int bits = (packed >>> shift) & STATUS_MASK;
+        return bits == 0 ? null : STATUSES[bits - 1];
+    }
+
+    // The provided list must not be modified afterwards
     public void setActivities(List<Activity> activities) {
-        this.activities = activities;
+        List<Activity> immutable =
+                activities.isEmpty() ? Collections.emptyList() : Collections.unmodifiableList(activities);
+        this.activitiesHash = immutable.hashCode();
+        this.activities = immutable;
     }
 
-    public void setClientStatus(EnumMap<ClientType, OnlineStatus> clientStatus) {
-        this.clientStatus = clientStatus;
+    /**
+     * Whether the current activities are equal to the provided activities, in the same order.
+     * <br>Unlike {@link Activity#equals(Object)}, this also compares the emoji of custom status activities.
+     *
+     * @param  activities
+     *         The activities to compare
+     *
+     * @return True, if the activities are unchanged
+     */
+    public boolean hasActivities(List<Activity> activities) {
+        List<Activity> current = this.activities;
+        if (activitiesHash != activities.hashCode() || !current.equals(activities)) {
+            return false;
+        }
+        for (int i = 0; i < activities.size(); i++) {
+            if (!Objects.equals(current.get(i).getEmoji(), activities.get(i).getEmoji())) {
+                return false;
+            }
+        }
+        return true;
     }
 
     public void setOnlineStatus(OnlineStatus status) {
+        this.status = (this.status & CLIENT_STATUS_MASK) | packStatus(status);
+    }
+
+    public void setOnlineStatus(ClientType type, OnlineStatus clientStatus) {
+        this.status = (this.status & ~getClientStatusMask(type)) | packClientStatus(type, clientStatus);
+    }
+
+    /**
+     * Replaces the packed online status and client status.
+     *
+     * @param status
+     *        The packed status
+     *
+     * @see   #packStatus(OnlineStatus)
+     * @see   #packClientStatus(ClientType, OnlineStatus)
+     */
+    public void setStatusRaw(int status) {
         this.status = status;
     }
 
@@ -45,28 +152,27 @@ public class MemberPresenceImpl {
         return activities;
     }
 
-    public EnumMap<ClientType, OnlineStatus> getClientStatus() {
-        if (clientStatus == null) {
-            return new EnumMap<>(ClientType.class);
-        }
-        return clientStatus;
+    public OnlineStatus getOnlineStatus() {
+        return unpack(status, 0);
     }
 
-    public OnlineStatus getOnlineStatus() {
-        return status;
+    public OnlineStatus getOnlineStatus(ClientType type) {
+        OnlineStatus status = unpack(this.status, getShift(type));
+        return status == null ? OnlineStatus.OFFLINE : status;
     }
 
-    public void setOnlineStatus(ClientType type, OnlineStatus clientStatus) {
-        if (this.clientStatus == null) {
-            if (clientStatus == null || clientStatus == OnlineStatus.OFFLINE) {
-                return;
+    public EnumSet<ClientType> getActiveClients() {
+        EnumSet<ClientType> clients = EnumSet.noneOf(ClientType.class);
+        int packed = status;
+        for (ClientType type : CLIENT_TYPES) {
+            if ((packed & getClientStatusMask(type)) != 0) {
+                clients.add(type);
             }
-            this.clientStatus = new EnumMap<>(ClientType.class);
-        }
-        if (clientStatus == OnlineStatus.OFFLINE) {
-            this.clientStatus.remove(type);
-        } else {
-            this.clientStatus.put(type, clientStatus);
         }
+        return clients;
+    }
+
+    public int getStatusRaw() {
+        return status;
     }
 }
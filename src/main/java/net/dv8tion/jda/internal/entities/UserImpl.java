@@ -216,6 +216,11 @@ public class UserImpl extends UserSnowflakeImpl implements User {
         return this;
     }
 
+    public UserImpl setPrivateChannelId(long privateChannelId) {
+        this.privateChannelId = privateChannelId;
+        return this;
+    }
+
     public UserImpl setBot(boolean bot) {
         this.bot = bot;
         return this;
@@ -240,6 +245,10 @@ public class UserImpl extends UserSnowflakeImpl implements User {
         return discriminator;
     }
 
+    public long getPrivateChannelIdRaw() {
+        return privateChannelId;
+    }
+
     @Override
     public void formatTo(Formatter formatter, int flags, int width, int precision) {
         boolean alt = (flags & FormattableFlags.ALTERNATE) == FormattableFlags.ALTERNATE;
@@ -86,13 +86,17 @@ public class EventCache {
         items.add(new CacheNode(responseTotal, event, handler));
     }
 
-    public synchronized void playbackCache(Type type, long triggerId) {
-        TLongObjectMap<List<CacheNode>> typeCache = this.eventCache.get(type);
-        if (typeCache == null) {
-            return;
+    public void playbackCache(Type type, long triggerId) {
+        // The events are replayed outside the lock, since their handlers might cache events on another thread
+        List<CacheNode> items;
+        synchronized (this) {
+            TLongObjectMap<List<CacheNode>> typeCache = this.eventCache.get(type);
+            if (typeCache == null) {
+                return;
+            }
+            items = typeCache.remove(triggerId);
         }
 
-        List<CacheNode> items = typeCache.remove(triggerId);
         if (items != null && !items.isEmpty()) {
             EventCache.LOG.debug(
                     "Replaying {} events from the EventCache for type {} with id: {}", items.size(), type, triggerId);
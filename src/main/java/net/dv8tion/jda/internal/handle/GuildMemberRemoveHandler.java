@@ -25,8 +25,6 @@ import net.dv8tion.jda.internal.JDAImpl;
 import net.dv8tion.jda.internal.entities.GuildImpl;
 import net.dv8tion.jda.internal.entities.GuildVoiceStateImpl;
 import net.dv8tion.jda.internal.entities.MemberImpl;
-import net.dv8tion.jda.internal.utils.UnlockHook;
-import net.dv8tion.jda.internal.utils.cache.SnowflakeCacheViewImpl;
 
 public class GuildMemberRemoveHandler extends SocketHandler {
 
@@ -73,12 +71,8 @@ public class GuildMemberRemoveHandler extends SocketHandler {
 
             MemberImpl member = (MemberImpl) guild.getMembersView().remove(userId);
 
-            SnowflakeCacheViewImpl<User> userView = getJDA().getUsersView();
-            try (UnlockHook hook = userView.writeLock()) {
-                if (user.getMutualGuilds().isEmpty()) {
-                    userView.remove(userId);
-                    getJDA().getEventCache().clear(EventCache.Type.USER, userId);
-                }
+            if (getJDA().getEntityBuilder().uncacheUser(user)) {
+                getJDA().getEventCache().clear(EventCache.Type.USER, userId);
             }
 
             // Cache independent event
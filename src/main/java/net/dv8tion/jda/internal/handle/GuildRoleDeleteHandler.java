@@ -61,8 +61,9 @@ public class GuildRoleDeleteHandler extends SocketHandler {
         // Now that the role is removed from the Guild, remove it from all users and emojis.
         guild.getMembersView().forEach(m -> {
             MemberImpl member = (MemberImpl) m;
-            member.getRoleSet().remove(removedRole);
+            member.removeRole(roleId);
         });
+        guild.getMembersView().removeRole(roleId);
 
         for (RichCustomEmoji emoji : guild.getEmojiCache()) {
             RichCustomEmojiImpl impl = (RichCustomEmojiImpl) emoji;
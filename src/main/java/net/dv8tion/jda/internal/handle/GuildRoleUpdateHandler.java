@@ -55,7 +55,7 @@ public class GuildRoleUpdateHandler extends SocketHandler {
             return null;
         }
 
-        String name = rolejson.getString("name");
+        String name = getJDA().getEntityBuilder().deduplicate(rolejson.getString("name"));
         RoleColors colors = AbstractEntityBuilder.createRoleColors(rolejson.getObject("colors"));
 
         int position = rolejson.getInt("position");
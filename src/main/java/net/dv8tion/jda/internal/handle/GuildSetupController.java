@@ -284,6 +284,10 @@ public class GuildSetupController {
         return unavailableGuilds;
     }
 
+    public boolean isSetupInProgress() {
+        return !setupNodes.isEmpty();
+    }
+
     public Set<GuildSetupNode> getSetupNodes() {
         return new HashSet<>(setupNodes.valueCollection());
     }
@@ -39,7 +39,7 @@ import net.dv8tion.jda.internal.utils.UnlockHook;
 import org.slf4j.Logger;
 
 import java.util.ArrayList;
-import java.util.EnumSet;
+import java.util.Collections;
 import java.util.List;
 
 import javax.annotation.Nullable;
@@ -106,15 +106,22 @@ public class PresenceUpdateHandler extends SocketHandler {
         DataArray activityArray = !getJDA().isCacheFlagSet(CacheFlag.ACTIVITY) || content.isNull("activities")
                 ? null
                 : content.getArray("activities");
-        List<Activity> newActivities = new ArrayList<>();
-        boolean parsedActivity = parseActivities(userId, activityArray, newActivities);
+        List<Activity> newActivities = parseActivities(userId, activityArray);
+        boolean activitiesChanged = newActivities != null && !presence.hasActivities(newActivities);
 
+        int oldStatusRaw = presence.getStatusRaw();
+        int clientStatus = oldStatusRaw & MemberPresenceImpl.CLIENT_STATUS_MASK;
         if (getJDA().isCacheFlagSet(CacheFlag.CLIENT_STATUS) && !content.isNull("client_status")) {
-            handleClientStatus(content, presence);
+            clientStatus = parseClientStatus(content.getObject("client_status"), oldStatusRaw);
         }
 
-        // Check if activities changed
-        if (parsedActivity) {
+        // Most updates repeat the cached presence, which requires no changes and no events
+        if (!activitiesChanged && oldStatusRaw == (MemberPresenceImpl.packStatus(status) | clientStatus)) {
+            return null;
+        }
+
+        presence.setStatusRaw((oldStatusRaw & MemberPresenceImpl.STATUS_MASK) | clientStatus);
+        if (activitiesChanged) {
             handleActivities(newActivities, member, presence);
         }
 
@@ -131,15 +138,20 @@ public class PresenceUpdateHandler extends SocketHandler {
         return null;
     }
 
-    private boolean parseActivities(long userId, DataArray activityArray, List<Activity> newActivities) {
-        boolean parsedActivity = false;
+    @Nullable
+    private List<Activity> parseActivities(long userId, DataArray activityArray) {
+        if (activityArray == null) {
+            return null;
+        }
+        if (activityArray.isEmpty()) {
+            return Collections.emptyList();
+        }
         try {
-            if (activityArray != null) {
-                for (int i = 0; i < activityArray.length(); i++) {
-                    newActivities.add(EntityBuilder.createActivity(activityArray.getObject(i)));
-                }
-                parsedActivity = true;
+            List<Activity> newActivities = new ArrayList<>(activityArray.length());
+            for (int i = 0; i < activityArray.length(); i++) {
+                newActivities.add(EntityBuilder.createActivity(activityArray.getObject(i), getJDA().getStringPool()));
             }
+            return newActivities;
         } catch (Exception ex) {
             if (EntityBuilder.LOG.isDebugEnabled()) {
                 EntityBuilder.LOG.warn(
@@ -154,7 +166,7 @@ public class PresenceUpdateHandler extends SocketHandler {
                         ex.getMessage());
             }
         }
-        return parsedActivity;
+        return null;
     }
 
     private void handleActivities(
@@ -192,18 +204,15 @@ public class PresenceUpdateHandler extends SocketHandler {
         }
     }
 
-    private void handleClientStatus(DataObject content, MemberPresenceImpl presence) {
-        DataObject json = content.getObject("client_status");
-        EnumSet<ClientType> types = EnumSet.of(ClientType.UNKNOWN);
+    private static int parseClientStatus(DataObject json, int oldStatus) {
+        // Clients missing from the update are offline, unknown clients are kept as before
+        int clientStatus = oldStatus & MemberPresenceImpl.getClientStatusMask(ClientType.UNKNOWN);
         for (String key : json.keys()) {
             ClientType type = ClientType.fromKey(key);
-            types.add(type);
-            String raw = String.valueOf(json.get(key));
-            OnlineStatus clientStatus = OnlineStatus.fromKey(raw);
-            presence.setOnlineStatus(type, clientStatus);
-        }
-        for (ClientType type : EnumSet.complementOf(types)) {
-            presence.setOnlineStatus(type, null); // set remaining types to offline
+            OnlineStatus status = OnlineStatus.fromKey(String.valueOf(json.get(key)));
+            clientStatus &= ~MemberPresenceImpl.getClientStatusMask(type);
+            clientStatus |= MemberPresenceImpl.packClientStatus(type, status);
         }
+        return clientStatus;
     }
 }
@@ -42,6 +42,7 @@ public class UserUpdateHandler extends SocketHandler {
         if (!Objects.equals(name, self.getName())) {
             String oldName = self.getName();
             self.setName(name);
+            getJDA().getEntityBuilder().updateNameIndex(self);
             getJDA().handleEvent(new SelfUpdateNameEvent(getJDA(), responseNumber, oldName));
         }
 
@@ -54,6 +55,7 @@ public class UserUpdateHandler extends SocketHandler {
         if (!Objects.equals(globalName, self.getGlobalName())) {
             String oldGlobalName = self.getGlobalName();
             self.setGlobalName(globalName);
+            getJDA().getEntityBuilder().updateNameIndex(self);
             getJDA().handleEvent(new SelfUpdateGlobalNameEvent(getJDA(), responseNumber, oldGlobalName));
         }
 
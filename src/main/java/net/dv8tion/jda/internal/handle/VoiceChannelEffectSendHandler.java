@@ -65,7 +65,7 @@ public class VoiceChannelEffectSendHandler extends SocketHandler {
                 })
                 .orElse(null);
         SoundboardSound soundboardSound = content.opt("sound_id")
-                .map(id -> guild.getSoundboardSoundById((String) id))
+                .map(id -> guild.getSoundboardSoundById(String.valueOf(id)))
                 .orElse(null);
         double soundVolume = content.getDouble("sound_volume", 0);
 
@@ -0,0 +1,69 @@
+/*
+ * Copyright 2015 Austin Keener, Michael Ritter, Florian Spieß, and the JDA contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.dv8tion.jda.internal.requests;
+
+import net.dv8tion.jda.api.requests.RestResponseCache;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+public class InMemoryResponseCache implements RestResponseCache {
+    private final Map<String, CachedResponse> entries;
+
+    public InMemoryResponseCache(int maxSize) {
+        // Access ordered, which evicts the least recently used entry first
+        this.entries = new LinkedHashMap<String, CachedResponse>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedResponse> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    @Nullable
+    @Override
+    public synchronized CachedResponse get(@Nonnull String key) {
+        CachedResponse response = entries.get(key);
+        if (response != null && response.isExpired(System.currentTimeMillis())) {
+            entries.remove(key);
+            return null;
+        }
+        return response;
+    }
+
+    @Override
+    public synchronized void put(@Nonnull String key, @Nonnull CachedResponse response) {
+        entries.put(key, response);
+    }
+
+    @Override
+    public synchronized void invalidate(@Nonnull String key) {
+        entries.remove(key);
+    }
+
+    @Override
+    public synchronized void clear() {
+        entries.clear();
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+}
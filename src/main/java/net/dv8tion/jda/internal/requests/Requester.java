@@ -21,6 +21,7 @@ import net.dv8tion.jda.api.requests.*;
 import net.dv8tion.jda.api.requests.Request;
 import net.dv8tion.jda.api.requests.Response;
 import net.dv8tion.jda.api.requests.Route;
+import net.dv8tion.jda.api.utils.data.DataArray;
 import net.dv8tion.jda.api.utils.data.DataObject;
 import net.dv8tion.jda.internal.JDAImpl;
 import net.dv8tion.jda.internal.utils.IOUtil;
@@ -35,12 +36,20 @@ import java.io.InputStream;
 import java.net.SocketException;
 import java.net.SocketTimeoutException;
 import java.net.UnknownHostException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
 
 import javax.annotation.Nonnull;
@@ -76,6 +85,13 @@ public class Requester {
     private final HttpUrl baseUrl;
     private final String userAgent;
     private final Consumer<? super okhttp3.Request.Builder> customBuilder;
+    private final boolean asyncExecution;
+    private final boolean requestCoalescing;
+    // Method + Compiled Route -> In-flight GET request shared by all identical requests
+    private final ConcurrentMap<String, CoalescedTask> coalescedTasks = new ConcurrentHashMap<>();
+    // Route -> TTL in milliseconds, the cache is null if no route is cached
+    private final Map<Route, Long> responseCacheTtls;
+    private final RestResponseCache responseCache;
 
     private final OkHttpClient httpClient;
 
@@ -97,6 +113,16 @@ public class Requester {
         this.baseUrl = HttpUrl.get(config.getBaseUrl());
         this.userAgent = config.getUserAgent();
         this.customBuilder = config.getCustomBuilder();
+        this.asyncExecution = config.isAsyncExecution();
+        this.requestCoalescing = config.isRequestCoalescing();
+        this.responseCacheTtls = new HashMap<>(config.getResponseCacheTtls());
+        if (responseCacheTtls.isEmpty()) {
+            this.responseCache = null;
+        } else if (config.getResponseCache() != null) {
+            this.responseCache = config.getResponseCache();
+        } else {
+            this.responseCache = RestResponseCache.createDefault(RestConfig.DEFAULT_RESPONSE_CACHE_SIZE);
+        }
         this.httpClient = this.api.getHttpClient();
     }
 
@@ -123,13 +149,174 @@ public class Requester {
             throw new RejectedExecutionException("The Requester has been stopped! No new requests can be requested!");
         }
 
-        if (apiRequest.shouldQueue()) {
+        if (apiRequest.shouldQueue() && handleCachedResponse(apiRequest)) {
+            return;
+        }
+
+        if (apiRequest.shouldQueue() && requestCoalescing && isCoalescable(apiRequest)) {
+            coalesce(apiRequest);
+        } else if (apiRequest.shouldQueue()) {
             rateLimiter.enqueue(new WorkTask(apiRequest));
         } else {
             execute(new WorkTask(apiRequest), true);
         }
     }
 
+    private static boolean isCoalescable(Request<?> apiRequest) {
+        return apiRequest.getRoute().getMethod() == Method.GET
+                && apiRequest.getBody() == null
+                && (apiRequest.getHeaders() == null || apiRequest.getHeaders().isEmpty());
+    }
+
+    private long getResponseCacheTtl(Request<?> apiRequest) {
+        if (responseCache == null || !isCoalescable(apiRequest)) {
+            return 0;
+        }
+        return responseCacheTtls.getOrDefault(apiRequest.getRoute().getBaseRoute(), 0L);
+    }
+
+    private boolean handleCachedResponse(Request<?> apiRequest) {
+        if (getResponseCacheTtl(apiRequest) <= 0) {
+            return false;
+        }
+
+        Route.CompiledRoute route = apiRequest.getRoute();
+        String key = route.getCompiledRoute();
+        RestResponseCache.CachedResponse cached = responseCache.get(key);
+        if (cached == null) {
+            return false;
+        }
+        if (cached.isExpired(System.currentTimeMillis())) {
+            responseCache.invalidate(key);
+            return false;
+        }
+        if (apiRequest.isSkipped()) {
+            return true;
+        }
+
+        LOG.trace("Using cached response for request {} {}", route.getMethod(), key);
+        String contentType = cached.getContentType();
+        @SuppressWarnings("deprecation")
+        ResponseBody body =
+                ResponseBody.create(contentType == null ? null : MediaType.parse(contentType), cached.getBody());
+        okhttp3.Response response = new okhttp3.Response.Builder()
+                .request(new okhttp3.Request.Builder()
+                        .url(route.toHttpUrl(baseUrl))
+                        .build())
+                .protocol(Protocol.HTTP_1_1)
+                .code(200)
+                .message("OK")
+                .body(body)
+                .build();
+        // Handle the response on the callback pool, like responses from the rate limiter, instead of the calling thread
+        api.getCallbackPool().execute(() -> {
+            try {
+                apiRequest.handleResponse(new Response(response, -1, Collections.emptySet()));
+            } catch (Exception e) {
+                LOG.error("There was an unexpected error while handling a cached REST response", e);
+                apiRequest.handleResponse(new Response(e, Collections.emptySet()));
+            }
+        });
+        return true;
+    }
+
+    private void cacheResponse(Request<?> apiRequest, okhttp3.Response response, byte[] body) {
+        long ttl = getResponseCacheTtl(apiRequest);
+        if (ttl <= 0 || response.code() != 200) {
+            return;
+        }
+        ResponseBody responseBody = response.body();
+        MediaType contentType = responseBody == null ? null : responseBody.contentType();
+        responseCache.put(
+                apiRequest.getRoute().getCompiledRoute(),
+                new RestResponseCache.CachedResponse(
+                        body,
+                        contentType == null ? null : contentType.toString(),
+                        System.currentTimeMillis() + ttl));
+    }
+
+    /**
+     * Removes cached responses affected by the provided gateway event.
+     *
+     * @param type
+     *        The event type
+     * @param content
+     *        The event payload
+     */
+    public void invalidateCachedResponses(String type, DataObject content) {
+        if (responseCache == null) {
+            return;
+        }
+
+        switch (type) {
+            case "MESSAGE_UPDATE":
+            case "MESSAGE_DELETE":
+                invalidate(Route.Messages.GET_MESSAGE, content.getString("channel_id"), content.getString("id"));
+                break;
+            case "MESSAGE_DELETE_BULK":
+                String channelId = content.getString("channel_id");
+                content.getArray("ids").stream(DataArray::getString)
+                        .forEach(id -> invalidate(Route.Messages.GET_MESSAGE, channelId, id));
+                break;
+            case "GUILD_MEMBER_UPDATE":
+            case "GUILD_MEMBER_REMOVE":
+                String userId = content.getObject("user").getString("id");
+                invalidate(Route.Guilds.GET_MEMBER, content.getString("guild_id"), userId);
+                invalidate(Route.Users.GET_USER, userId);
+                break;
+            case "USER_UPDATE":
+                invalidate(Route.Users.GET_USER, content.getString("id"));
+                invalidate(Route.Users.GET_USER, "@me");
+                break;
+            case "GUILD_UPDATE":
+            case "GUILD_DELETE":
+                invalidate(Route.Guilds.GET_GUILD, content.getString("id"));
+                break;
+            case "GUILD_ROLE_CREATE":
+            case "GUILD_ROLE_UPDATE":
+            case "GUILD_ROLE_DELETE":
+                String guildId = content.getString("guild_id");
+                String roleId = content.optObject("role")
+                        .map(role -> role.getString("id"))
+                        .orElseGet(() -> content.getString("role_id"));
+                invalidate(Route.Roles.GET_ROLE, guildId, roleId);
+                invalidate(Route.Roles.GET_ROLES, guildId);
+                break;
+            case "CHANNEL_UPDATE":
+            case "CHANNEL_DELETE":
+            case "THREAD_UPDATE":
+            case "THREAD_DELETE":
+                invalidate(Route.Channels.GET_CHANNEL, content.getString("id"));
+                break;
+        }
+    }
+
+    private void invalidate(Route route, String... params) {
+        responseCache.invalidate(route.compile(params).getCompiledRoute());
+    }
+
+    private void coalesce(Request<?> apiRequest) {
+        Route.CompiledRoute route = apiRequest.getRoute();
+        // CompiledRoute#equals ignores the query parameters
+        String key = route.getMethod() + "/" + route.getCompiledRoute();
+        while (true) {
+            CoalescedTask task = coalescedTasks.get(key);
+            if (task == null) {
+                task = new CoalescedTask(apiRequest, key);
+                if (coalescedTasks.putIfAbsent(key, task) == null) {
+                    rateLimiter.enqueue(task);
+                    return;
+                }
+            } else if (task.join(apiRequest)) {
+                LOG.trace("Coalescing request {} with in-flight request", key);
+                return;
+            } else {
+                // The task completed concurrently, but has not been removed yet
+                coalescedTasks.remove(key, task);
+            }
+        }
+    }
+
     private static boolean isRetry(Throwable e) {
         return e instanceof SocketException // Socket couldn't be created or access failed
                 || e instanceof SocketTimeoutException // Connection timed out
@@ -157,26 +344,8 @@ public class Requester {
     }
 
     public okhttp3.Response execute(WorkTask task, boolean retried, boolean handleOnRatelimit) {
-        Route.CompiledRoute route = task.getRoute();
-
-        okhttp3.Request.Builder builder = new okhttp3.Request.Builder();
-
-        HttpUrl url = route.toHttpUrl(baseUrl);
-        builder.url(url);
-
-        Request<?> apiRequest = task.request;
-
-        applyBody(apiRequest, builder);
-        applyHeaders(apiRequest, builder);
-        if (customBuilder != null) {
-            try {
-                customBuilder.accept(builder);
-            } catch (Exception e) {
-                LOG.error("Custom request builder caused exception", e);
-            }
-        }
-
-        okhttp3.Request request = builder.build();
+        okhttp3.Request request = newRequest(task);
+        HttpUrl url = request.url();
 
         Set<String> rays = new LinkedHashSet<>();
         okhttp3.Response[] responses = new okhttp3.Response[4];
@@ -185,15 +354,13 @@ public class Requester {
         okhttp3.Response lastResponse = null;
         try {
             LOG.trace("Executing request {} {}", task.getRoute().getMethod(), url);
-            int code = 0;
             for (int attempt = 0; attempt < responses.length; attempt++) {
-                if (apiRequest.isSkipped()) {
+                if (task.isSkipped()) {
                     return null;
                 }
 
                 Call call = httpClient.newCall(request);
                 lastResponse = call.execute();
-                code = lastResponse.code();
                 responses[attempt] = lastResponse;
                 String cfRay = lastResponse.header("CF-RAY");
                 if (cfRay != null) {
@@ -201,16 +368,11 @@ public class Requester {
                 }
 
                 // Retry a few specific server errors that are related to server issues
-                if (!shouldRetry(code)) {
+                if (!shouldRetry(lastResponse.code())) {
                     break;
                 }
 
-                LOG.debug(
-                        "Requesting {} -> {} returned status {}... retrying (attempt {})",
-                        apiRequest.getRoute().getMethod(),
-                        url,
-                        code,
-                        attempt + 1);
+                logRetry(task, url, lastResponse.code(), attempt);
                 try {
                     Thread.sleep(500 << attempt);
                 } catch (InterruptedException ignored) {
@@ -218,62 +380,15 @@ public class Requester {
                 }
             }
 
-            LOG.trace(
-                    "Finished Request {} {} with code {}",
-                    route.getMethod(),
-                    lastResponse.request().url(),
-                    code);
-
-            if (shouldRetry(code)) {
-                // Epic failure from other end. Attempted 4 times.
-                task.handleResponse(lastResponse, -1, rays);
-                return null;
-            }
-
-            if (!rays.isEmpty()) {
-                LOG.debug("Received response with following cf-rays: {}", rays);
-            }
-
-            if (handleOnRatelimit && code == 429) {
-                long retryAfter = parseRetry(lastResponse);
-                task.handleResponse(lastResponse, retryAfter, rays);
-            } else if (code != 429) {
-                task.handleResponse(lastResponse, rays);
-            } else if (getContentType(lastResponse)
-                    .startsWith("application/json")) // potentially not json when cloudflare does 429
-            {
-                // On 429, replace the retry-after header if its wrong (discord moment)
-                // We just pick whichever is bigger between body and header
-                try (InputStream body = IOUtil.getBody(lastResponse)) {
-                    long retryAfterBody =
-                            (long) Math.ceil(DataObject.fromJson(body).getDouble("retry_after", 0));
-                    long retryAfterHeader = Long.parseLong(lastResponse.header(RestRateLimiter.RETRY_AFTER_HEADER));
-                    lastResponse = lastResponse
-                            .newBuilder()
-                            .header(
-                                    RestRateLimiter.RETRY_AFTER_HEADER,
-                                    Long.toString(Math.max(retryAfterHeader, retryAfterBody)))
-                            .build();
-                } catch (Exception e) {
-                    LOG.warn("Failed to parse retry-after response body", e);
-                }
-            }
-
-            return lastResponse;
-        } catch (UnknownHostException e) {
-            LOG.error("DNS resolution failed: {}", e.getMessage());
-            task.handleResponse(e, rays);
-            return null;
+            return handleResult(task, lastResponse, rays, handleOnRatelimit);
         } catch (IOException e) {
             if (retryOnTimeout && !retried && isRetry(e)) {
                 return execute(task, true, handleOnRatelimit);
             }
-            LOG.error("There was an I/O error while executing a REST request: {}", e.getMessage());
-            task.handleResponse(e, rays);
+            handleError(task, e, rays);
             return null;
         } catch (Exception e) {
-            LOG.error("There was an unexpected error while executing a REST request", e);
-            task.handleResponse(e, rays);
+            handleError(task, e, rays);
             return null;
         } finally {
             for (okhttp3.Response r : responses) {
@@ -285,6 +400,112 @@ public class Requester {
         }
     }
 
+    /**
+     * Asynchronous variant of {@link #execute(WorkTask)}, which uses {@link Call#enqueue(Callback)}
+     * instead of blocking the calling thread while the request is in-flight.
+     *
+     * @param  task
+     *         The API request that needs to be sent
+     *
+     * @return Future completed with the same response {@link #execute(WorkTask)} would return
+     */
+    public CompletableFuture<okhttp3.Response> executeAsync(WorkTask task) {
+        CompletableFuture<okhttp3.Response> future = new CompletableFuture<>();
+        new AsyncCall(task, newRequest(task), future, false).start();
+        return future;
+    }
+
+    private okhttp3.Request newRequest(WorkTask task) {
+        okhttp3.Request.Builder builder = new okhttp3.Request.Builder();
+        builder.url(task.getRoute().toHttpUrl(baseUrl));
+
+        Request<?> apiRequest = task.getRequest();
+
+        applyBody(apiRequest, builder);
+        applyHeaders(apiRequest, builder);
+        if (customBuilder != null) {
+            try {
+                customBuilder.accept(builder);
+            } catch (Exception e) {
+                LOG.error("Custom request builder caused exception", e);
+            }
+        }
+
+        return builder.build();
+    }
+
+    private void logRetry(WorkTask task, HttpUrl url, int code, int attempt) {
+        LOG.debug(
+                "Requesting {} -> {} returned status {}... retrying (attempt {})",
+                task.getRoute().getMethod(),
+                url,
+                code,
+                attempt + 1);
+    }
+
+    private okhttp3.Response handleResult(
+            WorkTask task, okhttp3.Response lastResponse, Set<String> rays, boolean handleOnRatelimit)
+            throws IOException {
+        int code = lastResponse.code();
+        LOG.trace(
+                "Finished Request {} {} with code {}",
+                task.getRoute().getMethod(),
+                lastResponse.request().url(),
+                code);
+
+        // Modifying a resource invalidates the cached response of the same path
+        if (responseCache != null && task.getRoute().getMethod() != Method.GET && code >= 200 && code < 300) {
+            responseCache.invalidate(task.getRoute().getCompiledRoute());
+        }
+
+        if (shouldRetry(code)) {
+            // Epic failure from other end. Attempted 4 times.
+            task.handleResponse(lastResponse, -1, rays);
+            return null;
+        }
+
+        if (!rays.isEmpty()) {
+            LOG.debug("Received response with following cf-rays: {}", rays);
+        }
+
+        if (handleOnRatelimit && code == 429) {
+            long retryAfter = parseRetry(lastResponse);
+            task.handleResponse(lastResponse, retryAfter, rays);
+        } else if (code != 429) {
+            task.handleResponse(lastResponse, rays);
+        } else if (getContentType(lastResponse)
+                .startsWith("application/json")) // potentially not json when cloudflare does 429
+        {
+            // On 429, replace the retry-after header if its wrong (discord moment)
+            // We just pick whichever is bigger between body and header
+            try (InputStream body = IOUtil.getBody(lastResponse)) {
+                long retryAfterBody = (long) Math.ceil(DataObject.fromJson(body).getDouble("retry_after", 0));
+                long retryAfterHeader = Long.parseLong(lastResponse.header(RestRateLimiter.RETRY_AFTER_HEADER));
+                lastResponse = lastResponse
+                        .newBuilder()
+                        .header(
+                                RestRateLimiter.RETRY_AFTER_HEADER,
+                                Long.toString(Math.max(retryAfterHeader, retryAfterBody)))
+                        .build();
+            } catch (Exception e) {
+                LOG.warn("Failed to parse retry-after response body", e);
+            }
+        }
+
+        return lastResponse;
+    }
+
+    private void handleError(WorkTask task, Exception error, Set<String> rays) {
+        if (error instanceof UnknownHostException) {
+            LOG.error("DNS resolution failed: {}", error.getMessage());
+        } else if (error instanceof IOException) {
+            LOG.error("There was an I/O error while executing a REST request: {}", error.getMessage());
+        } else {
+            LOG.error("There was an unexpected error while executing a REST request", error);
+        }
+        task.handleResponse(error, rays);
+    }
+
     private void applyBody(Request<?> apiRequest, okhttp3.Request.Builder builder) {
         Method method = apiRequest.getRoute().getMethod();
         RequestBody body = apiRequest.getBody();
@@ -352,19 +573,141 @@ public class Requester {
         return (long) (Double.parseDouble(retryAfter) * 1000);
     }
 
+    private static byte[] readBody(okhttp3.Response response) throws IOException {
+        try (InputStream stream = IOUtil.getBody(response)) {
+            return stream == null ? new byte[0] : IOUtil.readFully(stream);
+        }
+    }
+
+    private static okhttp3.Response withBody(okhttp3.Response response, byte[] body) {
+        // The body is already decoded, so it must not be decompressed again
+        ResponseBody original = response.body();
+        MediaType contentType = original == null ? null : original.contentType();
+        @SuppressWarnings("deprecation")
+        ResponseBody copy = ResponseBody.create(contentType, body);
+        return response.newBuilder().removeHeader("content-encoding").body(copy).build();
+    }
+
     private static String getContentType(okhttp3.Response response) {
         String type = response.header("content-type");
         return type == null ? "" : type.toLowerCase(Locale.ROOT);
     }
 
+    private class AsyncCall implements Callback {
+        private final WorkTask task;
+        private final okhttp3.Request request;
+        private final CompletableFuture<okhttp3.Response> future;
+        private final boolean retried;
+
+        private final Set<String> rays = new LinkedHashSet<>();
+        private final okhttp3.Response[] responses = new okhttp3.Response[4];
+        private int attempt = 0;
+
+        private AsyncCall(
+                WorkTask task,
+                okhttp3.Request request,
+                CompletableFuture<okhttp3.Response> future,
+                boolean retried) {
+            this.task = task;
+            this.request = request;
+            this.future = future;
+            this.retried = retried;
+        }
+
+        private void start() {
+            if (attempt == 0) {
+                LOG.trace("Executing request {} {}", task.getRoute().getMethod(), request.url());
+            }
+            if (task.isSkipped()) {
+                closeResponses();
+                future.complete(null);
+                return;
+            }
+
+            try {
+                httpClient.newCall(request).enqueue(this);
+            } catch (Throwable t) {
+                closeResponses();
+                future.completeExceptionally(t);
+            }
+        }
+
+        @Override
+        public void onResponse(@Nonnull Call call, @Nonnull okhttp3.Response response) {
+            responses[attempt] = response;
+            String cfRay = response.header("CF-RAY");
+            if (cfRay != null) {
+                rays.add(cfRay);
+            }
+
+            // Retry a few specific server errors that are related to server issues
+            int code = response.code();
+            if (shouldRetry(code) && attempt + 1 < responses.length) {
+                logRetry(task, request.url(), code, attempt);
+                long delay = 500L << attempt++;
+                try {
+                    api.getRateLimitPool().schedule(this::start, delay, TimeUnit.MILLISECONDS);
+                    return;
+                } catch (RejectedExecutionException ignored) {
+                    // Shutting down, handle the last response as final
+                    attempt--;
+                }
+            }
+
+            try {
+                okhttp3.Response result;
+                try {
+                    result = handleResult(task, response, rays, false);
+                } catch (Exception e) {
+                    handleError(task, e, rays);
+                    result = null;
+                } finally {
+                    closeResponses();
+                }
+                future.complete(result);
+            } catch (Throwable t) {
+                future.completeExceptionally(t);
+            }
+        }
+
+        @Override
+        public void onFailure(@Nonnull Call call, @Nonnull IOException e) {
+            closeResponses();
+            if (retryOnTimeout && !retried && isRetry(e)) {
+                new AsyncCall(task, request, future, true).start();
+                return;
+            }
+
+            try {
+                handleError(task, e, rays);
+                future.complete(null);
+            } catch (Throwable t) {
+                future.completeExceptionally(t);
+            }
+        }
+
+        private void closeResponses() {
+            for (okhttp3.Response r : responses) {
+                if (r == null) {
+                    break;
+                }
+                r.close();
+            }
+        }
+    }
+
     private class WorkTask implements RestRateLimiter.Work {
-        private final Request<?> request;
-        private boolean done;
+        protected volatile Request<?> request;
+        protected volatile boolean done;
 
         private WorkTask(Request<?> request) {
             this.request = request;
         }
 
+        protected Request<?> getRequest() {
+            return request;
+        }
+
         @Nonnull
         @Override
         public Route.CompiledRoute getRoute() {
@@ -383,6 +726,15 @@ public class Requester {
             return Requester.this.execute(this);
         }
 
+        @Nonnull
+        @Override
+        public CompletableFuture<okhttp3.Response> executeAsync() {
+            if (!asyncExecution) {
+                return RestRateLimiter.Work.super.executeAsync();
+            }
+            return Requester.this.executeAsync(this);
+        }
+
         @Override
         public boolean isSkipped() {
             return request.isSkipped();
@@ -408,19 +760,138 @@ public class Requester {
             request.cancel();
         }
 
-        private void handleResponse(okhttp3.Response response, Set<String> rays) {
+        protected void handleResponse(okhttp3.Response response, Set<String> rays) throws IOException {
+            if (response.code() == 200 && getResponseCacheTtl(request) > 0) {
+                byte[] body = readBody(response);
+                cacheResponse(request, response, body);
+                response = withBody(response, body);
+            }
             done = true;
             request.handleResponse(new Response(response, -1, rays));
         }
 
-        private void handleResponse(Exception error, Set<String> rays) {
+        protected void handleResponse(Exception error, Set<String> rays) {
             done = true;
             request.handleResponse(new Response(error, rays));
         }
 
-        private void handleResponse(okhttp3.Response response, long retryAfter, Set<String> cfRays) {
+        protected void handleResponse(okhttp3.Response response, long retryAfter, Set<String> cfRays) {
             done = true;
             request.handleResponse(new Response(response, retryAfter, cfRays));
         }
     }
+
+    /**
+     * Task shared by identical GET requests, which are executed once and receive a copy of the same response.
+     */
+    private class CoalescedTask extends WorkTask {
+        private final String key;
+        private final List<Request<?>> followers = new ArrayList<>();
+        private boolean closed;
+
+        private CoalescedTask(Request<?> request, String key) {
+            super(request);
+            this.key = key;
+        }
+
+        private synchronized boolean join(Request<?> follower) {
+            if (closed) {
+                return false;
+            }
+            followers.add(follower);
+            return true;
+        }
+
+        private synchronized List<Request<?>> close() {
+            closed = true;
+            coalescedTasks.remove(key, this);
+            List<Request<?>> requests = new ArrayList<>(followers.size() + 1);
+            requests.add(request);
+            requests.addAll(followers);
+            followers.clear();
+            return requests;
+        }
+
+        @Override
+        public synchronized boolean isSkipped() {
+            // Skipped requests are notified by Request#isSkipped, the remaining requests continue with a new leader
+            followers.removeIf(Request::isSkipped);
+            while (request.isSkipped()) {
+                if (followers.isEmpty()) {
+                    closed = true;
+                    coalescedTasks.remove(key, this);
+                    return true;
+                }
+                request = followers.remove(0);
+            }
+            return false;
+        }
+
+        @Override
+        public synchronized boolean isPriority() {
+            return request.isPriority() || followers.stream().anyMatch(Request::isPriority);
+        }
+
+        @Override
+        public synchronized void cancel() {
+            request.cancel();
+            followers.forEach(Request::cancel);
+        }
+
+        @Override
+        protected void handleResponse(okhttp3.Response response, Set<String> rays) {
+            handleResponse(response, -1, rays);
+        }
+
+        @Override
+        protected void handleResponse(Exception error, Set<String> rays) {
+            done = true;
+            for (Request<?> member : close()) {
+                deliver(member, new Response(error, rays), rays);
+            }
+        }
+
+        @Override
+        protected void handleResponse(okhttp3.Response response, long retryAfter, Set<String> cfRays) {
+            List<Request<?>> members = close();
+            boolean cached = retryAfter < 0 && response.code() == 200 && getResponseCacheTtl(members.get(0)) > 0;
+            if (members.size() == 1 && !cached) {
+                done = true;
+                deliver(members.get(0), new Response(response, retryAfter, cfRays), cfRays);
+                return;
+            }
+
+            // Each request consumes its own response body, so the body has to be buffered once for everyone
+            byte[] body;
+            try {
+                body = readBody(response);
+            } catch (IOException e) {
+                LOG.error("There was an I/O error while reading a coalesced REST response: {}", e.getMessage());
+                done = true;
+                for (Request<?> member : members) {
+                    deliver(member, new Response(e, cfRays), cfRays);
+                }
+                return;
+            }
+
+            if (cached) {
+                cacheResponse(members.get(0), response, body);
+            }
+
+            done = true;
+            for (Request<?> member : members) {
+                deliver(member, new Response(withBody(response, body), retryAfter, cfRays), cfRays);
+            }
+        }
+
+        private void deliver(Request<?> member, Response response, Set<String> cfRays) {
+            // Failures of one request should not prevent the others from receiving the response
+            try {
+                member.handleResponse(response);
+            } catch (Exception e) {
+                LOG.error("There was an unexpected error while handling a coalesced REST response", e);
+                member.handleResponse(new Response(e, cfRays));
+            }
+        }
+    }
 }
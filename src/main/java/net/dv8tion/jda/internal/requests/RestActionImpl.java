@@ -148,6 +148,10 @@ public class RestActionImpl<T> implements RestAction<T> {
         return this;
     }
 
+    public Route.CompiledRoute getRoute() {
+        return route;
+    }
+
     @Nonnull
     @Override
     public JDA getJDA() {
@@ -36,9 +36,11 @@ import net.dv8tion.jda.api.requests.CloseCode;
 import net.dv8tion.jda.api.utils.Compression;
 import net.dv8tion.jda.api.utils.MiscUtil;
 import net.dv8tion.jda.api.utils.SessionController;
+import net.dv8tion.jda.api.utils.cache.CacheFlag;
 import net.dv8tion.jda.api.utils.data.DataArray;
 import net.dv8tion.jda.api.utils.data.DataObject;
 import net.dv8tion.jda.api.utils.data.DataType;
+import net.dv8tion.jda.api.utils.data.etf.ExTermDecoder;
 import net.dv8tion.jda.internal.JDAImpl;
 import net.dv8tion.jda.internal.audio.ConnectionRequest;
 import net.dv8tion.jda.internal.audio.ConnectionStage;
@@ -48,11 +50,14 @@ import net.dv8tion.jda.internal.managers.AudioManagerImpl;
 import net.dv8tion.jda.internal.managers.PresenceImpl;
 import net.dv8tion.jda.internal.utils.IOUtil;
 import net.dv8tion.jda.internal.utils.JDALogger;
+import net.dv8tion.jda.internal.utils.SerializationUtil;
 import net.dv8tion.jda.internal.utils.ShutdownReason;
 import net.dv8tion.jda.internal.utils.UnlockHook;
 import net.dv8tion.jda.internal.utils.cache.AbstractCacheView;
+import net.dv8tion.jda.internal.utils.concurrent.CountingThreadFactory;
 import net.dv8tion.jda.internal.utils.compress.Decompressor;
 import net.dv8tion.jda.internal.utils.compress.ZlibDecompressor;
+import net.dv8tion.jda.internal.utils.compress.ZstdDecompressor;
 import org.slf4j.Logger;
 import org.slf4j.MDC;
 
@@ -62,6 +67,7 @@ import java.lang.ref.SoftReference;
 import java.net.Socket;
 import java.net.SocketException;
 import java.net.SocketTimeoutException;
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
 import java.time.OffsetDateTime;
 import java.util.*;
@@ -75,6 +81,7 @@ import java.util.stream.Collectors;
 import java.util.zip.DataFormatException;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 
 public class WebSocketClient extends WebSocketAdapter implements WebSocketListener {
     public static final ThreadLocal<Boolean> WS_THREAD = ThreadLocal.withInitial(() -> false);
@@ -82,6 +89,7 @@ public class WebSocketClient extends WebSocketAdapter implements WebSocketListen
 
     protected static final String INVALIDATE_REASON = "INVALIDATE_SESSION";
     protected static final long IDENTIFY_BACKOFF = TimeUnit.SECONDS.toMillis(SessionController.IDENTIFY_DELAY);
+    protected static final long LANE_SHUTDOWN_TIMEOUT = TimeUnit.SECONDS.toMillis(10);
 
     protected final JDAImpl api;
     protected final JDA.ShardInfo shardInfo;
@@ -90,6 +98,8 @@ public class WebSocketClient extends WebSocketAdapter implements WebSocketListen
     protected final int gatewayIntents;
     protected final MemberChunkManager chunkManager;
     protected final GatewayEncoding encoding;
+    protected final SerializationUtil.GatewayPayloadFilter payloadFilter;
+    protected final DispatchLane[] lanes;
 
     public WebSocket socket;
     protected String traceMetadata = null;
@@ -143,6 +153,9 @@ public class WebSocketClient extends WebSocketAdapter implements WebSocketListen
         this.shouldReconnect = api.isAutoReconnect();
         this.connectNode = new StartingNode();
         setupHandlers();
+        // Raw events and event passthrough expose the full payload to the user, so nothing can be skipped
+        this.payloadFilter = api.isRawEvents() || api.isEventPassthrough() ? null : new DispatchFilter();
+        this.lanes = createLanes(api.getDispatchLanes());
         try {
             api.getSessionController().appendSession(connectNode);
         } catch (RuntimeException | Error e) {
@@ -340,6 +353,15 @@ public class WebSocketClient extends WebSocketAdapter implements WebSocketListen
     */
 
     protected void onShutdown(int rawCloseCode) {
+        if (lanes != null) {
+            for (DispatchLane lane : lanes) {
+                lane.executor.shutdown();
+            }
+            // Queued events are still handled before the internals are shut down
+            for (DispatchLane lane : lanes) {
+                lane.awaitTermination(LANE_SHUTDOWN_TIMEOUT);
+            }
+        }
         api.shutdownInternals(new ShutdownEvent(api, OffsetDateTime.now(), rawCloseCode));
     }
 
@@ -368,6 +390,11 @@ public class WebSocketClient extends WebSocketAdapter implements WebSocketListen
                             decompressor = new ZlibDecompressor(api.getMaxBufferSize());
                         }
                         break;
+                    case ZSTD:
+                        if (decompressor == null || decompressor.getType() != Compression.ZSTD) {
+                            decompressor = new ZstdDecompressor(api.getMaxBufferSize());
+                        }
+                        break;
                     default:
                         throw new IllegalStateException("Unknown compression");
                 }
@@ -740,6 +767,7 @@ public class WebSocketClient extends WebSocketAdapter implements WebSocketListen
     }
 
     protected void invalidate() {
+        awaitLanes();
         resumeUrl = null;
         sessionId = null;
         sentAuthInfo = false;
@@ -870,9 +898,21 @@ public class WebSocketClient extends WebSocketAdapter implements WebSocketListen
         String type = raw.getString("t");
         long responseTotal = api.getResponseTotal();
 
+        // Checked before handling, since skipped or unhandled payloads still advance the response total
+        if (responseTotal % EventCache.TIMEOUT_AMOUNT == 0) {
+            api.getEventCache().timeout(responseTotal);
+        }
+
+        if (!raw.hasKey("d")) {
+            // The payload was skipped while parsing, see DispatchFilter
+            LOG.trace("{} -> skipped", type);
+            return;
+        }
+
         if (!raw.isType("d", DataType.OBJECT)) {
             // Needs special handling due to content of "d" being an array
             if (type.equals("PRESENCES_REPLACE")) {
+                awaitLanes();
                 DataArray payload = raw.getArray("d");
                 List<DataObject> converted = convertPresencesReplace(responseTotal, payload);
                 SocketHandler handler = getHandler("PRESENCE_UPDATE");
@@ -893,6 +933,19 @@ public class WebSocketClient extends WebSocketAdapter implements WebSocketListen
         DataObject content = raw.getObject("d");
         LOG.trace("{} -> {}", type, content);
 
+        DispatchLane lane = getLane(type, content);
+        if (lane != null) {
+            lane.submit(() -> dispatch(lane.handlers, raw, type, content, responseTotal));
+        } else {
+            if (isGuildEvent(type, content)) {
+                awaitLanes();
+            }
+            dispatch(handlers, raw, type, content, responseTotal);
+        }
+    }
+
+    protected void dispatch(
+            Map<String, SocketHandler> handlers, DataObject raw, String type, DataObject content, long responseTotal) {
         JDAImpl jda = (JDAImpl) getJDA();
         try {
             switch (type) {
@@ -931,6 +984,7 @@ public class WebSocketClient extends WebSocketAdapter implements WebSocketListen
                         LOG.debug("Ignoring {} for unavailable guild with id {}. JSON: {}", type, guildId, content);
                         break;
                     }
+                    api.getRequester().invalidateCachedResponses(type, content);
                     SocketHandler handler = handlers.get(type);
                     if (handler != null) {
                         handler.handle(responseTotal, raw);
@@ -958,15 +1012,11 @@ public class WebSocketClient extends WebSocketAdapter implements WebSocketListen
                     content,
                     ex);
         }
-
-        if (responseTotal % EventCache.TIMEOUT_AMOUNT == 0) {
-            jda.getEventCache().timeout(responseTotal);
-        }
     }
 
     @Override
     public void onTextMessage(WebSocket websocket, byte[] data) {
-        handleEvent(DataObject.fromJson(data));
+        handleEvent(parseJson(data, 0, data.length));
     }
 
     @Override
@@ -981,18 +1031,104 @@ public class WebSocketClient extends WebSocketAdapter implements WebSocketListen
         }
     }
 
+    protected DispatchLane[] createLanes(int count) {
+        if (count == 0) {
+            return null;
+        }
+
+        DispatchLane[] lanes = new DispatchLane[count];
+        CountingThreadFactory threadFactory = new CountingThreadFactory(api::getIdentifierString, "DispatchLane");
+        for (int i = 0; i < count; i++) {
+            Map<String, SocketHandler> laneHandlers = new HashMap<>();
+            setupHandlers(laneHandlers);
+            lanes[i] = new DispatchLane(laneHandlers, threadFactory);
+        }
+        return lanes;
+    }
+
+    // Returns null for events which are handled on the main WebSocket thread
+    protected DispatchLane getLane(String type, DataObject content) {
+        if (lanes == null || isGuildSetupEvent(type)) {
+            return null;
+        }
+
+        long guildId = getGuildId(type, content);
+        if (guildId == 0L || api.getGuildSetupController().isSetupInProgress()) {
+            return null;
+        }
+
+        return lanes[(int) ((guildId >>> 22) % lanes.length)];
+    }
+
+    // These modify the guild setup state, which is not thread-safe
+    protected static boolean isGuildSetupEvent(String type) {
+        switch (type) {
+            case "READY":
+            case "RESUMED":
+            case "GUILD_CREATE":
+            case "GUILD_DELETE":
+            case "GUILD_MEMBERS_CHUNK":
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    // Guild events handled on the main WebSocket thread have to wait for the lanes,
+    // events without a guild are independent of the lanes
+    protected boolean isGuildEvent(String type, DataObject content) {
+        return lanes != null && (isGuildSetupEvent(type) || getGuildId(type, content) != 0L);
+    }
+
+    protected static long getGuildId(String type, DataObject content) {
+        return type.equals("GUILD_UPDATE")
+                ? content.getUnsignedLong("id", 0L)
+                : content.getUnsignedLong("guild_id", 0L);
+    }
+
+    // Waits for all lanes to finish their queued events
+    protected void awaitLanes() {
+        if (lanes == null) {
+            return;
+        }
+
+        for (DispatchLane lane : lanes) {
+            lane.await();
+        }
+    }
+
+    protected DataObject parseJson(byte[] data, int offset, int length) {
+        DataObject payload = DataObject.empty();
+        SerializationUtil.fromGatewayJson(data, offset, length, payloadFilter).forEach(payload::put);
+        return payload;
+    }
+
+    protected DataObject parseETF(ByteBuffer data) {
+        // Snowflakes can only be decoded to longs when the payloads are not exposed to the user
+        boolean parseSnowflakes = payloadFilter != null;
+        DataObject payload = DataObject.empty();
+        try {
+            ExTermDecoder.unpackMap(data.duplicate(), parseSnowflakes).forEach(payload::put);
+        } catch (RuntimeException ex) {
+            LOG.error("Failed to parse ETF data of length {}", data.remaining());
+            throw new ParsingException(ex);
+        }
+        return payload;
+    }
+
     protected DataObject handleBinary(byte[] binary) throws DataFormatException {
         if (decompressor == null) {
             if (encoding == GatewayEncoding.ETF) {
-                return DataObject.fromETF(binary);
+                return parseETF(ByteBuffer.wrap(binary));
             }
             throw new IllegalStateException(
                     "Cannot decompress binary message due to unknown compression algorithm: " + compression);
         }
         // Scoping allows us to print the json that possibly failed parsing
-        byte[] data;
+        // The decompressed buffer is reused by the decompressor, so it must be parsed before the next frame
+        ByteBuffer data;
         try {
-            data = decompressor.decompress(binary);
+            data = decompressor.decompressToBuffer(binary);
             if (data == null) {
                 return null;
             }
@@ -1003,14 +1139,15 @@ public class WebSocketClient extends WebSocketAdapter implements WebSocketListen
 
         try {
             if (encoding == GatewayEncoding.ETF) {
-                return DataObject.fromETF(data);
+                return parseETF(data);
             } else {
-                return DataObject.fromJson(data);
+                return parseJson(data.array(), data.arrayOffset() + data.position(), data.remaining());
             }
         } catch (ParsingException e) {
             String jsonString = "malformed";
             try {
-                jsonString = new String(data, StandardCharsets.UTF_8);
+                jsonString = new String(
+                        data.array(), data.arrayOffset() + data.position(), data.remaining(), StandardCharsets.UTF_8);
             } catch (Exception ignored) {
             }
             // Print the string that could not be parsed and re-throw the exception
@@ -1254,6 +1391,10 @@ public class WebSocketClient extends WebSocketAdapter implements WebSocketListen
     }
 
     protected void setupHandlers() {
+        setupHandlers(handlers);
+    }
+
+    protected void setupHandlers(Map<String, SocketHandler> handlers) {
         SocketHandler.NOPHandler nopHandler = new SocketHandler.NOPHandler(api);
         handlers.put("APPLICATION_COMMAND_PERMISSIONS_UPDATE", new ApplicationCommandPermissionsUpdateHandler(api));
         handlers.put("AUTO_MODERATION_RULE_CREATE", new AutoModRuleHandler(api, "CREATE"));
@@ -1429,4 +1570,137 @@ public class WebSocketClient extends WebSocketAdapter implements WebSocketListen
             return node.getJDA().equals(getJDA());
         }
     }
+
+    protected class DispatchFilter implements SerializationUtil.GatewayPayloadFilter {
+        private final boolean cachePresences = api.getCacheFlags().stream().anyMatch(CacheFlag::isPresence);
+        private final Set<String> skippedPresenceFields = new HashSet<>();
+        private final Set<String> skippedGuildFields = new HashSet<>();
+
+        protected DispatchFilter() {
+            if (!api.isCacheFlagSet(CacheFlag.ACTIVITY)) {
+                skippedPresenceFields.add("activities");
+            }
+            if (!api.isCacheFlagSet(CacheFlag.CLIENT_STATUS)) {
+                skippedPresenceFields.add("client_status");
+            }
+            if (!cachePresences) {
+                skippedGuildFields.add("presences");
+            }
+        }
+
+        @Override
+        public boolean isSkipped(@Nonnull String type) {
+            switch (type) {
+                case "READY":
+                case "RESUMED":
+                case "PRESENCES_REPLACE":
+                    return false;
+                case "PRESENCE_UPDATE":
+                    return !cachePresences;
+                default:
+                    return !handlers.containsKey(type);
+            }
+        }
+
+        @Nullable
+        @Override
+        public Set<String> getSkippedFields(@Nonnull String type) {
+            switch (type) {
+                case "PRESENCE_UPDATE":
+                    return skippedPresenceFields.isEmpty() ? null : skippedPresenceFields;
+                case "GUILD_CREATE":
+                    return skippedGuildFields.isEmpty() ? null : skippedGuildFields;
+                default:
+                    return null;
+            }
+        }
+    }
+
+    protected static class DispatchLane {
+        protected static final int QUEUE_CAPACITY = 1024;
+
+        protected final Map<String, SocketHandler> handlers;
+        protected final ThreadPoolExecutor executor;
+        // Queued and running events, read by the main WebSocket thread to skip waiting for idle lanes
+        protected final AtomicInteger pending = new AtomicInteger();
+        protected volatile Thread thread;
+
+        protected DispatchLane(Map<String, SocketHandler> handlers, ThreadFactory threadFactory) {
+            this.handlers = handlers;
+            // Blocks the main WebSocket thread when the lane falls too far behind
+            this.executor = new ThreadPoolExecutor(
+                    1,
+                    1,
+                    0L,
+                    TimeUnit.MILLISECONDS,
+                    new LinkedBlockingQueue<>(QUEUE_CAPACITY),
+                    threadFactory,
+                    (task, executor) -> {
+                        if (executor.isShutdown()) {
+                            throw new RejectedExecutionException("Dispatch lane is shutdown");
+                        }
+                        try {
+                            executor.getQueue().put(task);
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                            throw new RejectedExecutionException(e);
+                        }
+                    });
+        }
+
+        protected void submit(Runnable task) {
+            pending.incrementAndGet();
+            try {
+                executor.execute(() -> {
+                    thread = Thread.currentThread();
+                    WS_THREAD.set(true);
+                    try {
+                        task.run();
+                    } finally {
+                        pending.decrementAndGet();
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                pending.decrementAndGet();
+                throw e;
+            }
+        }
+
+        // Waits for the queued events of this lane to be handled
+        protected void await() {
+            if (pending.get() == 0 || Thread.currentThread() == thread) {
+                return;
+            }
+
+            CountDownLatch latch = new CountDownLatch(1);
+            try {
+                submit(latch::countDown);
+            } catch (RejectedExecutionException e) {
+                return;
+            }
+
+            try {
+                latch.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        protected void awaitTermination(long timeoutMillis) {
+            // The lane cannot wait for itself, if the shutdown was started by one of its events
+            if (Thread.currentThread() == thread) {
+                return;
+            }
+
+            try {
+                if (!executor.awaitTermination(timeoutMillis, TimeUnit.MILLISECONDS)) {
+                    LOG.warn("Dispatch lane did not finish its queued events in time, {} remaining", pending.get());
+                    executor.shutdownNow();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                executor.shutdownNow();
+            }
+        }
+    }
 }
@@ -28,7 +28,6 @@ import net.dv8tion.jda.api.requests.Request;
 import net.dv8tion.jda.api.requests.Response;
 import net.dv8tion.jda.api.requests.Route;
 import net.dv8tion.jda.api.requests.restaction.pagination.MessagePaginationAction;
-import net.dv8tion.jda.api.utils.data.DataArray;
 import net.dv8tion.jda.internal.entities.EntityBuilder;
 import net.dv8tion.jda.internal.utils.Checks;
 
@@ -65,12 +64,12 @@ public class MessagePaginationActionImpl extends PaginationActionImpl<Message, M
 
     @Override
     protected void handleSuccess(Response response, Request<List<Message>> request) {
-        DataArray array = response.getArray();
-        List<Message> messages = new ArrayList<>(array.length());
+        List<Message> messages = new ArrayList<>(getLimit());
         EntityBuilder builder = api.getEntityBuilder();
-        for (int i = 0; i < array.length(); i++) {
+        // Messages are built while the rest of the page is still being read
+        response.forEachObject(object -> {
             try {
-                Message msg = builder.createMessageWithChannel(array.getObject(i), channel, false);
+                Message msg = builder.createMessageWithChannel(object, channel, false);
                 messages.add(msg);
             } catch (ParsingException | NullPointerException e) {
                 LOG.warn("Encountered an exception in MessagePagination", e);
@@ -81,7 +80,7 @@ public class MessagePaginationActionImpl extends PaginationActionImpl<Message, M
                     LOG.warn("Unexpected issue trying to parse message during pagination", e);
                 }
             }
-        }
+        });
 
         if (order == PaginationOrder.FORWARD) {
             Collections.reverse(messages);
@@ -20,17 +20,21 @@ import net.dv8tion.jda.api.JDA;
 import net.dv8tion.jda.api.requests.Route;
 import net.dv8tion.jda.api.requests.restaction.pagination.PaginationAction;
 import net.dv8tion.jda.api.utils.Procedure;
+import net.dv8tion.jda.internal.requests.CallbackContext;
 import net.dv8tion.jda.internal.requests.RestActionImpl;
 import net.dv8tion.jda.internal.utils.Checks;
 
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.BiFunction;
 import java.util.function.BooleanSupplier;
 import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import javax.annotation.Nonnull;
 
@@ -267,6 +271,16 @@ public abstract class PaginationActionImpl<T, M extends PaginationAction<T, M>>
         return new PaginationIterator<>(cached, this::getNextChunk);
     }
 
+    @Nonnull
+    @Override
+    public Stream<T> prefetchStream(int prefetch) {
+        Checks.positive(prefetch, "Prefetch");
+        PrefetchIterator iterator = new PrefetchIterator(prefetch);
+        Spliterator<T> spliterator =
+                Spliterators.spliteratorUnknownSize(iterator, Spliterator.IMMUTABLE | Spliterator.ORDERED);
+        return StreamSupport.stream(spliterator, false).onClose(iterator::close);
+    }
+
     @Nonnull
     @Override
     public CompletableFuture<?> forEachAsync(
@@ -450,4 +464,117 @@ public abstract class PaginationActionImpl<T, M extends PaginationAction<T, M>>
             limit.set(currentLimit);
         }
     }
+
+    // Keeps up to "prefetch" pages buffered ahead of the consumer, with at most one request in flight
+    protected class PrefetchIterator implements Iterator<T> {
+        protected final Deque<List<T>> pages = new ArrayDeque<>();
+        protected final int prefetch;
+        protected Iterator<T> current = Collections.emptyIterator();
+        protected Throwable failure;
+        protected boolean fetching, end, closed;
+
+        protected PrefetchIterator(int prefetch) {
+            this.prefetch = prefetch;
+            List<T> initial = new ArrayList<>(cached);
+            if (!initial.isEmpty()) {
+                pages.add(initial);
+            }
+            fetch();
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (current.hasNext()) {
+                return true;
+            }
+
+            synchronized (this) {
+                while (pages.isEmpty()) {
+                    if (failure != null) {
+                        throw rethrow(failure);
+                    }
+                    if (end || closed) {
+                        return false;
+                    }
+                    if (CallbackContext.isCallbackContext()) {
+                        throw new IllegalStateException("Preventing use of prefetchStream() in callback threads! "
+                                + "This operation can be a deadlock cause");
+                    }
+
+                    try {
+                        wait();
+                    } catch (InterruptedException ex) {
+                        Thread.currentThread().interrupt();
+                        throw new IllegalStateException("Interrupted while waiting for the next page", ex);
+                    }
+                }
+
+                current = pages.poll().iterator();
+                fetch();
+            }
+
+            return current.hasNext();
+        }
+
+        @Override
+        public T next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException("Reached end of pagination task");
+            }
+            return current.next();
+        }
+
+        protected synchronized void close() {
+            closed = true;
+            pages.clear();
+            notifyAll();
+        }
+
+        protected synchronized void fetch() {
+            if (fetching || end || closed || failure != null || pages.size() >= prefetch) {
+                return;
+            }
+
+            fetching = true;
+            int currentLimit = limit.getAndSet(maxLimit);
+            try {
+                queue(this::onPage, this::onFailure);
+            } catch (Throwable ex) {
+                onFailure(ex);
+            } finally {
+                limit.set(currentLimit);
+            }
+        }
+
+        protected synchronized void onPage(List<T> page) {
+            fetching = false;
+            if (closed) {
+                return;
+            }
+
+            if (page.isEmpty()) {
+                end = true;
+            } else {
+                pages.add(page);
+            }
+            notifyAll();
+            fetch();
+        }
+
+        protected synchronized void onFailure(Throwable throwable) {
+            fetching = false;
+            failure = throwable;
+            notifyAll();
+        }
+
+        private RuntimeException rethrow(Throwable throwable) {
+            if (throwable instanceof RuntimeException) {
+                throw (RuntimeException) throwable;
+            }
+            if (throwable instanceof Error) {
+                throw (Error) throwable;
+            }
+            throw new CompletionException(throwable);
+        }
+    }
 }
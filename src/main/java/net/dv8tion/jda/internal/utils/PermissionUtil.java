@@ -16,6 +16,7 @@
 
 package net.dv8tion.jda.internal.utils;
 
+import gnu.trove.map.TLongObjectMap;
 import net.dv8tion.jda.api.Permission;
 import net.dv8tion.jda.api.entities.*;
 import net.dv8tion.jda.api.entities.channel.attribute.ICategorizableChannel;
@@ -26,6 +27,9 @@ import net.dv8tion.jda.api.entities.channel.middleman.MessageChannel;
 import net.dv8tion.jda.api.entities.emoji.RichCustomEmoji;
 import net.dv8tion.jda.api.exceptions.DetachedEntityException;
 import net.dv8tion.jda.api.exceptions.InsufficientPermissionException;
+import net.dv8tion.jda.internal.entities.MemberImpl;
+import net.dv8tion.jda.internal.entities.channel.mixin.attribute.IPermissionContainerMixin;
+import net.dv8tion.jda.internal.utils.cache.SnowflakeCacheViewImpl;
 import org.apache.commons.collections4.CollectionUtils;
 
 import java.util.Arrays;
@@ -353,12 +357,9 @@ public class PermissionUtil {
             return ALL_PERMISSIONS;
         }
         // Default to binary OR of all global permissions in this guild
-        long permission = member.getGuild().getPublicRole().getPermissionsRaw();
-        for (Role role : member.getUnsortedRoles()) {
-            permission |= role.getPermissionsRaw();
-            if (isApplied(permission, Permission.ADMINISTRATOR.getRawValue())) {
-                return ALL_PERMISSIONS;
-            }
+        long permission = member.getGuild().getPublicRole().getPermissionsRaw() | getRolePermissions(member);
+        if (isApplied(permission, Permission.ADMINISTRATOR.getRawValue())) {
+            return ALL_PERMISSIONS;
         }
         // See
         // https://discord.com/developers/docs/topics/permissions#permissions-for-timed-out-members
@@ -510,13 +511,7 @@ public class PermissionUtil {
         }
 
         Guild guild = member.getGuild();
-        long permission = guild.getPublicRole().getPermissionsRaw();
-
-        for (Role role : member.getUnsortedRoles()) {
-            permission |= role.getPermissionsRaw();
-        }
-
-        return permission;
+        return guild.getPublicRole().getPermissionsRaw() | getRolePermissions(member);
     }
 
     /**
@@ -675,6 +670,26 @@ public class PermissionUtil {
         return override == null ? permission : apply(permission, override.getAllowedRaw(), override.getDeniedRaw());
     }
 
+    private static long getRolePermissions(Member member) {
+        long permission = 0;
+        if (member instanceof MemberImpl) {
+            // resolve roles directly from the id array to avoid building a set of roles
+            MemberImpl memberImpl = (MemberImpl) member;
+            SnowflakeCacheViewImpl<Role> roleCache = memberImpl.getGuild().getRolesView();
+            for (long roleId : memberImpl.getRoleIds()) {
+                Role role = roleCache.get(roleId);
+                if (role != null) {
+                    permission |= role.getPermissionsRaw();
+                }
+            }
+        } else {
+            for (Role role : member.getUnsortedRoles()) {
+                permission |= role.getPermissionsRaw();
+            }
+        }
+        return permission;
+    }
+
     private static void getExplicitOverrides(GuildChannel channel, Member member, AtomicLong allow, AtomicLong deny) {
         IPermissionContainer permsChannel = channel.getPermissionContainer();
         PermissionOverride override =
@@ -689,12 +704,25 @@ public class PermissionUtil {
         long allowRole = 0;
         long denyRole = 0;
         // create temporary bit containers for role cascade
-        for (Role role : member.getUnsortedRoles()) {
-            override = permsChannel.getPermissionOverride(role);
-            if (override != null) {
-                // important to update role cascade not others
-                denyRole |= override.getDeniedRaw();
-                allowRole |= override.getAllowedRaw();
+        if (member instanceof MemberImpl && permsChannel instanceof IPermissionContainerMixin) {
+            // cached members only store role ids, which are enough to look up the overrides
+            TLongObjectMap<PermissionOverride> overrides =
+                    ((IPermissionContainerMixin<?>) permsChannel).getPermissionOverrideMap();
+            for (long roleId : ((MemberImpl) member).getRoleIds()) {
+                override = overrides.get(roleId);
+                if (override != null) {
+                    denyRole |= override.getDeniedRaw();
+                    allowRole |= override.getAllowedRaw();
+                }
+            }
+        } else {
+            for (Role role : member.getUnsortedRoles()) {
+                override = permsChannel.getPermissionOverride(role);
+                if (override != null) {
+                    // important to update role cascade not others
+                    denyRole |= override.getDeniedRaw();
+                    allowRole |= override.getAllowedRaw();
+                }
             }
         }
         // Override the raw values of public role then apply role cascade
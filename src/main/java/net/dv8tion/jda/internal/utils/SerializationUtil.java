@@ -16,7 +16,9 @@
 
 package net.dv8tion.jda.internal.utils;
 
+import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.*;
 import com.fasterxml.jackson.databind.module.SimpleModule;
 import com.fasterxml.jackson.databind.node.ArrayNode;
@@ -24,17 +26,22 @@ import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.fasterxml.jackson.databind.type.CollectionType;
 import com.fasterxml.jackson.databind.type.MapType;
 import net.dv8tion.jda.api.exceptions.ParsingException;
+import net.dv8tion.jda.internal.utils.data.LazyJsonMap;
 
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.Reader;
 import java.io.UncheckedIOException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 
 public class SerializationUtil {
     private static final String TRUNCATED_ARRAY = "[…truncated array…]";
@@ -114,6 +121,125 @@ public class SerializationUtil {
         }
     }
 
+    @Nonnull
+    public static <T> T fromJson(@Nonnull JavaType type, @Nonnull byte[] data, int offset, int length) {
+        Checks.notNull(type, "Type");
+        Checks.notNull(data, "Data");
+
+        try {
+            return mapper.readValue(data, offset, length, type);
+        } catch (IOException ex) {
+            throw new ParsingException(ex);
+        }
+    }
+
+    /**
+     * Parses a gateway payload with a streaming parser, skipping the {@code d} subtree
+     * (or individual top-level fields of it) when the provided filter rejects them.
+     * Otherwise, the {@code d} object is copied and decoded lazily by a {@link LazyJsonMap}.
+     * Without a filter, the payload can be exposed to the user, so it is decoded in full instead.
+     *
+     * <p>Filtering only applies when {@code t} precedes {@code d} in the payload,
+     * otherwise the payload is parsed in full.
+     */
+    @Nonnull
+    public static Map<String, Object> fromGatewayJson(
+            @Nonnull byte[] data, int offset, int length, @Nullable GatewayPayloadFilter filter) {
+        Checks.notNull(data, "Data");
+
+        try (JsonParser parser = createParser(data, offset, length)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new ParsingException("Expected gateway payload to be a JSON object");
+            }
+
+            Map<String, Object> payload = new HashMap<>();
+            String type = null;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken token = parser.nextToken();
+                if (token == JsonToken.START_OBJECT && field.equals("d") && filter != null) {
+                    Set<String> skippedFields = null;
+                    if (type != null) {
+                        if (filter.isSkipped(type)) {
+                            parser.skipChildren();
+                            continue;
+                        }
+                        skippedFields = filter.getSkippedFields(type);
+                    }
+
+                    if (skippedFields != null) {
+                        payload.put(field, readFiltered(parser, skippedFields));
+                    } else {
+                        // The input buffer might be reused by the caller, so the lazy object needs its own copy
+                        int start = offset + (int) parser.currentTokenLocation().getByteOffset();
+                        parser.skipChildren();
+                        int end = offset + (int) parser.currentTokenLocation().getByteOffset() + 1;
+                        payload.put(field, new LazyJsonMap(Arrays.copyOfRange(data, start, end), 0, end - start));
+                    }
+                    continue;
+                }
+
+                Object value = mapper.readValue(parser, Object.class);
+                if (token == JsonToken.VALUE_STRING && field.equals("t")) {
+                    type = (String) value;
+                }
+                payload.put(field, value);
+            }
+            return payload;
+        } catch (IOException ex) {
+            throw new ParsingException(ex);
+        }
+    }
+
+    private static Map<String, Object> readFiltered(JsonParser parser, Set<String> skippedFields)
+            throws IOException {
+        Map<String, Object> content = new HashMap<>();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            parser.nextToken();
+            if (skippedFields.contains(field)) {
+                parser.skipChildren();
+            } else {
+                content.put(field, mapper.readValue(parser, Object.class));
+            }
+        }
+        return content;
+    }
+
+    @Nonnull
+    public static JsonParser createParser(@Nonnull byte[] data, int offset, int length) throws IOException {
+        return mapper.getFactory().createParser(data, offset, length);
+    }
+
+    /**
+     * Parses a JSON array with a streaming parser, passing every element to the consumer as soon as it has been read.
+     *
+     * @return The number of elements
+     */
+    public static int readArray(@Nonnull InputStream data, @Nonnull Consumer<Object> consumer) {
+        Checks.notNull(data, "Data");
+        Checks.notNull(consumer, "Consumer");
+
+        try (JsonParser parser = mapper.getFactory().createParser(data)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new ParsingException("Expected a JSON array");
+            }
+
+            int count = 0;
+            JsonToken token;
+            while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+                if (token == null) {
+                    throw new ParsingException("Unexpected end of JSON array");
+                }
+                consumer.accept(mapper.readValue(parser, Object.class));
+                count++;
+            }
+            return count;
+        } catch (IOException ex) {
+            throw new ParsingException(ex);
+        }
+    }
+
     @Nonnull
     public static <T> T fromJson(@Nonnull JavaType type, @Nonnull InputStream data) {
         Checks.notNull(type, "Type");
@@ -188,4 +314,20 @@ public class SerializationUtil {
         }
         return n;
     }
+
+    /**
+     * Decides which parts of a dispatch payload can be skipped by {@link #fromGatewayJson}.
+     */
+    public interface GatewayPayloadFilter {
+        /**
+         * Whether the entire {@code d} object of the provided dispatch type should be skipped.
+         */
+        boolean isSkipped(@Nonnull String type);
+
+        /**
+         * The top-level fields of the {@code d} object to skip, or {@code null} to keep all fields.
+         */
+        @Nullable
+        Set<String> getSkippedFields(@Nonnull String type);
+    }
 }
@@ -16,6 +16,7 @@
 
 package net.dv8tion.jda.internal.utils.cache;
 
+import gnu.trove.iterator.TLongObjectIterator;
 import gnu.trove.map.TLongObjectMap;
 import gnu.trove.map.hash.TLongObjectHashMap;
 import gnu.trove.set.TLongSet;
@@ -25,10 +26,14 @@ import net.dv8tion.jda.api.utils.MiscUtil;
 import net.dv8tion.jda.api.utils.cache.CacheView;
 import net.dv8tion.jda.internal.utils.Checks;
 import net.dv8tion.jda.internal.utils.UnlockHook;
+import org.apache.commons.collections4.IteratorUtils;
 import org.apache.commons.collections4.iterators.ObjectArrayIterator;
 
 import java.lang.reflect.Array;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLongArray;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 import java.util.function.Consumer;
 import java.util.function.Function;
@@ -38,11 +43,22 @@ import java.util.stream.StreamSupport;
 import javax.annotation.Nonnull;
 
 public abstract class AbstractCacheView<T> extends ReadWriteLockCache<T> implements CacheView<T> {
-    protected final TLongObjectMap<T> elements = new TLongObjectHashMap<>();
+    protected final TLongObjectMap<T> elements = new ElementMap();
     protected final T[] emptyArray;
     protected final Function<T, String> nameMapper;
     protected final Class<T> type;
 
+    // Elements displaced from the heap, see setOffHeapStore
+    protected OffHeapStore<T> offHeapStore;
+    protected int hotCapacity;
+    protected AtomicLongArray recentlyUsed;
+    // Stored elements materialized by lookups, moved back to the heap by the next holder of the write-lock
+    private final ConcurrentMap<Long, T> pending = new ConcurrentHashMap<>();
+
+    // Optional indexes of element names, see enableNameIndex
+    protected final List<NameIndex<T>> indexes = new ArrayList<>(0);
+    protected NameIndex<T> nameIndex;
+
     @SuppressWarnings("unchecked")
     protected AbstractCacheView(Class<T> type, Function<T, String> nameMapper) {
         this.nameMapper = nameMapper;
@@ -53,9 +69,215 @@ public abstract class AbstractCacheView<T> extends ReadWriteLockCache<T> impleme
     public void clear() {
         try (UnlockHook hook = writeLock()) {
             elements.clear();
+            pending.clear();
+            if (offHeapStore != null) {
+                offHeapStore.clear();
+            }
+        }
+    }
+
+    /**
+     * Keeps at most {@code hotCapacity} elements on the heap and moves the remaining elements to the provided store.
+     * <br>Stored elements are materialized again when they are looked up by id, and are moved back to the heap
+     * by the next write, where they stay until they are displaced by other elements.
+     * Recently used elements are displaced last. Lookups never acquire the write-lock.
+     *
+     * <p>Bulk operations, such as iteration, materialize stored elements without moving them back to the heap.
+     *
+     * @param store
+     *        The store for displaced elements
+     * @param hotCapacity
+     *        The maximum number of elements to keep on the heap
+     */
+    public void setOffHeapStore(OffHeapStore<T> store, int hotCapacity) {
+        Checks.notNull(store, "Store");
+        Checks.positive(hotCapacity, "Capacity");
+        try (UnlockHook hook = writeLock()) {
+            this.offHeapStore = store;
+            this.hotCapacity = hotCapacity;
+            this.recentlyUsed = new AtomicLongArray(Integer.highestOneBit(Math.max(1, hotCapacity - 1)) << 1);
+        }
+    }
+
+    public OffHeapStore<T> getOffHeapStore() {
+        return offHeapStore;
+    }
+
+    /**
+     * Maintains a case-folded index of element names, which is used by {@link #getElementsByName(String, boolean)}.
+     * <br>The index is updated when elements are added or removed.
+     * Names which change in place have to be reindexed with {@link #updateIndex(long)}.
+     *
+     * @throws UnsupportedOperationException
+     *         If the elements of this view have no names
+     */
+    public void enableNameIndex() {
+        if (nameMapper == null) {
+            throw new UnsupportedOperationException("The contained elements are not assigned with names.");
+        }
+        try (UnlockHook hook = writeLock()) {
+            if (nameIndex == null) {
+                nameIndex = addIndex(nameMapper);
+            }
+        }
+    }
+
+    public boolean isNameIndexEnabled() {
+        return nameIndex != null;
+    }
+
+    // Must be called with the write-lock
+    protected NameIndex<T> addIndex(Function<T, String> mapper) {
+        NameIndex<T> index = new NameIndex<>(mapper);
+        elements.forEachEntry((id, element) -> {
+            index.add(id, element);
+            return true;
+        });
+        if (offHeapStore != null) {
+            for (long id : offHeapStore.keys()) {
+                T element = offHeapStore.load(id);
+                if (element != null) {
+                    index.add(id, element);
+                }
+            }
+        }
+        indexes.add(index);
+        return index;
+    }
+
+    /**
+     * Updates the indexed names of the element with the provided id, after its name changed.
+     * <br>Does not acquire the write-lock if the element is not cached.
+     *
+     * @param id
+     *        The id of the element
+     */
+    public void updateIndex(long id) {
+        if (!isIndexed() || !contains(id)) {
+            return;
+        }
+        try (UnlockHook hook = writeLock()) {
+            T element = elements.get(id);
+            if (element == null && offHeapStore != null) {
+                // Stored elements are reindexed without moving them back to the heap
+                element = offHeapStore.load(id);
+            }
+            if (element != null) {
+                onElementAdded(id, element);
+            }
+        }
+    }
+
+    protected boolean isIndexed() {
+        return !indexes.isEmpty();
+    }
+
+    // Called with the write-lock whenever an element is added, replaced, or should be reindexed
+    protected void onElementAdded(long id, T element) {
+        for (NameIndex<T> index : indexes) {
+            index.add(id, element);
+        }
+    }
+
+    // Called with the write-lock whenever an element is removed, either from the heap or from the store
+    protected void onElementRemoved(long id) {
+        for (NameIndex<T> index : indexes) {
+            index.remove(id);
+        }
+    }
+
+    // Called with the write-lock whenever all elements are removed
+    protected void onElementsCleared() {
+        for (NameIndex<T> index : indexes) {
+            index.clear();
         }
     }
 
+    // Does not move stored elements back to the heap
+    protected List<T> getIndexed(NameIndex<T> index, String name, boolean ignoreCase, Function<T, String> mapper) {
+        List<T> list = new ArrayList<>();
+        try (UnlockHook hook = readLock()) {
+            for (long id : index.get(name)) {
+                T element = getIndexed(id);
+                String elementName = element == null ? null : mapper.apply(element);
+                if (elementName != null && equals(ignoreCase, elementName, name)) {
+                    list.add(element);
+                }
+            }
+        }
+        return list;
+    }
+
+    // Must be called with the read-lock
+    protected T getIndexed(long id) {
+        T element = elements.get(id);
+        if (element == null && offHeapStore != null) {
+            element = loadStored(id);
+        }
+        return element;
+    }
+
+    // Must be called with the read-lock, returns the same instance until the element is removed
+    private T loadStored(long id) {
+        T element = pending.get(id);
+        if (element != null || !offHeapStore.contains(id)) {
+            return element;
+        }
+        element = offHeapStore.load(id);
+        T previous = pending.putIfAbsent(id, element);
+        return previous != null ? previous : element;
+    }
+
+    // Must be called with the read-lock
+    private T getStored(long id) {
+        T element = pending.get(id);
+        return element != null ? element : offHeapStore.load(id);
+    }
+
+    // Must be called with the read-lock
+    private void forEachStored(Consumer<? super T> action) {
+        if (pending.isEmpty()) {
+            offHeapStore.forEach(action);
+            return;
+        }
+        for (long id : offHeapStore.keys()) {
+            T element = getStored(id);
+            if (element != null) {
+                action.accept(element);
+            }
+        }
+    }
+
+    // Must be called with the read-lock
+    private Iterator<T> storedIterator() {
+        if (pending.isEmpty()) {
+            return offHeapStore.iterator();
+        }
+        long[] keys = offHeapStore.keys();
+        return new Iterator<T>() {
+            private int index;
+            private T next;
+
+            @Override
+            public boolean hasNext() {
+                while (next == null && index < keys.length) {
+                    next = getStored(keys[index++]);
+                }
+                return next != null;
+            }
+
+            @Override
+            public T next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                T element = next;
+                next = null;
+                return element;
+            }
+        };
+    }
+
     public TLongObjectMap<T> getMap() {
         if (!lock.writeLock().isHeldByCurrentThread()) {
             throw new IllegalStateException("Cannot access map directly without holding write lock!");
@@ -64,20 +286,153 @@ public abstract class AbstractCacheView<T> extends ReadWriteLockCache<T> impleme
     }
 
     public T get(long id) {
+        T element = getFromHeap(id);
+        if (offHeapStore != null) {
+            if (element == null) {
+                return loadFromStore(id);
+            }
+            markUsed(id);
+        }
+        return element;
+    }
+
+    private T getFromHeap(long id) {
+        if (optimisticReads) {
+            long stamp = sequence.tryOptimisticRead();
+            if (stamp != 0) {
+                try {
+                    T element = elements.get(id);
+                    if (sequence.validate(stamp)) {
+                        return element;
+                    }
+                } catch (RuntimeException ignored) {
+                    // The map was modified concurrently, retry with the read-lock below
+                }
+            }
+        }
+
         try (UnlockHook hook = readLock()) {
             return elements.get(id);
         }
     }
 
+    private T loadFromStore(long id) {
+        T element;
+        try (UnlockHook hook = readLock()) {
+            element = getIndexed(id);
+        }
+        if (element != null) {
+            markUsed(id);
+        }
+        return element;
+    }
+
+    /**
+     * Whether an element with the provided id is cached, without moving stored elements back to the heap.
+     *
+     * @param  id
+     *         The id of the element
+     *
+     * @return True, if the element is cached
+     */
+    public boolean contains(long id) {
+        if (getFromHeap(id) != null) {
+            return true;
+        }
+        if (offHeapStore == null) {
+            return false;
+        }
+        try (UnlockHook hook = readLock()) {
+            return elements.containsKey(id) || offHeapStore.contains(id);
+        }
+    }
+
+    private void markUsed(long id) {
+        AtomicLongArray recent = recentlyUsed;
+        recent.lazySet(usedIndex(id, recent.length()), id);
+    }
+
+    private boolean isRecentlyUsed(long id) {
+        AtomicLongArray recent = recentlyUsed;
+        return recent.get(usedIndex(id, recent.length())) == id;
+    }
+
+    private static int usedIndex(long id, int length) {
+        return (int) ((id * 0x9E3779B97F4A7C15L) >>> 40) & (length - 1);
+    }
+
+    @Override
+    protected void onAcquireWriteLock() {
+        promotePending();
+    }
+
+    // Must be called with the write-lock
+    private void promotePending() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        for (Map.Entry<Long, T> entry : pending.entrySet()) {
+            long id = entry.getKey();
+            if (offHeapStore.contains(id) && !elements.containsKey(id)) {
+                elements.put(id, entry.getValue());
+                markUsed(id);
+            }
+        }
+        pending.clear();
+    }
+
+    @Override
+    protected void onReleaseWriteLock() {
+        if (offHeapStore == null) {
+            return;
+        }
+        promotePending();
+        if (elements.size() <= hotCapacity) {
+            return;
+        }
+
+        // Displace a batch of elements at once, skipping recently used elements on the first pass
+        int target = hotCapacity - hotCapacity / 4;
+        for (int pass = 0; pass < 2 && elements.size() > target; pass++) {
+            TLongObjectIterator<T> iterator = elements.iterator();
+            while (iterator.hasNext() && elements.size() > target) {
+                iterator.advance();
+                long id = iterator.key();
+                if (pass == 0 && isRecentlyUsed(id)) {
+                    continue;
+                }
+                if (offHeapStore.store(id, iterator.value())) {
+                    iterator.remove();
+                }
+            }
+        }
+        // Elements have to be used again to count as recently used for the next batch
+        AtomicLongArray recent = recentlyUsed;
+        for (int i = 0; i < recent.length(); i++) {
+            recent.lazySet(i, 0);
+        }
+    }
+
     public T remove(long id) {
         try (UnlockHook hook = writeLock()) {
-            return elements.remove(id);
+            T element = elements.remove(id);
+            if (element == null && offHeapStore != null && offHeapStore.contains(id)) {
+                element = getStored(id);
+                pending.remove(id);
+                offHeapStore.remove(id);
+                onElementRemoved(id);
+            }
+            return element;
         }
     }
 
     public TLongSet keySet() {
         try (UnlockHook hook = readLock()) {
-            return new TLongHashSet(elements.keySet());
+            TLongSet keys = new TLongHashSet(elements.keySet());
+            if (offHeapStore != null) {
+                keys.addAll(offHeapStore.keys());
+            }
+            return keys;
         }
     }
 
@@ -88,6 +443,9 @@ public abstract class AbstractCacheView<T> extends ReadWriteLockCache<T> impleme
             for (T elem : elements.valueCollection()) {
                 action.accept(elem);
             }
+            if (offHeapStore != null) {
+                forEachStored(action);
+            }
         }
     }
 
@@ -98,6 +456,9 @@ public abstract class AbstractCacheView<T> extends ReadWriteLockCache<T> impleme
         MiscUtil.tryLock(readLock);
         try {
             Iterator<T> directIterator = elements.valueCollection().iterator();
+            if (offHeapStore != null) {
+                directIterator = IteratorUtils.chainedIterator(directIterator, storedIterator());
+            }
             return new LockIterator<>(directIterator, readLock);
         } catch (Throwable t) {
             readLock.unlock();
@@ -116,8 +477,11 @@ public abstract class AbstractCacheView<T> extends ReadWriteLockCache<T> impleme
             if (list != null) {
                 return list;
             }
-            list = new ArrayList<>(elements.size());
+            list = new ArrayList<>((int) size());
             elements.forEachValue(list::add);
+            if (offHeapStore != null) {
+                forEachStored(list::add);
+            }
             return cache(list);
         }
     }
@@ -133,34 +497,39 @@ public abstract class AbstractCacheView<T> extends ReadWriteLockCache<T> impleme
             if (set != null) {
                 return set;
             }
-            set = new HashSet<>(elements.size());
+            set = new HashSet<>((int) size());
             elements.forEachValue(set::add);
+            if (offHeapStore != null) {
+                forEachStored(set::add);
+            }
             return cache(set);
         }
     }
 
     @Override
     public long size() {
-        return elements.size();
+        OffHeapStore<T> store = offHeapStore;
+        return elements.size() + (store == null ? 0 : store.size());
     }
 
     @Override
     public boolean isEmpty() {
-        return elements.isEmpty();
+        OffHeapStore<T> store = offHeapStore;
+        return elements.isEmpty() && (store == null || store.size() == 0);
     }
 
     @Nonnull
     @Override
     public List<T> getElementsByName(@Nonnull String name, boolean ignoreCase) {
         Checks.notEmpty(name, "Name");
-        if (elements.isEmpty()) {
+        if (isEmpty()) {
             return Collections.emptyList();
         }
         if (nameMapper == null) { // no getName method available
             throw new UnsupportedOperationException("The contained elements are not assigned with names.");
         }
-        if (isEmpty()) {
-            return Collections.emptyList();
+        if (nameIndex != null) {
+            return getIndexed(nameIndex, name, ignoreCase, nameMapper);
         }
         List<T> list = new ArrayList<>();
         forEach(elem -> {
@@ -175,7 +544,7 @@ public abstract class AbstractCacheView<T> extends ReadWriteLockCache<T> impleme
     @Override
     public Spliterator<T> spliterator() {
         try (UnlockHook hook = readLock()) {
-            return Spliterators.spliterator(elements.values(), Spliterator.IMMUTABLE);
+            return Spliterators.spliterator(values(), Spliterator.IMMUTABLE);
         }
     }
 
@@ -195,10 +564,21 @@ public abstract class AbstractCacheView<T> extends ReadWriteLockCache<T> impleme
     @Override
     public Iterator<T> iterator() {
         try (UnlockHook hook = readLock()) {
-            return new ObjectArrayIterator<>(elements.values(emptyArray));
+            return new ObjectArrayIterator<>(values());
         }
     }
 
+    // Must be called with the read-lock
+    protected T[] values() {
+        T[] values = elements.values(emptyArray);
+        if (offHeapStore == null || offHeapStore.size() == 0) {
+            return values;
+        }
+        List<T> list = new ArrayList<>(Arrays.asList(values));
+        forEachStored(list::add);
+        return list.toArray(emptyArray);
+    }
+
     @Override
     public String toString() {
         return asList().toString();
@@ -229,4 +609,33 @@ public abstract class AbstractCacheView<T> extends ReadWriteLockCache<T> impleme
     protected boolean equals(boolean ignoreCase, String first, String second) {
         return ignoreCase ? first.equalsIgnoreCase(second) : first.equals(second);
     }
+
+    // Keeps the indexes up to date, and drops the stored copy when an element is added to the heap again
+    private class ElementMap extends TLongObjectHashMap<T> {
+        @Override
+        public T put(long key, T value) {
+            T previous = super.put(key, value);
+            if (previous == null && offHeapStore != null) {
+                offHeapStore.remove(key);
+                pending.remove(key);
+            }
+            onElementAdded(key, value);
+            return previous;
+        }
+
+        @Override
+        public T remove(long key) {
+            T previous = super.remove(key);
+            if (previous != null) {
+                onElementRemoved(key);
+            }
+            return previous;
+        }
+
+        @Override
+        public void clear() {
+            super.clear();
+            onElementsCleared();
+        }
+    }
 }
@@ -16,22 +16,116 @@
 
 package net.dv8tion.jda.internal.utils.cache;
 
+import gnu.trove.set.TLongSet;
+import gnu.trove.set.hash.TLongHashSet;
 import net.dv8tion.jda.api.entities.Member;
 import net.dv8tion.jda.api.entities.Role;
 import net.dv8tion.jda.api.utils.cache.MemberCacheView;
+import net.dv8tion.jda.internal.entities.MemberImpl;
 import net.dv8tion.jda.internal.utils.Checks;
+import net.dv8tion.jda.internal.utils.Helpers;
+import net.dv8tion.jda.internal.utils.UnlockHook;
 
 import java.util.*;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 
 public class MemberCacheViewImpl extends SnowflakeCacheViewImpl<Member> implements MemberCacheView {
+    private static final Function<Member, String> USERNAME = member -> member.getUser().getName();
+
+    protected NameIndex<Member> usernameIndex, nicknameIndex;
+    protected RoleIndex roleIndex;
+
     public MemberCacheViewImpl() {
         super(Member.class, Member::getEffectiveName);
     }
 
+    /**
+     * Maintains case-folded indexes of effective names, usernames, and nicknames.
+     * <br>Changes to the name of a cached member or its user have to be reindexed with {@link #updateIndex(long)}.
+     */
+    @Override
+    public void enableNameIndex() {
+        try (UnlockHook hook = writeLock()) {
+            super.enableNameIndex();
+            if (usernameIndex == null) {
+                usernameIndex = addIndex(USERNAME);
+                nicknameIndex = addIndex(Member::getNickname);
+            }
+        }
+    }
+
+    /**
+     * Maintains a reverse index of role ids to the members holding them.
+     * <br>Role changes of a cached member have to be reindexed with {@link #updateIndex(long)},
+     * deleted roles have to be removed with {@link #removeRole(long)}.
+     */
+    public void enableRoleIndex() {
+        try (UnlockHook hook = writeLock()) {
+            if (roleIndex != null) {
+                return;
+            }
+            roleIndex = new RoleIndex();
+            for (Member member : values()) {
+                roleIndex.update(member.getIdLong(), getRoleIds(member));
+            }
+        }
+    }
+
+    public boolean isRoleIndexEnabled() {
+        return roleIndex != null;
+    }
+
+    public void removeRole(long roleId) {
+        if (roleIndex == null) {
+            return;
+        }
+        try (UnlockHook hook = writeLock()) {
+            roleIndex.removeRole(roleId);
+        }
+    }
+
+    @Override
+    protected boolean isIndexed() {
+        return super.isIndexed() || roleIndex != null;
+    }
+
+    @Override
+    protected void onElementAdded(long id, Member element) {
+        super.onElementAdded(id, element);
+        if (roleIndex != null) {
+            roleIndex.update(id, getRoleIds(element));
+        }
+    }
+
+    @Override
+    protected void onElementRemoved(long id) {
+        super.onElementRemoved(id);
+        if (roleIndex != null) {
+            roleIndex.remove(id);
+        }
+    }
+
+    @Override
+    protected void onElementsCleared() {
+        super.onElementsCleared();
+        if (roleIndex != null) {
+            roleIndex.clear();
+        }
+    }
+
+    private static long[] getRoleIds(Member member) {
+        if (member instanceof MemberImpl) {
+            return ((MemberImpl) member).getRoleIds();
+        }
+        long[] ids = member.getUnsortedRoles().stream().mapToLong(Role::getIdLong).toArray();
+        Arrays.sort(ids);
+        return ids;
+    }
+
     @Override
     public Member getElementById(long id) {
         return get(id);
@@ -44,6 +138,9 @@ public class MemberCacheViewImpl extends SnowflakeCacheViewImpl<Member> implemen
         if (isEmpty()) {
             return Collections.emptyList();
         }
+        if (usernameIndex != null) {
+            return Collections.unmodifiableList(getIndexed(usernameIndex, name, ignoreCase, USERNAME));
+        }
         List<Member> members = new ArrayList<>();
         forEach(member -> {
             String nick = member.getUser().getName();
@@ -60,6 +157,9 @@ public class MemberCacheViewImpl extends SnowflakeCacheViewImpl<Member> implemen
         if (isEmpty()) {
             return Collections.emptyList();
         }
+        if (name != null && nicknameIndex != null) {
+            return Collections.unmodifiableList(getIndexed(nicknameIndex, name, ignoreCase, Member::getNickname));
+        }
         List<Member> members = new ArrayList<>();
         forEach(member -> {
             String nick = member.getNickname();
@@ -77,6 +177,47 @@ public class MemberCacheViewImpl extends SnowflakeCacheViewImpl<Member> implemen
         return Collections.unmodifiableList(members);
     }
 
+    @Nonnull
+    @Override
+    public List<Member> getElementsByPrefix(@Nonnull String prefix, int limit) {
+        Checks.notEmpty(prefix, "Prefix");
+        Checks.positive(limit, "Limit");
+        if (isEmpty()) {
+            return Collections.emptyList();
+        }
+        if (usernameIndex == null) {
+            return stream().filter(member -> hasPrefix(member, prefix))
+                    .limit(limit)
+                    .collect(Helpers.toUnmodifiableList());
+        }
+
+        List<Member> members = new ArrayList<>();
+        try (UnlockHook hook = readLock()) {
+            TLongSet visited = new TLongHashSet();
+            for (NameIndex<Member> index : Arrays.asList(nameIndex, usernameIndex)) {
+                for (long id : index.getByPrefix(prefix, limit)) {
+                    if (members.size() == limit) {
+                        break;
+                    }
+                    Member member = visited.add(id) ? getIndexed(id) : null;
+                    if (member != null && hasPrefix(member, prefix)) {
+                        members.add(member);
+                    }
+                }
+            }
+        }
+        return Collections.unmodifiableList(members);
+    }
+
+    private static boolean hasPrefix(Member member, String prefix) {
+        return startsWithIgnoreCase(member.getEffectiveName(), prefix)
+                || startsWithIgnoreCase(member.getUser().getName(), prefix);
+    }
+
+    private static boolean startsWithIgnoreCase(String name, String prefix) {
+        return name.regionMatches(true, 0, prefix, 0, prefix.length());
+    }
+
     @Nonnull
     @Override
     public List<Member> getElementsWithRoles(@Nonnull Role... roles) {
@@ -98,12 +239,61 @@ public class MemberCacheViewImpl extends SnowflakeCacheViewImpl<Member> implemen
             return asList();
         }
 
+        long[] roleIds = new long[rolesWithoutPublicRole.size()];
+        for (int i = 0; i < roleIds.length; i++) {
+            roleIds[i] = rolesWithoutPublicRole.get(i).getIdLong();
+        }
+
         List<Member> members = new ArrayList<>();
+        if (roleIndex != null) {
+            try (UnlockHook hook = readLock()) {
+                for (long id : roleIndex.getMembers(roleIds)) {
+                    Member member = getIndexed(id);
+                    if (member != null) {
+                        members.add(member);
+                    }
+                }
+            }
+            return Collections.unmodifiableList(members);
+        }
+
         forEach(member -> {
-            if (member.getUnsortedRoles().containsAll(rolesWithoutPublicRole)) {
+            if (hasRoles(member, roleIds, rolesWithoutPublicRole)) {
                 members.add(member);
             }
         });
         return Collections.unmodifiableList(members);
     }
+
+    @Override
+    public long countElementsWithRoles(@Nonnull Collection<Role> roles) {
+        Checks.noneNull(roles, "Roles");
+        long[] roleIds = roles.stream()
+                .filter(role -> !role.isPublicRole())
+                .mapToLong(Role::getIdLong)
+                .distinct()
+                .toArray();
+        if (roleIds.length == 0) {
+            return size();
+        }
+        if (roleIndex != null) {
+            try (UnlockHook hook = readLock()) {
+                return roleIds.length == 1 ? roleIndex.count(roleIds[0]) : roleIndex.getMembers(roleIds).length;
+            }
+        }
+        return getElementsWithRoles(roles).size();
+    }
+
+    private static boolean hasRoles(Member member, long[] roleIds, List<Role> roles) {
+        if (!(member instanceof MemberImpl)) {
+            return member.getUnsortedRoles().containsAll(roles);
+        }
+        MemberImpl memberImpl = (MemberImpl) member;
+        for (long roleId : roleIds) {
+            if (!memberImpl.hasRole(roleId)) {
+                return false;
+            }
+        }
+        return true;
+    }
 }
@@ -0,0 +1,82 @@
+/*
+ * Copyright 2015 Austin Keener, Michael Ritter, Florian Spieß, and the JDA contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.dv8tion.jda.internal.utils.cache;
+
+import net.dv8tion.jda.api.entities.Member;
+import net.dv8tion.jda.internal.entities.GuildImpl;
+import net.dv8tion.jda.internal.entities.MemberImpl;
+import net.dv8tion.jda.internal.entities.UserImpl;
+
+/**
+ * Stores the scalar fields and role ids of guild members.
+ * <br>The user is not stored, since the id of a member is the id of its user.
+ * Loaded members resolve their user from the user cache once it is accessed, outside of the cache locks.
+ */
+public class MemberCodec implements OffHeapStore.Codec<Member> {
+    public static final int HOT_CAPACITY = 1000;
+
+    private static final int JOIN_DATE = 0, BOOST_DATE = 1, TIME_OUT_END = 2, FLAGS = 3;
+    private static final int NICKNAME = 0, AVATAR = 1, ROLES = 2;
+    private static final long PENDING = 1L << 32;
+
+    private final GuildImpl guild;
+
+    public MemberCodec(GuildImpl guild) {
+        this.guild = guild;
+    }
+
+    @Override
+    public int getLongColumns() {
+        return 4;
+    }
+
+    @Override
+    public int getDataColumns() {
+        return 3;
+    }
+
+    @Override
+    public boolean canStore(Member entity) {
+        return entity.getClass() == MemberImpl.class;
+    }
+
+    @Override
+    public void write(Member entity, OffHeapStore.Record record) {
+        MemberImpl member = (MemberImpl) entity;
+        record.setLong(JOIN_DATE, member.getJoinDateRaw());
+        record.setLong(BOOST_DATE, member.getBoostDateRaw());
+        record.setLong(TIME_OUT_END, member.getTimeOutEndRaw());
+        record.setLong(FLAGS, (member.getFlagsRaw() & 0xFFFFFFFFL) | (member.isPending() ? PENDING : 0));
+        record.setString(NICKNAME, member.getNickname());
+        record.setString(AVATAR, member.getAvatarId());
+        record.setLongs(ROLES, member.getRoleIds());
+    }
+
+    @Override
+    public Member read(long id, OffHeapStore.Record record) {
+        long flags = record.getLong(FLAGS);
+        return new MemberImpl(guild, new UserImpl(id, guild.getJDA()))
+                .setJoinDate(record.getLong(JOIN_DATE))
+                .setBoostDate(record.getLong(BOOST_DATE))
+                .setTimeOutEnd(record.getLong(TIME_OUT_END))
+                .setFlags((int) flags)
+                .setPending((flags & PENDING) != 0)
+                .setNickname(record.getString(NICKNAME))
+                .setAvatarId(record.getString(AVATAR))
+                .setRoleIds(record.getLongs(ROLES));
+    }
+}
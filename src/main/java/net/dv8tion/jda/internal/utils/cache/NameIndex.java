@@ -0,0 +1,139 @@
+/*
+ * Copyright 2015 Austin Keener, Michael Ritter, Florian Spieß, and the JDA contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.dv8tion.jda.internal.utils.cache;
+
+import gnu.trove.map.TLongObjectMap;
+import gnu.trove.map.hash.TLongObjectHashMap;
+
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * Case-folded index of element ids by name, supporting exact and prefix lookups.
+ *
+ * <p>The index only provides candidates, which have to be compared against the current name of the element,
+ * since names can change without the index being updated.
+ * Modifications must be guarded by the write-lock of the owning cache view, lookups by its read-lock.
+ *
+ * @param <T>
+ *        The element type
+ */
+public class NameIndex<T> {
+    private static final long[] EMPTY = new long[0];
+
+    private final Function<T, String> nameMapper;
+    private final NavigableMap<String, long[]> ids = new TreeMap<>();
+    private final TLongObjectMap<String> keys = new TLongObjectHashMap<>();
+
+    public NameIndex(Function<T, String> nameMapper) {
+        this.nameMapper = nameMapper;
+    }
+
+    public static String fold(String name) {
+        StringBuilder builder = new StringBuilder(name.length());
+        // Same equivalence as String#equalsIgnoreCase
+        name.codePoints().forEach(cp -> builder.appendCodePoint(Character.toLowerCase(Character.toUpperCase(cp))));
+        return builder.toString();
+    }
+
+    public void add(long id, T element) {
+        String name = nameMapper.apply(element);
+        String key = name == null ? null : fold(name);
+        String previous = keys.get(id);
+        if (Objects.equals(previous, key)) {
+            return;
+        }
+
+        remove(id);
+        if (key != null) {
+            keys.put(id, key);
+            long[] current = ids.get(key);
+            if (current == null) {
+                ids.put(key, new long[] {id});
+            } else {
+                long[] updated = Arrays.copyOf(current, current.length + 1);
+                updated[current.length] = id;
+                ids.put(key, updated);
+            }
+        }
+    }
+
+    public void remove(long id) {
+        String key = keys.remove(id);
+        if (key == null) {
+            return;
+        }
+
+        long[] current = ids.get(key);
+        if (current.length == 1) {
+            ids.remove(key);
+            return;
+        }
+        long[] updated = new long[current.length - 1];
+        for (int i = 0, j = 0; i < current.length; i++) {
+            if (current[i] != id) {
+                updated[j++] = current[i];
+            }
+        }
+        ids.put(key, updated);
+    }
+
+    public void clear() {
+        ids.clear();
+        keys.clear();
+    }
+
+    /**
+     * The ids of all elements with the provided name, ignoring case.
+     *
+     * @param  name
+     *         The name
+     *
+     * @return The matching ids
+     */
+    public long[] get(String name) {
+        long[] result = ids.get(fold(name));
+        return result == null ? EMPTY : result;
+    }
+
+    /**
+     * The ids of elements with names starting with the provided prefix, ignoring case.
+     * <br>Names are visited in lexicographical order of their folded form.
+     *
+     * @param  prefix
+     *         The prefix
+     * @param  limit
+     *         The maximum number of ids to return
+     *
+     * @return The matching ids
+     */
+    public long[] getByPrefix(String prefix, int limit) {
+        String key = fold(prefix);
+        long[] result = new long[Math.min(limit, keys.size())];
+        int size = 0;
+        for (Map.Entry<String, long[]> entry : ids.tailMap(key, true).entrySet()) {
+            if (size == result.length || !entry.getKey().startsWith(key)) {
+                break;
+            }
+            long[] matches = entry.getValue();
+            int count = Math.min(matches.length, result.length - size);
+            System.arraycopy(matches, 0, result, size, count);
+            size += count;
+        }
+        return size == result.length ? result : Arrays.copyOf(result, size);
+    }
+}
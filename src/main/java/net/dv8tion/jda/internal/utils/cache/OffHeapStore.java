@@ -0,0 +1,417 @@
+/*
+ * Copyright 2015 Austin Keener, Michael Ritter, Florian Spieß, and the JDA contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.dv8tion.jda.internal.utils.cache;
+
+import gnu.trove.iterator.TLongIntIterator;
+import gnu.trove.map.TLongIntMap;
+import gnu.trove.map.hash.TLongIntHashMap;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.Consumer;
+
+/**
+ * Columnar storage of entities outside the java heap.
+ *
+ * <p>Every entity occupies one slot, each column is a direct buffer indexed by slot.
+ * Variable sized values, such as strings or id arrays, are appended to a shared data buffer
+ * which is compacted once most of it is no longer referenced.
+ * Entities are only materialized again through their {@link Codec} when they are loaded.
+ *
+ * <p>This store is not thread-safe. Writes have to be guarded by the write-lock of the owning cache view,
+ * while loading is safe for concurrent readers holding the read-lock.
+ *
+ * @param <T>
+ *        The entity type
+ */
+public class OffHeapStore<T> {
+    private static final int INITIAL_SLOTS = 64;
+    private static final int INITIAL_DATA_SIZE = 4096;
+    private static final int MAX_BUFFER_SIZE = Integer.MAX_VALUE - 8;
+    private static final long NULL_REF = -1L;
+
+    private final Codec<T> codec;
+    private final int longColumnCount, dataColumnCount;
+    private final TLongIntMap slots = new TLongIntHashMap(16, 0.5f, 0, -1);
+
+    private ByteBuffer[] longColumns;
+    private ByteBuffer refs;
+    private ByteBuffer data;
+    private int[] freeSlots = new int[0];
+    private int freeCount, nextSlot, capacity;
+    private int dataPosition;
+    private long dataGarbage;
+
+    public OffHeapStore(Codec<T> codec) {
+        this.codec = codec;
+        this.longColumnCount = codec.getLongColumns();
+        this.dataColumnCount = codec.getDataColumns();
+    }
+
+    public boolean store(long id, T entity) {
+        if (!codec.canStore(entity)) {
+            return false;
+        }
+
+        int slot = slots.get(id);
+        if (slot < 0) {
+            slot = allocateSlot();
+            slots.put(id, slot);
+        }
+        codec.write(entity, new Record(this, slot));
+        return true;
+    }
+
+    public T load(long id) {
+        int slot = slots.get(id);
+        return slot < 0 ? null : codec.read(id, new Record(this, slot));
+    }
+
+    public boolean contains(long id) {
+        return slots.containsKey(id);
+    }
+
+    public boolean remove(long id) {
+        int slot = slots.remove(id);
+        if (slot < 0) {
+            return false;
+        }
+
+        for (int column = 0; column < dataColumnCount; column++) {
+            release(slot, column);
+        }
+        if (freeCount == freeSlots.length) {
+            freeSlots = Arrays.copyOf(freeSlots, Math.max(16, freeCount * 2));
+        }
+        freeSlots[freeCount++] = slot;
+        return true;
+    }
+
+    public void clear() {
+        slots.clear();
+        longColumns = null;
+        refs = null;
+        data = null;
+        freeSlots = new int[0];
+        freeCount = nextSlot = capacity = dataPosition = 0;
+        dataGarbage = 0;
+    }
+
+    public int size() {
+        return slots.size();
+    }
+
+    public long[] keys() {
+        return slots.keys();
+    }
+
+    public void forEach(Consumer<? super T> action) {
+        slots.forEachEntry((id, slot) -> {
+            T entity = codec.read(id, new Record(this, slot));
+            if (entity != null) {
+                action.accept(entity);
+            }
+            return true;
+        });
+    }
+
+    /**
+     * Iterator which materializes the stored entities one by one.
+     * <br>The store must not be modified while iterating.
+     *
+     * @return The iterator
+     */
+    public Iterator<T> iterator() {
+        TLongIntIterator iterator = slots.iterator();
+        return new Iterator<T>() {
+            private T next;
+
+            @Override
+            public boolean hasNext() {
+                while (next == null && iterator.hasNext()) {
+                    iterator.advance();
+                    next = codec.read(iterator.key(), new Record(OffHeapStore.this, iterator.value()));
+                }
+                return next != null;
+            }
+
+            @Override
+            public T next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                T entity = next;
+                next = null;
+                return entity;
+            }
+        };
+    }
+
+    /**
+     * The number of bytes currently allocated outside the heap by this store.
+     *
+     * @return The allocated bytes
+     */
+    public long getAllocatedBytes() {
+        if (capacity == 0) {
+            return 0;
+        }
+        return (long) capacity * 8 * (longColumnCount + dataColumnCount) + data.capacity();
+    }
+
+    private int allocateSlot() {
+        int slot;
+        if (freeCount > 0) {
+            slot = freeSlots[--freeCount];
+        } else {
+            slot = nextSlot++;
+            if (slot == capacity) {
+                growSlots();
+            }
+        }
+
+        for (int column = 0; column < dataColumnCount; column++) {
+            refs.putLong(refIndex(slot, column), NULL_REF);
+        }
+        return slot;
+    }
+
+    private void growSlots() {
+        int newCapacity = capacity == 0 ? INITIAL_SLOTS : capacity * 2;
+        if ((long) newCapacity * 8 * Math.max(1, dataColumnCount) > MAX_BUFFER_SIZE) {
+            throw new IllegalStateException("Cannot store more than " + capacity + " entities off-heap");
+        }
+
+        if (longColumns == null) {
+            longColumns = new ByteBuffer[longColumnCount];
+            data = ByteBuffer.allocateDirect(INITIAL_DATA_SIZE);
+        }
+        for (int column = 0; column < longColumnCount; column++) {
+            longColumns[column] = grow(longColumns[column], newCapacity * 8);
+        }
+        refs = grow(refs, newCapacity * 8 * dataColumnCount);
+        capacity = newCapacity;
+    }
+
+    private int refIndex(int slot, int column) {
+        return (slot * dataColumnCount + column) * 8;
+    }
+
+    private void release(int slot, int column) {
+        int index = refIndex(slot, column);
+        long ref = refs.getLong(index);
+        if (ref != NULL_REF) {
+            dataGarbage += (int) ref;
+            refs.putLong(index, NULL_REF);
+        }
+    }
+
+    private byte[] getData(int slot, int column) {
+        long ref = refs.getLong(refIndex(slot, column));
+        if (ref == NULL_REF) {
+            return null;
+        }
+
+        byte[] bytes = new byte[(int) ref];
+        ByteBuffer source = data.duplicate();
+        source.position((int) (ref >>> 32));
+        source.get(bytes);
+        return bytes;
+    }
+
+    private void setData(int slot, int column, byte[] bytes) {
+        release(slot, column);
+        if (bytes == null) {
+            return;
+        }
+
+        int offset = allocateData(bytes.length);
+        ByteBuffer target = data.duplicate();
+        target.position(offset);
+        target.put(bytes);
+        refs.putLong(refIndex(slot, column), ((long) offset << 32) | bytes.length);
+    }
+
+    private int allocateData(int length) {
+        if (data.capacity() - dataPosition < length) {
+            long live = dataPosition - dataGarbage;
+            long newSize = data.capacity();
+            // Compact into a buffer of the same size if most of it is garbage, otherwise grow it as well
+            if (dataGarbage < live) {
+                newSize *= 2;
+            }
+            while (newSize < live + length) {
+                newSize *= 2;
+            }
+            if (newSize > MAX_BUFFER_SIZE) {
+                if (live + length > MAX_BUFFER_SIZE) {
+                    throw new IllegalStateException("Off-heap data buffer is exhausted");
+                }
+                newSize = MAX_BUFFER_SIZE;
+            }
+            compact((int) newSize);
+        }
+
+        int offset = dataPosition;
+        dataPosition += length;
+        return offset;
+    }
+
+    private void compact(int newSize) {
+        ByteBuffer compacted = ByteBuffer.allocateDirect(newSize);
+        slots.forEachValue(slot -> {
+            for (int column = 0; column < dataColumnCount; column++) {
+                int index = refIndex(slot, column);
+                long ref = refs.getLong(index);
+                if (ref == NULL_REF) {
+                    continue;
+                }
+
+                int offset = compacted.position();
+                ByteBuffer source = data.duplicate();
+                source.position((int) (ref >>> 32));
+                source.limit(source.position() + (int) ref);
+                compacted.put(source);
+                refs.putLong(index, ((long) offset << 32) | (int) ref);
+            }
+            return true;
+        });
+        dataPosition = compacted.position();
+        dataGarbage = 0;
+        data = compacted;
+    }
+
+    private static ByteBuffer grow(ByteBuffer buffer, int size) {
+        ByteBuffer grown = ByteBuffer.allocateDirect(size);
+        if (buffer != null) {
+            ByteBuffer source = buffer.duplicate();
+            source.clear();
+            grown.put(source);
+            grown.clear();
+        }
+        return grown;
+    }
+
+    /**
+     * Converts entities to and from their columns in an {@link OffHeapStore}.
+     *
+     * @param <T>
+     *        The entity type
+     */
+    public interface Codec<T> {
+        /**
+         * The number of fixed size columns, such as timestamps or flags.
+         *
+         * @return The number of long columns
+         */
+        int getLongColumns();
+
+        /**
+         * The number of variable size columns, such as names or id arrays.
+         *
+         * @return The number of data columns
+         */
+        int getDataColumns();
+
+        /**
+         * Whether the entity can be fully represented by the columns of this codec.
+         * <br>Entities which cannot be stored remain on the heap.
+         *
+         * @param  entity
+         *         The entity
+         *
+         * @return True, if the entity can be stored
+         */
+        boolean canStore(T entity);
+
+        /**
+         * Writes the current state of the entity to its columns.
+         *
+         * @param entity
+         *        The entity
+         * @param record
+         *        The columns to write to
+         */
+        void write(T entity, Record record);
+
+        /**
+         * Materializes a new instance from the stored columns.
+         * <br>This must not access other caches, since the store is accessed while holding the lock of its cache.
+         *
+         * @param  id
+         *         The id of the entity
+         * @param  record
+         *         The stored columns
+         *
+         * @return The entity
+         */
+        T read(long id, Record record);
+    }
+
+    /**
+     * Access to the columns of a single slot.
+     */
+    public static final class Record {
+        private final OffHeapStore<?> store;
+        private final int slot;
+
+        private Record(OffHeapStore<?> store, int slot) {
+            this.store = store;
+            this.slot = slot;
+        }
+
+        public long getLong(int column) {
+            return store.longColumns[column].getLong(slot * 8);
+        }
+
+        public void setLong(int column, long value) {
+            store.longColumns[column].putLong(slot * 8, value);
+        }
+
+        public String getString(int column) {
+            byte[] bytes = store.getData(slot, column);
+            return bytes == null ? null : new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        public void setString(int column, String value) {
+            store.setData(slot, column, value == null ? null : value.getBytes(StandardCharsets.UTF_8));
+        }
+
+        public long[] getLongs(int column) {
+            byte[] bytes = store.getData(slot, column);
+            if (bytes == null) {
+                return null;
+            }
+            long[] values = new long[bytes.length / 8];
+            ByteBuffer.wrap(bytes).asLongBuffer().get(values);
+            return values;
+        }
+
+        public void setLongs(int column, long[] values) {
+            if (values == null) {
+                store.setData(slot, column, null);
+                return;
+            }
+            ByteBuffer bytes = ByteBuffer.allocate(values.length * 8);
+            bytes.asLongBuffer().put(values);
+            store.setData(slot, column, bytes.array());
+        }
+    }
+}
@@ -25,11 +25,16 @@ import java.util.List;
 import java.util.NavigableSet;
 import java.util.Set;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.concurrent.locks.StampedLock;
 
 public abstract class ReadWriteLockCache<T> {
     protected final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    // Only ever write-locked by the holder of the outermost write lock, used to validate optimistic reads
+    protected final StampedLock sequence = new StampedLock();
     protected WeakReference<List<T>> cachedList;
     protected WeakReference<Set<T>> cachedSet;
+    protected volatile boolean optimisticReads;
+    private long sequenceStamp;
 
     public UnlockHook writeLock() {
         if (lock.getReadHoldCount() > 0) {
@@ -37,9 +42,12 @@ public abstract class ReadWriteLockCache<T> {
         }
         ReentrantReadWriteLock.WriteLock writeLock = lock.writeLock();
         MiscUtil.tryLock(writeLock);
+        if (lock.getWriteHoldCount() == 1) {
+            sequenceStamp = sequence.writeLock();
+        }
         onAcquireWriteLock();
         clearCachedLists();
-        return new UnlockHook(writeLock);
+        return new WriteUnlockHook(writeLock);
     }
 
     public UnlockHook readLock() {
@@ -49,6 +57,21 @@ public abstract class ReadWriteLockCache<T> {
         return new UnlockHook(readLock);
     }
 
+    /**
+     * Whether single element lookups should first attempt an optimistic read without acquiring the read-lock.
+     * <br>Optimistic reads are validated against concurrent writes and fall back to the read-lock on conflict.
+     *
+     * @param optimisticReads
+     *        True, to enable optimistic reads
+     */
+    public void setOptimisticReads(boolean optimisticReads) {
+        this.optimisticReads = optimisticReads;
+    }
+
+    public boolean isOptimisticReads() {
+        return optimisticReads;
+    }
+
     public void clearCachedLists() {
         cachedList = null;
         cachedSet = null;
@@ -58,6 +81,9 @@ public abstract class ReadWriteLockCache<T> {
 
     protected void onAcquireReadLock() {}
 
+    // Called before the outermost write-lock is released, while writes are still exclusive
+    protected void onReleaseWriteLock() {}
+
     protected List<T> getCachedList() {
         return cachedList == null ? null : cachedList.get();
     }
@@ -83,4 +109,25 @@ public abstract class ReadWriteLockCache<T> {
         cachedSet = new WeakReference<>(set);
         return set;
     }
+
+    private final class WriteUnlockHook extends UnlockHook {
+        private WriteUnlockHook(ReentrantReadWriteLock.WriteLock writeLock) {
+            super(writeLock);
+        }
+
+        @Override
+        public void close() {
+            try {
+                if (ReadWriteLockCache.this.lock.getWriteHoldCount() == 1) {
+                    try {
+                        onReleaseWriteLock();
+                    } finally {
+                        sequence.unlockWrite(sequenceStamp);
+                    }
+                }
+            } finally {
+                super.close();
+            }
+        }
+    }
 }
@@ -0,0 +1,144 @@
+/*
+ * Copyright 2015 Austin Keener, Michael Ritter, Florian Spieß, and the JDA contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.dv8tion.jda.internal.utils.cache;
+
+import gnu.trove.map.TLongObjectMap;
+import gnu.trove.map.hash.TLongObjectHashMap;
+import gnu.trove.set.TLongSet;
+import gnu.trove.set.hash.TLongHashSet;
+
+/**
+ * Reverse index of role ids to the ids of members holding the role.
+ *
+ * <p>The indexed role ids of every member are kept to compute the difference on updates.
+ * These are the sorted arrays shared with the member, which are replaced as a whole on every update.
+ * Modifications must be guarded by the write-lock of the owning cache view, lookups by its read-lock.
+ */
+public class RoleIndex {
+    private static final long[] EMPTY = new long[0];
+
+    private final TLongObjectMap<TLongSet> members = new TLongObjectHashMap<>();
+    private final TLongObjectMap<long[]> roles = new TLongObjectHashMap<>();
+
+    /**
+     * Updates the roles of the member.
+     *
+     * @param memberId
+     *        The id of the member
+     * @param roleIds
+     *        The sorted ids of the roles held by the member, which must not be modified afterwards
+     */
+    public void update(long memberId, long[] roleIds) {
+        long[] previous = roleIds.length == 0 ? roles.remove(memberId) : roles.put(memberId, roleIds);
+        if (previous == roleIds) {
+            return;
+        }
+        if (previous == null) {
+            previous = EMPTY;
+        }
+
+        // Both arrays are sorted, walk them in parallel to find added and removed roles
+        int i = 0, j = 0;
+        while (i < previous.length || j < roleIds.length) {
+            if (j == roleIds.length || (i < previous.length && previous[i] < roleIds[j])) {
+                removeMember(previous[i++], memberId);
+            } else if (i == previous.length || roleIds[j] < previous[i]) {
+                addMember(roleIds[j++], memberId);
+            } else {
+                i++;
+                j++;
+            }
+        }
+    }
+
+    public void remove(long memberId) {
+        long[] previous = roles.remove(memberId);
+        if (previous != null) {
+            for (long roleId : previous) {
+                removeMember(roleId, memberId);
+            }
+        }
+    }
+
+    public void removeRole(long roleId) {
+        members.remove(roleId);
+    }
+
+    public void clear() {
+        members.clear();
+        roles.clear();
+    }
+
+    public int count(long roleId) {
+        TLongSet set = members.get(roleId);
+        return set == null ? 0 : set.size();
+    }
+
+    /**
+     * The ids of all members holding all of the provided roles.
+     *
+     * @param  roleIds
+     *         The role ids, must not be empty
+     *
+     * @return The member ids
+     */
+    public long[] getMembers(long[] roleIds) {
+        TLongSet[] sets = new TLongSet[roleIds.length];
+        int smallest = 0;
+        for (int i = 0; i < roleIds.length; i++) {
+            sets[i] = members.get(roleIds[i]);
+            if (sets[i] == null) {
+                return EMPTY;
+            }
+            if (sets[i].size() < sets[smallest].size()) {
+                smallest = i;
+            }
+        }
+        if (sets.length == 1) {
+            return sets[0].toArray();
+        }
+
+        TLongSet result = new TLongHashSet();
+        int candidateSet = smallest;
+        sets[candidateSet].forEach(memberId -> {
+            for (int i = 0; i < sets.length; i++) {
+                if (i != candidateSet && !sets[i].contains(memberId)) {
+                    return true;
+                }
+            }
+            result.add(memberId);
+            return true;
+        });
+        return result.toArray();
+    }
+
+    private void addMember(long roleId, long memberId) {
+        TLongSet set = members.get(roleId);
+        if (set == null) {
+            set = new TLongHashSet();
+            members.put(roleId, set);
+        }
+        set.add(memberId);
+    }
+
+    private void removeMember(long roleId, long memberId) {
+        TLongSet set = members.get(roleId);
+        if (set != null && set.remove(memberId) && set.isEmpty()) {
+            members.remove(roleId);
+        }
+    }
+}
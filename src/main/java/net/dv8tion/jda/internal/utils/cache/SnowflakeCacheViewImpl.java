@@ -29,7 +29,7 @@ public class SnowflakeCacheViewImpl<T extends ISnowflake> extends AbstractCacheV
 
     @Override
     public T getElementById(long id) {
-        if (elements.isEmpty()) {
+        if (isEmpty()) {
             return null;
         }
         return get(id);
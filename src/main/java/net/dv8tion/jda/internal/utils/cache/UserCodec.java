@@ -0,0 +1,104 @@
+/*
+ * Copyright 2015 Austin Keener, Michael Ritter, Florian Spieß, and the JDA contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.dv8tion.jda.internal.utils.cache;
+
+import net.dv8tion.jda.api.entities.User;
+import net.dv8tion.jda.internal.JDAImpl;
+import net.dv8tion.jda.internal.entities.UserImpl;
+
+/**
+ * Stores the scalar fields of users.
+ * <br>The {@link User.Profile Profile} is not stored, since it is only a cache for {@link User#retrieveProfile()}.
+ */
+public class UserCodec implements OffHeapStore.Codec<User> {
+    public static final int HOT_CAPACITY = 10000;
+
+    private static final int PRIVATE_CHANNEL = 0, FLAGS = 1, PRIMARY_GUILD = 2;
+    private static final int NAME = 0, GLOBAL_NAME = 1, AVATAR = 2, GUILD_TAG = 3, GUILD_BADGE = 4;
+    // Packed into the high bits of the flags column, next to the public flags and discriminator
+    private static final long BOT = 1L << 48, SYSTEM = 1L << 49, PRIMARY = 1L << 50, IDENTITY_ENABLED = 1L << 51;
+
+    private final JDAImpl api;
+
+    public UserCodec(JDAImpl api) {
+        this.api = api;
+    }
+
+    @Override
+    public int getLongColumns() {
+        return 3;
+    }
+
+    @Override
+    public int getDataColumns() {
+        return 5;
+    }
+
+    @Override
+    public boolean canStore(User entity) {
+        // The self user is never stored
+        return entity.getClass() == UserImpl.class;
+    }
+
+    @Override
+    public void write(User entity, OffHeapStore.Record record) {
+        UserImpl user = (UserImpl) entity;
+        User.PrimaryGuild primaryGuild = user.getPrimaryGuild();
+        long flags = (user.getFlagsRaw() & 0xFFFFFFFFL) | ((long) (user.getDiscriminatorInt() & 0xFFFF) << 32);
+        if (user.isBot()) {
+            flags |= BOT;
+        }
+        if (user.isSystem()) {
+            flags |= SYSTEM;
+        }
+        if (primaryGuild != null) {
+            flags |= primaryGuild.isIdentityEnabled() ? PRIMARY | IDENTITY_ENABLED : PRIMARY;
+        }
+
+        record.setLong(PRIVATE_CHANNEL, user.getPrivateChannelIdRaw());
+        record.setLong(FLAGS, flags);
+        record.setLong(PRIMARY_GUILD, primaryGuild == null ? 0 : primaryGuild.getIdLong());
+        record.setString(NAME, user.getName());
+        record.setString(GLOBAL_NAME, user.getGlobalName());
+        record.setString(AVATAR, user.getAvatarId());
+        record.setString(GUILD_TAG, primaryGuild == null ? null : primaryGuild.getTag());
+        record.setString(GUILD_BADGE, primaryGuild == null ? null : primaryGuild.getBadgeHash());
+    }
+
+    @Override
+    public User read(long id, OffHeapStore.Record record) {
+        long flags = record.getLong(FLAGS);
+        User.PrimaryGuild primaryGuild = (flags & PRIMARY) == 0
+                ? null
+                : new User.PrimaryGuild(
+                        record.getLong(PRIMARY_GUILD),
+                        (flags & IDENTITY_ENABLED) != 0,
+                        record.getString(GUILD_TAG),
+                        record.getString(GUILD_BADGE));
+
+        return new UserImpl(id, api)
+                .setName(record.getString(NAME))
+                .setGlobalName(record.getString(GLOBAL_NAME))
+                .setDiscriminator((short) (flags >>> 32))
+                .setAvatarId(record.getString(AVATAR))
+                .setBot((flags & BOT) != 0)
+                .setSystem((flags & SYSTEM) != 0)
+                .setFlags((int) flags)
+                .setPrimaryGuild(primaryGuild)
+                .setPrivateChannelId(record.getLong(PRIVATE_CHANNEL));
+    }
+}
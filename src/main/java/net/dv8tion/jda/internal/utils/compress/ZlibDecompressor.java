@@ -20,42 +20,37 @@ import net.dv8tion.jda.api.utils.Compression;
 import net.dv8tion.jda.internal.utils.IOUtil;
 import net.dv8tion.jda.internal.utils.JDALogger;
 
-import java.io.ByteArrayOutputStream;
-import java.io.IOException;
-import java.lang.ref.SoftReference;
 import java.nio.ByteBuffer;
 import java.util.Arrays;
 import java.util.zip.DataFormatException;
 import java.util.zip.Inflater;
-import java.util.zip.InflaterOutputStream;
 
 public class ZlibDecompressor implements Decompressor {
     private static final int Z_SYNC_FLUSH = 0x0000FFFF;
 
     private final int maxBufferSize;
     private final Inflater inflater = new Inflater();
-    private ByteBuffer flushBuffer = null;
-    private SoftReference<ByteArrayOutputStream> decompressBuffer = null;
+    // Partial frames without flush suffix, appended until the final part arrives
+    private byte[] flushBuffer = null;
+    private int flushLength = 0;
+    // Reused between frames, the decompressed data is only valid until the next call
+    private byte[] decompressBuffer = null;
 
     public ZlibDecompressor(int maxBufferSize) {
         this.maxBufferSize = maxBufferSize;
     }
 
-    private SoftReference<ByteArrayOutputStream> newDecompressBuffer() {
-        return new SoftReference<>(new ByteArrayOutputStream(Math.min(1024, maxBufferSize)));
-    }
-
-    private ByteArrayOutputStream getDecompressBuffer() {
+    private byte[] getDecompressBuffer() {
         // If no buffer has been allocated yet we do that here (lazy init)
-        if (decompressBuffer == null) {
-            decompressBuffer = newDecompressBuffer();
+        // Buffers that grew past the limit are not kept around between frames
+        if (decompressBuffer == null || decompressBuffer.length > maxBufferSize) {
+            decompressBuffer = new byte[Math.min(1024, maxBufferSize)];
         }
-        // Check if the buffer has been collected by the GC or not
-        ByteArrayOutputStream buffer = decompressBuffer.get();
-        if (buffer == null) { // create a ne buffer because the GC got it
-            decompressBuffer = new SoftReference<>(buffer = new ByteArrayOutputStream(Math.min(1024, maxBufferSize)));
-        }
-        return buffer;
+        return decompressBuffer;
+    }
+
+    private static byte[] grow(byte[] buffer, int minCapacity) {
+        return Arrays.copyOf(buffer, Math.max(minCapacity, buffer.length * 2));
     }
 
     private boolean isFlush(byte[] data) {
@@ -68,22 +63,27 @@ public class ZlibDecompressor implements Decompressor {
 
     private void buffer(byte[] data) {
         if (flushBuffer == null) {
-            flushBuffer = ByteBuffer.allocate(data.length * 2);
+            flushBuffer = new byte[data.length * 2];
         }
 
-        // Ensure the capacity can hold the new data, ByteBuffer doesn't grow automatically
-        if (flushBuffer.capacity() < data.length + flushBuffer.position()) {
-            // Flip to make it a read buffer
-            flushBuffer.flip();
-            // Reallocate for the new capacity
-            flushBuffer = IOUtil.reallocate(flushBuffer, (flushBuffer.capacity() + data.length) * 2);
+        // Ensure the capacity can hold the new data
+        if (flushBuffer.length < flushLength + data.length) {
+            flushBuffer = grow(flushBuffer, flushLength + data.length);
         }
 
-        flushBuffer.put(data);
+        System.arraycopy(data, 0, flushBuffer, flushLength, data.length);
+        flushLength += data.length;
+    }
+
+    private void clearFlushBuffer() {
+        flushLength = 0;
+        if (flushBuffer != null && flushBuffer.length > maxBufferSize) {
+            flushBuffer = null;
+        }
     }
 
-    private Object lazy(byte[] data) {
-        return JDALogger.getLazyString(() -> Arrays.toString(data));
+    private Object lazy(byte[] data, int length) {
+        return JDALogger.getLazyString(() -> Arrays.toString(Arrays.copyOf(data, length)));
     }
 
     @Override
@@ -94,6 +94,7 @@ public class ZlibDecompressor implements Decompressor {
     @Override
     public void reset() {
         inflater.reset();
+        clearFlushBuffer();
     }
 
     @Override
@@ -103,42 +104,57 @@ public class ZlibDecompressor implements Decompressor {
 
     @Override
     public byte[] decompress(byte[] data) throws DataFormatException {
+        ByteBuffer buffer = decompressToBuffer(data);
+        if (buffer == null) {
+            return null;
+        }
+        // Copy the data since the decompress buffer is reused
+        return Arrays.copyOfRange(buffer.array(), buffer.position(), buffer.limit());
+    }
+
+    @Override
+    public ByteBuffer decompressToBuffer(byte[] data) throws DataFormatException {
+        byte[] input = data;
+        int inputLength = data.length;
         // Handle split messages
         if (!isFlush(data)) {
             // There is no flush suffix so this is not the end of the message
             LOG.debug("Received incomplete data, writing to buffer. Length: {}", data.length);
             buffer(data);
             return null; // signal failure to decompress
-        } else if (flushBuffer != null) {
+        } else if (flushLength > 0) {
             // This has a flush suffix and we have an incomplete package buffered
-            // concatenate the package with the new data and decompress it below
+            // append the new data and decompress the buffered package below
             LOG.debug("Received final part of incomplete data");
             buffer(data);
-            byte[] arr = flushBuffer.array();
-            data = new byte[flushBuffer.position()];
-            System.arraycopy(arr, 0, data, 0, data.length);
-            flushBuffer = null;
+            input = flushBuffer;
+            inputLength = flushLength;
         }
-        LOG.trace("Decompressing data {}", lazy(data));
-        // Get the compressed message and inflate it
-        // We use the same buffer here to optimize gc use
-        ByteArrayOutputStream buffer = getDecompressBuffer();
-        try (InflaterOutputStream decompressor = new InflaterOutputStream(buffer, inflater)) {
-            // This decompressor writes the received data and inflates it
-            decompressor.write(data);
-            // Once decompressed we re-interpret the data as a String which can be used for JSON
-            // parsing
-            return buffer.toByteArray();
-        } catch (IOException e) {
-            // Some issue appeared during decompression that caused a failure
-            throw (DataFormatException) new DataFormatException("Malformed").initCause(e);
+        LOG.trace("Decompressing data {}", lazy(input, inputLength));
+
+        try {
+            // Inflate directly into the reused buffer, growing it when the frame does not fit
+            byte[] buffer = getDecompressBuffer();
+            int length = 0;
+            int inflated;
+            inflater.setInput(input, 0, inputLength);
+            do {
+                if (length == buffer.length) {
+                    buffer = grow(buffer, length + 1);
+                }
+                inflated = inflater.inflate(buffer, length, buffer.length - length);
+                length += inflated;
+            } while (inflated > 0);
+
+            if (inflater.needsDictionary()) {
+                throw new DataFormatException("Malformed, missing dictionary");
+            }
+
+            decompressBuffer = buffer;
+            return ByteBuffer.wrap(buffer, 0, length);
         } finally {
-            // When done with decompression we want to reset the buffer so it can be used again
-            // later
-            if (buffer.size() > maxBufferSize) {
-                decompressBuffer = newDecompressBuffer();
-            } else {
-                buffer.reset();
+            if (input != data) {
+                clearFlushBuffer();
             }
         }
     }
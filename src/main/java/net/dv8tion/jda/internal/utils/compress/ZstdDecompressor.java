@@ -0,0 +1,161 @@
+/*
+ * Copyright 2015 Austin Keener, Michael Ritter, Florian Spieß, and the JDA contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.dv8tion.jda.internal.utils.compress;
+
+import com.github.luben.zstd.ZstdDecompressCtx;
+import net.dv8tion.jda.api.utils.Compression;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.zip.DataFormatException;
+
+/**
+ * Decompressor for the {@code zstd-stream} transport compression.
+ * <br>Every message is a flushed chunk of one continuous zstd stream, which requires the optional
+ * <a href="https://github.com/luben/zstd-jni" target="_blank">zstd-jni</a> dependency.
+ */
+public class ZstdDecompressor implements Decompressor {
+    private static final boolean AVAILABLE = checkAvailable();
+
+    private final int maxBufferSize;
+    private ZstdDecompressCtx context = null;
+    // zstd-jni only supports streaming with direct buffers
+    private ByteBuffer inputBuffer = null;
+    private ByteBuffer outputBuffer = null;
+    // Reused between frames, the decompressed data is only valid until the next call
+    private byte[] decompressBuffer = null;
+
+    public ZstdDecompressor(int maxBufferSize) {
+        this.maxBufferSize = maxBufferSize;
+    }
+
+    public static boolean isAvailable() {
+        return AVAILABLE;
+    }
+
+    private static boolean checkAvailable() {
+        try {
+            Class.forName("com.github.luben.zstd.ZstdDecompressCtx");
+            new ZstdDecompressCtx().close();
+            return true;
+        } catch (ClassNotFoundException | LinkageError | RuntimeException e) {
+            LOG.debug("zstd-jni is not available", e);
+            return false;
+        }
+    }
+
+    private ZstdDecompressCtx getContext() {
+        if (context == null) {
+            context = new ZstdDecompressCtx();
+        }
+        return context;
+    }
+
+    private ByteBuffer getInputBuffer(int length) {
+        if (inputBuffer == null || inputBuffer.capacity() < length || inputBuffer.capacity() > maxBufferSize) {
+            inputBuffer = ByteBuffer.allocateDirect(Math.max(length, Math.min(1024, maxBufferSize)));
+        }
+        inputBuffer.clear();
+        return inputBuffer;
+    }
+
+    private ByteBuffer getOutputBuffer() {
+        // Buffers that grew past the limit are not kept around between frames
+        if (outputBuffer == null || outputBuffer.capacity() > maxBufferSize) {
+            outputBuffer = ByteBuffer.allocateDirect(Math.min(1024, maxBufferSize));
+        }
+        outputBuffer.clear();
+        return outputBuffer;
+    }
+
+    private static ByteBuffer grow(ByteBuffer buffer) {
+        ByteBuffer grown = ByteBuffer.allocateDirect(buffer.capacity() * 2);
+        buffer.flip();
+        grown.put(buffer);
+        return grown;
+    }
+
+    @Override
+    public Compression getType() {
+        return Compression.ZSTD;
+    }
+
+    @Override
+    public void reset() {
+        if (context != null) {
+            context.reset();
+        }
+    }
+
+    @Override
+    public void shutdown() {
+        if (context != null) {
+            context.close();
+            context = null;
+        }
+        inputBuffer = null;
+        outputBuffer = null;
+        decompressBuffer = null;
+    }
+
+    @Override
+    public byte[] decompress(byte[] data) throws DataFormatException {
+        ByteBuffer buffer = decompressToBuffer(data);
+        // Copy the data since the decompress buffer is reused
+        return Arrays.copyOfRange(buffer.array(), buffer.position(), buffer.limit());
+    }
+
+    @Override
+    public ByteBuffer decompressToBuffer(byte[] data) throws DataFormatException {
+        ZstdDecompressCtx context = getContext();
+        ByteBuffer input = getInputBuffer(data.length);
+        input.put(data).flip();
+        ByteBuffer output = getOutputBuffer();
+
+        try {
+            // Each message ends with a flush, so all input can be decompressed right away.
+            // The output is complete once all input was consumed without filling the output buffer.
+            while (input.hasRemaining() || !output.hasRemaining()) {
+                if (!output.hasRemaining()) {
+                    output = grow(output);
+                }
+                int inputPosition = input.position();
+                int outputPosition = output.position();
+                context.decompressDirectByteBufferStream(output, input);
+                if (input.position() == inputPosition && output.position() == outputPosition) {
+                    if (!input.hasRemaining()) {
+                        // The previous call filled the output exactly, nothing was left to flush
+                        break;
+                    }
+                    throw new DataFormatException("Malformed, decompression did not make progress");
+                }
+            }
+        } catch (RuntimeException e) {
+            // Not catching ZstdException directly, to keep this class loadable without zstd-jni
+            throw (DataFormatException) new DataFormatException("Malformed").initCause(e);
+        }
+
+        outputBuffer = output;
+        output.flip();
+        int length = output.remaining();
+        if (decompressBuffer == null || decompressBuffer.length < length || decompressBuffer.length > maxBufferSize) {
+            decompressBuffer = new byte[Math.max(length, Math.min(1024, maxBufferSize))];
+        }
+        output.get(decompressBuffer, 0, length);
+        return ByteBuffer.wrap(decompressBuffer, 0, length);
+    }
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright 2015 Austin Keener, Michael Ritter, Florian Spieß, and the JDA contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.dv8tion.jda.internal.utils.concurrent;
+
+import net.dv8tion.jda.internal.utils.JDALogger;
+import org.slf4j.Logger;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * Access to virtual threads, which are only available on Java 21 and newer.
+ * <br>The required APIs are resolved reflectively, since JDA is compiled for Java 8.
+ */
+public final class VirtualThreads {
+    private static final Logger LOG = JDALogger.getLog(VirtualThreads.class);
+    private static final AtomicBoolean WARNED = new AtomicBoolean(false);
+
+    private static final ThreadFactory FACTORY;
+    private static final MethodHandle NEW_THREAD_PER_TASK_EXECUTOR;
+
+    static {
+        ThreadFactory factory = null;
+        MethodHandle newExecutor = null;
+        try {
+            Class<?> builderType = Class.forName("java.lang.Thread$Builder");
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            factory = (ThreadFactory) builderType.getMethod("factory").invoke(builder);
+            newExecutor = MethodHandles.publicLookup()
+                    .findStatic(
+                            Executors.class,
+                            "newThreadPerTaskExecutor",
+                            MethodType.methodType(ExecutorService.class, ThreadFactory.class));
+            // Preview versions of this API throw when used without --enable-preview
+            factory.newThread(() -> {});
+        } catch (Throwable e) {
+            LOG.trace("Virtual threads are not available", e);
+            factory = null;
+            newExecutor = null;
+        }
+        FACTORY = factory;
+        NEW_THREAD_PER_TASK_EXECUTOR = newExecutor;
+    }
+
+    private VirtualThreads() {}
+
+    public static boolean isSupported() {
+        return FACTORY != null;
+    }
+
+    /**
+     * Creates an executor which starts a new named virtual thread for every task.
+     * <br>If virtual threads are not supported by the current runtime, this logs a warning once and returns null.
+     *
+     * @param  identifier
+     *         The identifier of the JDA instance, used for the thread names
+     * @param  specifier
+     *         The name of the pool
+     *
+     * @return The executor, or null if virtual threads are not supported
+     */
+    @Nullable
+    public static ExecutorService newExecutor(@Nonnull Supplier<String> identifier, @Nonnull String specifier) {
+        if (!isSupported()) {
+            if (WARNED.compareAndSet(false, true)) {
+                LOG.warn(
+                        "Virtual threads are not supported by this runtime (Java {}), using platform threads instead",
+                        System.getProperty("java.version"));
+            }
+            return null;
+        }
+
+        AtomicLong count = new AtomicLong(1);
+        ThreadFactory factory = (task) -> {
+            Thread thread = FACTORY.newThread(task);
+            thread.setName(identifier.get() + " " + specifier + "-Worker " + count.getAndIncrement());
+            return thread;
+        };
+
+        try {
+            return (ExecutorService) NEW_THREAD_PER_TASK_EXECUTOR.invoke(factory);
+        } catch (Throwable e) {
+            LOG.error("Failed to create virtual thread executor", e);
+            return null;
+        }
+    }
+}
@@ -33,6 +33,10 @@ public class MetaConfig {
     private final EnumSet<CacheFlag> cacheFlags;
     private final boolean enableMDC;
     private final boolean useShutdownHook;
+    private final boolean optimisticCacheReads;
+    private final boolean offHeapCache;
+    private final boolean nameIndex;
+    private final boolean roleIndex;
     private final int maxBufferSize;
 
     public MetaConfig(
@@ -49,6 +53,10 @@ public class MetaConfig {
             this.mdcContextMap = null;
         }
         this.useShutdownHook = flags.contains(ConfigFlag.SHUTDOWN_HOOK);
+        this.optimisticCacheReads = flags.contains(ConfigFlag.OPTIMISTIC_CACHE_READS);
+        this.offHeapCache = flags.contains(ConfigFlag.OFF_HEAP_CACHE);
+        this.nameIndex = flags.contains(ConfigFlag.NAME_INDEX);
+        this.roleIndex = flags.contains(ConfigFlag.ROLE_INDEX);
     }
 
     @Nullable
@@ -69,6 +77,22 @@ public class MetaConfig {
         return useShutdownHook;
     }
 
+    public boolean isOptimisticCacheReads() {
+        return optimisticCacheReads;
+    }
+
+    public boolean isOffHeapCache() {
+        return offHeapCache;
+    }
+
+    public boolean isNameIndex() {
+        return nameIndex;
+    }
+
+    public boolean isRoleIndex() {
+        return roleIndex;
+    }
+
     public int getMaxBufferSize() {
         return maxBufferSize;
     }
@@ -34,6 +34,7 @@ public class SessionConfig {
     private final WebSocketFactory webSocketFactory;
     private final VoiceDispatchInterceptor interceptor;
     private final int largeThreshold;
+    private final int dispatchLanes;
     private EnumSet<ConfigFlag> flags;
     private int maxReconnectDelay;
 
@@ -44,7 +45,8 @@ public class SessionConfig {
             @Nullable VoiceDispatchInterceptor interceptor,
             EnumSet<ConfigFlag> flags,
             int maxReconnectDelay,
-            int largeThreshold) {
+            int largeThreshold,
+            int dispatchLanes) {
         this.sessionController = sessionController == null ? new ConcurrentSessionController() : sessionController;
         this.httpClient = httpClient;
         this.webSocketFactory = webSocketFactory == null ? newWebSocketFactory() : webSocketFactory;
@@ -52,6 +54,7 @@ public class SessionConfig {
         this.flags = flags;
         this.maxReconnectDelay = maxReconnectDelay;
         this.largeThreshold = largeThreshold;
+        this.dispatchLanes = dispatchLanes;
     }
 
     private static WebSocketFactory newWebSocketFactory() {
@@ -118,12 +121,16 @@ public class SessionConfig {
         return largeThreshold;
     }
 
+    public int getDispatchLanes() {
+        return dispatchLanes;
+    }
+
     public EnumSet<ConfigFlag> getFlags() {
         return flags;
     }
 
     @Nonnull
     public static SessionConfig getDefault() {
-        return new SessionConfig(null, new OkHttpClient(), null, null, ConfigFlag.getDefault(), 900, 250);
+        return new SessionConfig(null, new OkHttpClient(), null, null, ConfigFlag.getDefault(), 900, 250, 0);
     }
 }
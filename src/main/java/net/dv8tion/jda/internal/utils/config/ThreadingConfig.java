@@ -17,6 +17,7 @@
 package net.dv8tion.jda.internal.utils.config;
 
 import net.dv8tion.jda.internal.utils.concurrent.CountingThreadFactory;
+import net.dv8tion.jda.internal.utils.concurrent.VirtualThreads;
 
 import java.util.concurrent.*;
 import java.util.function.Supplier;
@@ -41,6 +42,8 @@ public class ThreadingConfig {
     private boolean shutdownEventPool;
     private boolean shutdownAudioPool;
 
+    private boolean virtualThreads;
+
     public ThreadingConfig() {
         this.callbackPool = ForkJoinPool.commonPool();
 
@@ -81,7 +84,14 @@ public class ThreadingConfig {
         this.shutdownAudioPool = shutdown;
     }
 
+    public void setVirtualThreads(boolean virtualThreads) {
+        this.virtualThreads = virtualThreads;
+    }
+
     public void init(@Nonnull Supplier<String> identifier) {
+        if (virtualThreads) {
+            initVirtualThreads(identifier);
+        }
         if (this.rateLimitScheduler == null) {
             this.rateLimitScheduler = newScheduler(2, identifier, "RateLimit-Scheduler", false);
         }
@@ -98,6 +108,20 @@ public class ThreadingConfig {
         }
     }
 
+    private void initVirtualThreads(Supplier<String> identifier) {
+        // The event pool is not replaced, since a thread per task would no longer dispatch events in order
+        if (this.rateLimitElastic == null) {
+            this.rateLimitElastic = VirtualThreads.newExecutor(identifier, "RateLimit-Elastic");
+        }
+        if (this.callbackPool == ForkJoinPool.commonPool()) {
+            ExecutorService pool = VirtualThreads.newExecutor(identifier, "Callback");
+            if (pool != null) {
+                this.callbackPool = pool;
+                this.shutdownCallbackPool = true;
+            }
+        }
+    }
+
     public void shutdown() {
         if (shutdownCallbackPool) {
             callbackPool.shutdown();
@@ -206,6 +230,10 @@ public class ThreadingConfig {
         return shutdownAudioPool;
     }
 
+    public boolean isVirtualThreads() {
+        return virtualThreads;
+    }
+
     @Nonnull
     public static ScheduledThreadPoolExecutor newScheduler(int coreSize, Supplier<String> identifier, String baseName) {
         return newScheduler(coreSize, identifier, baseName, true);
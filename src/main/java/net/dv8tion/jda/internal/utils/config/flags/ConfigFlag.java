@@ -26,7 +26,12 @@ public enum ConfigFlag {
     BULK_DELETE_SPLIT(true),
     SHUTDOWN_HOOK(true),
     MDC_CONTEXT(true),
-    AUTO_RECONNECT(true);
+    AUTO_RECONNECT(true),
+    OPTIMISTIC_CACHE_READS,
+    OFF_HEAP_CACHE,
+    NAME_INDEX,
+    ROLE_INDEX,
+    VIRTUAL_THREADS;
 
     private final boolean isDefault;
 
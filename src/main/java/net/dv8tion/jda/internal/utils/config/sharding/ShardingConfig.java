@@ -18,20 +18,29 @@ package net.dv8tion.jda.internal.utils.config.sharding;
 
 import net.dv8tion.jda.api.requests.GatewayIntent;
 import net.dv8tion.jda.api.utils.MemberCachePolicy;
+import net.dv8tion.jda.api.utils.cache.StringPool;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 
 public class ShardingConfig {
     private int shardsTotal;
     private int intents;
     private MemberCachePolicy memberCachePolicy;
+    private final StringPool stringPool;
     private final boolean useShutdownNow;
 
-    public ShardingConfig(int shardsTotal, boolean useShutdownNow, int intents, MemberCachePolicy memberCachePolicy) {
+    public ShardingConfig(
+            int shardsTotal,
+            boolean useShutdownNow,
+            int intents,
+            MemberCachePolicy memberCachePolicy,
+            @Nullable StringPool stringPool) {
         this.shardsTotal = shardsTotal;
         this.useShutdownNow = useShutdownNow;
         this.intents = intents;
         this.memberCachePolicy = memberCachePolicy;
+        this.stringPool = stringPool;
     }
 
     public void setShardsTotal(int shardsTotal) {
@@ -50,12 +59,17 @@ public class ShardingConfig {
         return memberCachePolicy;
     }
 
+    @Nullable
+    public StringPool getStringPool() {
+        return stringPool;
+    }
+
     public boolean isUseShutdownNow() {
         return useShutdownNow;
     }
 
     @Nonnull
     public static ShardingConfig getDefault() {
-        return new ShardingConfig(1, false, GatewayIntent.ALL_INTENTS, MemberCachePolicy.ALL);
+        return new ShardingConfig(1, false, GatewayIntent.ALL_INTENTS, MemberCachePolicy.ALL, null);
     }
 }
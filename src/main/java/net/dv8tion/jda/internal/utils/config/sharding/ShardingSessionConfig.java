@@ -43,8 +43,17 @@ public class ShardingSessionConfig extends SessionConfig {
             EnumSet<ConfigFlag> flags,
             EnumSet<ShardingConfigFlag> shardingFlags,
             int maxReconnectDelay,
-            int largeThreshold) {
-        super(sessionController, httpClient, webSocketFactory, interceptor, flags, maxReconnectDelay, largeThreshold);
+            int largeThreshold,
+            int dispatchLanes) {
+        super(
+                sessionController,
+                httpClient,
+                webSocketFactory,
+                interceptor,
+                flags,
+                maxReconnectDelay,
+                largeThreshold,
+                dispatchLanes);
         if (httpClient == null) {
             this.builder = httpClientBuilder == null ? IOUtil.newHttpClientBuilder() : httpClientBuilder;
         } else {
@@ -61,7 +70,8 @@ public class ShardingSessionConfig extends SessionConfig {
                 getVoiceDispatchInterceptor(),
                 getFlags(),
                 getMaxReconnectDelay(),
-                getLargeThreshold());
+                getLargeThreshold(),
+                getDispatchLanes());
     }
 
     public EnumSet<ShardingConfigFlag> getShardingFlags() {
@@ -84,6 +94,7 @@ public class ShardingSessionConfig extends SessionConfig {
                 ConfigFlag.getDefault(),
                 ShardingConfigFlag.getDefault(),
                 900,
-                250);
+                250,
+                0);
     }
 }
@@ -0,0 +1,111 @@
+/*
+ * Copyright 2015 Austin Keener, Michael Ritter, Florian Spieß, and the JDA contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.dv8tion.jda.internal.utils.data;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import net.dv8tion.jda.api.exceptions.ParsingException;
+import net.dv8tion.jda.internal.utils.SerializationUtil;
+
+import java.io.IOException;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.annotation.Nonnull;
+
+/**
+ * List backed by a JSON array in a byte array.
+ *
+ * <p>The offsets of all elements are indexed on first access,
+ * nested objects and arrays are only decoded once they are accessed and then reused.
+ *
+ * <p>Since reads modify the index, all accessors are synchronized. This makes concurrent reads safe,
+ * like they are for an {@link ArrayList}. Iterating while another thread modifies the list is not supported.
+ */
+public class LazyJsonList extends AbstractList<Object> {
+    private final byte[] data;
+    private final int offset;
+    private final int length;
+    private List<Object> elements;
+
+    /**
+     * @param data
+     *        The buffer containing the JSON array, this buffer must not be modified afterwards
+     * @param offset
+     *        The offset of the opening bracket
+     * @param length
+     *        The length of the array, including brackets
+     */
+    public LazyJsonList(@Nonnull byte[] data, int offset, int length) {
+        this.data = data;
+        this.offset = offset;
+        this.length = length;
+    }
+
+    @Override
+    public synchronized Object get(int index) {
+        List<Object> elements = index();
+        Object value = elements.get(index);
+        if (value instanceof LazyJsonValue) {
+            value = ((LazyJsonValue) value).decode();
+            elements.set(index, value);
+        }
+        return value;
+    }
+
+    @Override
+    public synchronized Object set(int index, Object element) {
+        return LazyJsonValue.resolve(index().set(index, element));
+    }
+
+    @Override
+    public synchronized void add(int index, Object element) {
+        index().add(index, element);
+        modCount++;
+    }
+
+    @Override
+    public synchronized Object remove(int index) {
+        modCount++;
+        return LazyJsonValue.resolve(index().remove(index));
+    }
+
+    @Override
+    public synchronized int size() {
+        return index().size();
+    }
+
+    private List<Object> index() {
+        if (elements != null) {
+            return elements;
+        }
+
+        List<Object> elements = new ArrayList<>();
+        try (JsonParser parser = SerializationUtil.createParser(data, offset, length)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new ParsingException("Expected JSON array");
+            }
+            while (parser.nextToken() != JsonToken.END_ARRAY) {
+                elements.add(LazyJsonValue.read(parser, data, offset));
+            }
+        } catch (IOException e) {
+            throw new ParsingException(e);
+        }
+        return this.elements = elements;
+    }
+}
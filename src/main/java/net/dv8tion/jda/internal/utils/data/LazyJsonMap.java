@@ -0,0 +1,126 @@
+/*
+ * Copyright 2015 Austin Keener, Michael Ritter, Florian Spieß, and the JDA contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.dv8tion.jda.internal.utils.data;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import net.dv8tion.jda.api.exceptions.ParsingException;
+import net.dv8tion.jda.internal.utils.SerializationUtil;
+
+import java.io.IOException;
+import java.util.AbstractMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Map backed by a JSON object in a byte array.
+ *
+ * <p>The offsets of all fields are indexed on first access,
+ * nested objects and arrays are only decoded once they are accessed and then reused.
+ * Scalar values are decoded while indexing.
+ *
+ * <p>Since reads modify the index, all accessors are synchronized. This makes concurrent reads safe,
+ * like they are for a {@link HashMap}. Iterating while another thread modifies the map is not supported.
+ */
+public class LazyJsonMap extends AbstractMap<String, Object> {
+    private final byte[] data;
+    private final int offset;
+    private final int length;
+    private Map<String, Object> fields;
+
+    /**
+     * @param data
+     *        The buffer containing the JSON object, this buffer must not be modified afterwards
+     * @param offset
+     *        The offset of the opening brace
+     * @param length
+     *        The length of the object, including braces
+     */
+    public LazyJsonMap(@Nonnull byte[] data, int offset, int length) {
+        this.data = data;
+        this.offset = offset;
+        this.length = length;
+    }
+
+    @Override
+    public synchronized Object get(Object key) {
+        Map<String, Object> fields = index();
+        Object value = fields.get(key);
+        if (value instanceof LazyJsonValue) {
+            value = ((LazyJsonValue) value).decode();
+            fields.put((String) key, value);
+        }
+        return value;
+    }
+
+    @Override
+    public synchronized boolean containsKey(Object key) {
+        return index().containsKey(key);
+    }
+
+    @Override
+    public synchronized Object put(String key, Object value) {
+        return LazyJsonValue.resolve(index().put(key, value));
+    }
+
+    @Override
+    public synchronized Object remove(Object key) {
+        return LazyJsonValue.resolve(index().remove(key));
+    }
+
+    @Override
+    public synchronized int size() {
+        return index().size();
+    }
+
+    @Override
+    public synchronized void clear() {
+        index().clear();
+    }
+
+    @Nonnull
+    @Override
+    public synchronized Set<Entry<String, Object>> entrySet() {
+        Map<String, Object> fields = index();
+        fields.replaceAll((key, value) -> LazyJsonValue.resolve(value));
+        return fields.entrySet();
+    }
+
+    private Map<String, Object> index() {
+        if (fields != null) {
+            return fields;
+        }
+
+        Map<String, Object> fields = new HashMap<>();
+        try (JsonParser parser = SerializationUtil.createParser(data, offset, length)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new ParsingException("Expected JSON object");
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String name = parser.currentName();
+                parser.nextToken();
+                fields.put(name, LazyJsonValue.read(parser, data, offset));
+            }
+        } catch (IOException e) {
+            throw new ParsingException(e);
+        }
+        return this.fields = fields;
+    }
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright 2015 Austin Keener, Michael Ritter, Florian Spieß, and the JDA contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.dv8tion.jda.internal.utils.data;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import net.dv8tion.jda.api.exceptions.ParsingException;
+
+import java.io.IOException;
+
+/**
+ * Placeholder for a nested object or array that has not been decoded yet.
+ */
+class LazyJsonValue {
+    private final byte[] data;
+    private final int offset;
+    private final int length;
+    private final boolean array;
+    private Object decoded;
+
+    private LazyJsonValue(byte[] data, int offset, int length, boolean array) {
+        this.data = data;
+        this.offset = offset;
+        this.length = length;
+        this.array = array;
+    }
+
+    // Only called while holding the lock of the containing map or list
+    Object decode() {
+        if (decoded == null) {
+            decoded = array ? new LazyJsonList(data, offset, length) : new LazyJsonMap(data, offset, length);
+        }
+        return decoded;
+    }
+
+    static Object resolve(Object value) {
+        return value instanceof LazyJsonValue ? ((LazyJsonValue) value).decode() : value;
+    }
+
+    /**
+     * Reads the value at the current token of the parser.
+     * Objects and arrays are skipped and returned as placeholders, scalars are decoded directly.
+     */
+    static Object read(JsonParser parser, byte[] data, int base) throws IOException {
+        JsonToken token = parser.currentToken();
+        switch (token) {
+            case START_OBJECT:
+            case START_ARRAY:
+                int start = base + (int) parser.currentTokenLocation().getByteOffset();
+                parser.skipChildren();
+                int end = base + (int) parser.currentTokenLocation().getByteOffset() + 1;
+                return new LazyJsonValue(data, start, end - start, token == JsonToken.START_ARRAY);
+            case VALUE_STRING:
+                return parser.getText();
+            case VALUE_NUMBER_INT:
+            case VALUE_NUMBER_FLOAT:
+                return parser.getNumberValue();
+            case VALUE_TRUE:
+                return Boolean.TRUE;
+            case VALUE_FALSE:
+                return Boolean.FALSE;
+            case VALUE_NULL:
+                return null;
+            default:
+                throw new ParsingException("Unexpected JSON token " + token);
+        }
+    }
+}
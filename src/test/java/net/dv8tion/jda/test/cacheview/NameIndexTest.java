@@ -0,0 +1,178 @@
+/*
+ * Copyright 2015 Austin Keener, Michael Ritter, Florian Spieß, and the JDA contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.dv8tion.jda.test.cacheview;
+
+import net.dv8tion.jda.api.entities.ISnowflake;
+import net.dv8tion.jda.api.entities.Member;
+import net.dv8tion.jda.api.entities.User;
+import net.dv8tion.jda.internal.utils.UnlockHook;
+import net.dv8tion.jda.internal.utils.cache.MemberCacheViewImpl;
+import net.dv8tion.jda.internal.utils.cache.OffHeapStore;
+import net.dv8tion.jda.internal.utils.cache.SnowflakeCacheViewImpl;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class NameIndexTest {
+    @Test
+    void testExactLookup() {
+        SnowflakeCacheViewImpl<Entity> cache = new SnowflakeCacheViewImpl<>(Entity.class, Entity::getName);
+        put(cache, new Entity(1, "Alpha"));
+        cache.enableNameIndex();
+        put(cache, new Entity(2, "alpha"));
+        put(cache, new Entity(3, "Beta"));
+
+        assertThat(cache.getElementsByName("alpha", false)).extracting(Entity::getIdLong).containsExactly(2L);
+        assertThat(cache.getElementsByName("ALPHA", true))
+                .extracting(Entity::getIdLong)
+                .containsExactlyInAnyOrder(1L, 2L);
+        assertThat(cache.getElementsByName("gamma", true)).isEmpty();
+
+        cache.remove(1);
+        assertThat(cache.getElementsByName("alpha", true)).extracting(Entity::getIdLong).containsExactly(2L);
+
+        cache.clear();
+        assertThat(cache.getElementsByName("alpha", true)).isEmpty();
+    }
+
+    @Test
+    void testRename() {
+        SnowflakeCacheViewImpl<Entity> cache = new SnowflakeCacheViewImpl<>(Entity.class, Entity::getName);
+        cache.enableNameIndex();
+        Entity entity = new Entity(1, "Alpha");
+        put(cache, entity);
+
+        entity.name = "Gamma";
+        // Stale entries are filtered until the element is reindexed
+        assertThat(cache.getElementsByName("alpha", true)).isEmpty();
+
+        cache.updateIndex(1);
+        assertThat(cache.getElementsByName("gamma", true)).containsExactly(entity);
+    }
+
+    @Test
+    void testIndexWithOffHeapStore() {
+        SnowflakeCacheViewImpl<Entity> cache = new SnowflakeCacheViewImpl<>(Entity.class, Entity::getName);
+        cache.setOffHeapStore(new OffHeapStore<>(new EntityCodec()), 10);
+        cache.enableNameIndex();
+        for (long id = 1; id <= 100; id++) {
+            put(cache, new Entity(id, "entity-" + id));
+        }
+
+        assertThat(cache.getOffHeapStore().size()).isGreaterThan(0);
+        for (long id = 1; id <= 100; id++) {
+            assertThat(cache.getElementsByName("Entity-" + id, true))
+                    .extracting(Entity::getIdLong)
+                    .containsExactly(id);
+        }
+
+        long storedId = cache.getOffHeapStore().keys()[0];
+        cache.remove(storedId);
+        assertThat(cache.getElementsByName("entity-" + storedId, true)).isEmpty();
+    }
+
+    @Test
+    void testMemberLookups() {
+        MemberCacheViewImpl cache = new MemberCacheViewImpl();
+        cache.enableNameIndex();
+        Member alice = member(1, "alice", "Ally");
+        Member bob = member(2, "bob", null);
+        Member alfred = member(3, "alfred", "Bobby");
+        try (UnlockHook hook = cache.writeLock()) {
+            cache.getMap().put(1, alice);
+            cache.getMap().put(2, bob);
+            cache.getMap().put(3, alfred);
+        }
+
+        assertThat(cache.getElementsByUsername("ALICE", true)).containsExactly(alice);
+        assertThat(cache.getElementsByUsername("ALICE", false)).isEmpty();
+        assertThat(cache.getElementsByNickname("bobby", true)).containsExactly(alfred);
+        assertThat(cache.getElementsByNickname(null)).containsExactly(bob);
+        assertThat(cache.getElementsByName("bob", false)).containsExactly(bob);
+
+        // Effective name matches come first, followed by username matches
+        assertThat(cache.getElementsByPrefix("AL", 10)).containsExactly(alice, alfred);
+        assertThat(cache.getElementsByPrefix("bo", 10)).containsExactlyInAnyOrder(bob, alfred);
+        assertThat(cache.getElementsByPrefix("a", 1)).hasSize(1);
+        assertThat(cache.getElementsByPrefix("z", 10)).isEmpty();
+    }
+
+    private static Member member(long id, String username, String nickname) {
+        User user = mock(User.class);
+        when(user.getName()).thenReturn(username);
+        Member member = mock(Member.class);
+        when(member.getIdLong()).thenReturn(id);
+        when(member.getUser()).thenReturn(user);
+        when(member.getNickname()).thenReturn(nickname);
+        when(member.getEffectiveName()).thenReturn(nickname != null ? nickname : username);
+        return member;
+    }
+
+    private static void put(SnowflakeCacheViewImpl<Entity> cache, Entity entity) {
+        try (UnlockHook hook = cache.writeLock()) {
+            cache.getMap().put(entity.getIdLong(), entity);
+        }
+    }
+
+    static class EntityCodec implements OffHeapStore.Codec<Entity> {
+        @Override
+        public int getLongColumns() {
+            return 0;
+        }
+
+        @Override
+        public int getDataColumns() {
+            return 1;
+        }
+
+        @Override
+        public boolean canStore(Entity entity) {
+            return true;
+        }
+
+        @Override
+        public void write(Entity entity, OffHeapStore.Record record) {
+            record.setString(0, entity.name);
+        }
+
+        @Override
+        public Entity read(long id, OffHeapStore.Record record) {
+            return new Entity(id, record.getString(0));
+        }
+    }
+
+    static class Entity implements ISnowflake {
+        private final long id;
+        private String name;
+
+        Entity(long id, String name) {
+            this.id = id;
+            this.name = name;
+        }
+
+        String getName() {
+            return name;
+        }
+
+        @Override
+        public long getIdLong() {
+            return id;
+        }
+    }
+}
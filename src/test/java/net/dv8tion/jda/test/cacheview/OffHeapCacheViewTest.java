@@ -0,0 +1,317 @@
+/*
+ * Copyright 2015 Austin Keener, Michael Ritter, Florian Spieß, and the JDA contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.dv8tion.jda.test.cacheview;
+
+import net.dv8tion.jda.api.entities.ISnowflake;
+import net.dv8tion.jda.api.entities.Member;
+import net.dv8tion.jda.api.entities.User;
+import net.dv8tion.jda.internal.JDAImpl;
+import net.dv8tion.jda.internal.entities.GuildImpl;
+import net.dv8tion.jda.internal.entities.MemberImpl;
+import net.dv8tion.jda.internal.entities.UserImpl;
+import net.dv8tion.jda.internal.utils.UnlockHook;
+import net.dv8tion.jda.internal.utils.cache.MemberCacheViewImpl;
+import net.dv8tion.jda.internal.utils.cache.MemberCodec;
+import net.dv8tion.jda.internal.utils.cache.OffHeapStore;
+import net.dv8tion.jda.internal.utils.cache.SnowflakeCacheViewImpl;
+import net.dv8tion.jda.internal.utils.cache.UserCodec;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class OffHeapCacheViewTest {
+    @Test
+    void testDisplacedElementsAreStored() {
+        SnowflakeCacheViewImpl<Entity> cache = createCache(10);
+        fill(cache, 100);
+
+        assertThat(cache.getOffHeapStore().size()).isGreaterThanOrEqualTo(90);
+        assertThat(cache.size()).isEqualTo(100);
+
+        for (long id = 1; id <= 100; id++) {
+            Entity entity = cache.getElementById(id);
+            assertThat(entity).isEqualTo(new Entity(id, "entity-" + id, new long[] {id, id * 2}));
+            // Further lookups return the same instance until the element is removed
+            assertThat(cache.getElementById(id)).isSameAs(entity);
+        }
+
+        assertThat(cache.size()).isEqualTo(100);
+        assertThat(cache.getOffHeapStore().size()).isGreaterThanOrEqualTo(90);
+        assertThat(cache.getElementById(101)).isNull();
+    }
+
+    @Test
+    void testBulkOperationsIncludeStoredElements() {
+        SnowflakeCacheViewImpl<Entity> cache = createCache(10);
+        fill(cache, 100);
+
+        assertThat(cache.asList()).hasSize(100).doesNotHaveDuplicates();
+        assertThat(cache.asSet()).hasSize(100);
+        assertThat(cache.keySet().size()).isEqualTo(100);
+        assertThat(cache.stream().count()).isEqualTo(100);
+        assertThat(cache.getElementsByName("entity-42")).containsExactly(cache.getElementById(42));
+
+        int count = 0;
+        for (Iterator<Entity> it = cache.lockedIterator(); it.hasNext(); it.next()) {
+            count++;
+        }
+        assertThat(count).isEqualTo(100);
+    }
+
+    @Test
+    void testRemoveAndReplaceStoredElements() {
+        SnowflakeCacheViewImpl<Entity> cache = createCache(10);
+        fill(cache, 100);
+        long storedId = cache.getOffHeapStore().keys()[0];
+
+        assertThat(cache.remove(storedId)).isNotNull();
+        assertThat(cache.getElementById(storedId)).isNull();
+        assertThat(cache.size()).isEqualTo(99);
+
+        storedId = cache.getOffHeapStore().keys()[0];
+        try (UnlockHook hook = cache.writeLock()) {
+            cache.getMap().put(storedId, new Entity(storedId, "replaced", new long[0]));
+        }
+
+        assertThat(cache.size()).isEqualTo(99);
+        assertThat(cache.getElementById(storedId).name).isEqualTo("replaced");
+
+        cache.clear();
+        assertThat(cache.isEmpty()).isTrue();
+        assertThat(cache.getOffHeapStore().getAllocatedBytes()).isZero();
+    }
+
+    @Test
+    void testLookupDoesNotBlockOnReaders() throws Exception {
+        SnowflakeCacheViewImpl<Entity> cache = createCache(10);
+        fill(cache, 100);
+        long storedId = cache.getOffHeapStore().keys()[0];
+
+        Entity entity;
+        try (UnlockHook hook = cache.readLock()) {
+            entity = CompletableFuture.supplyAsync(() -> cache.getElementById(storedId))
+                    .get(5, TimeUnit.SECONDS);
+        }
+        assertThat(entity).isNotNull();
+        assertThat(cache.getOffHeapStore().contains(storedId)).isTrue();
+
+        // The next write moves the element back to the heap
+        cache.writeLock().close();
+        assertThat(cache.getOffHeapStore().contains(storedId)).isFalse();
+        assertThat(cache.getElementById(storedId)).isSameAs(entity);
+        assertThat(cache.size()).isEqualTo(100);
+    }
+
+    @Test
+    void testContainsDoesNotMaterialize() {
+        SnowflakeCacheViewImpl<Entity> cache = createCache(10);
+        fill(cache, 100);
+        long storedId = cache.getOffHeapStore().keys()[0];
+
+        assertThat(cache.contains(storedId)).isTrue();
+        assertThat(cache.contains(101)).isFalse();
+
+        cache.writeLock().close();
+        assertThat(cache.getOffHeapStore().contains(storedId)).isTrue();
+    }
+
+    @Test
+    void testMemberResolvesUser() {
+        JDAImpl api = mock(JDAImpl.class);
+        GuildImpl guild = mock(GuildImpl.class);
+        when(guild.getJDA()).thenReturn(api);
+        OffHeapStore<Member> store = new OffHeapStore<>(new MemberCodec(guild));
+        UserImpl user = new UserImpl(42, api).setName("minn");
+        when(api.getUserById(42L)).thenReturn(user);
+        MemberImpl member = new MemberImpl(guild, user)
+                .setNickname("nick")
+                .setRoleIds(new long[] {1, 2});
+
+        assertThat(store.store(42, member)).isTrue();
+        MemberImpl loaded = (MemberImpl) store.load(42);
+
+        assertThat(loaded).isNotSameAs(member);
+        assertThat(loaded.getUser()).isSameAs(user);
+        assertThat(loaded.getNickname()).isEqualTo("nick");
+        assertThat(loaded.getRoleIds()).containsExactly(1, 2);
+
+        assertThat(store.remove(42)).isTrue();
+        assertThat(store.load(42)).isNull();
+    }
+
+    @Test
+    void testReindexStoredMember() {
+        JDAImpl api = mock(JDAImpl.class);
+        GuildImpl guild = mock(GuildImpl.class);
+        when(guild.getJDA()).thenReturn(api);
+        MemberCacheViewImpl members = new MemberCacheViewImpl();
+        members.setOffHeapStore(new OffHeapStore<>(new MemberCodec(guild)), 10);
+        members.enableNameIndex();
+        UserImpl[] users = new UserImpl[100];
+        for (int i = 0; i < users.length; i++) {
+            users[i] = new UserImpl(i + 1, api).setName("user-" + (i + 1));
+            when(api.getUserById((long) i + 1)).thenReturn(users[i]);
+            try (UnlockHook hook = members.writeLock()) {
+                members.getMap().put(i + 1, new MemberImpl(guild, users[i]));
+            }
+        }
+        long storedId = members.getOffHeapStore().keys()[0];
+
+        users[(int) storedId - 1].setName("renamed");
+        members.updateIndex(storedId);
+        members.updateIndex(101);
+
+        assertThat(members.getElementsByUsername("renamed", false))
+                .extracting(Member::getIdLong)
+                .containsExactly(storedId);
+        assertThat(members.getElementsByUsername("user-" + storedId, false)).isEmpty();
+        assertThat(members.getOffHeapStore().contains(storedId)).isTrue();
+    }
+
+    @Test
+    void testStoreReusesSpace() {
+        OffHeapStore<Entity> store = new OffHeapStore<>(new EntityCodec());
+        for (int i = 0; i < 10_000; i++) {
+            long id = i % 100;
+            store.store(id, new Entity(id, "name-" + i, new long[] {i}));
+        }
+
+        assertThat(store.size()).isEqualTo(100);
+        assertThat(store.load(42)).isEqualTo(new Entity(42, "name-9942", new long[] {9942}));
+        // 100 slots with short values fit into the initial buffers, overwritten values are compacted
+        assertThat(store.getAllocatedBytes()).isLessThan(16 * 1024);
+
+        for (long id = 0; id < 100; id++) {
+            assertThat(store.remove(id)).isTrue();
+        }
+        assertThat(store.size()).isZero();
+        assertThat(store.load(42)).isNull();
+    }
+
+    @Test
+    void testUserRoundTrip() {
+        JDAImpl api = mock(JDAImpl.class);
+        OffHeapStore<User> store = new OffHeapStore<>(new UserCodec(api));
+        UserImpl user = new UserImpl(42, api)
+                .setName("minn")
+                .setGlobalName("Minn ✨")
+                .setDiscriminator((short) 1234)
+                .setAvatarId("a_123")
+                .setBot(true)
+                .setFlags(1 << 17)
+                .setPrimaryGuild(new User.PrimaryGuild(1234, true, "JDA", "badge"))
+                .setPrivateChannelId(99);
+
+        assertThat(store.store(42, user)).isTrue();
+        UserImpl loaded = (UserImpl) store.load(42);
+
+        assertThat(loaded).isNotSameAs(user).isEqualTo(user);
+        assertThat(loaded.getName()).isEqualTo("minn");
+        assertThat(loaded.getGlobalName()).isEqualTo("Minn ✨");
+        assertThat(loaded.getDiscriminator()).isEqualTo("1234");
+        assertThat(loaded.getAvatarId()).isEqualTo("a_123");
+        assertThat(loaded.isBot()).isTrue();
+        assertThat(loaded.isSystem()).isFalse();
+        assertThat(loaded.getFlagsRaw()).isEqualTo(1 << 17);
+        assertThat(loaded.getPrivateChannelIdRaw()).isEqualTo(99);
+        assertThat(loaded.getPrimaryGuild()).isNotNull();
+        assertThat(loaded.getPrimaryGuild().getIdLong()).isEqualTo(1234);
+        assertThat(loaded.getPrimaryGuild().isIdentityEnabled()).isTrue();
+        assertThat(loaded.getPrimaryGuild().getTag()).isEqualTo("JDA");
+        assertThat(loaded.getPrimaryGuild().getBadgeHash()).isEqualTo("badge");
+    }
+
+    private static SnowflakeCacheViewImpl<Entity> createCache(int hotCapacity) {
+        SnowflakeCacheViewImpl<Entity> cache = new SnowflakeCacheViewImpl<>(Entity.class, entity -> entity.name);
+        cache.setOffHeapStore(new OffHeapStore<>(new EntityCodec()), hotCapacity);
+        return cache;
+    }
+
+    private static void fill(SnowflakeCacheViewImpl<Entity> cache, int count) {
+        for (long id = 1; id <= count; id++) {
+            try (UnlockHook hook = cache.writeLock()) {
+                cache.getMap().put(id, new Entity(id, "entity-" + id, new long[] {id, id * 2}));
+            }
+        }
+    }
+
+    static class EntityCodec implements OffHeapStore.Codec<Entity> {
+        @Override
+        public int getLongColumns() {
+            return 0;
+        }
+
+        @Override
+        public int getDataColumns() {
+            return 2;
+        }
+
+        @Override
+        public boolean canStore(Entity entity) {
+            return true;
+        }
+
+        @Override
+        public void write(Entity entity, OffHeapStore.Record record) {
+            record.setString(0, entity.name);
+            record.setLongs(1, entity.data);
+        }
+
+        @Override
+        public Entity read(long id, OffHeapStore.Record record) {
+            return new Entity(id, record.getString(0), record.getLongs(1));
+        }
+    }
+
+    static class Entity implements ISnowflake {
+        private final long id;
+        private final String name;
+        private final long[] data;
+
+        Entity(long id, String name, long[] data) {
+            this.id = id;
+            this.name = name;
+            this.data = data;
+        }
+
+        @Override
+        public long getIdLong() {
+            return id;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof Entity)) {
+                return false;
+            }
+            Entity other = (Entity) obj;
+            return other.id == id && other.name.equals(name) && Arrays.equals(other.data, data);
+        }
+
+        @Override
+        public int hashCode() {
+            return Long.hashCode(id);
+        }
+    }
+}
@@ -0,0 +1,124 @@
+/*
+ * Copyright 2015 Austin Keener, Michael Ritter, Florian Spieß, and the JDA contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.dv8tion.jda.test.cacheview;
+
+import net.dv8tion.jda.api.entities.Member;
+import net.dv8tion.jda.api.entities.Role;
+import net.dv8tion.jda.internal.utils.UnlockHook;
+import net.dv8tion.jda.internal.utils.cache.MemberCacheViewImpl;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class RoleIndexTest {
+    private static final Role PUBLIC_ROLE = role(100, true);
+    private static final Role RED = role(1, false);
+    private static final Role BLUE = role(2, false);
+    private static final Role GREEN = role(3, false);
+
+    @ValueSource(booleans = {true, false})
+    @ParameterizedTest
+    void testMembersWithRoles(boolean indexed) {
+        MemberCacheViewImpl cache = new MemberCacheViewImpl();
+        put(cache, member(1, RED));
+        if (indexed) {
+            cache.enableRoleIndex();
+        }
+        put(cache, member(2, RED, BLUE));
+        put(cache, member(3, BLUE));
+        put(cache, member(4));
+
+        assertThat(ids(cache.getElementsWithRoles(RED))).containsExactlyInAnyOrder(1L, 2L);
+        assertThat(ids(cache.getElementsWithRoles(RED, BLUE))).containsExactly(2L);
+        assertThat(ids(cache.getElementsWithRoles(BLUE, PUBLIC_ROLE))).containsExactlyInAnyOrder(2L, 3L);
+        assertThat(ids(cache.getElementsWithRoles(PUBLIC_ROLE))).containsExactlyInAnyOrder(1L, 2L, 3L, 4L);
+        assertThat(cache.getElementsWithRoles(GREEN)).isEmpty();
+
+        assertThat(cache.countElementsWithRoles(RED)).isEqualTo(2);
+        assertThat(cache.countElementsWithRoles(RED, BLUE)).isEqualTo(1);
+        assertThat(cache.countElementsWithRoles(RED, RED)).isEqualTo(2);
+        assertThat(cache.countElementsWithRoles(PUBLIC_ROLE)).isEqualTo(4);
+        assertThat(cache.countElementsWithRoles(GREEN)).isEqualTo(0);
+
+        cache.remove(2);
+        assertThat(ids(cache.getElementsWithRoles(RED))).containsExactly(1L);
+        assertThat(cache.countElementsWithRoles(BLUE)).isEqualTo(1);
+
+        cache.clear();
+        assertThat(cache.getElementsWithRoles(RED)).isEmpty();
+        assertThat(cache.countElementsWithRoles(RED)).isEqualTo(0);
+    }
+
+    @Test
+    void testRoleUpdates() {
+        MemberCacheViewImpl cache = new MemberCacheViewImpl();
+        cache.enableRoleIndex();
+        Set<Role> roles = new HashSet<>(Arrays.asList(RED, BLUE));
+        Member member = mock(Member.class);
+        when(member.getIdLong()).thenReturn(1L);
+        when(member.getUnsortedRoles()).thenReturn(roles);
+        put(cache, member);
+
+        roles.remove(RED);
+        roles.add(GREEN);
+        cache.updateIndex(1);
+
+        assertThat(cache.countElementsWithRoles(RED)).isEqualTo(0);
+        assertThat(cache.getElementsWithRoles(BLUE, GREEN)).containsExactly(member);
+
+        roles.remove(GREEN);
+        cache.removeRole(GREEN.getIdLong());
+        assertThat(cache.countElementsWithRoles(GREEN)).isEqualTo(0);
+        assertThat(cache.countElementsWithRoles(BLUE)).isEqualTo(1);
+
+        // Reindexing after the role was removed must not fail
+        cache.updateIndex(1);
+        assertThat(cache.getElementsWithRoles(BLUE)).containsExactly(member);
+    }
+
+    private static List<Long> ids(List<Member> members) {
+        List<Long> ids = new ArrayList<>();
+        members.forEach(member -> ids.add(member.getIdLong()));
+        return ids;
+    }
+
+    private static Role role(long id, boolean isPublic) {
+        Role role = mock(Role.class);
+        when(role.getIdLong()).thenReturn(id);
+        when(role.isPublicRole()).thenReturn(isPublic);
+        return role;
+    }
+
+    private static Member member(long id, Role... roles) {
+        Member member = mock(Member.class);
+        when(member.getIdLong()).thenReturn(id);
+        when(member.getUnsortedRoles()).thenReturn(new HashSet<>(Arrays.asList(roles)));
+        return member;
+    }
+
+    private static void put(MemberCacheViewImpl cache, Member member) {
+        try (UnlockHook hook = cache.writeLock()) {
+            cache.getMap().put(member.getIdLong(), member);
+        }
+    }
+}
@@ -0,0 +1,127 @@
+/*
+ * Copyright 2015 Austin Keener, Michael Ritter, Florian Spieß, and the JDA contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.dv8tion.jda.test.cacheview;
+
+import net.dv8tion.jda.api.entities.ISnowflake;
+import net.dv8tion.jda.internal.utils.UnlockHook;
+import net.dv8tion.jda.internal.utils.cache.SnowflakeCacheViewImpl;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+
+class SnowflakeCacheViewTest {
+    @ValueSource(booleans = {true, false})
+    @ParameterizedTest
+    void testGetElementById(boolean optimisticReads) {
+        SnowflakeCacheViewImpl<Entity> cache = new SnowflakeCacheViewImpl<>(Entity.class, null);
+        cache.setOptimisticReads(optimisticReads);
+
+        assertThat(cache.getElementById(1)).isNull();
+
+        try (UnlockHook hook = cache.writeLock()) {
+            cache.getMap().put(1, new Entity(1));
+        }
+
+        assertThat(cache.getElementById(1)).isEqualTo(new Entity(1));
+        assertThat(cache.getElementById(2)).isNull();
+
+        cache.remove(1);
+
+        assertThat(cache.getElementById(1)).isNull();
+    }
+
+    @Test
+    void testNestedWriteLock() {
+        SnowflakeCacheViewImpl<Entity> cache = new SnowflakeCacheViewImpl<>(Entity.class, null);
+        cache.setOptimisticReads(true);
+
+        try (UnlockHook outer = cache.writeLock()) {
+            try (UnlockHook inner = cache.writeLock()) {
+                cache.getMap().put(1, new Entity(1));
+            }
+            cache.getMap().put(2, new Entity(2));
+        }
+
+        assertThat(cache.getElementById(1)).isEqualTo(new Entity(1));
+        assertThat(cache.getElementById(2)).isEqualTo(new Entity(2));
+        assertThatIllegalStateException().isThrownBy(cache::getMap);
+    }
+
+    @Test
+    void testOptimisticReadsDuringConcurrentWrites() throws InterruptedException {
+        SnowflakeCacheViewImpl<Entity> cache = new SnowflakeCacheViewImpl<>(Entity.class, null);
+        cache.setOptimisticReads(true);
+
+        try (UnlockHook hook = cache.writeLock()) {
+            cache.getMap().put(0, new Entity(0));
+        }
+
+        AtomicBoolean running = new AtomicBoolean(true);
+        AtomicReference<Entity> mismatch = new AtomicReference<>();
+        Thread reader = new Thread(() -> {
+            while (running.get()) {
+                Entity entity = cache.getElementById(0);
+                if (entity == null || entity.getIdLong() != 0) {
+                    mismatch.set(entity);
+                }
+            }
+        });
+        reader.start();
+
+        // Force several rehashes while the reader is running
+        for (int i = 1; i < 50_000; i++) {
+            try (UnlockHook hook = cache.writeLock()) {
+                cache.getMap().put(i, new Entity(i));
+            }
+        }
+
+        running.set(false);
+        reader.join();
+
+        assertThat(mismatch.get()).isNull();
+        assertThat(cache.size()).isEqualTo(50_000);
+    }
+
+    static class Entity implements ISnowflake {
+        private final long id;
+
+        Entity(long id) {
+            this.id = id;
+        }
+
+        @Override
+        public long getIdLong() {
+            return id;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            return obj instanceof Entity && ((Entity) obj).id == id;
+        }
+
+        @Override
+        public int hashCode() {
+            return Long.hashCode(id);
+        }
+    }
+}
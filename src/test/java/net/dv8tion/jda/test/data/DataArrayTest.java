@@ -17,11 +17,21 @@
 package net.dv8tion.jda.test.data;
 
 import net.dv8tion.jda.api.exceptions.DataArrayParsingException;
+import net.dv8tion.jda.api.exceptions.ParsingException;
 import net.dv8tion.jda.api.utils.data.DataArray;
 import net.dv8tion.jda.api.utils.data.DataObject;
 import net.dv8tion.jda.test.AbstractSnapshotTest;
 import org.junit.jupiter.api.Test;
 
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
 
 public class DataArrayTest extends AbstractSnapshotTest {
@@ -37,4 +47,40 @@ public class DataArrayTest extends AbstractSnapshotTest {
                 .isThrownBy(() -> data.getInt(3))
                 .satisfies(exception -> snapshotHandler.compareWithSnapshot(exception.toString(), null));
     }
+
+    @Test
+    void testForEachObjectBeforeEndOfInput() {
+        AtomicBoolean secondPartRead = new AtomicBoolean();
+        InputStream first = stream("[{\"id\":1},");
+        InputStream second = new ByteArrayInputStream("{\"id\":2}]".getBytes(StandardCharsets.UTF_8)) {
+            @Override
+            public synchronized int read(byte[] b, int off, int len) {
+                secondPartRead.set(true);
+                return super.read(b, off, len);
+            }
+        };
+
+        List<Long> ids = new ArrayList<>();
+        List<Boolean> readAhead = new ArrayList<>();
+        int count = DataArray.forEachObject(new SequenceInputStream(first, second), object -> {
+            ids.add(object.getLong("id"));
+            readAhead.add(secondPartRead.get());
+        });
+
+        assertThat(count).isEqualTo(2);
+        assertThat(ids).containsExactly(1L, 2L);
+        assertThat(readAhead).containsExactly(false, true);
+    }
+
+    @Test
+    void testForEachObjectRejectsNonObjects() {
+        assertThatExceptionOfType(ParsingException.class)
+                .isThrownBy(() -> DataArray.forEachObject(stream("[{\"id\":1},2]"), object -> {}));
+        assertThatExceptionOfType(ParsingException.class)
+                .isThrownBy(() -> DataArray.forEachObject(stream("{\"id\":1}"), object -> {}));
+    }
+
+    private static InputStream stream(String json) {
+        return new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8));
+    }
 }
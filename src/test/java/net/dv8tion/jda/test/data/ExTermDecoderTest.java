@@ -0,0 +1,118 @@
+/*
+ * Copyright 2015 Austin Keener, Michael Ritter, Florian Spieß, and the JDA contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.dv8tion.jda.test.data;
+
+import net.dv8tion.jda.api.utils.data.DataObject;
+import net.dv8tion.jda.api.utils.data.etf.ExTermDecoder;
+import net.dv8tion.jda.api.utils.data.etf.ExTermEncoder;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ExTermDecoderTest {
+    private static final String PAYLOAD = "{\"op\":0,\"s\":12,\"t\":\"MESSAGE_CREATE\",\"d\":{"
+            + "\"id\":\"1234567890123456789\",\"channel_id\":\"987654321\",\"guild_id\":\"0123\","
+            + "\"application_id\":\"99999999999999999999\",\"custom_id\":\"abc\",\"content\":\"hello\","
+            + "\"author\":{\"id\":\"42\",\"username\":\"test\",\"some_unknown_key\":true},"
+            + "\"mention_roles\":[\"1\",\"2\"],\"nonce\":null,\"pinned\":false,\"flags\":256}}";
+
+    @Test
+    void testDecodesLikeJson() {
+        DataObject json = DataObject.fromJson(PAYLOAD);
+
+        assertThat(ExTermDecoder.unpackMap(encode(json))).isEqualTo(json.toMap());
+        assertThat(ExTermDecoder.unpackMap(encode(json), false)).isEqualTo(json.toMap());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testParseSnowflakes() {
+        Map<String, Object> payload = ExTermDecoder.unpackMap(encode(DataObject.fromJson(PAYLOAD)), true);
+        Map<String, Object> message = (Map<String, Object>) payload.get("d");
+        Map<String, Object> author = (Map<String, Object>) message.get("author");
+
+        assertThat(message.get("id")).isEqualTo(1234567890123456789L);
+        assertThat(message.get("channel_id")).isEqualTo(987654321L);
+        assertThat(author.get("id")).isEqualTo(42L);
+        // Not canonical or out of range
+        assertThat(message.get("guild_id")).isEqualTo("0123");
+        assertThat(message.get("application_id")).isEqualTo("99999999999999999999");
+        assertThat(message.get("custom_id")).isEqualTo("abc");
+        // Only values of snowflake keys are converted
+        assertThat((List<Object>) message.get("mention_roles")).containsExactly("1", "2");
+
+        DataObject data = DataObject.empty().put("d", message).getObject("d");
+        assertThat(data.getString("id")).isEqualTo("1234567890123456789");
+        assertThat(data.getUnsignedLong("channel_id")).isEqualTo(987654321L);
+        assertThat(data.getObject("author").getString("username")).isEqualTo("test");
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testStringIdsAreKept() {
+        DataObject json = DataObject.fromJson("{\"op\":0,\"d\":{\"channel_id\":\"1\",\"custom_id\":\"123\","
+                + "\"sound_id\":\"456\",\"emoji\":{\"id\":\"789\"}}}");
+        Map<String, Object> payload = ExTermDecoder.unpackMap(encode(json), true);
+        Map<String, Object> data = (Map<String, Object>) payload.get("d");
+
+        assertThat(data.get("channel_id")).isEqualTo(1L);
+        assertThat(data.get("custom_id")).isEqualTo("123");
+        assertThat(data.get("sound_id")).isEqualTo("456");
+        assertThat(((Map<String, Object>) data.get("emoji")).get("id")).isEqualTo(789L);
+    }
+
+    @Test
+    void testKnownKeysAreShared() {
+        ByteBuffer encoded = encode(DataObject.fromJson(PAYLOAD));
+        Map<String, Object> first = ExTermDecoder.unpackMap(encoded.duplicate());
+        Map<String, Object> second = ExTermDecoder.unpackMap(encoded.duplicate());
+
+        assertThat(keyOf(first, "op")).isSameAs(keyOf(second, "op"));
+        assertThat(keyOf(first, "t")).isSameAs("t");
+    }
+
+    @Test
+    void testDecodeBufferSlice() {
+        DataObject json = DataObject.fromJson(PAYLOAD);
+        ByteBuffer encoded = encode(json);
+
+        ByteBuffer heap = ByteBuffer.allocate(encoded.remaining() + 10);
+        heap.position(5);
+        heap.put(encoded.duplicate());
+        heap.position(5).limit(5 + encoded.remaining());
+
+        ByteBuffer direct = ByteBuffer.allocateDirect(encoded.remaining());
+        direct.put(encoded.duplicate());
+        direct.flip();
+
+        assertThat(ExTermDecoder.unpackMap(heap.slice())).isEqualTo(json.toMap());
+        assertThat(ExTermDecoder.unpackMap(heap, true)).isEqualTo(ExTermDecoder.unpackMap(encoded.duplicate(), true));
+        assertThat(ExTermDecoder.unpackMap(direct, true)).isEqualTo(ExTermDecoder.unpackMap(encoded, true));
+    }
+
+    private static ByteBuffer encode(DataObject object) {
+        return ExTermEncoder.pack(object.toMap());
+    }
+
+    private static String keyOf(Map<String, Object> map, String key) {
+        return map.keySet().stream().filter(key::equals).findFirst().orElse(null);
+    }
+}
@@ -0,0 +1,124 @@
+/*
+ * Copyright 2015 Austin Keener, Michael Ritter, Florian Spieß, and the JDA contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.dv8tion.jda.test.data;
+
+import net.dv8tion.jda.api.utils.data.DataArray;
+import net.dv8tion.jda.api.utils.data.DataObject;
+import net.dv8tion.jda.internal.utils.data.LazyJsonMap;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LazyJsonMapTest {
+    private static final String JSON = "{\"id\":\"123\",\"count\":42,\"big\":12345678901234,\"ratio\":0.5,\"flag\":true,"
+            + "\"missing\":null,\"user\":{\"id\":\"1\",\"name\":\"test\"},"
+            + "\"roles\":[\"1\",\"2\",{\"nested\":[1,2,3]}]}";
+
+    @Test
+    void testAccessors() {
+        DataObject lazy = lazy(JSON);
+
+        assertThat(lazy.getUnsignedLong("id")).isEqualTo(123L);
+        assertThat(lazy.getInt("count")).isEqualTo(42);
+        assertThat(lazy.getLong("big")).isEqualTo(12345678901234L);
+        assertThat(lazy.getDouble("ratio")).isEqualTo(0.5);
+        assertThat(lazy.getBoolean("flag")).isTrue();
+        assertThat(lazy.isNull("missing")).isTrue();
+        assertThat(lazy.hasKey("missing")).isTrue();
+        assertThat(lazy.hasKey("other")).isFalse();
+        assertThat(lazy.getObject("user").getString("name")).isEqualTo("test");
+
+        DataArray roles = lazy.getArray("roles");
+        assertThat(roles.length()).isEqualTo(3);
+        assertThat(roles.getUnsignedLong(1)).isEqualTo(2L);
+        assertThat(roles.getObject(2).getArray("nested").getInt(2)).isEqualTo(3);
+    }
+
+    @Test
+    void testEqualToEagerParsing() {
+        DataObject lazy = lazy(JSON);
+        DataObject eager = DataObject.fromJson(JSON);
+
+        assertThat(lazy).isEqualTo(eager);
+        assertThat(eager).isEqualTo(lazy);
+        assertThat(lazy.hashCode()).isEqualTo(eager.hashCode());
+        assertThat(DataObject.fromJson(lazy.toJson())).isEqualTo(eager);
+    }
+
+    @Test
+    void testModification() {
+        DataObject lazy = lazy(JSON);
+
+        lazy.put("count", 1).remove("user").getArray("roles").add("3").remove(0);
+
+        assertThat(lazy.getInt("count")).isEqualTo(1);
+        assertThat(lazy.hasKey("user")).isFalse();
+        assertThat(lazy.getArray("roles").length()).isEqualTo(3);
+        assertThat(lazy.getArray("roles").getString(0)).isEqualTo("2");
+        assertThat(lazy.getArray("roles").getString(2)).isEqualTo("3");
+    }
+
+    @Test
+    void testNestedValuesAreReused() {
+        byte[] data = JSON.getBytes(StandardCharsets.UTF_8);
+        LazyJsonMap map = new LazyJsonMap(data, 0, data.length);
+
+        Object user = map.get("user");
+        Object roles = map.get("roles");
+        map.entrySet();
+
+        assertThat(map.get("user")).isSameAs(user);
+        assertThat(map.get("roles")).isSameAs(roles);
+        assertThat(((List<?>) roles).get(2)).isSameAs(((List<?>) roles).get(2));
+    }
+
+    @Test
+    void testConcurrentReads() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            for (int i = 0; i < 100; i++) {
+                DataObject lazy = lazy(JSON);
+                List<Future<Integer>> results = new ArrayList<>();
+                for (int j = 0; j < 4; j++) {
+                    results.add(executor.submit(() -> lazy.getArray("roles")
+                            .getObject(2)
+                            .getArray("nested")
+                            .getInt(2)));
+                }
+                for (Future<Integer> result : results) {
+                    assertThat(result.get(5, TimeUnit.SECONDS)).isEqualTo(3);
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static DataObject lazy(String json) {
+        byte[] data = ("[" + json + "]").getBytes(StandardCharsets.UTF_8);
+        LazyJsonMap map = new LazyJsonMap(data, 1, data.length - 2);
+        return DataObject.empty().put("value", map).getObject("value");
+    }
+}
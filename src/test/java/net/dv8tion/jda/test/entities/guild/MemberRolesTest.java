@@ -0,0 +1,61 @@
+/*
+ * Copyright 2015 Austin Keener, Michael Ritter, Florian Spieß, and the JDA contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.dv8tion.jda.test.entities.guild;
+
+import net.dv8tion.jda.api.entities.Role;
+import net.dv8tion.jda.internal.entities.MemberImpl;
+import net.dv8tion.jda.internal.entities.RoleImpl;
+import net.dv8tion.jda.internal.entities.UserImpl;
+import net.dv8tion.jda.internal.utils.UnlockHook;
+import net.dv8tion.jda.internal.utils.cache.SnowflakeCacheViewImpl;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MemberRolesTest extends AbstractGuildTest {
+    @Test
+    void testUnsortedRolesSkipUncachedRoles() {
+        Role red = addRole(1);
+        Role blue = addRole(2);
+        Role green = addRole(3);
+        MemberImpl member = new MemberImpl(guild, new UserImpl(42, jda)).setRoleIds(new long[] {2, 4, 1});
+
+        Set<Role> roles = member.getUnsortedRoles();
+        assertThat(roles).containsExactlyInAnyOrder(red, blue).hasSize(2);
+        assertThat(roles.contains(red)).isTrue();
+        assertThat(roles.contains(green)).isFalse();
+        assertThat(roles).isEqualTo(new HashSet<>(Arrays.asList(red, blue)));
+        assertThatThrownBy(() -> roles.add(green)).isInstanceOf(UnsupportedOperationException.class);
+        assertThatThrownBy(() -> roles.remove(red)).isInstanceOf(UnsupportedOperationException.class);
+
+        assertThat(member.setRoleIds(new long[0]).getUnsortedRoles()).isEmpty();
+    }
+
+    private Role addRole(long id) {
+        RoleImpl role = new RoleImpl(id, guild);
+        SnowflakeCacheViewImpl<Role> roles = guild.getRolesView();
+        try (UnlockHook ignored = roles.writeLock()) {
+            roles.getMap().put(id, role);
+        }
+        return role;
+    }
+}
@@ -0,0 +1,142 @@
+/*
+ * Copyright 2015 Austin Keener, Michael Ritter, Florian Spieß, and the JDA contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.dv8tion.jda.test.events;
+
+import net.dv8tion.jda.api.JDA;
+import net.dv8tion.jda.api.events.Event;
+import net.dv8tion.jda.api.events.GenericEvent;
+import net.dv8tion.jda.api.hooks.AnnotatedEventManager;
+import net.dv8tion.jda.api.hooks.SubscribeEvent;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+class AnnotatedEventManagerTest {
+    private static final List<String> STATIC_CALLS = new ArrayList<>();
+
+    private final JDA jda = mock(JDA.class);
+
+    @Test
+    void testDispatchIncludesSuperTypes() {
+        AnnotatedEventManager manager = new AnnotatedEventManager();
+        Listener listener = new Listener();
+        manager.register(listener);
+
+        manager.handle(new ChildEvent(jda));
+        manager.handle(new ParentEvent(jda));
+
+        assertThat(listener.calls).containsExactly("child", "parent", "generic", "parent", "generic");
+    }
+
+    @Test
+    void testIncrementalUpdates() {
+        AnnotatedEventManager manager = new AnnotatedEventManager();
+        Listener first = new Listener();
+        Listener second = new Listener();
+        manager.register(first);
+
+        // Populate the dispatch table before registering another listener
+        manager.handle(new ChildEvent(jda));
+        manager.register(second);
+        manager.handle(new ChildEvent(jda));
+        manager.unregister(first);
+        manager.handle(new ChildEvent(jda));
+
+        assertThat(first.calls).hasSize(6);
+        assertThat(second.calls).hasSize(6);
+        assertThat(manager.getRegisteredListeners()).containsExactly(second);
+    }
+
+    @Test
+    void testStaticListener() {
+        AnnotatedEventManager manager = new AnnotatedEventManager();
+        manager.register(StaticListener.class);
+        STATIC_CALLS.clear();
+
+        manager.handle(new ChildEvent(jda));
+        manager.unregister(StaticListener.class);
+        manager.handle(new ChildEvent(jda));
+
+        assertThat(STATIC_CALLS).containsExactly("static");
+    }
+
+    @Test
+    void testExceptionDoesNotStopDispatch() {
+        AnnotatedEventManager manager = new AnnotatedEventManager();
+        Listener listener = new Listener();
+        manager.register(new FailingListener());
+        manager.register(listener);
+
+        manager.handle(new ChildEvent(jda));
+
+        assertThat(listener.calls).contains("child");
+    }
+
+    static class ParentEvent extends Event {
+        ParentEvent(JDA api) {
+            super(api, 0);
+        }
+    }
+
+    static class ChildEvent extends ParentEvent {
+        ChildEvent(JDA api) {
+            super(api);
+        }
+    }
+
+    static class Listener {
+        private final List<String> calls = new ArrayList<>();
+
+        @SubscribeEvent
+        private void onChild(ChildEvent event) {
+            calls.add("child");
+        }
+
+        @SubscribeEvent
+        public void onParent(ParentEvent event) {
+            calls.add("parent");
+        }
+
+        @SubscribeEvent
+        public boolean onGeneric(GenericEvent event) {
+            return calls.add("generic");
+        }
+    }
+
+    static class StaticListener {
+        @SubscribeEvent
+        public static void onEvent(ChildEvent event) {
+            STATIC_CALLS.add("static");
+        }
+
+        @SubscribeEvent
+        public void ignored(ChildEvent event) {
+            STATIC_CALLS.add("member");
+        }
+    }
+
+    static class FailingListener {
+        @SubscribeEvent
+        public void onEvent(GenericEvent event) {
+            throw new IllegalStateException("Expected");
+        }
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright 2015 Austin Keener, Michael Ritter, Florian Spieß, and the JDA contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.dv8tion.jda.test.events;
+
+import net.dv8tion.jda.api.JDA;
+import net.dv8tion.jda.api.events.Event;
+import net.dv8tion.jda.api.events.GenericEvent;
+import net.dv8tion.jda.api.events.StatusChangeEvent;
+import net.dv8tion.jda.api.events.UpdateEvent;
+import net.dv8tion.jda.api.hooks.ListenerAdapter;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.annotation.Nonnull;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+import static org.mockito.Mockito.mock;
+
+class ListenerAdapterTest {
+    private final JDA jda = mock(JDA.class);
+
+    @Test
+    void testOverriddenHandlersInOrder() {
+        List<String> calls = new ArrayList<>();
+        ListenerAdapter adapter = new ListenerAdapter() {
+            @Override
+            public void onGenericEvent(@Nonnull GenericEvent event) {
+                calls.add("generic");
+            }
+
+            @Override
+            public void onGenericUpdate(@Nonnull UpdateEvent<?, ?> event) {
+                calls.add("update");
+            }
+
+            @Override
+            public void onStatusChange(@Nonnull StatusChangeEvent event) {
+                calls.add("status");
+            }
+        };
+
+        adapter.onEvent(new StatusChangeEvent(jda, JDA.Status.CONNECTED, JDA.Status.LOADING_SUBSYSTEMS));
+        adapter.onEvent(new CustomEvent(jda));
+
+        assertThat(calls).containsExactly("generic", "update", "status", "generic");
+    }
+
+    @Test
+    void testInheritedOverrides() {
+        List<String> calls = new ArrayList<>();
+        class Base extends ListenerAdapter {
+            @Override
+            public void onStatusChange(@Nonnull StatusChangeEvent event) {
+                calls.add("base");
+            }
+        }
+        class Child extends Base {}
+
+        new Child().onEvent(new StatusChangeEvent(jda, JDA.Status.CONNECTED, JDA.Status.LOADING_SUBSYSTEMS));
+        new ListenerAdapter() {}.onEvent(new StatusChangeEvent(jda, JDA.Status.CONNECTED, JDA.Status.SHUTDOWN));
+
+        assertThat(calls).containsExactly("base");
+    }
+
+    @Test
+    void testExceptionsArePropagated() {
+        ListenerAdapter adapter = new ListenerAdapter() {
+            @Override
+            public void onStatusChange(@Nonnull StatusChangeEvent event) {
+                throw new IllegalStateException("Expected");
+            }
+        };
+
+        assertThatIllegalStateException()
+                .isThrownBy(() -> adapter.onEvent(
+                        new StatusChangeEvent(jda, JDA.Status.CONNECTED, JDA.Status.LOADING_SUBSYSTEMS)))
+                .withMessage("Expected");
+    }
+
+    static class CustomEvent extends Event {
+        CustomEvent(JDA api) {
+            super(api, 0);
+        }
+    }
+}
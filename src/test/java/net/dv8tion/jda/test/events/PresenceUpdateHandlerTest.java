@@ -0,0 +1,142 @@
+/*
+ * Copyright 2015 Austin Keener, Michael Ritter, Florian Spieß, and the JDA contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.dv8tion.jda.test.events;
+
+import net.dv8tion.jda.api.OnlineStatus;
+import net.dv8tion.jda.api.entities.Activity;
+import net.dv8tion.jda.api.entities.ClientType;
+import net.dv8tion.jda.api.utils.cache.CacheFlag;
+import net.dv8tion.jda.api.utils.cache.CacheView;
+import net.dv8tion.jda.api.utils.data.DataArray;
+import net.dv8tion.jda.api.utils.data.DataObject;
+import net.dv8tion.jda.internal.entities.GuildImpl;
+import net.dv8tion.jda.internal.entities.MemberPresenceImpl;
+import net.dv8tion.jda.internal.handle.PresenceUpdateHandler;
+import net.dv8tion.jda.test.Constants;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+
+import java.util.EnumSet;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+class PresenceUpdateHandlerTest extends AbstractSocketHandlerTest {
+    @Mock
+    protected GuildImpl guildImpl;
+
+    protected CacheView.SimpleCacheView<MemberPresenceImpl> presences;
+    protected PresenceUpdateHandler handler;
+
+    @BeforeEach
+    final void setupPresenceContext() {
+        presences = new CacheView.SimpleCacheView<>(MemberPresenceImpl.class, null);
+        when(jda.getGuildById(eq(Constants.GUILD_ID))).thenReturn(guildImpl);
+        when(jda.getCacheFlags()).thenReturn(EnumSet.allOf(CacheFlag.class));
+        when(jda.isCacheFlagSet(any())).thenReturn(true);
+        when(guildImpl.getPresenceView()).thenReturn(presences);
+        handler = new PresenceUpdateHandler(jda);
+    }
+
+    @Test
+    void testUnchangedPresenceKeepsActivities() {
+        handle(presence("online", "Spotify", DataObject.empty().put("desktop", "online")));
+        MemberPresenceImpl presence = presences.get(Constants.MINN_USER_ID);
+        List<Activity> activities = presence.getActivities();
+
+        assertThat(presence.getOnlineStatus()).isEqualTo(OnlineStatus.ONLINE);
+        assertThat(activities).extracting(Activity::getName).containsExactly("Spotify");
+
+        handle(presence("online", "Spotify", DataObject.empty().put("desktop", "online")));
+        assertThat(presence.getActivities()).isSameAs(activities);
+
+        handle(presence("idle", "Spotify", DataObject.empty().put("desktop", "idle")));
+        assertThat(presence.getOnlineStatus()).isEqualTo(OnlineStatus.IDLE);
+        assertThat(presence.getOnlineStatus(ClientType.DESKTOP)).isEqualTo(OnlineStatus.IDLE);
+        assertThat(presence.getActivities()).isSameAs(activities);
+
+        handle(presence("idle", "Minecraft", DataObject.empty().put("desktop", "idle")));
+        assertThat(presence.getActivities()).extracting(Activity::getName).containsExactly("Minecraft");
+    }
+
+    @Test
+    void testCustomStatusEmojiChange() {
+        handle(customStatus("\uD83D\uDD25"));
+        MemberPresenceImpl presence = presences.get(Constants.MINN_USER_ID);
+        assertThat(presence.getActivities())
+                .extracting(activity -> activity.getEmoji().getName())
+                .containsExactly("\uD83D\uDD25");
+
+        handle(customStatus("\uD83C\uDF19"));
+        assertThat(presence.getActivities())
+                .extracting(activity -> activity.getEmoji().getName())
+                .containsExactly("\uD83C\uDF19");
+    }
+
+    @Test
+    void testClientStatus() {
+        handle(presence("online", null, DataObject.empty().put("desktop", "online").put("mobile", "idle")));
+        MemberPresenceImpl presence = presences.get(Constants.MINN_USER_ID);
+
+        assertThat(presence.getActivities()).isEmpty();
+        assertThat(presence.getOnlineStatus(ClientType.DESKTOP)).isEqualTo(OnlineStatus.ONLINE);
+        assertThat(presence.getOnlineStatus(ClientType.MOBILE)).isEqualTo(OnlineStatus.IDLE);
+        assertThat(presence.getOnlineStatus(ClientType.WEB)).isEqualTo(OnlineStatus.OFFLINE);
+        assertThat(presence.getActiveClients()).containsExactlyInAnyOrder(ClientType.DESKTOP, ClientType.MOBILE);
+
+        handle(presence("dnd", null, DataObject.empty().put("web", "dnd")));
+        assertThat(presence.getOnlineStatus()).isEqualTo(OnlineStatus.DO_NOT_DISTURB);
+        assertThat(presence.getOnlineStatus(ClientType.DESKTOP)).isEqualTo(OnlineStatus.OFFLINE);
+        assertThat(presence.getActiveClients()).containsExactly(ClientType.WEB);
+
+        handle(presence("offline", null, DataObject.empty()));
+        assertThat(presences.get(Constants.MINN_USER_ID)).isNull();
+        assertThat(presence.getOnlineStatus()).isEqualTo(OnlineStatus.OFFLINE);
+        assertThat(presence.getActiveClients()).isEmpty();
+    }
+
+    private void handle(DataObject data) {
+        handler.handle(random.nextLong(), event("PRESENCE_UPDATE", data));
+    }
+
+    private static DataObject customStatus(String emoji) {
+        DataObject activity = DataObject.empty()
+                .put("name", "Custom Status")
+                .put("type", 4)
+                .put("state", "Busy")
+                .put("emoji", DataObject.empty().put("name", emoji));
+        return presence("online", null, DataObject.empty().put("desktop", "online"))
+                .put("activities", DataArray.empty().add(activity));
+    }
+
+    private static DataObject presence(String status, String activity, DataObject clientStatus) {
+        DataArray activities = DataArray.empty();
+        if (activity != null) {
+            activities.add(DataObject.empty().put("name", activity).put("type", 0));
+        }
+        return DataObject.empty()
+                .put("guild_id", Constants.GUILD_ID)
+                .put("user", DataObject.empty().put("id", Constants.MINN_USER_ID))
+                .put("status", status)
+                .put("activities", activities)
+                .put("client_status", clientStatus);
+    }
+}
@@ -0,0 +1,236 @@
+/*
+ * Copyright 2015 Austin Keener, Michael Ritter, Florian Spieß, and the JDA contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.dv8tion.jda.test.requests;
+
+import net.dv8tion.jda.api.GatewayEncoding;
+import net.dv8tion.jda.api.utils.Compression;
+import net.dv8tion.jda.api.utils.SessionController;
+import net.dv8tion.jda.api.utils.data.DataObject;
+import net.dv8tion.jda.internal.JDAImpl;
+import net.dv8tion.jda.internal.handle.EventCache;
+import net.dv8tion.jda.internal.handle.GuildSetupController;
+import net.dv8tion.jda.internal.handle.SocketHandler;
+import net.dv8tion.jda.internal.requests.WebSocketClient;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class DispatchLaneTest {
+    private static final long FIRST_GUILD = 1L << 22;
+    private static final long SECOND_GUILD = 2L << 22;
+
+    private JDAImpl api;
+    private TestClient client;
+
+    @BeforeEach
+    void setup() {
+        api = mock(JDAImpl.class);
+        when(api.getDispatchLanes()).thenReturn(2);
+        when(api.isRawEvents()).thenReturn(true);
+        when(api.getIdentifierString()).thenReturn("JDA");
+        when(api.getSessionController()).thenReturn(mock(SessionController.class));
+        when(api.getGuildSetupController()).thenReturn(mock(GuildSetupController.class));
+        when(api.getEventCache()).thenReturn(mock(EventCache.class));
+        client = new TestClient(api);
+    }
+
+    @AfterEach
+    void tearDown() {
+        client.shutdown(1000);
+    }
+
+    @Test
+    void testGuildEventsKeepOrder() {
+        for (int i = 0; i < 100; i++) {
+            client.receive("CHANNEL_UPDATE", i % 2 == 0 ? FIRST_GUILD : SECOND_GUILD, i);
+        }
+        client.shutdown(1000);
+
+        assertThat(client.handled).hasSize(100).allMatch(event -> !event.onMainThread);
+        assertThat(client.sequence(FIRST_GUILD)).isSorted().hasSize(50);
+        assertThat(client.sequence(SECOND_GUILD)).isSorted().hasSize(50);
+    }
+
+    @Test
+    void testUserEventsStayOnTheirLane() {
+        CountDownLatch blocked = new CountDownLatch(1);
+        client.blockOn(SECOND_GUILD, blocked);
+        client.receive("CHANNEL_UPDATE", SECOND_GUILD, 0);
+        client.receive("MESSAGE_CREATE", SECOND_GUILD, 1);
+
+        // Does not wait for the blocked lane of the other guild
+        client.receive("GUILD_MEMBER_UPDATE", FIRST_GUILD, 2);
+        client.receive("MESSAGE_CREATE", FIRST_GUILD, 3);
+        assertThat(client.sequence(SECOND_GUILD)).isEmpty();
+
+        blocked.countDown();
+        client.shutdown(1000);
+
+        assertThat(client.handled).hasSize(4).allMatch(event -> !event.onMainThread);
+        assertThat(client.sequence(FIRST_GUILD)).containsExactly(2L, 3L);
+        assertThat(client.sequence(SECOND_GUILD)).containsExactly(0L, 1L);
+    }
+
+    @Test
+    void testEventsWithoutGuildDoNotWait() {
+        CountDownLatch blocked = new CountDownLatch(1);
+        client.blockOn(FIRST_GUILD, blocked);
+        client.receive("CHANNEL_UPDATE", FIRST_GUILD, 0);
+
+        client.receive("USER_UPDATE", 0, 1);
+
+        assertThat(client.handled).extracting(event -> event.sequence).containsExactly(1L);
+        assertThat(client.handled.get(0).onMainThread).isTrue();
+        blocked.countDown();
+    }
+
+    @Test
+    void testGuildSetupEventsWaitForAllLanes() {
+        for (int i = 0; i < 20; i++) {
+            client.receive("CHANNEL_UPDATE", i % 2 == 0 ? FIRST_GUILD : SECOND_GUILD, i);
+        }
+
+        client.receive("GUILD_CREATE", SECOND_GUILD, 20);
+
+        assertThat(client.handled).hasSize(21);
+        assertThat(client.handled.get(20).sequence).isEqualTo(20);
+        assertThat(client.handled.get(20).onMainThread).isTrue();
+    }
+
+    @Test
+    void testShutdownHandlesQueuedEvents() {
+        AtomicInteger handledOnShutdown = new AtomicInteger(-1);
+        doAnswer(invocation -> {
+                    handledOnShutdown.set(client.handled.size());
+                    return null;
+                })
+                .when(api)
+                .shutdownInternals(any());
+        client.delayMillis = 5;
+        for (int i = 0; i < 20; i++) {
+            client.receive("CHANNEL_UPDATE", FIRST_GUILD, i);
+        }
+
+        client.shutdown(1000);
+
+        assertThat(handledOnShutdown).hasValue(20);
+        assertThat(client.sequence(FIRST_GUILD)).isSorted().hasSize(20);
+    }
+
+    @Test
+    void testSkippedPayloadsTimeoutEventCache() {
+        EventCache eventCache = api.getEventCache();
+        when(api.getResponseTotal()).thenReturn(EventCache.TIMEOUT_AMOUNT);
+
+        client.receiveSkipped("PRESENCE_UPDATE");
+
+        assertThat(client.handled).isEmpty();
+        verify(eventCache).timeout(EventCache.TIMEOUT_AMOUNT);
+    }
+
+    static class Event {
+        final long guildId;
+        final long sequence;
+        final boolean onMainThread;
+
+        Event(long guildId, long sequence, boolean onMainThread) {
+            this.guildId = guildId;
+            this.sequence = sequence;
+            this.onMainThread = onMainThread;
+        }
+    }
+
+    static class TestClient extends WebSocketClient {
+        final List<Event> handled = Collections.synchronizedList(new ArrayList<>());
+        final Thread mainThread = Thread.currentThread();
+        volatile long blockedGuild;
+        volatile CountDownLatch blocked;
+        volatile long delayMillis;
+
+        TestClient(JDAImpl api) {
+            super(api, Compression.NONE, 0, GatewayEncoding.JSON);
+        }
+
+        void receive(String type, long guildId, long sequence) {
+            DataObject content = DataObject.empty().put("sequence", sequence);
+            if (guildId != 0) {
+                content.put("guild_id", guildId);
+            }
+            onDispatch(DataObject.empty().put("t", type).put("d", content));
+        }
+
+        void receiveSkipped(String type) {
+            onDispatch(DataObject.empty().put("t", type));
+        }
+
+        void blockOn(long guildId, CountDownLatch latch) {
+            blockedGuild = guildId;
+            blocked = latch;
+        }
+
+        void shutdown(int closeCode) {
+            onShutdown(closeCode);
+        }
+
+        List<Long> sequence(long guildId) {
+            List<Long> sequence = new ArrayList<>();
+            synchronized (handled) {
+                for (Event event : handled) {
+                    if (event.guildId == guildId) {
+                        sequence.add(event.sequence);
+                    }
+                }
+            }
+            return sequence;
+        }
+
+        @Override
+        protected void dispatch(
+                Map<String, SocketHandler> handlers,
+                DataObject raw,
+                String type,
+                DataObject content,
+                long responseTotal) {
+            long guildId = content.getUnsignedLong("guild_id", 0L);
+            CountDownLatch latch = blocked;
+            try {
+                if (latch != null && guildId == blockedGuild) {
+                    latch.await(10, TimeUnit.SECONDS);
+                }
+                Thread.sleep(delayMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            handled.add(new Event(guildId, content.getLong("sequence"), Thread.currentThread() == mainThread));
+        }
+    }
+}
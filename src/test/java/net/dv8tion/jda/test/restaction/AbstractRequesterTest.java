@@ -0,0 +1,124 @@
+/*
+ * Copyright 2015 Austin Keener, Michael Ritter, Florian Spieß, and the JDA contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.dv8tion.jda.test.restaction;
+
+import net.dv8tion.jda.api.requests.Request;
+import net.dv8tion.jda.api.requests.Response;
+import net.dv8tion.jda.api.requests.RestConfig;
+import net.dv8tion.jda.api.requests.RestRateLimiter;
+import net.dv8tion.jda.api.requests.Route;
+import net.dv8tion.jda.internal.JDAImpl;
+import net.dv8tion.jda.internal.requests.Requester;
+import net.dv8tion.jda.internal.requests.RestActionImpl;
+import net.dv8tion.jda.internal.utils.config.AuthorizationConfig;
+import okhttp3.MediaType;
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+import okhttp3.ResponseBody;
+import org.junit.jupiter.api.BeforeEach;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiFunction;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Runs a {@link Requester} against a stubbed http client, which responds with the number of the call and the request path.
+ * <br>Requests enqueued to the rate limiter are collected in {@link #queue} and only executed by the test.
+ */
+abstract class AbstractRequesterTest {
+    protected final AtomicInteger calls = new AtomicInteger();
+    protected final List<RestRateLimiter.Work> queue = new ArrayList<>();
+
+    protected JDAImpl jda;
+    protected RestRateLimiter rateLimiter;
+
+    @BeforeEach
+    final void setupRequester() {
+        OkHttpClient client = new OkHttpClient.Builder()
+                .addInterceptor(chain -> {
+                    int call = calls.incrementAndGet();
+                    String path = chain.request().url().encodedPath();
+                    return new okhttp3.Response.Builder()
+                            .request(chain.request())
+                            .protocol(Protocol.HTTP_1_1)
+                            .code(200)
+                            .message("OK")
+                            .body(ResponseBody.create(
+                                    "{\"call\":" + call + ",\"path\":\"" + path + "\"}",
+                                    MediaType.get("application/json")))
+                            .build();
+                })
+                .build();
+
+        jda = mock(JDAImpl.class);
+        when(jda.getHttpClient()).thenReturn(client);
+        when(jda.getCallbackPool()).thenReturn(new DirectExecutor());
+
+        rateLimiter = mock(RestRateLimiter.class);
+        doAnswer(invocation -> queue.add(invocation.getArgument(0)))
+                .when(rateLimiter)
+                .enqueue(any());
+    }
+
+    protected Requester newRequester(RestConfig config) {
+        return new Requester(jda, new AuthorizationConfig("token"), config, rateLimiter);
+    }
+
+    protected <T> Request<T> newRequest(
+            Route.CompiledRoute route, BiFunction<Response, Request<T>, T> handler, CompletableFuture<T> future) {
+        RestActionImpl<T> action = new RestActionImpl<>(jda, route, handler);
+        return new Request<>(
+                action, future::complete, future::completeExceptionally, null, true, null, null, 0, false, route, null);
+    }
+
+    protected static class DirectExecutor extends AbstractExecutorService {
+        @Override
+        public void execute(Runnable command) {
+            command.run();
+        }
+
+        @Override
+        public void shutdown() {}
+
+        @Override
+        public List<Runnable> shutdownNow() {
+            return new ArrayList<>();
+        }
+
+        @Override
+        public boolean isShutdown() {
+            return false;
+        }
+
+        @Override
+        public boolean isTerminated() {
+            return false;
+        }
+
+        @Override
+        public boolean awaitTermination(long timeout, TimeUnit unit) {
+            return true;
+        }
+    }
+}
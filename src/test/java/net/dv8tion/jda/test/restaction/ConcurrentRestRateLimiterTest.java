@@ -0,0 +1,307 @@
+/*
+ * Copyright 2015 Austin Keener, Michael Ritter, Florian Spieß, and the JDA contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.dv8tion.jda.test.restaction;
+
+import net.dv8tion.jda.api.JDA;
+import net.dv8tion.jda.api.requests.ConcurrentRestRateLimiter;
+import net.dv8tion.jda.api.requests.RestRateLimiter;
+import net.dv8tion.jda.api.requests.Route;
+import okhttp3.Headers;
+import okhttp3.HttpUrl;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.Response;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.function.Function;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+class ConcurrentRestRateLimiterTest {
+    private static final HttpUrl BASE_URL = HttpUrl.get("https://discord.com/api/v10/");
+    private static final int BUCKETS = 4096;
+    private static final int THREADS = 16;
+    private static final int REQUESTS_PER_THREAD = 2048;
+
+    private final JDA jda = mock(JDA.class);
+
+    private ScheduledExecutorService scheduler;
+    private ExecutorService elastic;
+    private ConcurrentRestRateLimiter rateLimiter;
+
+    @BeforeEach
+    void setup() {
+        scheduler = Executors.newScheduledThreadPool(4);
+        elastic = Executors.newCachedThreadPool();
+        rateLimiter = new ConcurrentRestRateLimiter(new RestRateLimiter.RateLimitConfig(
+                scheduler, elastic, RestRateLimiter.GlobalRateLimit.create(), true));
+    }
+
+    @AfterEach
+    void teardown() {
+        scheduler.shutdownNow();
+        elastic.shutdownNow();
+    }
+
+    @Test
+    void testManyBucketsFromManyThreads() throws Exception {
+        int total = THREADS * REQUESTS_PER_THREAD;
+        CountDownLatch done = new CountDownLatch(total);
+        AtomicIntegerArray running = new AtomicIntegerArray(BUCKETS);
+        AtomicIntegerArray executed = new AtomicIntegerArray(BUCKETS);
+        AtomicInteger overlapping = new AtomicInteger();
+
+        ExecutorService producers = Executors.newFixedThreadPool(THREADS);
+        CyclicBarrier start = new CyclicBarrier(THREADS);
+        try {
+            for (int t = 0; t < THREADS; t++) {
+                int offset = t;
+                producers.execute(() -> {
+                    await(start);
+                    for (int i = 0; i < REQUESTS_PER_THREAD; i++) {
+                        int channel = (i * THREADS + offset) % BUCKETS;
+                        rateLimiter.enqueue(new TestWork(channel, work -> {
+                            // Requests of the same bucket must never run concurrently
+                            if (running.incrementAndGet(channel) > 1) {
+                                overlapping.incrementAndGet();
+                            }
+                            executed.incrementAndGet(channel);
+                            running.decrementAndGet(channel);
+                            done.countDown();
+                            return null;
+                        }));
+                    }
+                });
+            }
+
+            assertThat(done.await(60, TimeUnit.SECONDS)).isTrue();
+        } finally {
+            producers.shutdownNow();
+        }
+
+        assertThat(overlapping).hasValue(0);
+        for (int i = 0; i < BUCKETS; i++) {
+            assertThat(executed.get(i)).isEqualTo(total / BUCKETS);
+        }
+
+        CompletableFuture<Void> stopped = new CompletableFuture<>();
+        rateLimiter.stop(false, () -> stopped.complete(null));
+        stopped.get(10, TimeUnit.SECONDS);
+        assertThat(rateLimiter.isStopped()).isTrue();
+    }
+
+    @Test
+    void testRateLimitedBucketDoesNotBlockOthers() throws Exception {
+        CountDownLatch limitedDone = new CountDownLatch(1);
+        CountDownLatch enqueued = new CountDownLatch(1);
+        rateLimiter.enqueue(new TestWork(0, work -> {
+            // Queue the next request behind this one, before the bucket hash is known
+            await(enqueued);
+            return response(work, "hash", 0, "60");
+        }));
+        TestWork blocked = new TestWork(0, work -> {
+            limitedDone.countDown();
+            return null;
+        });
+        rateLimiter.enqueue(blocked);
+        enqueued.countDown();
+
+        CountDownLatch others = new CountDownLatch(BUCKETS - 1);
+        for (int i = 1; i < BUCKETS; i++) {
+            rateLimiter.enqueue(new TestWork(i, work -> {
+                others.countDown();
+                return response(work, "hash", 5, "1");
+            }));
+        }
+
+        assertThat(others.await(30, TimeUnit.SECONDS)).isTrue();
+        assertThat(limitedDone.getCount()).isEqualTo(1);
+        assertThat(rateLimiter.cancelRequests()).isEqualTo(1);
+        assertThat(blocked.isCancelled()).isTrue();
+    }
+
+    @Test
+    void testAsyncRequestsDoNotPinThreads() throws Exception {
+        ExecutorService single = Executors.newSingleThreadExecutor();
+        try {
+            ConcurrentRestRateLimiter limiter = new ConcurrentRestRateLimiter(new RestRateLimiter.RateLimitConfig(
+                    scheduler, single, RestRateLimiter.GlobalRateLimit.create(), true));
+
+            BlockingQueue<Runnable> inFlight = new LinkedBlockingQueue<>();
+            CountDownLatch done = new CountDownLatch(BUCKETS * 2);
+            for (int i = 0; i < BUCKETS * 2; i++) {
+                limiter.enqueue(new TestWork(i % BUCKETS, work -> {
+                    done.countDown();
+                    return null;
+                }) {
+                    @Nonnull
+                    @Override
+                    public CompletableFuture<Response> executeAsync() {
+                        CompletableFuture<Response> future = new CompletableFuture<>();
+                        inFlight.add(() -> future.complete(execute()));
+                        return future;
+                    }
+                });
+            }
+
+            // Every bucket has one request in-flight at the same time, despite only having a single worker thread
+            List<Runnable> responses = new ArrayList<>();
+            for (int i = 0; i < BUCKETS; i++) {
+                Runnable response = inFlight.poll(10, TimeUnit.SECONDS);
+                assertThat(response).isNotNull();
+                responses.add(response);
+            }
+            assertThat(inFlight).isEmpty();
+            assertThat(done.getCount()).isEqualTo(BUCKETS * 2);
+
+            // Completing the responses continues with the next request of each bucket
+            responses.forEach(Runnable::run);
+            for (int i = 0; i < BUCKETS; i++) {
+                Runnable response = inFlight.poll(10, TimeUnit.SECONDS);
+                assertThat(response).isNotNull();
+                response.run();
+            }
+            assertThat(done.await(10, TimeUnit.SECONDS)).isTrue();
+        } finally {
+            single.shutdownNow();
+        }
+    }
+
+    @Test
+    void testAsyncErrorDoesNotStallBucket() throws Exception {
+        CompletableFuture<Response> failing = new CompletableFuture<>();
+        CountDownLatch inFlight = new CountDownLatch(1);
+        rateLimiter.enqueue(new TestWork(0, work -> null) {
+            @Nonnull
+            @Override
+            public CompletableFuture<Response> executeAsync() {
+                inFlight.countDown();
+                return failing;
+            }
+        });
+        CountDownLatch next = new CountDownLatch(1);
+        rateLimiter.enqueue(new TestWork(0, work -> {
+            next.countDown();
+            return null;
+        }));
+
+        assertThat(inFlight.await(10, TimeUnit.SECONDS)).isTrue();
+        failing.completeExceptionally(new Error("Expected failure"));
+        assertThat(next.await(10, TimeUnit.SECONDS)).isTrue();
+    }
+
+    private static void await(CyclicBarrier barrier) {
+        try {
+            barrier.await();
+        } catch (InterruptedException | BrokenBarrierException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static Response response(TestWork work, String hash, int remaining, String resetAfter) {
+        return new Response.Builder()
+                .request(new Request.Builder()
+                        .url(work.getRoute().toHttpUrl(BASE_URL))
+                        .build())
+                .protocol(Protocol.HTTP_1_1)
+                .code(200)
+                .message("OK")
+                .headers(Headers.of(
+                        "via", "1.1 google",
+                        RestRateLimiter.HASH_HEADER, hash,
+                        RestRateLimiter.REMAINING_HEADER, String.valueOf(remaining),
+                        RestRateLimiter.RESET_AFTER_HEADER, resetAfter))
+                .build();
+    }
+
+    private class TestWork implements RestRateLimiter.Work {
+        private final Route.CompiledRoute route;
+        private final Function<TestWork, Response> handler;
+        private volatile boolean done, cancelled;
+
+        TestWork(int channel, Function<TestWork, Response> handler) {
+            this.route = Route.Messages.SEND_MESSAGE.compile(String.valueOf(channel + 1));
+            this.handler = handler;
+        }
+
+        @Nonnull
+        @Override
+        public Route.CompiledRoute getRoute() {
+            return route;
+        }
+
+        @Nonnull
+        @Override
+        public JDA getJDA() {
+            return jda;
+        }
+
+        @Nullable
+        @Override
+        public Response execute() {
+            try {
+                return handler.apply(this);
+            } finally {
+                done = true;
+            }
+        }
+
+        @Override
+        public boolean isSkipped() {
+            return cancelled;
+        }
+
+        @Override
+        public boolean isDone() {
+            return done || cancelled;
+        }
+
+        @Override
+        public boolean isPriority() {
+            return false;
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return cancelled;
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+        }
+    }
+}
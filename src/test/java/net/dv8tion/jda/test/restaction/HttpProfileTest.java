@@ -0,0 +1,89 @@
+/*
+ * Copyright 2015 Austin Keener, Michael Ritter, Florian Spieß, and the JDA contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.dv8tion.jda.test.restaction;
+
+import com.sun.net.httpserver.HttpServer;
+import net.dv8tion.jda.api.requests.HttpProfile;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HttpProfileTest {
+    private HttpServer server;
+    private String url;
+
+    @BeforeEach
+    void setup() throws Exception {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/", exchange -> {
+            byte[] body = "{}".getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream stream = exchange.getResponseBody()) {
+                stream.write(body);
+            }
+        });
+        server.start();
+        url = "http://" + server.getAddress().getHostString() + ":" + server.getAddress().getPort() + "/";
+    }
+
+    @AfterEach
+    void teardown() {
+        server.stop(0);
+    }
+
+    @Test
+    void testSizedToShardCount() {
+        HttpProfile profile = HttpProfile.highThroughput();
+
+        OkHttpClient single = profile.newHttpClientBuilder(1).build();
+        assertThat(single.dispatcher().getMaxRequests()).isEqualTo(64);
+        assertThat(single.dispatcher().getMaxRequestsPerHost()).isEqualTo(64);
+
+        OkHttpClient sharded = profile.newHttpClientBuilder(200).build();
+        assertThat(sharded.dispatcher().getMaxRequests()).isEqualTo(800);
+        assertThat(sharded.dispatcher().getMaxRequestsPerHost()).isEqualTo(800);
+    }
+
+    @Test
+    void testConnectionsAreReused() throws Exception {
+        HttpProfile profile = HttpProfile.highThroughput();
+        OkHttpClient client = profile.newHttpClientBuilder(1).build();
+
+        for (int i = 0; i < 100; i++) {
+            try (Response response = client.newCall(new Request.Builder().url(url).build()).execute()) {
+                assertThat(response.code()).isEqualTo(200);
+                assertThat(response.body().string()).isEqualTo("{}");
+            }
+        }
+
+        HttpProfile.ConnectionStats stats = profile.getConnectionStats();
+        assertThat(stats.getCallCount()).isEqualTo(100);
+        assertThat(stats.getConnectionCount()).isEqualTo(1);
+        assertThat(stats.getReusedConnectionCount()).isEqualTo(99);
+        assertThat(stats.getReuseRatio()).isEqualTo(0.99);
+    }
+}
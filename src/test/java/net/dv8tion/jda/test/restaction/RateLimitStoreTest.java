@@ -0,0 +1,214 @@
+/*
+ * Copyright 2015 Austin Keener, Michael Ritter, Florian Spieß, and the JDA contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.dv8tion.jda.test.restaction;
+
+import net.dv8tion.jda.api.JDA;
+import net.dv8tion.jda.api.requests.RateLimitStore;
+import net.dv8tion.jda.api.requests.RestRateLimiter;
+import net.dv8tion.jda.api.requests.Route;
+import net.dv8tion.jda.api.requests.SequentialRestRateLimiter;
+import okhttp3.Headers;
+import okhttp3.HttpUrl;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.Response;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.function.Supplier;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+class RateLimitStoreTest {
+    private static final HttpUrl BASE_URL = HttpUrl.get("https://discord.com/api/v10/");
+    private static final Route.CompiledRoute ROUTE = Route.Messages.SEND_MESSAGE.compile("42");
+
+    private final JDA jda = mock(JDA.class);
+
+    private ScheduledExecutorService scheduler;
+    private Path file;
+
+    @BeforeEach
+    void setup() throws Exception {
+        scheduler = Executors.newScheduledThreadPool(2);
+        file = Files.createTempFile("ratelimits", ".json");
+        Files.delete(file);
+    }
+
+    @AfterEach
+    void teardown() throws Exception {
+        scheduler.shutdownNow();
+        Files.deleteIfExists(file);
+    }
+
+    @Test
+    void testSaveAndLoad() {
+        RateLimitStore store = RateLimitStore.fromFile(file);
+        store.setHash(Route.Messages.SEND_MESSAGE, "abc");
+        store.setLimit("abc", 5, 5000);
+        store.save();
+
+        RateLimitStore loaded = RateLimitStore.fromFile(file);
+        assertThat(loaded.getHash(Route.Messages.SEND_MESSAGE)).isEqualTo("abc");
+        assertThat(loaded.getHash(Route.Messages.EDIT_MESSAGE)).isNull();
+        assertThat(loaded.getLimit("abc")).isNotNull();
+        assertThat(loaded.getLimit("abc").getLimit()).isEqualTo(5);
+        assertThat(loaded.getLimit("abc").getWindow()).isEqualTo(5000);
+    }
+
+    @Test
+    void testInvalidFileIsIgnored() throws Exception {
+        Files.write(file, "not json".getBytes());
+
+        RateLimitStore store = RateLimitStore.fromFile(file);
+        assertThat(store.getHash(Route.Messages.SEND_MESSAGE)).isNull();
+    }
+
+    @Test
+    void testLearnedLimitsArePersistedOnShutdown() throws Exception {
+        RateLimitStore store = RateLimitStore.fromFile(file);
+        SequentialRestRateLimiter rateLimiter = newRateLimiter(store, false);
+
+        CountDownLatch done = new CountDownLatch(1);
+        rateLimiter.enqueue(new TestWork(() -> response("abc", 5, 4, "2.5")));
+        // Requests of one bucket run in sequence, so the first response has been handled once this runs
+        rateLimiter.enqueue(new TestWork(() -> {
+            done.countDown();
+            return null;
+        }));
+        assertThat(done.await(10, TimeUnit.SECONDS)).isTrue();
+
+        CompletableFuture<Void> stopped = new CompletableFuture<>();
+        rateLimiter.stop(true, () -> stopped.complete(null));
+        stopped.get(10, TimeUnit.SECONDS);
+
+        RateLimitStore loaded = RateLimitStore.fromFile(file);
+        assertThat(loaded.getHash(Route.Messages.SEND_MESSAGE)).isEqualTo("abc");
+        assertThat(loaded.getLimit("abc")).isNotNull();
+        assertThat(loaded.getLimit("abc").getLimit()).isEqualTo(5);
+        assertThat(loaded.getLimit("abc").getWindow()).isEqualTo(2500);
+    }
+
+    @Test
+    void testPacingSpreadsRequests() throws Exception {
+        SequentialRestRateLimiter rateLimiter = newRateLimiter(RateLimitStore.create(), true);
+
+        int count = 4;
+        List<Long> times = new CopyOnWriteArrayList<>();
+        CountDownLatch done = new CountDownLatch(count);
+        for (int i = 0; i < count; i++) {
+            int remaining = count - 1 - i;
+            rateLimiter.enqueue(new TestWork(() -> {
+                times.add(System.nanoTime());
+                done.countDown();
+                // Every request consumes one of 4 requests in a window of 400 ms
+                return response("abc", count, remaining, String.valueOf(0.1 * (remaining + 1)));
+            }));
+        }
+        assertThat(done.await(10, TimeUnit.SECONDS)).isTrue();
+
+        for (int i = 1; i < count; i++) {
+            long gap = TimeUnit.NANOSECONDS.toMillis(times.get(i) - times.get(i - 1));
+            assertThat(gap).isGreaterThanOrEqualTo(90);
+        }
+    }
+
+    private SequentialRestRateLimiter newRateLimiter(RateLimitStore store, boolean pacing) {
+        return new SequentialRestRateLimiter(new RestRateLimiter.RateLimitConfig(
+                scheduler, scheduler, RestRateLimiter.GlobalRateLimit.create(), true, store, pacing));
+    }
+
+    private static Response response(String hash, int limit, int remaining, String resetAfter) {
+        return new Response.Builder()
+                .request(new Request.Builder().url(ROUTE.toHttpUrl(BASE_URL)).build())
+                .protocol(Protocol.HTTP_1_1)
+                .code(200)
+                .message("OK")
+                .headers(Headers.of(
+                        "via", "1.1 google",
+                        RestRateLimiter.HASH_HEADER, hash,
+                        RestRateLimiter.LIMIT_HEADER, String.valueOf(limit),
+                        RestRateLimiter.REMAINING_HEADER, String.valueOf(remaining),
+                        RestRateLimiter.RESET_AFTER_HEADER, resetAfter))
+                .build();
+    }
+
+    private class TestWork implements RestRateLimiter.Work {
+        private final Supplier<Response> handler;
+        private volatile boolean done, cancelled;
+
+        TestWork(Supplier<Response> handler) {
+            this.handler = handler;
+        }
+
+        @Nonnull
+        @Override
+        public Route.CompiledRoute getRoute() {
+            return ROUTE;
+        }
+
+        @Nonnull
+        @Override
+        public JDA getJDA() {
+            return jda;
+        }
+
+        @Nullable
+        @Override
+        public Response execute() {
+            try {
+                return handler.get();
+            } finally {
+                done = true;
+            }
+        }
+
+        @Override
+        public boolean isSkipped() {
+            return cancelled;
+        }
+
+        @Override
+        public boolean isDone() {
+            return done || cancelled;
+        }
+
+        @Override
+        public boolean isPriority() {
+            return false;
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return cancelled;
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+        }
+    }
+}
@@ -0,0 +1,107 @@
+/*
+ * Copyright 2015 Austin Keener, Michael Ritter, Florian Spieß, and the JDA contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.dv8tion.jda.test.restaction;
+
+import net.dv8tion.jda.api.requests.Request;
+import net.dv8tion.jda.api.requests.RestConfig;
+import net.dv8tion.jda.api.requests.RestRateLimiter;
+import net.dv8tion.jda.api.requests.Route;
+import net.dv8tion.jda.internal.requests.Requester;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RequestCoalescingTest extends AbstractRequesterTest {
+    @Test
+    void testIdenticalRequestsShareResponse() throws Exception {
+        Requester requester = newRequester(true);
+        List<CompletableFuture<String>> results = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            results.add(request(requester, Route.Users.GET_USER.compile("42")));
+        }
+        CompletableFuture<String> other = request(requester, Route.Users.GET_USER.compile("43"));
+
+        assertThat(queue).hasSize(2);
+        queue.forEach(RestRateLimiter.Work::execute);
+
+        assertThat(calls).hasValue(2);
+        for (CompletableFuture<String> result : results) {
+            assertThat(result.get(1, TimeUnit.SECONDS)).isEqualTo("/api/v10/users/42");
+        }
+        assertThat(other.get(1, TimeUnit.SECONDS)).isEqualTo("/api/v10/users/43");
+
+        // Once completed, identical requests are sent again
+        request(requester, Route.Users.GET_USER.compile("42"));
+        assertThat(queue).hasSize(3);
+    }
+
+    @Test
+    void testQueryParametersAreNotCoalesced() {
+        Requester requester = newRequester(true);
+        Route.CompiledRoute route = Route.Messages.GET_MESSAGE_HISTORY.compile("42");
+        request(requester, route.withQueryParams("limit", "1"));
+        request(requester, route.withQueryParams("limit", "2"));
+
+        assertThat(queue).hasSize(2);
+    }
+
+    @Test
+    void testCancelledLeaderIsReplaced() throws Exception {
+        Requester requester = newRequester(true);
+        Route.CompiledRoute route = Route.Users.GET_USER.compile("42");
+        CompletableFuture<String> cancelled = new CompletableFuture<>();
+        Request<String> leader = newRequest(route, cancelled);
+        requester.request(leader);
+        CompletableFuture<String> follower = request(requester, route);
+        leader.cancel();
+
+        assertThat(queue).hasSize(1);
+        queue.get(0).execute();
+
+        assertThat(calls).hasValue(1);
+        assertThat(cancelled).isCompletedExceptionally();
+        assertThat(follower.get(1, TimeUnit.SECONDS)).isEqualTo("/api/v10/users/42");
+    }
+
+    @Test
+    void testDisabledByDefault() {
+        Requester requester = newRequester(false);
+        request(requester, Route.Users.GET_USER.compile("42"));
+        request(requester, Route.Users.GET_USER.compile("42"));
+
+        assertThat(queue).hasSize(2);
+    }
+
+    private Requester newRequester(boolean coalescing) {
+        return newRequester(new RestConfig().setRequestCoalescing(coalescing));
+    }
+
+    private CompletableFuture<String> request(Requester requester, Route.CompiledRoute route) {
+        CompletableFuture<String> future = new CompletableFuture<>();
+        requester.request(newRequest(route, future));
+        return future;
+    }
+
+    private Request<String> newRequest(Route.CompiledRoute route, CompletableFuture<String> future) {
+        return newRequest(route, (response, request) -> response.getObject().getString("path"), future);
+    }
+}
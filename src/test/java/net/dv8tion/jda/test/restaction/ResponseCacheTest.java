@@ -0,0 +1,125 @@
+/*
+ * Copyright 2015 Austin Keener, Michael Ritter, Florian Spieß, and the JDA contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.dv8tion.jda.test.restaction;
+
+import net.dv8tion.jda.api.requests.RestConfig;
+import net.dv8tion.jda.api.requests.RestRateLimiter;
+import net.dv8tion.jda.api.requests.Route;
+import net.dv8tion.jda.api.utils.data.DataObject;
+import net.dv8tion.jda.internal.requests.Requester;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+class ResponseCacheTest extends AbstractRequesterTest {
+    @Test
+    void testCachedResponseIsReused() throws Exception {
+        Requester requester = newRequester(Route.Users.GET_USER, TimeUnit.MINUTES.toMillis(1));
+        assertThat(execute(requester, Route.Users.GET_USER.compile("42"))).isEqualTo(1);
+        assertThat(execute(requester, Route.Users.GET_USER.compile("42"))).isEqualTo(1);
+        assertThat(execute(requester, Route.Users.GET_USER.compile("43"))).isEqualTo(2);
+
+        assertThat(calls).hasValue(2);
+    }
+
+    @Test
+    void testUncachedRoutesAreRequested() throws Exception {
+        Requester requester = newRequester(Route.Users.GET_USER, TimeUnit.MINUTES.toMillis(1));
+        Route.CompiledRoute route = Route.Guilds.GET_GUILD.compile("42");
+        assertThat(execute(requester, route)).isEqualTo(1);
+        assertThat(execute(requester, route)).isEqualTo(2);
+    }
+
+    @Test
+    void testExpiredResponseIsRequested() throws Exception {
+        Requester requester = newRequester(Route.Users.GET_USER, 1);
+        assertThat(execute(requester, Route.Users.GET_USER.compile("42"))).isEqualTo(1);
+        Thread.sleep(10);
+        assertThat(execute(requester, Route.Users.GET_USER.compile("42"))).isEqualTo(2);
+    }
+
+    @Test
+    void testGatewayEventInvalidatesResponse() throws Exception {
+        Requester requester = newRequester(Route.Messages.GET_MESSAGE, TimeUnit.MINUTES.toMillis(1));
+        Route.CompiledRoute route = Route.Messages.GET_MESSAGE.compile("1", "2");
+        assertThat(execute(requester, route)).isEqualTo(1);
+
+        requester.invalidateCachedResponses(
+                "MESSAGE_UPDATE", DataObject.empty().put("channel_id", "1").put("id", "3"));
+        assertThat(execute(requester, route)).isEqualTo(1);
+
+        requester.invalidateCachedResponses(
+                "MESSAGE_UPDATE", DataObject.empty().put("channel_id", "1").put("id", "2"));
+        assertThat(execute(requester, route)).isEqualTo(2);
+    }
+
+    @Test
+    void testModificationInvalidatesResponse() throws Exception {
+        Requester requester = newRequester(Route.Roles.GET_ROLE, TimeUnit.MINUTES.toMillis(1));
+        Route.CompiledRoute route = Route.Roles.GET_ROLE.compile("1", "2");
+        assertThat(execute(requester, route)).isEqualTo(1);
+        assertThat(execute(requester, route)).isEqualTo(1);
+
+        assertThat(execute(requester, Route.Roles.MODIFY_ROLE.compile("1", "2"))).isEqualTo(2);
+        assertThat(execute(requester, route)).isEqualTo(3);
+    }
+
+    @Test
+    void testCachedResponseIsHandledOnCallbackPool() throws Exception {
+        Requester requester = newRequester(Route.Users.GET_USER, TimeUnit.MINUTES.toMillis(1));
+        Route.CompiledRoute route = Route.Users.GET_USER.compile("42");
+        assertThat(execute(requester, route)).isEqualTo(1);
+
+        ExecutorService callbackPool = Executors.newSingleThreadExecutor();
+        try {
+            when(jda.getCallbackPool()).thenReturn(callbackPool);
+            CompletableFuture<Thread> handler = new CompletableFuture<>();
+            requester.request(newRequest(
+                    route,
+                    (response, request) -> {
+                        handler.complete(Thread.currentThread());
+                        return response.getObject().getInt("call");
+                    },
+                    new CompletableFuture<>()));
+
+            assertThat(handler.get(1, TimeUnit.SECONDS)).isNotSameAs(Thread.currentThread());
+            assertThat(calls).hasValue(1);
+        } finally {
+            callbackPool.shutdownNow();
+        }
+    }
+
+    private Requester newRequester(Route route, long ttl) {
+        return newRequester(new RestConfig().setResponseCacheTtl(route, ttl, TimeUnit.MILLISECONDS));
+    }
+
+    private int execute(Requester requester, Route.CompiledRoute route) throws Exception {
+        CompletableFuture<Integer> future = new CompletableFuture<>();
+        requester.request(newRequest(route, (response, request) -> response.getObject().getInt("call"), future));
+
+        new ArrayList<>(queue).forEach(RestRateLimiter.Work::execute);
+        queue.clear();
+        return future.get(1, TimeUnit.SECONDS);
+    }
+}
@@ -0,0 +1,170 @@
+/*
+ * Copyright 2015 Austin Keener, Michael Ritter, Florian Spieß, and the JDA contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.dv8tion.jda.test.restaction;
+
+import net.dv8tion.jda.api.entities.BulkBanResponse;
+import net.dv8tion.jda.api.entities.Guild;
+import net.dv8tion.jda.api.entities.UserSnowflake;
+import net.dv8tion.jda.api.requests.RestAction;
+import net.dv8tion.jda.api.requests.RestBatch;
+import net.dv8tion.jda.api.requests.Route;
+import net.dv8tion.jda.api.requests.restaction.AuditableRestAction;
+import net.dv8tion.jda.api.utils.Result;
+import net.dv8tion.jda.internal.requests.RestActionImpl;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+class RestBatchTest {
+    private final List<Consumer<Boolean>> inFlight = new ArrayList<>();
+
+    @Test
+    void testConcurrencyIsBounded() {
+        RestBatch<Integer> batch = new RestBatch<Integer>().setConcurrency(5);
+        List<Result<Integer>> results = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            batch.add(action(Route.Messages.SEND_MESSAGE.compile(String.valueOf(i)), i));
+        }
+        CompletableFuture<Void> future = batch.onResult((action, result) -> results.add(result)).execute();
+
+        assertThat(inFlight).hasSize(5);
+        while (!inFlight.isEmpty()) {
+            assertThat(batch.getInFlight()).isLessThanOrEqualTo(5);
+            inFlight.remove(0).accept(true);
+        }
+
+        assertThat(future).isDone();
+        assertThat(results).hasSize(50).allMatch(Result::isSuccess);
+        assertThat(batch.getCompleted()).isEqualTo(50);
+        assertThat(batch.getFailed()).isZero();
+    }
+
+    @Test
+    void testSameBucketIsSequential() {
+        RestBatch<Integer> batch = new RestBatch<>();
+        for (int i = 0; i < 3; i++) {
+            batch.add(action(Route.Messages.SEND_MESSAGE.compile("1"), i));
+            batch.add(action(Route.Messages.SEND_MESSAGE.compile("2"), i));
+        }
+        CompletableFuture<Void> future = batch.execute();
+
+        for (int i = 0; i < 3; i++) {
+            assertThat(inFlight).hasSize(2);
+            inFlight.remove(0).accept(true);
+            inFlight.remove(0).accept(false);
+        }
+
+        assertThat(future).isDone();
+        assertThat(batch.getCompleted()).isEqualTo(6);
+        assertThat(batch.getFailed()).isEqualTo(3);
+    }
+
+    @Test
+    void testImmediateCompletion() {
+        RestBatch<Integer> batch = new RestBatch<>();
+        for (int i = 0; i < 10_000; i++) {
+            batch.add(immediateAction(i));
+        }
+
+        assertThat(batch.execute()).isDone();
+        assertThat(batch.getCompleted()).isEqualTo(10_000);
+    }
+
+    @Test
+    void testCancelPending() {
+        RestBatch<Integer> batch = new RestBatch<Integer>().setConcurrency(1);
+        List<Result<Integer>> results = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            batch.add(action(Route.Messages.SEND_MESSAGE.compile(String.valueOf(i)), i));
+        }
+        CompletableFuture<Void> future = batch.onResult((action, result) -> results.add(result)).execute();
+
+        assertThat(batch.cancel()).isEqualTo(9);
+        assertThat(future).isNotDone();
+        inFlight.remove(0).accept(true);
+
+        assertThat(future).isDone();
+        assertThat(results).hasSize(10);
+        assertThat(results.stream().filter(Result::isFailure))
+                .hasSize(9)
+                .allMatch(result -> result.getFailure() instanceof CancellationException);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testBanUsesBulkEndpoint() {
+        Guild guild = mock(Guild.class);
+        List<Integer> sizes = new ArrayList<>();
+        when(guild.ban(anyCollection(), any(Duration.class))).thenAnswer(invocation -> {
+            sizes.add(invocation.getArgument(0, Collection.class).size());
+            return mock(AuditableRestAction.class);
+        });
+
+        List<UserSnowflake> users = new ArrayList<>();
+        for (int i = 1; i <= 450; i++) {
+            users.add(UserSnowflake.fromId(i));
+        }
+        RestBatch<BulkBanResponse> batch = RestBatch.ban(guild, users, Duration.ZERO);
+
+        assertThat(sizes).containsExactly(200, 200, 50);
+        assertThat(batch.getTotal()).isEqualTo(3);
+    }
+
+    @SuppressWarnings("unchecked")
+    private RestAction<Integer> action(Route.CompiledRoute route, int value) {
+        RestActionImpl<Integer> action = mock(RestActionImpl.class);
+        when(action.getRoute()).thenReturn(route);
+        doAnswer(invocation -> {
+                    Consumer<Integer> success = invocation.getArgument(0);
+                    Consumer<Throwable> failure = invocation.getArgument(1);
+                    inFlight.add(succeed -> {
+                        if (succeed) {
+                            success.accept(value);
+                        } else {
+                            failure.accept(new IllegalStateException());
+                        }
+                    });
+                    return null;
+                })
+                .when(action)
+                .queue(any(), any());
+        return action;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static RestAction<Integer> immediateAction(int value) {
+        RestAction<Integer> action = mock(RestAction.class);
+        doAnswer(invocation -> {
+                    invocation.<Consumer<Integer>>getArgument(0).accept(value);
+                    return null;
+                })
+                .when(action)
+                .queue(any(), any());
+        return action;
+    }
+}
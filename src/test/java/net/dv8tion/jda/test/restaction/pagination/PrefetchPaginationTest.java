@@ -0,0 +1,175 @@
+/*
+ * Copyright 2015 Austin Keener, Michael Ritter, Florian Spieß, and the JDA contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.dv8tion.jda.test.restaction.pagination;
+
+import net.dv8tion.jda.api.requests.Route;
+import net.dv8tion.jda.api.requests.restaction.pagination.PaginationAction;
+import net.dv8tion.jda.internal.JDAImpl;
+import net.dv8tion.jda.internal.requests.restaction.pagination.PaginationActionImpl;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.CompletionException;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import javax.annotation.Nonnull;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.mockito.Mockito.mock;
+
+class PrefetchPaginationTest {
+    @Test
+    void testPrefetchIsBounded() {
+        FakePaginationAction action = new FakePaginationAction();
+        try (Stream<Long> stream = action.prefetchStream(2)) {
+            Iterator<Long> iterator = stream.iterator();
+            assertThat(action.inFlight).hasSize(1);
+
+            action.respond(1, 2);
+            // The next page is requested before the first page is consumed
+            assertThat(action.inFlight).hasSize(1);
+            action.respond(3, 4);
+            // The buffer is full, no further requests are made
+            assertThat(action.inFlight).isEmpty();
+
+            assertThat(iterator.next()).isEqualTo(1);
+            assertThat(action.inFlight).hasSize(1);
+            assertThat(iterator.next()).isEqualTo(2);
+
+            action.respond(5);
+            assertThat(action.inFlight).isEmpty();
+            assertThat(iterator.next()).isEqualTo(3);
+            assertThat(action.inFlight).hasSize(1);
+            action.respond();
+            assertThat(iterator.next()).isEqualTo(4);
+
+            assertThat(iterator.next()).isEqualTo(5);
+            assertThat(iterator.hasNext()).isFalse();
+            assertThat(action.inFlight).isEmpty();
+            assertThat(action.requests).isEqualTo(4);
+        }
+    }
+
+    @Test
+    void testWaitsForNextPage() throws InterruptedException {
+        FakePaginationAction action = new FakePaginationAction();
+        Thread responder = new Thread(() -> {
+            for (long i = 0; i < 10; i++) {
+                action.await().accept(i == 9 ? Collections.emptyList() : Arrays.asList(i * 2, i * 2 + 1));
+            }
+        });
+        responder.start();
+
+        try (Stream<Long> stream = action.prefetchStream(1)) {
+            assertThat(stream.collect(Collectors.toList())).hasSize(18).isSorted();
+        }
+        responder.join();
+    }
+
+    @Test
+    void testCloseStopsPrefetching() {
+        FakePaginationAction action = new FakePaginationAction();
+        Stream<Long> stream = action.prefetchStream(3);
+        Iterator<Long> iterator = stream.iterator();
+        action.respond(1);
+        assertThat(iterator.next()).isEqualTo(1);
+
+        stream.close();
+        action.respond(2);
+
+        assertThat(action.inFlight).isEmpty();
+        assertThat(iterator.hasNext()).isFalse();
+    }
+
+    @Test
+    void testFailureIsPropagated() {
+        FakePaginationAction action = new FakePaginationAction();
+        Iterator<Long> iterator = action.prefetchStream(1).iterator();
+        action.failures.remove().accept(new IOException("Connection reset"));
+
+        assertThatExceptionOfType(CompletionException.class)
+                .isThrownBy(iterator::hasNext)
+                .withCauseInstanceOf(IOException.class);
+    }
+
+    @Test
+    void testInvalidPrefetch() {
+        assertThatIllegalArgumentException().isThrownBy(() -> new FakePaginationAction().prefetchStream(0));
+    }
+
+    interface LongPaginationAction extends PaginationAction<Long, LongPaginationAction> {}
+
+    static class FakePaginationAction extends PaginationActionImpl<Long, LongPaginationAction>
+            implements LongPaginationAction {
+        private final Queue<Consumer<? super List<Long>>> inFlight = new ArrayDeque<>();
+        private final Queue<Consumer<? super Throwable>> failures = new ArrayDeque<>();
+        private int requests;
+
+        FakePaginationAction() {
+            super(mock(JDAImpl.class), Route.Messages.GET_MESSAGE_HISTORY.compile("1"), 1, 100, 100);
+        }
+
+        @Override
+        public synchronized void queue(Consumer<? super List<Long>> success, Consumer<? super Throwable> failure) {
+            requests++;
+            inFlight.add(success);
+            failures.add(failure);
+            notifyAll();
+        }
+
+        synchronized Consumer<? super List<Long>> await() {
+            while (inFlight.isEmpty()) {
+                try {
+                    wait();
+                } catch (InterruptedException e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+            failures.remove();
+            return inFlight.remove();
+        }
+
+        void respond(long... ids) {
+            Consumer<? super List<Long>> callback;
+            synchronized (this) {
+                failures.remove();
+                callback = inFlight.remove();
+            }
+            List<Long> page = new ArrayList<>();
+            for (long id : ids) {
+                page.add(id);
+            }
+            callback.accept(page);
+        }
+
+        @Override
+        protected long getKey(Long it) {
+            return it;
+        }
+
+        @Nonnull
+        @Override
+        public LongPaginationAction order(@Nonnull PaginationOrder order) {
+            return this;
+        }
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright 2015 Austin Keener, Michael Ritter, Florian Spieß, and the JDA contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.dv8tion.jda.test.util;
+
+import net.dv8tion.jda.api.utils.data.DataObject;
+import net.dv8tion.jda.internal.utils.SerializationUtil;
+import net.dv8tion.jda.internal.utils.data.LazyJsonMap;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+
+import javax.annotation.Nonnull;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class GatewayPayloadParsingTest {
+    private static final SerializationUtil.GatewayPayloadFilter FILTER = new SerializationUtil.GatewayPayloadFilter() {
+        @Override
+        public boolean isSkipped(@Nonnull String type) {
+            return type.equals("TYPING_START");
+        }
+
+        @Override
+        public Set<String> getSkippedFields(@Nonnull String type) {
+            return type.equals("PRESENCE_UPDATE") ? Collections.singleton("activities") : null;
+        }
+    };
+
+    @Test
+    void testSkipsPayload() {
+        Map<String, Object> payload =
+                parse("{\"op\":0,\"s\":42,\"t\":\"TYPING_START\",\"d\":{\"user_id\":\"1\",\"member\":{\"roles\":[]}}}");
+
+        assertThat(payload).containsEntry("op", 0).containsEntry("s", 42).containsEntry("t", "TYPING_START");
+        assertThat(payload).doesNotContainKey("d");
+    }
+
+    @Test
+    void testSkipsFields() {
+        Map<String, Object> payload = parse("{\"op\":0,\"t\":\"PRESENCE_UPDATE\",\"s\":1,"
+                + "\"d\":{\"status\":\"online\",\"activities\":[{\"name\":\"test\"}],\"client_status\":null}}");
+
+        DataObject content = DataObject.fromJson(SerializationUtil.toJson(payload)).getObject("d");
+        assertThat(content.getString("status")).isEqualTo("online");
+        assertThat(content.hasKey("activities")).isFalse();
+        assertThat(content.hasKey("client_status")).isTrue();
+        assertThat(content.isNull("client_status")).isTrue();
+    }
+
+    @Test
+    void testKeepsOtherPayloads() {
+        String json = "{\"op\":0,\"t\":\"MESSAGE_CREATE\",\"s\":3,\"d\":{\"id\":\"1\",\"embeds\":[{\"title\":\"x\"}]}}";
+
+        assertThat(parse(json)).isEqualTo(DataObject.fromJson(json).toMap());
+    }
+
+    @Test
+    void testPayloadBeforeType() {
+        String json = "{\"d\":{\"user_id\":\"1\"},\"op\":0,\"t\":\"TYPING_START\",\"s\":4}";
+
+        assertThat(parse(json)).isEqualTo(DataObject.fromJson(json).toMap());
+    }
+
+    @Test
+    void testNonDispatch() {
+        String json = "{\"op\":10,\"d\":{\"heartbeat_interval\":41250},\"s\":null,\"t\":null}";
+
+        assertThat(parse(json)).isEqualTo(DataObject.fromJson(json).toMap());
+    }
+
+    @Test
+    void testWithoutFilter() {
+        String json = "{\"op\":0,\"t\":\"TYPING_START\",\"s\":5,\"d\":{\"user_id\":\"1\",\"member\":{\"roles\":[]}}}";
+        byte[] data = json.getBytes(StandardCharsets.UTF_8);
+
+        Map<String, Object> payload = SerializationUtil.fromGatewayJson(data, 0, data.length, null);
+
+        // Payloads without a filter can be exposed to the user, and are not decoded lazily
+        assertThat(payload).isEqualTo(DataObject.fromJson(json).toMap());
+        assertThat(payload.get("d")).isNotInstanceOf(LazyJsonMap.class);
+    }
+
+    private static Map<String, Object> parse(String json) {
+        byte[] data = ("  " + json + "  ").getBytes(StandardCharsets.UTF_8);
+        return SerializationUtil.fromGatewayJson(data, 2, data.length - 4, FILTER);
+    }
+}
@@ -0,0 +1,81 @@
+/*
+ * Copyright 2015 Austin Keener, Michael Ritter, Florian Spieß, and the JDA contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.dv8tion.jda.test.util;
+
+import net.dv8tion.jda.api.entities.Activity;
+import net.dv8tion.jda.api.entities.RichPresence;
+import net.dv8tion.jda.api.utils.cache.StringPool;
+import net.dv8tion.jda.api.utils.data.DataObject;
+import net.dv8tion.jda.internal.entities.EntityBuilder;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+class StringPoolTest {
+    @Test
+    void testDeduplication() {
+        StringPool pool = new StringPool(16);
+        String first = new String("Spotify");
+        String second = new String("Spotify");
+
+        assertThat(pool.get(first)).isSameAs(first);
+        assertThat(pool.get(second)).isSameAs(first);
+        assertThat(pool.get(null)).isNull();
+        assertThat(pool.getHitCount()).isEqualTo(1);
+        assertThat(pool.getMissCount()).isEqualTo(1);
+        assertThat(pool.getHitRate()).isEqualTo(0.5);
+    }
+
+    @Test
+    void testLongStringsAreNotPooled() {
+        StringPool pool = new StringPool(16);
+        String first = "a".repeat(StringPool.MAX_LENGTH + 1);
+        String second = "a".repeat(StringPool.MAX_LENGTH + 1);
+
+        assertThat(pool.get(first)).isSameAs(first);
+        assertThat(pool.get(second)).isSameAs(second);
+        assertThat(pool.getHitRate()).isEqualTo(0);
+    }
+
+    @Test
+    void testCapacity() {
+        assertThat(new StringPool(1000).getCapacity()).isEqualTo(1024);
+        assertThat(new StringPool(1024).getCapacity()).isEqualTo(1024);
+        assertThat(new StringPool().getCapacity()).isEqualTo(StringPool.DEFAULT_CAPACITY);
+        assertThatIllegalArgumentException().isThrownBy(() -> new StringPool(0));
+    }
+
+    @Test
+    void testActivityDeduplication() {
+        StringPool pool = new StringPool();
+        String json = "{\"type\":2,\"name\":\"Spotify\",\"details\":\"Song\",\"sync_id\":\"track\","
+                + "\"assets\":{\"large_image\":\"spotify:cover\",\"large_text\":\"Album\"}}";
+
+        RichPresence first = EntityBuilder.createActivity(DataObject.fromJson(json), pool).asRichPresence();
+        RichPresence second = EntityBuilder.createActivity(DataObject.fromJson(json), pool).asRichPresence();
+
+        assertThat(second.getName()).isSameAs(first.getName());
+        assertThat(second.getDetails()).isSameAs(first.getDetails());
+        assertThat(second.getSyncId()).isSameAs(first.getSyncId());
+        assertThat(second.getLargeImage().getKey()).isSameAs(first.getLargeImage().getKey());
+        assertThat(second.getLargeImage().getText()).isSameAs(first.getLargeImage().getText());
+
+        Activity withoutPool = EntityBuilder.createActivity(DataObject.fromJson(json));
+        assertThat(withoutPool.getName()).isEqualTo("Spotify").isNotSameAs(first.getName());
+    }
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright 2015 Austin Keener, Michael Ritter, Florian Spieß, and the JDA contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.dv8tion.jda.test.util;
+
+import net.dv8tion.jda.internal.utils.concurrent.VirtualThreads;
+import net.dv8tion.jda.internal.utils.config.ThreadingConfig;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class ThreadingConfigTest {
+    @Test
+    void testPlatformThreadsByDefault() {
+        ThreadingConfig config = new ThreadingConfig();
+        config.init(() -> "JDA");
+        try {
+            assertThat(config.getRateLimitElastic()).isInstanceOf(ThreadPoolExecutor.class);
+            assertThat(config.getCallbackPool()).isSameAs(ForkJoinPool.commonPool());
+        } finally {
+            config.shutdownNow();
+        }
+    }
+
+    @Test
+    void testVirtualThreadsFallBackOnUnsupportedRuntime() {
+        assumeTrue(!VirtualThreads.isSupported());
+
+        ThreadingConfig config = new ThreadingConfig();
+        config.setVirtualThreads(true);
+        config.init(() -> "JDA");
+        try {
+            assertThat(config.getRateLimitElastic()).isInstanceOf(ThreadPoolExecutor.class);
+            assertThat(config.getCallbackPool()).isSameAs(ForkJoinPool.commonPool());
+        } finally {
+            config.shutdownNow();
+        }
+    }
+
+    @Test
+    void testVirtualThreadsKeepExplicitPools() {
+        ExecutorService callbackPool = Executors.newSingleThreadExecutor();
+        ExecutorService elastic = Executors.newSingleThreadExecutor();
+        ThreadingConfig config = new ThreadingConfig();
+        config.setVirtualThreads(true);
+        config.setCallbackPool(callbackPool, false);
+        config.setRateLimitElastic(elastic, false);
+        config.init(() -> "JDA");
+        try {
+            assertThat(config.getCallbackPool()).isSameAs(callbackPool);
+            assertThat(config.getRateLimitElastic()).isSameAs(elastic);
+        } finally {
+            config.shutdownNow();
+            callbackPool.shutdownNow();
+            elastic.shutdownNow();
+        }
+    }
+
+    @Test
+    void testVirtualThreadsRunManyBlockingTasks() throws Exception {
+        assumeTrue(VirtualThreads.isSupported());
+
+        ThreadingConfig config = new ThreadingConfig();
+        config.setVirtualThreads(true);
+        config.init(() -> "JDA");
+        try {
+            int tasks = 10_000;
+            CountDownLatch started = new CountDownLatch(tasks);
+            CountDownLatch release = new CountDownLatch(1);
+            CountDownLatch finished = new CountDownLatch(tasks);
+            for (int i = 0; i < tasks; i++) {
+                config.getCallbackPool().execute(() -> {
+                    started.countDown();
+                    try {
+                        release.await();
+                    } catch (InterruptedException ignored) {
+                        return;
+                    }
+                    finished.countDown();
+                });
+            }
+
+            // All tasks block at the same time, which would require 10k platform threads otherwise
+            assertThat(started.await(30, TimeUnit.SECONDS)).isTrue();
+            release.countDown();
+            assertThat(finished.await(30, TimeUnit.SECONDS)).isTrue();
+            assertThat(config.getRateLimitElastic()).isNotInstanceOf(ThreadPoolExecutor.class);
+        } finally {
+            config.shutdownNow();
+        }
+    }
+}
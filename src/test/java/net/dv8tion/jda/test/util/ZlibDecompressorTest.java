@@ -0,0 +1,87 @@
+/*
+ * Copyright 2015 Austin Keener, Michael Ritter, Florian Spieß, and the JDA contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.dv8tion.jda.test.util;
+
+import net.dv8tion.jda.internal.utils.compress.ZlibDecompressor;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+class ZlibDecompressorTest {
+    private final Deflater deflater = new Deflater();
+
+    @Test
+    void testDecompressStream() throws DataFormatException {
+        ZlibDecompressor decompressor = new ZlibDecompressor(2048);
+
+        for (int i = 0; i < 10; i++) {
+            String payload = "{\"op\":0,\"s\":" + i + "}";
+            assertThat(decompressor.decompress(compress(payload))).asString(StandardCharsets.UTF_8).isEqualTo(payload);
+        }
+    }
+
+    @Test
+    void testDecompressLargeFrame() throws DataFormatException {
+        ZlibDecompressor decompressor = new ZlibDecompressor(2048);
+        String payload = "{\"name\":\"large\"}".repeat(1000);
+
+        ByteBuffer buffer = decompressor.decompressToBuffer(compress(payload));
+
+        assertThat(buffer).isNotNull();
+        assertThat(new String(buffer.array(), buffer.position(), buffer.remaining(), StandardCharsets.UTF_8))
+                .isEqualTo(payload);
+
+        // Following frames still work after the buffer was discarded
+        String small = "{\"op\":11}";
+        assertThat(decompressor.decompress(compress(small))).asString(StandardCharsets.UTF_8).isEqualTo(small);
+    }
+
+    @Test
+    void testDecompressSplitFrame() throws DataFormatException {
+        ZlibDecompressor decompressor = new ZlibDecompressor(2048);
+        String payload = "{\"split\":true}".repeat(100);
+        byte[] compressed = compress(payload);
+        int half = compressed.length / 2;
+
+        assertThat(decompressor.decompressToBuffer(Arrays.copyOfRange(compressed, 0, half))).isNull();
+        assertThat(decompressor.decompress(Arrays.copyOfRange(compressed, half, compressed.length)))
+                .asString(StandardCharsets.UTF_8)
+                .isEqualTo(payload);
+    }
+
+    @Test
+    void testMalformedFrame() {
+        ZlibDecompressor decompressor = new ZlibDecompressor(2048);
+        byte[] malformed = {1, 2, 3, 4, 0, 0, (byte) 0xFF, (byte) 0xFF};
+
+        assertThatExceptionOfType(DataFormatException.class).isThrownBy(() -> decompressor.decompress(malformed));
+    }
+
+    private byte[] compress(String payload) {
+        deflater.setInput(payload.getBytes(StandardCharsets.UTF_8));
+        byte[] buffer = new byte[payload.length() + 64];
+        int length = deflater.deflate(buffer, 0, buffer.length, Deflater.SYNC_FLUSH);
+        return Arrays.copyOf(buffer, length);
+    }
+}
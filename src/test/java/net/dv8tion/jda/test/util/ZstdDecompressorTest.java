@@ -0,0 +1,117 @@
+/*
+ * Copyright 2015 Austin Keener, Michael Ritter, Florian Spieß, and the JDA contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.dv8tion.jda.test.util;
+
+import com.github.luben.zstd.EndDirective;
+import com.github.luben.zstd.ZstdCompressCtx;
+import net.dv8tion.jda.internal.utils.compress.ZstdDecompressor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.DataFormatException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+class ZstdDecompressorTest {
+    private final ZstdCompressCtx compressor = new ZstdCompressCtx();
+
+    @AfterEach
+    void tearDown() {
+        compressor.close();
+    }
+
+    @Test
+    void testIsAvailable() {
+        assertThat(ZstdDecompressor.isAvailable()).isTrue();
+    }
+
+    @Test
+    void testDecompressStream() throws DataFormatException {
+        ZstdDecompressor decompressor = new ZstdDecompressor(2048);
+
+        for (int i = 0; i < 10; i++) {
+            String payload = "{\"op\":0,\"s\":" + i + "}";
+            assertThat(decompressor.decompress(compress(payload)))
+                    .asString(StandardCharsets.UTF_8)
+                    .isEqualTo(payload);
+        }
+
+        decompressor.shutdown();
+    }
+
+    @Test
+    void testDecompressLargeFrame() throws DataFormatException {
+        ZstdDecompressor decompressor = new ZstdDecompressor(2048);
+        String payload = "{\"name\":\"large\"}".repeat(1000);
+
+        ByteBuffer buffer = decompressor.decompressToBuffer(compress(payload));
+
+        assertThat(new String(buffer.array(), buffer.position(), buffer.remaining(), StandardCharsets.UTF_8))
+                .isEqualTo(payload);
+
+        String small = "{\"op\":11}";
+        assertThat(decompressor.decompress(compress(small)))
+                .asString(StandardCharsets.UTF_8)
+                .isEqualTo(small);
+
+        decompressor.shutdown();
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1000, 1023, 1024, 1025, 2048, 4096})
+    void testDecompressExactBufferCapacity(int length) throws DataFormatException {
+        ZstdDecompressor decompressor = new ZstdDecompressor(8192);
+        String payload = "a".repeat(length);
+
+        for (int i = 0; i < 3; i++) {
+            assertThat(decompressor.decompress(compress(payload)))
+                    .asString(StandardCharsets.UTF_8)
+                    .isEqualTo(payload);
+        }
+
+        decompressor.shutdown();
+    }
+
+    @Test
+    void testMalformedFrame() {
+        ZstdDecompressor decompressor = new ZstdDecompressor(2048);
+        byte[] malformed = {1, 2, 3, 4, 5, 6, 7, 8};
+
+        assertThatExceptionOfType(DataFormatException.class).isThrownBy(() -> decompressor.decompress(malformed));
+
+        decompressor.shutdown();
+    }
+
+    private byte[] compress(String payload) {
+        byte[] bytes = payload.getBytes(StandardCharsets.UTF_8);
+        ByteBuffer input = ByteBuffer.allocateDirect(bytes.length);
+        input.put(bytes).flip();
+        ByteBuffer output = ByteBuffer.allocateDirect(bytes.length + 128);
+        while (!compressor.compressDirectByteBufferStream(output, input, EndDirective.FLUSH)) {
+            // flush until everything was written
+        }
+        output.flip();
+        byte[] compressed = new byte[output.remaining()];
+        output.get(compressed);
+        return compressed;
+    }
+}